@@ -0,0 +1,88 @@
+package com.lifeline.openicu.ambulance.service;
+
+import com.lifeline.openicu.ambulance.dto.HospitalMatchDTO;
+import com.lifeline.openicu.benchmark.SyntheticHospitals;
+import com.lifeline.openicu.entity.Hospital;
+import com.lifeline.openicu.util.GeoUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Distance and ranking work done by AmbulanceRoutingService.findNearestHospital
+ * once the bounding-box query has returned its candidates.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = { "-Xms2g", "-Xmx2g" })
+public class NearestHospitalBenchmark {
+
+    private static final int QUERY_POINTS = 64;
+
+    @Param({ "1000", "30000", "300000" })
+    public int size;
+
+    // Half-width of the first findNearestHospital pass
+    @Param({ "1.0" })
+    public double boxDegrees;
+
+    private double[] latitudes;
+    private double[] longitudes;
+    private double[][] queries;
+    private List<List<Hospital>> boxes;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        List<Hospital> hospitals = SyntheticHospitals.generate(size, 42);
+        latitudes = hospitals.stream().mapToDouble(Hospital::getLatitude).toArray();
+        longitudes = hospitals.stream().mapToDouble(Hospital::getLongitude).toArray();
+
+        Random random = new Random(7);
+        queries = new double[QUERY_POINTS][];
+        boxes = new ArrayList<>(QUERY_POINTS);
+        for (int i = 0; i < QUERY_POINTS; i++) {
+            queries[i] = SyntheticHospitals.queryPoint(random);
+            boxes.add(SyntheticHospitals.inBox(hospitals, queries[i][0], queries[i][1], boxDegrees));
+        }
+    }
+
+    /**
+     * Distance from one request to every hospital in the dataset.
+     */
+    @Benchmark
+    public void haversineFullScan(Blackhole blackhole) {
+        double[] query = queries[next++ & (QUERY_POINTS - 1)];
+        for (int i = 0; i < latitudes.length; i++) {
+            blackhole.consume(GeoUtils.haversineKm(
+                    query[0], query[1], latitudes[i], longitudes[i]));
+        }
+    }
+
+    /**
+     * Distance, DTO creation and sort for the hospitals in one request's bounding box.
+     */
+    @Benchmark
+    public List<HospitalMatchDTO> rankCandidatesInBox() {
+        int index = next++ & (QUERY_POINTS - 1);
+        return AmbulanceRoutingService.rankByDistance(boxes.get(index), queries[index][0], queries[index][1]);
+    }
+}
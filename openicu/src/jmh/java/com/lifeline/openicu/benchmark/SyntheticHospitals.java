@@ -0,0 +1,128 @@
+package com.lifeline.openicu.benchmark;
+
+import com.lifeline.openicu.entity.Hospital;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Deterministic synthetic hospital directories for the JMH benchmarks.
+ *
+ * Most hospitals are scattered around Indian metro and district centres with
+ * a Gaussian spread, weighted roughly by population, and the rest are spread
+ * uniformly over the country's bounding box. That gives the dense-city /
+ * sparse-rural mix the bounding-box queries see on the real directory.
+ */
+public final class SyntheticHospitals {
+
+    // lat, lon, relative weight
+    private static final double[][] CENTRES = {
+            { 19.076, 72.878, 20 }, { 28.704, 77.102, 20 }, { 12.972, 77.595, 14 }, { 13.083, 80.271, 12 },
+            { 22.573, 88.364, 12 }, { 17.385, 78.487, 12 }, { 23.023, 72.571, 8 }, { 18.520, 73.857, 8 },
+            { 26.912, 75.787, 6 }, { 26.847, 80.947, 6 }, { 21.146, 79.088, 5 }, { 22.720, 75.858, 5 },
+            { 25.594, 85.138, 5 }, { 30.733, 76.779, 4 }, { 9.931, 76.267, 4 }, { 11.017, 76.956, 4 },
+            { 21.170, 72.831, 4 }, { 20.296, 85.825, 3 }, { 26.145, 91.736, 3 }, { 17.687, 83.218, 3 },
+            { 15.317, 75.714, 3 }, { 8.524, 76.936, 3 }, { 31.634, 74.872, 2 }, { 34.084, 74.797, 2 },
+            { 23.259, 77.413, 3 }, { 25.318, 82.974, 3 }, { 27.176, 78.008, 2 }, { 10.790, 78.705, 2 }
+    };
+    private static final double CITY_SHARE = 0.85;
+    private static final double CITY_SPREAD_DEGREES = 0.15;
+    private static final String[] STATES = { "Maharashtra", "Delhi", "Karnataka", "Tamil Nadu", "West Bengal",
+            "Telangana", "Gujarat", "Rajasthan", "Uttar Pradesh", "Kerala" };
+    private static final String[] CATEGORIES = { "Public", "Private", "Trust" };
+
+    private SyntheticHospitals() {
+    }
+
+    public static List<Hospital> generate(int size, long seed) {
+        Random random = new Random(seed);
+        double totalWeight = 0;
+        for (double[] centre : CENTRES) {
+            totalWeight += centre[2];
+        }
+
+        List<Hospital> hospitals = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            double lat;
+            double lon;
+            if (random.nextDouble() < CITY_SHARE) {
+                double[] centre = pickCentre(random, totalWeight);
+                lat = centre[0] + random.nextGaussian() * CITY_SPREAD_DEGREES;
+                lon = centre[1] + random.nextGaussian() * CITY_SPREAD_DEGREES;
+            } else {
+                lat = 8.0 + random.nextDouble() * 27.0;
+                lon = 68.0 + random.nextDouble() * 29.0;
+            }
+            hospitals.add(hospital(i + 1L, lat, lon, random));
+        }
+        return hospitals;
+    }
+
+    /**
+     * A query point near a weighted-random centre, as an ambulance request would be.
+     */
+    public static double[] queryPoint(Random random) {
+        double totalWeight = 0;
+        for (double[] centre : CENTRES) {
+            totalWeight += centre[2];
+        }
+        double[] centre = pickCentre(random, totalWeight);
+        return new double[] {
+                centre[0] + random.nextGaussian() * CITY_SPREAD_DEGREES,
+                centre[1] + random.nextGaussian() * CITY_SPREAD_DEGREES };
+    }
+
+    /**
+     * Hospitals inside a square box around a point, like the bounding-box query returns.
+     */
+    public static List<Hospital> inBox(List<Hospital> hospitals, double lat, double lon, double halfSizeDegrees) {
+        List<Hospital> inBox = new ArrayList<>();
+        for (Hospital hospital : hospitals) {
+            if (Math.abs(hospital.getLatitude() - lat) <= halfSizeDegrees
+                    && Math.abs(hospital.getLongitude() - lon) <= halfSizeDegrees) {
+                inBox.add(hospital);
+            }
+        }
+        return inBox;
+    }
+
+    private static double[] pickCentre(Random random, double totalWeight) {
+        double pick = random.nextDouble() * totalWeight;
+        for (double[] centre : CENTRES) {
+            pick -= centre[2];
+            if (pick <= 0) {
+                return centre;
+            }
+        }
+        return CENTRES[CENTRES.length - 1];
+    }
+
+    private static Hospital hospital(long id, double lat, double lon, Random random) {
+        String state = STATES[random.nextInt(STATES.length)];
+        Hospital hospital = new Hospital();
+        hospital.setId(id);
+        hospital.setName("Hospital " + id);
+        hospital.setAddress(id + " Main Road");
+        hospital.setPhoneNumber("0" + (1000000000L + id));
+        hospital.setEmail("contact" + id + "@hospital.example");
+        hospital.setLatitude(lat);
+        hospital.setLongitude(lon);
+        hospital.setLocation(String.format("%.5f, %.5f", lat, lon));
+        hospital.setHospitalCategory(CATEGORIES[random.nextInt(CATEGORIES.length)]);
+        hospital.setHospitalCareType(random.nextBoolean() ? "Hospital" : "Multi Speciality");
+        hospital.setDisciplineSystemsOfMedicine("Allopathic");
+        hospital.setState(state);
+        hospital.setDistrict(state + " District " + random.nextInt(30));
+        hospital.setPincode(String.valueOf(400000 + random.nextInt(300000)));
+        hospital.setEmergencyServices(random.nextInt(4) == 0 ? "Trauma, Burns" : "Trauma");
+        hospital.setSpecialties("General Medicine, Cardiology, Orthopaedics");
+        hospital.setFacilities("ICU, Ventilator, Blood Bank");
+        hospital.setTown("Town " + random.nextInt(500));
+        hospital.setNumberDoctor(5 + random.nextInt(200));
+        hospital.setTotalNumBeds(10 + random.nextInt(990));
+        hospital.setStateId(String.valueOf(state.hashCode() & 0xff));
+        hospital.setDistrictId(String.valueOf(random.nextInt(700)));
+        return hospital;
+    }
+}
@@ -0,0 +1,72 @@
+package com.lifeline.openicu.routing.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * GraphHopperCloudService.decodePolyline on encoded routes of city (~100
+ * points), regional (~1K) and long-haul (~10K) length.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PolylineDecodeBenchmark {
+
+    @Param({ "100", "1000", "10000" })
+    public int points;
+
+    private String encoded;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // Random walk with road-like steps of ~10-100 m
+        Random random = new Random(42);
+        double lat = 12.9716;
+        double lon = 77.5946;
+        StringBuilder out = new StringBuilder();
+        long previousLat = 0;
+        long previousLon = 0;
+        for (int i = 0; i < points; i++) {
+            lat += (random.nextDouble() - 0.3) * 0.001;
+            lon += (random.nextDouble() - 0.3) * 0.001;
+            long eLat = Math.round(lat * 1e5);
+            long eLon = Math.round(lon * 1e5);
+            encode(eLat - previousLat, out);
+            encode(eLon - previousLon, out);
+            previousLat = eLat;
+            previousLon = eLon;
+        }
+        encoded = out.toString();
+    }
+
+    @Benchmark
+    public List<double[]> decode() {
+        return GraphHopperCloudService.decodePolyline(encoded);
+    }
+
+    private static void encode(long delta, StringBuilder out) {
+        long value = delta < 0 ? ~(delta << 1) : delta << 1;
+        while (value >= 0x20) {
+            out.append((char) ((0x20 | (value & 0x1f)) + 63));
+            value >>= 5;
+        }
+        out.append((char) (value + 63));
+    }
+}
@@ -0,0 +1,98 @@
+package com.lifeline.openicu.service;
+
+import com.lifeline.openicu.benchmark.SyntheticHospitals;
+import com.lifeline.openicu.dto.NearbyHospitalRequest;
+import com.lifeline.openicu.entity.Hospital;
+import com.lifeline.openicu.repository.NearbyHospitalCandidate;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-row mapping costs of HospitalService: entity-to-DTO copying over a whole
+ * dataset, and the nearby-search filters applied to candidate rows before any
+ * hospital is loaded (the successor of parseHospitalFromRow).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = { "-Xms2g", "-Xmx2g" })
+public class HospitalMappingBenchmark {
+
+    @Param({ "1000", "30000", "300000" })
+    public int size;
+
+    private List<Hospital> hospitals;
+    private List<NearbyHospitalCandidate> candidates;
+    private NearbyHospitalRequest request;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        hospitals = SyntheticHospitals.generate(size, 42);
+        candidates = new ArrayList<>(size);
+        for (Hospital hospital : hospitals) {
+            candidates.add(new Candidate(hospital.getId(), hospital.getTotalNumBeds(),
+                    hospital.getHospitalCategory(), hospital.getEmergencyServices()));
+        }
+        request = new NearbyHospitalRequest(19.076, 72.878, 50.0, 100, "private", "burns");
+    }
+
+    @Benchmark
+    public void convertToDTO(Blackhole blackhole) {
+        for (Hospital hospital : hospitals) {
+            blackhole.consume(HospitalService.convertToDTO(hospital));
+        }
+    }
+
+    @Benchmark
+    public void filterNearbyCandidates(Blackhole blackhole) {
+        for (NearbyHospitalCandidate candidate : candidates) {
+            blackhole.consume(HospitalService.passesFilters(candidate, request));
+        }
+    }
+
+    private record Candidate(Long id, Integer totalNumBeds, String hospitalCategory, String emergencyServices)
+            implements NearbyHospitalCandidate {
+
+        @Override
+        public Long getId() {
+            return id;
+        }
+
+        @Override
+        public Double getDistance() {
+            return 0.0;
+        }
+
+        @Override
+        public Integer getTotalNumBeds() {
+            return totalNumBeds;
+        }
+
+        @Override
+        public String getHospitalCategory() {
+            return hospitalCategory;
+        }
+
+        @Override
+        public String getEmergencyServices() {
+            return emergencyServices;
+        }
+    }
+}
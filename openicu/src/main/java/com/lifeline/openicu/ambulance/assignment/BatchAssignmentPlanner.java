@@ -0,0 +1,167 @@
+package com.lifeline.openicu.ambulance.assignment;
+
+import com.lifeline.openicu.util.GeoUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.stream.IntStream;
+
+/**
+ * Assigns a batch of ambulances to hospital beds with the lowest total ETA.
+ *
+ * ETA is the straight-line estimate (distance at a constant speed, as in
+ * RoutingService.straightLine), so the cost is the Haversine distance in
+ * metres. Road routes for every ambulance/hospital pair would take
+ * n * candidates provider calls; routes are fetched only for the final
+ * assignment.
+ *
+ * Candidate pruning keeps the solve in milliseconds for hundreds of
+ * ambulances: each ambulance only gets an edge to its candidates-per-ambulance
+ * nearest hospitals within max-distance-km. Ambulances left unassigned have
+ * their list doubled and the batch is solved again, up to expansion-rounds
+ * times, which covers the surge case where the nearest hospitals are full.
+ *
+ * Hospitals are indexed by latitude once per batch. The latitude gap to a
+ * hospital is a lower bound on its distance, so each ambulance only scans
+ * outward through the band that can still beat its current candidates.
+ */
+@Component
+public class BatchAssignmentPlanner {
+
+    // Candidate keys pack the distance in metres above a 20-bit hospital index
+    private static final int INDEX_BITS = 20;
+    private static final long INDEX_MASK = (1L << INDEX_BITS) - 1;
+
+    private final int candidatesPerAmbulance;
+    private final double maxDistanceKm;
+    private final int expansionRounds;
+
+    public BatchAssignmentPlanner(
+            @Value("${openicu.dispatch.batch.candidates-per-ambulance:8}") int candidatesPerAmbulance,
+            @Value("${openicu.dispatch.batch.max-distance-km:600}") double maxDistanceKm,
+            @Value("${openicu.dispatch.batch.expansion-rounds:3}") int expansionRounds) {
+        this.candidatesPerAmbulance = candidatesPerAmbulance;
+        this.maxDistanceKm = maxDistanceKm;
+        this.expansionRounds = expansionRounds;
+    }
+
+    public double getMaxDistanceKm() {
+        return maxDistanceKm;
+    }
+
+    /**
+     * @param ambulanceLat ambulance positions
+     * @param ambulanceLon ambulance positions
+     * @param hospitalLat  hospital positions
+     * @param hospitalLon  hospital positions
+     * @param freeBeds     beds each hospital can still take
+     * @return hospital index per ambulance, or MinCostAssignmentSolver.UNASSIGNED
+     */
+    public int[] plan(double[] ambulanceLat, double[] ambulanceLon,
+            double[] hospitalLat, double[] hospitalLon, int[] freeBeds) {
+        if (hospitalLat.length > INDEX_MASK) {
+            throw new IllegalArgumentException("Too many hospitals in one batch: " + hospitalLat.length);
+        }
+        int ambulances = ambulanceLat.length;
+        int maxCandidates = candidatesPerAmbulance << expansionRounds;
+
+        // Hospitals with free beds, ordered by latitude
+        int[] byLatitude = IntStream.range(0, hospitalLat.length)
+                .filter(h -> freeBeds[h] > 0)
+                .boxed()
+                .sorted(Comparator.comparingDouble(h -> hospitalLat[h]))
+                .mapToInt(Integer::intValue)
+                .toArray();
+        double[] sortedLat = new double[byLatitude.length];
+        for (int i = 0; i < byLatitude.length; i++) {
+            sortedLat[i] = hospitalLat[byLatitude[i]];
+        }
+
+        // Nearest hospitals per ambulance as (metres << 20 | index), sorted
+        long[][] nearest = new long[ambulances][];
+        for (int a = 0; a < ambulances; a++) {
+            nearest[a] = nearestHospitals(ambulanceLat[a], ambulanceLon[a], byLatitude, sortedLat, hospitalLon,
+                    maxCandidates);
+        }
+
+        int[] limit = new int[ambulances];
+        Arrays.fill(limit, candidatesPerAmbulance);
+        int[] assignment = solve(nearest, limit, freeBeds);
+        for (int round = 0; round < expansionRounds; round++) {
+            boolean widened = false;
+            for (int a = 0; a < ambulances; a++) {
+                if (assignment[a] == MinCostAssignmentSolver.UNASSIGNED && nearest[a].length > limit[a]) {
+                    limit[a] *= 2;
+                    widened = true;
+                }
+            }
+            if (!widened) {
+                break;
+            }
+            assignment = solve(nearest, limit, freeBeds);
+        }
+        return assignment;
+    }
+
+    private static int[] solve(long[][] nearest, int[] limit, int[] freeBeds) {
+        int[][] candidates = new int[nearest.length][];
+        long[][] costs = new long[nearest.length][];
+        for (int a = 0; a < nearest.length; a++) {
+            int count = Math.min(limit[a], nearest[a].length);
+            candidates[a] = new int[count];
+            costs[a] = new long[count];
+            for (int j = 0; j < count; j++) {
+                candidates[a][j] = (int) (nearest[a][j] & INDEX_MASK);
+                costs[a][j] = nearest[a][j] >>> INDEX_BITS;
+            }
+        }
+        return MinCostAssignmentSolver.solve(freeBeds, candidates, costs);
+    }
+
+    /**
+     * Walks the latitude index outward from the ambulance, always on the side
+     * with the smaller gap, and stops once that gap alone exceeds the distance
+     * of the current limit-th candidate (or max-distance-km).
+     */
+    private long[] nearestHospitals(double latitude, double longitude, int[] byLatitude, double[] sortedLat,
+            double[] hospitalLon, int limit) {
+        long[] best = new long[limit];
+        int count = 0;
+        double reachKm = maxDistanceKm;
+
+        int up = Arrays.binarySearch(sortedLat, latitude);
+        if (up < 0) {
+            up = -up - 1;
+        }
+        int down = up - 1;
+        while (up < sortedLat.length || down >= 0) {
+            boolean upward = down < 0
+                    || (up < sortedLat.length && sortedLat[up] - latitude <= latitude - sortedLat[down]);
+            int i = upward ? up++ : down--;
+            if (Math.toRadians(Math.abs(sortedLat[i] - latitude)) * GeoUtils.EARTH_RADIUS_KM > reachKm) {
+                break;
+            }
+            double km = GeoUtils.haversineKm(latitude, longitude, sortedLat[i], hospitalLon[byLatitude[i]]);
+            if (km > reachKm) {
+                continue;
+            }
+            long key = (Math.round(km * 1000) << INDEX_BITS) | byLatitude[i];
+            if (count == limit && key >= best[limit - 1]) {
+                continue;
+            }
+            int slot = count < limit ? count++ : limit - 1;
+            while (slot > 0 && best[slot - 1] > key) {
+                best[slot] = best[slot - 1];
+                slot--;
+            }
+            best[slot] = key;
+            if (count == limit) {
+                // Half a metre of slack for the rounding in the key
+                reachKm = Math.min(reachKm, ((best[limit - 1] >>> INDEX_BITS) + 0.5) / 1000.0);
+            }
+        }
+        return Arrays.copyOf(best, count);
+    }
+}
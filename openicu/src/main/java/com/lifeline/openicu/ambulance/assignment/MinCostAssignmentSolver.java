@@ -0,0 +1,176 @@
+package com.lifeline.openicu.ambulance.assignment;
+
+import java.util.Arrays;
+import java.util.PriorityQueue;
+
+/**
+ * Capacitated assignment as a min-cost flow.
+ *
+ * Each source (ambulance) takes at most one slot of one of its candidate
+ * targets (hospitals), and target t has capacities[t] slots. The solver
+ * assigns as many sources as possible and, among those assignments, picks the
+ * one with the lowest total cost.
+ *
+ * Graph: S -> source (cap 1), source -> candidate target (cap 1, cost),
+ * target -> T (cap = capacity), plus source -> T at a penalty larger than any
+ * complete assignment, so every source gets flow and "unassigned" is simply
+ * the expensive option. Successive shortest paths with Dijkstra on reduced
+ * costs (Johnson potentials) push one unit per source, so the solve is
+ * O(n * E log V) with E the number of candidate edges.
+ */
+public final class MinCostAssignmentSolver {
+
+    public static final int UNASSIGNED = -1;
+
+    private static final long INFINITE = Long.MAX_VALUE / 4;
+
+    private MinCostAssignmentSolver() {
+    }
+
+    /**
+     * @param capacities slots per target
+     * @param candidates candidates[s] = target indexes source s may be assigned to
+     * @param costs      costs[s][j] = non-negative cost of assigning s to candidates[s][j]
+     * @return target index per source, or UNASSIGNED
+     */
+    public static int[] solve(int[] capacities, int[][] candidates, long[][] costs) {
+        int sources = candidates.length;
+        int targets = capacities.length;
+        int source = 0;
+        int sink = sources + targets + 1;
+
+        long maxCost = 0;
+        int candidateEdges = 0;
+        for (int s = 0; s < sources; s++) {
+            candidateEdges += candidates[s].length;
+            for (long cost : costs[s]) {
+                if (cost < 0) {
+                    throw new IllegalArgumentException("Assignment costs must be non-negative");
+                }
+                maxCost = Math.max(maxCost, cost);
+            }
+        }
+        // Higher than the cost of any assignment, so an extra assigned source always wins
+        long penalty = Math.multiplyExact(maxCost + 1, (long) sources + 1);
+
+        Graph graph = new Graph(sink + 1, 2 * sources + candidateEdges + targets);
+        int[][] candidateEdge = new int[sources][];
+        for (int s = 0; s < sources; s++) {
+            graph.addEdge(source, 1 + s, 1, 0);
+            candidateEdge[s] = new int[candidates[s].length];
+            for (int j = 0; j < candidates[s].length; j++) {
+                candidateEdge[s][j] = graph.addEdge(1 + s, 1 + sources + candidates[s][j], 1, costs[s][j]);
+            }
+            graph.addEdge(1 + s, sink, 1, penalty);
+        }
+        for (int t = 0; t < targets; t++) {
+            if (capacities[t] > 0) {
+                graph.addEdge(1 + sources + t, sink, capacities[t], 0);
+            }
+        }
+
+        for (int unit = 0; unit < sources; unit++) {
+            if (!graph.augment(source, sink)) {
+                break;
+            }
+        }
+
+        int[] assignment = new int[sources];
+        Arrays.fill(assignment, UNASSIGNED);
+        for (int s = 0; s < sources; s++) {
+            for (int j = 0; j < candidateEdge[s].length; j++) {
+                if (graph.capacity[candidateEdge[s][j]] == 0) {
+                    assignment[s] = candidates[s][j];
+                    break;
+                }
+            }
+        }
+        return assignment;
+    }
+
+    /**
+     * Residual graph in flat arrays; edge e and e ^ 1 are a forward/reverse pair.
+     */
+    private static final class Graph {
+
+        final int[] head;
+        final int[] next;
+        final int[] to;
+        final int[] capacity;
+        final long[] cost;
+        final long[] potential;
+        final long[] distance;
+        final int[] parentEdge;
+        int edges;
+
+        Graph(int nodes, int forwardEdges) {
+            head = new int[nodes];
+            Arrays.fill(head, -1);
+            next = new int[2 * forwardEdges];
+            to = new int[2 * forwardEdges];
+            capacity = new int[2 * forwardEdges];
+            cost = new long[2 * forwardEdges];
+            potential = new long[nodes];
+            distance = new long[nodes];
+            parentEdge = new int[nodes];
+        }
+
+        int addEdge(int from, int target, int cap, long edgeCost) {
+            int forward = edges;
+            link(from, target, cap, edgeCost);
+            link(target, from, 0, -edgeCost);
+            return forward;
+        }
+
+        private void link(int from, int target, int cap, long edgeCost) {
+            to[edges] = target;
+            capacity[edges] = cap;
+            cost[edges] = edgeCost;
+            next[edges] = head[from];
+            head[from] = edges++;
+        }
+
+        /**
+         * Push one unit along the cheapest residual path; false if the sink is unreachable.
+         */
+        boolean augment(int source, int sink) {
+            Arrays.fill(distance, INFINITE);
+            Arrays.fill(parentEdge, -1);
+            distance[source] = 0;
+            PriorityQueue<long[]> queue = new PriorityQueue<>((a, b) -> Long.compare(a[0], b[0]));
+            queue.add(new long[] { 0, source });
+            while (!queue.isEmpty()) {
+                long[] entry = queue.poll();
+                int node = (int) entry[1];
+                if (entry[0] > distance[node]) {
+                    continue;
+                }
+                for (int e = head[node]; e != -1; e = next[e]) {
+                    if (capacity[e] == 0) {
+                        continue;
+                    }
+                    int target = to[e];
+                    long reduced = distance[node] + cost[e] + potential[node] - potential[target];
+                    if (reduced < distance[target]) {
+                        distance[target] = reduced;
+                        parentEdge[target] = e;
+                        queue.add(new long[] { reduced, target });
+                    }
+                }
+            }
+            if (distance[sink] >= INFINITE) {
+                return false;
+            }
+            for (int node = 0; node < potential.length; node++) {
+                if (distance[node] < INFINITE) {
+                    potential[node] += distance[node];
+                }
+            }
+            for (int node = sink; node != source; node = to[parentEdge[node] ^ 1]) {
+                capacity[parentEdge[node]]--;
+                capacity[parentEdge[node] ^ 1]++;
+            }
+            return true;
+        }
+    }
+}
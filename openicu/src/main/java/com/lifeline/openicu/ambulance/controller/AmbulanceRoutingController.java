@@ -3,18 +3,27 @@ package com.lifeline.openicu.ambulance.controller;
 import com.lifeline.openicu.ambulance.dto.AmbulanceRequestDTO;
 import com.lifeline.openicu.ambulance.dto.HospitalMatchDTO;
 import com.lifeline.openicu.ambulance.service.AmbulanceRoutingService;
+import com.lifeline.openicu.tracing.DispatchTrace;
+import com.lifeline.openicu.tracing.DispatchTracer;
+import com.lifeline.openicu.tracing.TraceScope;
 import jakarta.validation.Valid;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
 @RestController
 @RequestMapping("/api/ambulance")
 public class AmbulanceRoutingController {
 
+    private static final int MAX_TRACES = 100;
+
     private final AmbulanceRoutingService ambulanceRoutingService;
+    private final DispatchTracer tracer;
 
-    public AmbulanceRoutingController(AmbulanceRoutingService ambulanceRoutingService) {
+    public AmbulanceRoutingController(AmbulanceRoutingService ambulanceRoutingService, DispatchTracer tracer) {
         this.ambulanceRoutingService = ambulanceRoutingService;
+        this.tracer = tracer;
     }
 
     /**
@@ -26,13 +35,42 @@ public class AmbulanceRoutingController {
      */
     @PostMapping("/find-nearest")
     public ResponseEntity<?> findNearestHospital(@Valid @RequestBody AmbulanceRequestDTO request) {
-        try {
-            HospitalMatchDTO result = ambulanceRoutingService.findNearestHospital(request);
-            return ResponseEntity.ok(result);
-        } catch (org.springframework.web.server.ResponseStatusException e) {
-            return ResponseEntity
-                    .status(e.getStatusCode())
-                    .body(java.util.Collections.singletonMap("message", e.getReason()));
+        try (TraceScope trace = tracer.startTrace("POST /api/ambulance/find-nearest")) {
+            trace.tag("ambulanceId", request.getAmbulanceId()).tag("bedType", request.getRequiredBedType());
+            try {
+                HospitalMatchDTO result;
+                // Includes the transaction commit, which the service's own spans do not
+                try (TraceScope span = tracer.span("service.findNearestHospital")) {
+                    result = ambulanceRoutingService.findNearestHospital(request);
+                }
+                trace.tag("hospitalId", result.getHospitalId());
+                return ResponseEntity.ok(result);
+            } catch (org.springframework.web.server.ResponseStatusException e) {
+                trace.tag("status", e.getStatusCode().value());
+                return ResponseEntity
+                        .status(e.getStatusCode())
+                        .body(java.util.Collections.singletonMap("message", e.getReason()));
+            } catch (RuntimeException e) {
+                trace.error(e);
+                throw e;
+            }
         }
     }
+
+    /**
+     * Slowest recent dispatches with their span breakdown (expiry, bounding box
+     * queries, bed claim, routing, publishing), for tail-latency debugging.
+     */
+    @GetMapping("/traces/slowest")
+    public ResponseEntity<List<DispatchTrace>> getSlowestTraces(@RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(tracer.slowest(Math.max(1, Math.min(limit, MAX_TRACES))));
+    }
+
+    /**
+     * Most recent dispatches with their span breakdown, newest first.
+     */
+    @GetMapping("/traces/recent")
+    public ResponseEntity<List<DispatchTrace>> getRecentTraces(@RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(tracer.recent(Math.max(1, Math.min(limit, MAX_TRACES))));
+    }
 }
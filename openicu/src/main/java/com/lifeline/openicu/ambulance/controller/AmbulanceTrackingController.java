@@ -0,0 +1,37 @@
+package com.lifeline.openicu.ambulance.controller;
+
+import com.lifeline.openicu.ambulance.service.AmbulanceTrackingService;
+import com.lifeline.openicu.ambulance.tracking.AmbulanceSnapshot;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/ambulance/tracking")
+public class AmbulanceTrackingController {
+
+    private final AmbulanceTrackingService trackingService;
+
+    public AmbulanceTrackingController(AmbulanceTrackingService trackingService) {
+        this.trackingService = trackingService;
+    }
+
+    /**
+     * Latest known state of every tracked ambulance.
+     */
+    @GetMapping
+    public ResponseEntity<List<AmbulanceSnapshot>> getAllAmbulances() {
+        return ResponseEntity.ok(trackingService.getAllAmbulances());
+    }
+
+    /**
+     * Latest known state of one ambulance.
+     */
+    @GetMapping("/{ambulanceId}")
+    public ResponseEntity<AmbulanceSnapshot> getAmbulance(@PathVariable String ambulanceId) {
+        return trackingService.getAmbulance(ambulanceId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+}
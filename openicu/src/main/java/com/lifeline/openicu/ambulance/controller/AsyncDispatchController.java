@@ -0,0 +1,184 @@
+package com.lifeline.openicu.ambulance.controller;
+
+import com.lifeline.openicu.ambulance.dto.AmbulanceRequestDTO;
+import com.lifeline.openicu.ambulance.dto.BatchDispatchRequestDTO;
+import com.lifeline.openicu.ambulance.dto.ReassignRequestDTO;
+import com.lifeline.openicu.ambulance.exception.ReservationConflictException;
+import com.lifeline.openicu.ambulance.exception.ReservationNotFoundException;
+import com.lifeline.openicu.ambulance.service.AsyncDispatchService;
+import com.lifeline.openicu.ambulance.service.AsyncDispatchService.Dispatch;
+import jakarta.validation.Valid;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Non-blocking dispatch: the bed reservation is answered as soon as it
+ * commits and the road route follows separately, so a slow routing provider
+ * no longer delays the confirmed bed.
+ */
+@RestController
+@RequestMapping("/api/ambulance")
+public class AsyncDispatchController {
+
+    private static final Logger log = LoggerFactory.getLogger(AsyncDispatchController.class);
+
+    private final AsyncDispatchService asyncDispatchService;
+    private final long streamTimeoutMillis;
+
+    public AsyncDispatchController(AsyncDispatchService asyncDispatchService,
+            @Value("${openicu.dispatch.async.stream-timeout-ms:30000}") long streamTimeoutMillis) {
+        this.asyncDispatchService = asyncDispatchService;
+        this.streamTimeoutMillis = streamTimeoutMillis;
+    }
+
+    /**
+     * Reserve the nearest available bed and answer 202 with the reservation.
+     * The route is published afterwards as AMBULANCE_ROUTED on /topic/ambulance.
+     */
+    @PostMapping("/dispatch")
+    public CompletableFuture<ResponseEntity<?>> dispatch(@Valid @RequestBody AmbulanceRequestDTO request) {
+        return asyncDispatchService.dispatch(request)
+                .<ResponseEntity<?>>thenApply(dispatch -> ResponseEntity.status(HttpStatus.ACCEPTED)
+                        .body(dispatch.accepted()))
+                .exceptionally(error -> {
+                    Throwable cause = unwrap(error);
+                    return ResponseEntity.status(statusOf(cause)).body(Map.of("message", messageOf(cause)));
+                });
+    }
+
+    /**
+     * Reserve beds for a batch of simultaneous requests (an incident surge)
+     * with the lowest total ETA under each hospital's free beds, instead of
+     * first come, first served. Answers 202 with the reservations and the
+     * ambulances left without a bed; routes follow as AMBULANCE_ROUTED events.
+     */
+    @PostMapping("/dispatch/batch")
+    public CompletableFuture<ResponseEntity<?>> dispatchBatch(@Valid @RequestBody BatchDispatchRequestDTO request) {
+        return asyncDispatchService.dispatchBatch(request.getAmbulances())
+                .<ResponseEntity<?>>thenApply(result -> ResponseEntity.status(HttpStatus.ACCEPTED).body(result))
+                .exceptionally(error -> {
+                    Throwable cause = unwrap(error);
+                    return ResponseEntity.status(statusOf(cause)).body(Map.of("message", messageOf(cause)));
+                });
+    }
+
+    /**
+     * Reassign a diverted ambulance: cancel its reservation and reserve the
+     * nearest bed to its new position in one transaction, then answer 202 with
+     * the new reservation. The route follows as AMBULANCE_ROUTED. If no bed is
+     * found the original reservation stands. After a 504 the reassignment may
+     * still commit; it is then kept and announced as RESERVATION_REASSIGNED.
+     */
+    @PostMapping("/reservations/{reservationId}/reassign")
+    public CompletableFuture<ResponseEntity<?>> reassign(@PathVariable UUID reservationId,
+            @Valid @RequestBody ReassignRequestDTO request) {
+        return asyncDispatchService.reassign(reservationId, request)
+                .<ResponseEntity<?>>thenApply(dispatch -> ResponseEntity.status(HttpStatus.ACCEPTED)
+                        .body(dispatch.accepted()))
+                .exceptionally(error -> {
+                    Throwable cause = unwrap(error);
+                    return ResponseEntity.status(statusOf(cause)).body(Map.of("message", messageOf(cause)));
+                });
+    }
+
+    /**
+     * Same dispatch as a server-sent event stream: a "reservation" event as
+     * soon as the bed is reserved, then a "route" event with the full match,
+     * or a single "error" event. Closing the stream before the reservation
+     * cancels a claim that has not started yet.
+     */
+    @PostMapping(value = "/dispatch/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter dispatchStream(@Valid @RequestBody AmbulanceRequestDTO request) {
+        SseEmitter emitter = new SseEmitter(streamTimeoutMillis);
+        CompletableFuture<Dispatch> dispatch = asyncDispatchService.dispatch(request);
+        emitter.onCompletion(() -> dispatch.cancel(false));
+        emitter.onTimeout(() -> dispatch.cancel(false));
+        emitter.onError(error -> dispatch.cancel(false));
+
+        dispatch.whenComplete((result, error) -> {
+            if (error != null) {
+                Throwable cause = unwrap(error);
+                send(emitter, "error", Map.of("status", statusOf(cause).value(), "message", messageOf(cause)));
+                emitter.complete();
+                return;
+            }
+            if (!send(emitter, "reservation", result.accepted())) {
+                return; // client gone; the route is still tracked and published
+            }
+            result.route().whenComplete((match, routeError) -> {
+                if (routeError == null) {
+                    send(emitter, "route", match);
+                }
+                emitter.complete();
+            });
+        });
+        return emitter;
+    }
+
+    private static boolean send(SseEmitter emitter, String name, Object data) {
+        try {
+            emitter.send(SseEmitter.event().name(name).data(data, MediaType.APPLICATION_JSON));
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            log.debug("Dispatch stream closed before {} event: {}", name, e.getMessage());
+            return false;
+        }
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
+
+    private static HttpStatusCode statusOf(Throwable cause) {
+        if (cause instanceof ResponseStatusException e) {
+            return e.getStatusCode();
+        }
+        if (cause instanceof IllegalArgumentException) {
+            return HttpStatus.BAD_REQUEST;
+        }
+        if (cause instanceof ReservationNotFoundException) {
+            return HttpStatus.NOT_FOUND;
+        }
+        if (cause instanceof ReservationConflictException) {
+            return HttpStatus.CONFLICT;
+        }
+        if (cause instanceof TimeoutException) {
+            return HttpStatus.GATEWAY_TIMEOUT;
+        }
+        if (cause instanceof TaskRejectedException || cause instanceof RejectedExecutionException) {
+            return HttpStatus.SERVICE_UNAVAILABLE;
+        }
+        log.error("Async dispatch failed", cause);
+        return HttpStatus.INTERNAL_SERVER_ERROR;
+    }
+
+    private static String messageOf(Throwable cause) {
+        if (cause instanceof ResponseStatusException e) {
+            return e.getReason();
+        }
+        if (cause instanceof TimeoutException) {
+            return "Bed claim timed out";
+        }
+        if (cause instanceof TaskRejectedException || cause instanceof RejectedExecutionException) {
+            return "Dispatch queue full, retry shortly";
+        }
+        return String.valueOf(cause.getMessage());
+    }
+}
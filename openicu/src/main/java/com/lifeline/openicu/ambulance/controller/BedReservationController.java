@@ -0,0 +1,40 @@
+package com.lifeline.openicu.ambulance.controller;
+
+import com.lifeline.openicu.ambulance.dto.ReservationResponseDTO;
+import com.lifeline.openicu.ambulance.service.BedReservationService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.UUID;
+
+/**
+ * Ends a bed reservation before it expires. Reassigning a diverted ambulance
+ * is POST /api/ambulance/reservations/{reservationId}/reassign on
+ * AsyncDispatchController, since it claims and routes a new bed.
+ */
+@RestController
+@RequestMapping("/api/ambulance/reservations")
+public class BedReservationController {
+
+    private final BedReservationService bedReservationService;
+
+    public BedReservationController(BedReservationService bedReservationService) {
+        this.bedReservationService = bedReservationService;
+    }
+
+    /**
+     * The ambulance arrived: the bed becomes OCCUPIED and the reservation CONFIRMED.
+     */
+    @PostMapping("/{reservationId}/confirm")
+    public ResponseEntity<ReservationResponseDTO> confirm(@PathVariable UUID reservationId) {
+        return ResponseEntity.ok(new ReservationResponseDTO(bedReservationService.confirm(reservationId)));
+    }
+
+    /**
+     * The ambulance no longer needs the bed: it returns to the pool immediately.
+     */
+    @PostMapping("/{reservationId}/cancel")
+    public ResponseEntity<ReservationResponseDTO> cancel(@PathVariable UUID reservationId) {
+        return ResponseEntity.ok(new ReservationResponseDTO(bedReservationService.cancel(reservationId)));
+    }
+}
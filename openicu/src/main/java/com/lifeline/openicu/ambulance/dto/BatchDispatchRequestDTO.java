@@ -0,0 +1,28 @@
+package com.lifeline.openicu.ambulance.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+
+import java.util.List;
+
+public class BatchDispatchRequestDTO {
+
+    @NotEmpty(message = "At least one ambulance is required")
+    private List<@Valid AmbulanceRequestDTO> ambulances;
+
+    // Default constructor
+    public BatchDispatchRequestDTO() {
+    }
+
+    public BatchDispatchRequestDTO(List<AmbulanceRequestDTO> ambulances) {
+        this.ambulances = ambulances;
+    }
+
+    public List<AmbulanceRequestDTO> getAmbulances() {
+        return ambulances;
+    }
+
+    public void setAmbulances(List<AmbulanceRequestDTO> ambulances) {
+        this.ambulances = ambulances;
+    }
+}
@@ -0,0 +1,35 @@
+package com.lifeline.openicu.ambulance.dto;
+
+import java.util.List;
+
+/**
+ * Answer of the batch dispatch endpoint: one confirmed reservation per
+ * assigned ambulance (routes follow as AMBULANCE_ROUTED events) and the
+ * ambulances no bed could be found for. totalStraightLineKm is the total
+ * the assignment minimised.
+ */
+public class BatchDispatchResultDTO {
+
+    private final List<DispatchAcceptedDTO> assigned;
+    private final List<UnassignedAmbulanceDTO> unassigned;
+    private final double totalStraightLineKm;
+
+    public BatchDispatchResultDTO(List<DispatchAcceptedDTO> assigned, List<UnassignedAmbulanceDTO> unassigned,
+            double totalStraightLineKm) {
+        this.assigned = assigned;
+        this.unassigned = unassigned;
+        this.totalStraightLineKm = totalStraightLineKm;
+    }
+
+    public List<DispatchAcceptedDTO> getAssigned() {
+        return assigned;
+    }
+
+    public List<UnassignedAmbulanceDTO> getUnassigned() {
+        return unassigned;
+    }
+
+    public double getTotalStraightLineKm() {
+        return totalStraightLineKm;
+    }
+}
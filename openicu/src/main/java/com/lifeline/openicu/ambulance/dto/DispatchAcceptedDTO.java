@@ -0,0 +1,71 @@
+package com.lifeline.openicu.ambulance.dto;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Immediate answer of the async dispatch endpoints: the confirmed bed
+ * reservation, before the road route is known. The route follows as an
+ * AMBULANCE_ROUTED event on routeTopic (or as the second SSE event).
+ */
+public class DispatchAcceptedDTO {
+
+    private final UUID reservationId;
+    private final String ambulanceId;
+    private final Long hospitalId;
+    private final String hospitalName;
+    private final Long bedId;
+    private final String bedType;
+    private final double straightLineKm;
+    private final LocalDateTime expiresAt;
+    private final String routeTopic;
+
+    public DispatchAcceptedDTO(UUID reservationId, String ambulanceId, Long hospitalId, String hospitalName,
+            Long bedId, String bedType, double straightLineKm, LocalDateTime expiresAt, String routeTopic) {
+        this.reservationId = reservationId;
+        this.ambulanceId = ambulanceId;
+        this.hospitalId = hospitalId;
+        this.hospitalName = hospitalName;
+        this.bedId = bedId;
+        this.bedType = bedType;
+        this.straightLineKm = straightLineKm;
+        this.expiresAt = expiresAt;
+        this.routeTopic = routeTopic;
+    }
+
+    public UUID getReservationId() {
+        return reservationId;
+    }
+
+    public String getAmbulanceId() {
+        return ambulanceId;
+    }
+
+    public Long getHospitalId() {
+        return hospitalId;
+    }
+
+    public String getHospitalName() {
+        return hospitalName;
+    }
+
+    public Long getBedId() {
+        return bedId;
+    }
+
+    public String getBedType() {
+        return bedType;
+    }
+
+    public double getStraightLineKm() {
+        return straightLineKm;
+    }
+
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+
+    public String getRouteTopic() {
+        return routeTopic;
+    }
+}
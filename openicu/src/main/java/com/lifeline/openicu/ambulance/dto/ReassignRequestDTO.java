@@ -0,0 +1,50 @@
+package com.lifeline.openicu.ambulance.dto;
+
+import jakarta.validation.constraints.NotNull;
+
+public class ReassignRequestDTO {
+
+    @NotNull(message = "Latitude is required")
+    private Double latitude;
+
+    @NotNull(message = "Longitude is required")
+    private Double longitude;
+
+    private String requiredBedType; // ICU or VENTILATOR; defaults to the reserved bed's type
+
+    // Default constructor
+    public ReassignRequestDTO() {
+    }
+
+    // All-args constructor
+    public ReassignRequestDTO(Double latitude, Double longitude, String requiredBedType) {
+        this.latitude = latitude;
+        this.longitude = longitude;
+        this.requiredBedType = requiredBedType;
+    }
+
+    // Getters and Setters
+    public Double getLatitude() {
+        return latitude;
+    }
+
+    public void setLatitude(Double latitude) {
+        this.latitude = latitude;
+    }
+
+    public Double getLongitude() {
+        return longitude;
+    }
+
+    public void setLongitude(Double longitude) {
+        this.longitude = longitude;
+    }
+
+    public String getRequiredBedType() {
+        return requiredBedType;
+    }
+
+    public void setRequiredBedType(String requiredBedType) {
+        this.requiredBedType = requiredBedType;
+    }
+}
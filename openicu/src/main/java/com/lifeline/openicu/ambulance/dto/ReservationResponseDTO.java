@@ -0,0 +1,90 @@
+package com.lifeline.openicu.ambulance.dto;
+
+import com.lifeline.openicu.ambulance.entity.BedReservation;
+import com.lifeline.openicu.ambulance.entity.ReservationStatus;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public class ReservationResponseDTO {
+
+    private UUID id;
+    private String ambulanceId;
+    private Long hospitalId;
+    private Long bedId;
+    private LocalDateTime reservationTime;
+    private LocalDateTime expiryTime;
+    private ReservationStatus status;
+
+    // Default constructor
+    public ReservationResponseDTO() {
+    }
+
+    // Constructor from BedReservation entity
+    public ReservationResponseDTO(BedReservation reservation) {
+        this.id = reservation.getId();
+        this.ambulanceId = reservation.getAmbulanceId();
+        this.hospitalId = reservation.getHospitalId();
+        this.bedId = reservation.getBedId();
+        this.reservationTime = reservation.getReservationTime();
+        this.expiryTime = reservation.getExpiryTime();
+        this.status = reservation.getStatus();
+    }
+
+    // Getters and Setters
+    public UUID getId() {
+        return id;
+    }
+
+    public void setId(UUID id) {
+        this.id = id;
+    }
+
+    public String getAmbulanceId() {
+        return ambulanceId;
+    }
+
+    public void setAmbulanceId(String ambulanceId) {
+        this.ambulanceId = ambulanceId;
+    }
+
+    public Long getHospitalId() {
+        return hospitalId;
+    }
+
+    public void setHospitalId(Long hospitalId) {
+        this.hospitalId = hospitalId;
+    }
+
+    public Long getBedId() {
+        return bedId;
+    }
+
+    public void setBedId(Long bedId) {
+        this.bedId = bedId;
+    }
+
+    public LocalDateTime getReservationTime() {
+        return reservationTime;
+    }
+
+    public void setReservationTime(LocalDateTime reservationTime) {
+        this.reservationTime = reservationTime;
+    }
+
+    public LocalDateTime getExpiryTime() {
+        return expiryTime;
+    }
+
+    public void setExpiryTime(LocalDateTime expiryTime) {
+        this.expiryTime = expiryTime;
+    }
+
+    public ReservationStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(ReservationStatus status) {
+        this.status = status;
+    }
+}
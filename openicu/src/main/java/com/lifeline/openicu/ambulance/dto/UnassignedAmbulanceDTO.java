@@ -0,0 +1,23 @@
+package com.lifeline.openicu.ambulance.dto;
+
+/**
+ * An ambulance from a batch dispatch that got no bed, and why.
+ */
+public class UnassignedAmbulanceDTO {
+
+    private final String ambulanceId;
+    private final String reason;
+
+    public UnassignedAmbulanceDTO(String ambulanceId, String reason) {
+        this.ambulanceId = ambulanceId;
+        this.reason = reason;
+    }
+
+    public String getAmbulanceId() {
+        return ambulanceId;
+    }
+
+    public String getReason() {
+        return reason;
+    }
+}
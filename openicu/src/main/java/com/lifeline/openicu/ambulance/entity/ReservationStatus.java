@@ -3,5 +3,6 @@ package com.lifeline.openicu.ambulance.entity;
 public enum ReservationStatus {
     RESERVED,
     EXPIRED,
-    CONFIRMED
+    CONFIRMED,
+    CANCELLED
 }
@@ -0,0 +1,44 @@
+package com.lifeline.openicu.ambulance.event;
+
+import com.lifeline.openicu.ambulance.entity.ReservationStatus;
+import com.lifeline.openicu.bed.entity.BedType;
+
+import java.util.UUID;
+
+/**
+ * Application event raised by AmbulanceTrackingService when a reservation is
+ * attached to an ambulance (RESERVED) or released (EXPIRED or finished).
+ */
+public class ReservationChangedEvent {
+
+    private final UUID reservationId;
+    private final Long hospitalId;
+    private final BedType bedType;
+    private final ReservationStatus status;
+
+    /**
+     * @param bedType type of the reserved bed, or null on release
+     */
+    public ReservationChangedEvent(UUID reservationId, Long hospitalId, BedType bedType, ReservationStatus status) {
+        this.reservationId = reservationId;
+        this.hospitalId = hospitalId;
+        this.bedType = bedType;
+        this.status = status;
+    }
+
+    public UUID getReservationId() {
+        return reservationId;
+    }
+
+    public Long getHospitalId() {
+        return hospitalId;
+    }
+
+    public BedType getBedType() {
+        return bedType;
+    }
+
+    public ReservationStatus getStatus() {
+        return status;
+    }
+}
@@ -0,0 +1,21 @@
+package com.lifeline.openicu.ambulance.exception;
+
+import com.lifeline.openicu.ambulance.entity.ReservationStatus;
+
+import java.util.UUID;
+
+/**
+ * The reservation (or its bed) is not in the state the requested operation
+ * starts from, typically because it expired or another dispatcher acted first.
+ */
+public class ReservationConflictException extends RuntimeException {
+
+    public ReservationConflictException(UUID reservationId, ReservationStatus current, String operation) {
+        super("Bed reservation " + reservationId + " is " + current + ", cannot " + operation
+                + " (expected " + ReservationStatus.RESERVED + ")");
+    }
+
+    public ReservationConflictException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,10 @@
+package com.lifeline.openicu.ambulance.exception;
+
+import java.util.UUID;
+
+public class ReservationNotFoundException extends RuntimeException {
+
+    public ReservationNotFoundException(UUID reservationId) {
+        super("Bed reservation not found with id: " + reservationId);
+    }
+}
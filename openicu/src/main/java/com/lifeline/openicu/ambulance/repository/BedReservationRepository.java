@@ -2,7 +2,12 @@ package com.lifeline.openicu.ambulance.repository;
 
 import com.lifeline.openicu.ambulance.entity.BedReservation;
 import com.lifeline.openicu.ambulance.entity.ReservationStatus;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
@@ -27,4 +32,41 @@ public interface BedReservationRepository extends JpaRepository<BedReservation,
      * Find expired reservations (status = RESERVED and expiryTime < now)
      */
     List<BedReservation> findByStatusAndExpiryTimeBefore(ReservationStatus status, LocalDateTime time);
+
+    /**
+     * Find a reservation and lock its row until the transaction ends, so
+     * confirm, cancel and reassign of the same reservation run one at a time
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM BedReservation r WHERE r.id = :id")
+    Optional<BedReservation> findByIdForUpdate(@Param("id") UUID id);
+
+    /**
+     * Expire a reservation in a single conditional UPDATE, only if it is still
+     * RESERVED and its expiry (which ETA tracking may have pushed out) has passed.
+     * Returns 0 when a confirm, cancel or extension committed first.
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE BedReservation r SET r.status = com.lifeline.openicu.ambulance.entity.ReservationStatus.EXPIRED "
+            + "WHERE r.id = :id AND r.status = com.lifeline.openicu.ambulance.entity.ReservationStatus.RESERVED "
+            + "AND r.expiryTime < :now")
+    int expireIfLapsed(@Param("id") UUID id, @Param("now") LocalDateTime now);
+
+    /**
+     * Move a reservation from RESERVED to another status in a single conditional UPDATE.
+     * Returns 0 when it already left RESERVED.
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE BedReservation r SET r.status = :to "
+            + "WHERE r.id = :id AND r.status = com.lifeline.openicu.ambulance.entity.ReservationStatus.RESERVED")
+    int endReserved(@Param("id") UUID id, @Param("to") ReservationStatus to);
+
+    /**
+     * Push out the expiry of a reservation that is still RESERVED.
+     * Returns 0 when it already left RESERVED.
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE BedReservation r SET r.expiryTime = :expiry "
+            + "WHERE r.id = :id AND r.status = com.lifeline.openicu.ambulance.entity.ReservationStatus.RESERVED")
+    int extendReserved(@Param("id") UUID id, @Param("expiry") LocalDateTime expiry);
 }
@@ -1,10 +1,14 @@
 package com.lifeline.openicu.ambulance.service;
 
+import com.lifeline.openicu.ambulance.assignment.BatchAssignmentPlanner;
+import com.lifeline.openicu.ambulance.assignment.MinCostAssignmentSolver;
 import com.lifeline.openicu.ambulance.dto.AmbulanceRequestDTO;
 import com.lifeline.openicu.ambulance.dto.HospitalMatchDTO;
+import com.lifeline.openicu.ambulance.dto.UnassignedAmbulanceDTO;
 import com.lifeline.openicu.ambulance.entity.BedReservation;
 import com.lifeline.openicu.ambulance.entity.ReservationStatus;
 import com.lifeline.openicu.ambulance.repository.BedReservationRepository;
+import com.lifeline.openicu.ambulance.tracking.HospitalLoadTable;
 import com.lifeline.openicu.bed.entity.Bed;
 import com.lifeline.openicu.bed.entity.BedStatus;
 import com.lifeline.openicu.bed.entity.BedType;
@@ -14,31 +18,119 @@ import com.lifeline.openicu.realtime.ambulance.AmbulanceRealtimeService;
 import com.lifeline.openicu.repository.HospitalRepository;
 import com.lifeline.openicu.routing.dto.RouteResponse;
 import com.lifeline.openicu.routing.service.RoutingService;
+import com.lifeline.openicu.tracing.DispatchTracer;
+import com.lifeline.openicu.tracing.TraceScope;
+import com.lifeline.openicu.util.GeoUtils;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 @Service
 public class AmbulanceRoutingService {
 
+    private static final Logger log = LoggerFactory.getLogger(AmbulanceRoutingService.class);
+
+    // Multi-pass search: local (~100km), wide (~600km), then everywhere
+    private static final double[] SEARCH_RADII_DEGREES = { 1.0, 6.0, 180.0 };
+
     private final HospitalRepository hospitalRepository;
     private final BedRepository bedRepository;
     private final BedReservationRepository bedReservationRepository;
     private final AmbulanceRealtimeService realtimeService;
     private final RoutingService routingService;
+    private final AmbulanceTrackingService trackingService;
+    private final EtaTrackingService etaTrackingService;
+    private final MeterRegistry meterRegistry;
+    private final DispatchTracer tracer;
+    private final BatchAssignmentPlanner batchPlanner;
+    private final HospitalLoadTable loadTable;
+    private final TransactionTemplate claimTransaction;
+    private final boolean loadBalanced;
+    private final double loadPenaltyKm;
+
+    // openicu.dispatch.phase, one timer per phase of findNearestHospital
+    private final Timer expiryTimer;
+    private final Timer boxQueryTimer;
+    private final Timer rankingTimer;
+    private final Timer bedClaimTimer;
+    private final Timer routeTimer;
+    private final Timer batchPlanTimer;
+    private final DistributionSummary[] candidatesPerPass;
+    private final Counter claimMisses;
 
     public AmbulanceRoutingService(HospitalRepository hospitalRepository,
             BedRepository bedRepository,
             BedReservationRepository bedReservationRepository,
             AmbulanceRealtimeService realtimeService,
-            RoutingService routingService) {
+            RoutingService routingService,
+            AmbulanceTrackingService trackingService,
+            EtaTrackingService etaTrackingService,
+            MeterRegistry meterRegistry,
+            DispatchTracer tracer,
+            BatchAssignmentPlanner batchPlanner,
+            HospitalLoadTable loadTable,
+            PlatformTransactionManager transactionManager,
+            @Value("${openicu.dispatch.scoring:nearest}") String scoring,
+            @Value("${openicu.dispatch.load-penalty-km:15}") double loadPenaltyKm) {
         this.hospitalRepository = hospitalRepository;
         this.bedRepository = bedRepository;
         this.bedReservationRepository = bedReservationRepository;
         this.realtimeService = realtimeService;
         this.routingService = routingService;
+        this.trackingService = trackingService;
+        this.etaTrackingService = etaTrackingService;
+        this.meterRegistry = meterRegistry;
+        this.tracer = tracer;
+        this.batchPlanner = batchPlanner;
+        this.loadTable = loadTable;
+        this.claimTransaction = new TransactionTemplate(transactionManager);
+        this.loadBalanced = switch (scoring.trim().toLowerCase()) {
+            case "nearest" -> false;
+            case "load-balanced" -> true;
+            default -> throw new IllegalArgumentException(
+                    "openicu.dispatch.scoring must be nearest or load-balanced, not " + scoring);
+        };
+        this.loadPenaltyKm = loadPenaltyKm;
+        this.expiryTimer = phaseTimer("expiry");
+        this.boxQueryTimer = phaseTimer("bbox_query");
+        this.rankingTimer = phaseTimer("ranking");
+        this.bedClaimTimer = phaseTimer("bed_claim");
+        this.routeTimer = phaseTimer("route");
+        this.batchPlanTimer = phaseTimer("batch_plan");
+        this.candidatesPerPass = new DistributionSummary[SEARCH_RADII_DEGREES.length];
+        for (int pass = 0; pass < SEARCH_RADII_DEGREES.length; pass++) {
+            candidatesPerPass[pass] = DistributionSummary.builder("openicu.dispatch.candidates")
+                    .description("Hospitals with a matching available bed found by a search pass")
+                    .tag("pass", String.valueOf(pass + 1))
+                    .tag("box_degrees", String.valueOf(SEARCH_RADII_DEGREES[pass]))
+                    .register(meterRegistry);
+        }
+        this.claimMisses = Counter.builder("openicu.dispatch.claim.misses")
+                .description("Candidates skipped because every available bed was already reserved")
+                .register(meterRegistry);
+    }
+
+    private Timer phaseTimer(String phase) {
+        return Timer.builder("openicu.dispatch.phase")
+                .description("Time spent in each phase of findNearestHospital")
+                .tag("phase", phase)
+                .register(meterRegistry);
     }
 
     /**
@@ -47,116 +139,108 @@ public class AmbulanceRoutingService {
      * Emits WebSocket events for real-time dashboard updates.
      * 
      * OPTIMIZED: Uses radius-limited query instead of loading all hospitals.
+     *
+     * The bed is claimed in its own short transaction and the route fetched
+     * after it commits, so the bed row lock taken by the claim is not held
+     * across the routing provider call.
      */
-    @Transactional
     public HospitalMatchDTO findNearestHospital(AmbulanceRequestDTO request) {
-        // Lazy expiry: expire stale reservations on every public call
-        expireStaleReservations();
+        BedClaim claim = claimTransaction.execute(status -> claimNearestBed(request));
+        Hospital hospital = claim.hospital();
 
-        // Parse the requested bed type
-        BedType requestedBedType;
-        try {
-            requestedBedType = BedType.valueOf(request.getRequiredBedType().toUpperCase());
-        } catch (IllegalArgumentException e) {
-            throw new IllegalArgumentException(
-                    "Invalid bed type: " + request.getRequiredBedType() + ". Allowed values: ICU, VENTILATOR");
+        // Calculate route
+        RouteResponse route;
+        try (TraceScope span = tracer.span("route", routeTimer)) {
+            try {
+                route = routingService.getRoute(
+                        request.getLatitude(), request.getLongitude(),
+                        hospital.getLatitude(), hospital.getLongitude());
+            } catch (RuntimeException e) {
+                // The reservation has committed: fall back rather than fail the dispatch
+                log.warn("Route for reservation {} unavailable ({}); using straight-line estimate",
+                        claim.reservation().getId(), e.toString());
+                route = RoutingService.straightLine(request.getLatitude(), request.getLongitude(),
+                        hospital.getLatitude(), hospital.getLongitude());
+            }
+            span.tag("fallback", route.getEncodedPolyline() == null);
+        }
+        try (TraceScope span = tracer.span("eta.track")) {
+            etaTrackingService.track(claim.reservation(), route);
         }
 
-        // OPTIMIZATION: Get only nearby hospitals with coordinates (within 100km
-        // initially)
-        // This uses a database-level Haversine query instead of loading all 30K
-        // hospitals
-        // OPTIMIZATION: Get only nearby hospitals via bounding box (Java-side distance
-        // calc)
-        // 100km is approx 0.9 degrees. Using 1.0 degree box.
-        // Multi-pass search strategy:
-        // Pass 1: Local (1.0 degree box ~ 100km)
-        // Pass 2: Wide (6.0 degree box ~ 600km)
+        HospitalMatchDTO result = claim.toMatch(route);
+        publishClaim(claim, result);
+        return result;
+    }
 
-        double[] searchRadiiDegrees = { 1.0, 6.0, 180.0 };
+    /**
+     * Reserve a bed at the nearest hospital that has one, without routing.
+     * The assignment is published with the straight-line distance; the caller
+     * routes afterwards (see AsyncDispatchService).
+     */
+    @Transactional
+    public BedClaim reserveNearestBed(AmbulanceRequestDTO request) {
+        BedClaim claim = claimNearestBed(request);
+        publishClaim(claim, claim.toMatch(null));
+        return claim;
+    }
 
-        for (double boxSizeDegrees : searchRadiiDegrees) {
-            System.out.println("DEBUG: Searching with box size " + boxSizeDegrees + " degrees");
+    private void publishClaim(BedClaim claim, HospitalMatchDTO match) {
+        try (TraceScope span = tracer.span("publish")) {
+            emitClaim(claim, match);
+        }
+    }
 
-            // OPTIMIZATION: Use JOIN to find hospitals that HAVE beds immediately
-            List<Hospital> hospitalsInBox = hospitalRepository.findHospitalsInBoundingBoxWithAvailableBeds(
-                    request.getLatitude() - boxSizeDegrees, request.getLatitude() + boxSizeDegrees,
-                    request.getLongitude() - boxSizeDegrees, request.getLongitude() + boxSizeDegrees,
-                    requestedBedType.name());
+    private void emitClaim(BedClaim claim, HospitalMatchDTO match) {
+        realtimeService.emitAmbulanceAssigned(claim.reservation().getAmbulanceId(), match, claim.bedType().name());
+        realtimeService.emitBedReserved(claim.reservation());
+    }
 
-            System.out.println("DEBUG: Found " + hospitalsInBox.size() + " hospitals with AVAILABLE " + requestedBedType
-                    + " beds in bounding box");
+    private BedClaim claimNearestBed(AmbulanceRequestDTO request) {
+        // Lazy expiry: expire stale reservations on every public call
+        try (TraceScope span = tracer.span("expiry", expiryTimer)) {
+            span.tag("expired", expireStaleReservations());
+        }
 
-            // Calculate distance and sort in Java
-            List<HospitalMatchDTO> candidates = hospitalsInBox.stream()
-                    .map(h -> {
-                        double dist = calculateHaversineDistance(request.getLatitude(), request.getLongitude(),
-                                h.getLatitude(), h.getLongitude());
-                        return new HospitalMatchDTO(h.getId(), h.getName(), dist, 0, 0L, 0, null, null);
-                    })
-                    .sorted((a, b) -> Double.compare(a.getDistanceInKm(), b.getDistanceInKm()))
-                    .toList();
+        BedType requestedBedType = parseBedType(request);
 
-            // Process candidates (now we know they have beds!)
-            for (HospitalMatchDTO candidate : candidates) {
-                Long hospitalId = candidate.getHospitalId();
+        // OPTIMIZATION: Get only nearby hospitals via bounding box (Java-side distance
+        // calc)
+        // 100km is approx 0.9 degrees. Using 1.0 degree box.
+        for (int pass = 0; pass < SEARCH_RADII_DEGREES.length; pass++) {
+            double boxSizeDegrees = SEARCH_RADII_DEGREES[pass];
 
-                // Fetch the actual bed to reserve (just need one)
-                // We re-query here but only for the WINNING hospital, which is fast.
-                List<Bed> availableBeds = bedRepository.findByHospitalIdAndBedTypeAndBedStatus(
-                        hospitalId, requestedBedType, BedStatus.AVAILABLE);
+            // OPTIMIZATION: Use JOIN to find hospitals that HAVE beds immediately
+            List<Hospital> hospitalsInBox;
+            try (TraceScope span = tracer.span("bbox_query", boxQueryTimer)) {
+                hospitalsInBox = hospitalRepository.findHospitalsInBoundingBoxWithAvailableBeds(
+                        request.getLatitude() - boxSizeDegrees, request.getLatitude() + boxSizeDegrees,
+                        request.getLongitude() - boxSizeDegrees, request.getLongitude() + boxSizeDegrees,
+                        requestedBedType.name());
+                span.tag("pass", pass + 1).tag("boxDegrees", boxSizeDegrees).tag("candidates", hospitalsInBox.size());
+            }
+            candidatesPerPass[pass].record(hospitalsInBox.size());
+            log.debug("Pass {} ({} degree box): {} hospitals with available {} beds",
+                    pass + 1, boxSizeDegrees, hospitalsInBox.size(), requestedBedType);
 
-                Bed availableBed = null;
-                // Strict check again just to be safe and get specific bed ID
-                for (Bed bed : availableBeds) {
-                    List<BedReservation> activeReservations = bedReservationRepository
-                            .findByBedIdAndStatus(bed.getId(), ReservationStatus.RESERVED);
-                    if (activeReservations.isEmpty()) {
-                        availableBed = bed;
-                        break;
-                    }
+            // Calculate distance and sort in Java
+            List<HospitalMatchDTO> candidates;
+            try (TraceScope span = tracer.span("ranking", rankingTimer)) {
+                candidates = rankByDistance(hospitalsInBox, request.getLatitude(), request.getLongitude());
+                if (loadBalanced) {
+                    candidates = rankByLoad(candidates, loadTable, requestedBedType, loadPenaltyKm);
                 }
+                span.tag("scoring", loadBalanced ? "load-balanced" : "nearest");
+            }
 
-                if (availableBed == null)
-                    continue; // Should be rare given the query, but race conditions exist
-
-                // If no bed, skip to next hospital
-                // if (availableBed == null) {
-                //     continue;
-                // }
-
-                // Found a match!
-                Hospital hospital = hospitalRepository.findById(hospitalId)
-                        .orElseThrow(() -> new IllegalStateException("Hospital not found: " + hospitalId));
-
-                // Create reservation
-                BedReservation reservation = new BedReservation(
-                        hospital.getId(),
-                        availableBed.getId(),
-                        request.getAmbulanceId());
-                bedReservationRepository.save(reservation);
-
-                // Calculate route
-                RouteResponse route = routingService.getRoute(
-                        request.getLatitude(), request.getLongitude(),
-                        hospital.getLatitude(), hospital.getLongitude());
-
-                // Build result
-                HospitalMatchDTO result = new HospitalMatchDTO(
-                        hospital.getId(),
-                        hospital.getName(),
-                        route.getDistanceKm(),
-                        availableBeds.size(),
-                        availableBed.getId(),
-                        route.getTimeMinutes(),
-                        route.getEncodedPolyline(),
-                        route.getCoordinates());
-
-                // Emit events
-                realtimeService.emitAmbulanceAssigned(request.getAmbulanceId(), result, requestedBedType.name());
-                realtimeService.emitBedReserved(reservation);
-
-                return result;
+            // Process candidates (now we know they have beds!)
+            BedClaim claim;
+            try (TraceScope span = tracer.span("bed_claim", bedClaimTimer)) {
+                claim = claimBed(candidates, requestedBedType, request.getAmbulanceId());
+                span.tag("pass", pass + 1).tag("claimed", claim != null);
+            }
+            if (claim != null) {
+                return claim;
             }
             // If loop finishes, continue to next radius
         }
@@ -170,37 +254,270 @@ public class AmbulanceRoutingService {
                 "No hospital with available " + requestedBedType + " beds found within 600km");
     }
 
+    /**
+     * Reserve beds for several ambulances at once with the lowest total
+     * straight-line ETA, respecting each hospital's free beds (see
+     * BatchAssignmentPlanner). Unlike calling reserveNearestBed per ambulance,
+     * an ambulance does not take a bed another one in the batch has no
+     * alternative to. Each assignment is published like reserveNearestBed's;
+     * the caller routes afterwards.
+     */
+    @Transactional
+    public BatchReservation reserveBatch(List<AmbulanceRequestDTO> requests) {
+        try (TraceScope span = tracer.span("expiry", expiryTimer)) {
+            span.tag("expired", expireStaleReservations());
+        }
+
+        Map<BedType, List<AmbulanceRequestDTO>> byBedType = new EnumMap<>(BedType.class);
+        for (AmbulanceRequestDTO request : requests) {
+            byBedType.computeIfAbsent(parseBedType(request), t -> new ArrayList<>()).add(request);
+        }
+
+        List<BatchReservation.Assigned> assigned = new ArrayList<>();
+        List<UnassignedAmbulanceDTO> unassigned = new ArrayList<>();
+        for (Map.Entry<BedType, List<AmbulanceRequestDTO>> group : byBedType.entrySet()) {
+            reserveGroup(group.getKey(), group.getValue(), assigned, unassigned);
+        }
+
+        try (TraceScope span = tracer.span("publish")) {
+            for (BatchReservation.Assigned assignment : assigned) {
+                emitClaim(assignment.claim(), assignment.claim().toMatch(null));
+            }
+        }
+        return new BatchReservation(assigned, unassigned);
+    }
+
+    private void reserveGroup(BedType bedType, List<AmbulanceRequestDTO> requests,
+            List<BatchReservation.Assigned> assigned, List<UnassignedAmbulanceDTO> unassigned) {
+        // Ambulances are clustered on a grid as wide as the search radius (about
+        // 100 km per degree, as in SEARCH_RADII_DEGREES) and each cluster's box is
+        // widened by that radius, so ambulances far apart do not pull in every
+        // hospital between them; the planner applies the exact distance limit
+        double margin = batchPlanner.getMaxDistanceKm() / 100.0;
+        Map<Long, double[]> clusters = new LinkedHashMap<>();
+        for (AmbulanceRequestDTO request : requests) {
+            long cell = ((long) Math.floor(request.getLatitude() / margin) << 32)
+                    | ((long) Math.floor(request.getLongitude() / margin) & 0xFFFFFFFFL);
+            double[] box = clusters.computeIfAbsent(cell,
+                    c -> new double[] { Double.MAX_VALUE, -Double.MAX_VALUE, Double.MAX_VALUE, -Double.MAX_VALUE });
+            box[0] = Math.min(box[0], request.getLatitude());
+            box[1] = Math.max(box[1], request.getLatitude());
+            box[2] = Math.min(box[2], request.getLongitude());
+            box[3] = Math.max(box[3], request.getLongitude());
+        }
+
+        Map<Long, BatchCandidate> byId = new LinkedHashMap<>();
+        try (TraceScope span = tracer.span("bbox_query", boxQueryTimer)) {
+            for (double[] box : clusters.values()) {
+                for (Object[] row : bedRepository.countUnreservedAvailableInBoundingBox(
+                        box[0] - margin, box[1] + margin, box[2] - margin, box[3] + margin, bedType)) {
+                    byId.putIfAbsent((Long) row[0], new BatchCandidate((Long) row[0],
+                            ((Number) row[1]).doubleValue(), ((Number) row[2]).doubleValue(),
+                            ((Number) row[3]).intValue()));
+                }
+            }
+            span.tag("bedType", bedType.name()).tag("clusters", clusters.size()).tag("candidates", byId.size());
+        }
+        List<BatchCandidate> hospitals = new ArrayList<>(byId.values());
+
+        int[] plan;
+        try (TraceScope span = tracer.span("batch_plan", batchPlanTimer)) {
+            double[] ambulanceLat = requests.stream().mapToDouble(AmbulanceRequestDTO::getLatitude).toArray();
+            double[] ambulanceLon = requests.stream().mapToDouble(AmbulanceRequestDTO::getLongitude).toArray();
+            double[] hospitalLat = hospitals.stream().mapToDouble(BatchCandidate::latitude).toArray();
+            double[] hospitalLon = hospitals.stream().mapToDouble(BatchCandidate::longitude).toArray();
+            int[] freeBeds = hospitals.stream().mapToInt(BatchCandidate::freeBeds).toArray();
+            plan = batchPlanner.plan(ambulanceLat, ambulanceLon, hospitalLat, hospitalLon, freeBeds);
+            span.tag("ambulances", requests.size()).tag("hospitals", hospitals.size());
+        }
+
+        try (TraceScope span = tracer.span("bed_claim", bedClaimTimer)) {
+            for (int a = 0; a < requests.size(); a++) {
+                AmbulanceRequestDTO request = requests.get(a);
+                if (plan[a] == MinCostAssignmentSolver.UNASSIGNED) {
+                    unassigned.add(new UnassignedAmbulanceDTO(request.getAmbulanceId(),
+                            "No " + bedType + " bed left within " + Math.round(batchPlanner.getMaxDistanceKm())
+                                    + "km for this batch"));
+                    continue;
+                }
+                BatchCandidate hospital = hospitals.get(plan[a]);
+                double km = GeoUtils.haversineKm(request.getLatitude(), request.getLongitude(),
+                        hospital.latitude(), hospital.longitude());
+                // claimBed loads the hospital itself; the name is not needed here
+                HospitalMatchDTO candidate = new HospitalMatchDTO(hospital.hospitalId(), null, km, 0, 0L,
+                        0, null, null);
+                BedClaim claim = claimBed(List.of(candidate), bedType, request.getAmbulanceId());
+                if (claim == null) {
+                    // Reserved concurrently since the free-bed count was taken
+                    unassigned.add(new UnassignedAmbulanceDTO(request.getAmbulanceId(),
+                            "Assigned bed was taken concurrently, retry"));
+                } else {
+                    assigned.add(new BatchReservation.Assigned(request, claim));
+                }
+            }
+            span.tag("claimed", assigned.size());
+        }
+    }
+
+    /**
+     * A hospital with free beds of the batch's type, as loaded for planning.
+     */
+    private record BatchCandidate(Long hospitalId, double latitude, double longitude, int freeBeds) {
+    }
+
+    private static BedType parseBedType(AmbulanceRequestDTO request) {
+        try {
+            return BedType.valueOf(request.getRequiredBedType().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(
+                    "Invalid bed type: " + request.getRequiredBedType() + ". Allowed values: ICU, VENTILATOR");
+        }
+    }
+
+    /**
+     * Reserve the first free bed of the nearest candidate that still has one.
+     * Returns null if every candidate's available beds are already reserved.
+     */
+    private BedClaim claimBed(List<HospitalMatchDTO> candidates, BedType requestedBedType, String ambulanceId) {
+        for (HospitalMatchDTO candidate : candidates) {
+            Long hospitalId = candidate.getHospitalId();
+
+            // Fetch the actual bed to reserve (just need one)
+            // We re-query here but only for the WINNING hospital, which is fast.
+            List<Bed> availableBeds;
+            try (TraceScope span = tracer.span("db.available_beds")) {
+                availableBeds = bedRepository.findByHospitalIdAndBedTypeAndBedStatus(
+                        hospitalId, requestedBedType, BedStatus.AVAILABLE);
+                span.tag("hospitalId", hospitalId).tag("beds", availableBeds.size());
+            }
+
+            Bed availableBed = null;
+            // Strict check again just to be safe and get specific bed ID
+            for (Bed bed : availableBeds) {
+                if (hasActiveReservation(bed.getId())) {
+                    continue;
+                }
+                // Re-check under the bed's row lock: two concurrent claims that both
+                // saw the bed free would otherwise both reserve it
+                try (TraceScope span = tracer.span("db.lock_bed")) {
+                    bed = bedRepository.findByIdForUpdate(bed.getId()).orElse(null);
+                }
+                if (bed != null && bed.getBedStatus() == BedStatus.AVAILABLE && !hasActiveReservation(bed.getId())) {
+                    availableBed = bed;
+                    break;
+                }
+            }
+
+            if (availableBed == null) {
+                claimMisses.increment();
+                continue; // Should be rare given the query, but race conditions exist
+            }
+
+            // Found a match!
+            Hospital hospital;
+            try (TraceScope span = tracer.span("db.find_hospital")) {
+                hospital = hospitalRepository.findById(hospitalId)
+                        .orElseThrow(() -> new IllegalStateException("Hospital not found: " + hospitalId));
+            }
+
+            // Create reservation
+            BedReservation reservation = new BedReservation(hospital.getId(), availableBed.getId(), ambulanceId);
+            try (TraceScope span = tracer.span("db.save_reservation")) {
+                bedReservationRepository.save(reservation);
+            }
+            trackingService.assignReservation(reservation, requestedBedType);
+            return new BedClaim(hospital, availableBed, requestedBedType, availableBeds.size(),
+                    candidate.getDistanceInKm(), reservation);
+        }
+        return null;
+    }
+
+    private boolean hasActiveReservation(Long bedId) {
+        try (TraceScope span = tracer.span("db.active_reservations")) {
+            return !bedReservationRepository.findByBedIdAndStatus(bedId, ReservationStatus.RESERVED).isEmpty();
+        }
+    }
+
     /**
      * Lazy expiry: Find all RESERVED reservations that have expired and mark them
      * as EXPIRED.
      * Called at the start of every public service method.
-     * Emits WebSocket events for each expired reservation.
+     * Each one is expired with a conditional UPDATE, so a confirm, cancel or ETA
+     * extension that commits after the read is never overwritten; only rows
+     * actually expired are released and emitted.
+     * Returns the number of reservations expired.
      */
-    private void expireStaleReservations() {
+    private int expireStaleReservations() {
         LocalDateTime now = LocalDateTime.now();
-        List<BedReservation> expiredReservations = bedReservationRepository
+        List<BedReservation> candidates = bedReservationRepository
                 .findByStatusAndExpiryTimeBefore(ReservationStatus.RESERVED, now);
 
-        for (BedReservation reservation : expiredReservations) {
+        int expired = 0;
+        for (BedReservation reservation : candidates) {
+            if (bedReservationRepository.expireIfLapsed(reservation.getId(), now) == 0) {
+                continue;
+            }
             reservation.setStatus(ReservationStatus.EXPIRED);
+            trackingService.releaseReservation(reservation);
+            etaTrackingService.untrack(reservation);
 
             // === PHASE 2: Emit expiry event ===
             realtimeService.emitReservationExpired(reservation);
+            expired++;
         }
+        return expired;
+    }
 
-        if (!expiredReservations.isEmpty()) {
-            bedReservationRepository.saveAll(expiredReservations);
-        }
+    /**
+     * Candidates nearest first. Package-private for the JMH benchmarks.
+     */
+    static List<HospitalMatchDTO> rankByDistance(List<Hospital> hospitals, double latitude, double longitude) {
+        return hospitals.stream()
+                .map(h -> {
+                    double dist = GeoUtils.haversineKm(latitude, longitude,
+                            h.getLatitude(), h.getLongitude());
+                    return new HospitalMatchDTO(h.getId(), h.getName(), dist, 0, 0L, 0, null, null);
+                })
+                .sorted((a, b) -> Double.compare(a.getDistanceInKm(), b.getDistanceInKm()))
+                .toList();
     }
 
-    private double calculateHaversineDistance(double lat1, double lon1, double lat2, double lon2) {
-        final int R = 6371; // Radius of the earth in km
-        double dLat = Math.toRadians(lat2 - lat1);
-        double dLon = Math.toRadians(lon2 - lon1);
-        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
-                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * Math.sin(dLon / 2)
-                        * Math.sin(dLon / 2);
-        double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
-        return R * c;
+    /**
+     * Re-rank distance-ranked candidates by distance plus a load penalty of up
+     * to penaltyKm: a full hospital scores as if it were penaltyKm farther than
+     * an idle one, so a slightly farther hospital with many free beds wins over
+     * the nearest one with its last bed, but never one more than penaltyKm
+     * farther. Occupancy counts inbound reservations as taken (HospitalLoadTable,
+     * no queries). Hospitals with every available bed already promised go last;
+     * hospitals with unknown load are scored at the mean occupancy of the known
+     * candidates, so they neither jump ahead of busy hospitals nor fall behind.
+     */
+    static List<HospitalMatchDTO> rankByLoad(List<HospitalMatchDTO> candidates, HospitalLoadTable loadTable,
+            BedType bedType, double penaltyKm) {
+        record Scored(HospitalMatchDTO match, boolean exhausted, double score) {
+        }
+        double[] occupancies = new double[candidates.size()];
+        double knownSum = 0;
+        int known = 0;
+        for (int i = 0; i < occupancies.length; i++) {
+            occupancies[i] = loadTable.occupancy(candidates.get(i).getHospitalId(), bedType);
+            if (occupancies[i] >= 0) {
+                knownSum += occupancies[i];
+                known++;
+            }
+        }
+        double neutral = known > 0 ? knownSum / known : 0;
+
+        List<Scored> scored = new ArrayList<>(candidates.size());
+        for (int i = 0; i < occupancies.length; i++) {
+            HospitalMatchDTO c = candidates.get(i);
+            double occupancy = occupancies[i] >= 0 ? occupancies[i] : neutral;
+            boolean exhausted = loadTable.freeBeds(c.getHospitalId(), bedType) == 0;
+            scored.add(new Scored(c, exhausted, c.getDistanceInKm() + penaltyKm * occupancy));
+        }
+        return scored.stream()
+                .sorted(Comparator.comparing(Scored::exhausted).thenComparingDouble(Scored::score))
+                .map(Scored::match)
+                .toList();
     }
 }
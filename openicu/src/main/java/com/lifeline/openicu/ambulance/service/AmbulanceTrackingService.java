@@ -0,0 +1,184 @@
+package com.lifeline.openicu.ambulance.service;
+
+import com.lifeline.openicu.ambulance.entity.BedReservation;
+import com.lifeline.openicu.ambulance.entity.ReservationStatus;
+import com.lifeline.openicu.ambulance.event.ReservationChangedEvent;
+import com.lifeline.openicu.ambulance.tracking.AmbulanceSnapshot;
+import com.lifeline.openicu.ambulance.tracking.AmbulanceTrackingTable;
+import com.lifeline.openicu.bed.entity.BedType;
+import com.lifeline.openicu.realtime.ambulance.AmbulanceRealtimeService;
+import com.lifeline.openicu.realtime.ambulance.dto.AmbulancePositionEvent;
+import com.lifeline.openicu.realtime.ambulance.dto.AmbulancePositionUpdate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Live ambulance tracking: ingests GPS fixes into the in-memory tracking table
+ * and fans each accepted fix out to the assigned hospital's topic.
+ * Contains NO database logic - reservations are attached by AmbulanceRoutingService.
+ * Attaching and releasing a reservation raises ReservationChangedEvent; the
+ * tracking table itself changes once the surrounding transaction commits.
+ *
+ * Fixes stamped more than max-clock-skew-ms ahead of the server clock are
+ * rejected: one far-future fix would otherwise make every later fix of that
+ * ambulance look out of order. Ambulances with no fix for idle-ttl-ms and no
+ * reservation are evicted from the table every evict-interval-ms.
+ *
+ * Ambulances with a reservation that sent an accepted fix are remembered until
+ * the next drainMoved(), so the ETA pass only visits those that moved.
+ */
+@Service
+public class AmbulanceTrackingService {
+
+    private static final Logger log = LoggerFactory.getLogger(AmbulanceTrackingService.class);
+
+    private final AmbulanceTrackingTable trackingTable;
+    private final AmbulanceRealtimeService realtimeService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final long maxClockSkewMillis;
+    private final long idleTtlMillis;
+
+    private final LongAdder acceptedFixes = new LongAdder();
+    private final LongAdder rejectedFixes = new LongAdder();
+    private final Set<String> moved = ConcurrentHashMap.newKeySet();
+
+    public AmbulanceTrackingService(AmbulanceTrackingTable trackingTable,
+            AmbulanceRealtimeService realtimeService,
+            ApplicationEventPublisher eventPublisher,
+            @Value("${openicu.tracking.max-clock-skew-ms:30000}") long maxClockSkewMillis,
+            @Value("${openicu.tracking.idle-ttl-ms:900000}") long idleTtlMillis) {
+        this.trackingTable = trackingTable;
+        this.realtimeService = realtimeService;
+        this.eventPublisher = eventPublisher;
+        this.maxClockSkewMillis = maxClockSkewMillis;
+        this.idleTtlMillis = idleTtlMillis;
+    }
+
+    /**
+     * Record a GPS fix. Invalid or out-of-order fixes are dropped.
+     */
+    public void recordPosition(AmbulancePositionUpdate update) {
+        long now = System.currentTimeMillis();
+        if (!isValid(update, now)) {
+            rejectedFixes.increment();
+            log.debug("Dropping invalid position update for ambulance {}", update.getAmbulanceId());
+            return;
+        }
+
+        AmbulancePositionEvent event = trackingTable.recordFix(
+                update.getAmbulanceId(),
+                update.getLatitude(),
+                update.getLongitude(),
+                update.getSpeed() != null ? update.getSpeed() : 0.0,
+                update.getHeading() != null ? update.getHeading() : 0.0,
+                update.getTimestamp() != null ? update.getTimestamp() : now);
+
+        if (event == null) {
+            rejectedFixes.increment();
+            return;
+        }
+
+        acceptedFixes.increment();
+        if (event.getHospitalId() != null) {
+            moved.add(update.getAmbulanceId());
+            realtimeService.emitAmbulancePosition(event);
+        }
+    }
+
+    /**
+     * Ambulances with a reservation that sent an accepted fix since the previous
+     * call. A fix arriving while draining is already in the table, or kept for the next call.
+     */
+    public List<String> drainMoved() {
+        List<String> drained = new ArrayList<>();
+        for (Iterator<String> it = moved.iterator(); it.hasNext();) {
+            drained.add(it.next());
+            it.remove();
+        }
+        return drained;
+    }
+
+    /**
+     * Attach a new reservation so later fixes reach the destination hospital.
+     * Inside a transaction this happens once it commits, so a rolled back claim
+     * never routes fixes to a hospital.
+     */
+    public void assignReservation(BedReservation reservation, BedType bedType) {
+        afterCommit(() -> trackingTable.assign(
+                reservation.getAmbulanceId(), reservation.getId(), reservation.getHospitalId()));
+        eventPublisher.publishEvent(new ReservationChangedEvent(reservation.getId(), reservation.getHospitalId(),
+                bedType, ReservationStatus.RESERVED));
+    }
+
+    /**
+     * Detach an expired or finished reservation from its ambulance, after commit
+     * like assignReservation.
+     */
+    public void releaseReservation(BedReservation reservation) {
+        afterCommit(() -> trackingTable.release(reservation.getAmbulanceId(), reservation.getId()));
+        eventPublisher.publishEvent(new ReservationChangedEvent(reservation.getId(), reservation.getHospitalId(),
+                null, reservation.getStatus()));
+    }
+
+    public Optional<AmbulanceSnapshot> getAmbulance(String ambulanceId) {
+        return trackingTable.get(ambulanceId);
+    }
+
+    public List<AmbulanceSnapshot> getAllAmbulances() {
+        return trackingTable.snapshot();
+    }
+
+    /**
+     * Drop ambulances that stopped reporting and have no reservation, so ids
+     * sent once (or made up) do not stay in the table forever.
+     */
+    @Scheduled(fixedDelayString = "${openicu.tracking.evict-interval-ms:60000}")
+    public void evictIdle() {
+        int removed = trackingTable.evictIdle(System.currentTimeMillis() - idleTtlMillis);
+        if (removed > 0) {
+            log.debug("Evicted {} idle ambulances, {} tracked", removed, trackingTable.size());
+        }
+    }
+
+    public long getAcceptedFixes() {
+        return acceptedFixes.sum();
+    }
+
+    public long getRejectedFixes() {
+        return rejectedFixes.sum();
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private boolean isValid(AmbulancePositionUpdate update, long now) {
+        return update.getAmbulanceId() != null && !update.getAmbulanceId().isBlank()
+                && update.getLatitude() != null && update.getLatitude() >= -90 && update.getLatitude() <= 90
+                && update.getLongitude() != null && update.getLongitude() >= -180 && update.getLongitude() <= 180
+                && (update.getTimestamp() == null || update.getTimestamp() <= now + maxClockSkewMillis);
+    }
+}
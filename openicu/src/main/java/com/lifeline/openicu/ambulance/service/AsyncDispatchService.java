@@ -0,0 +1,306 @@
+package com.lifeline.openicu.ambulance.service;
+
+import com.lifeline.openicu.ambulance.dto.AmbulanceRequestDTO;
+import com.lifeline.openicu.ambulance.dto.BatchDispatchResultDTO;
+import com.lifeline.openicu.ambulance.dto.DispatchAcceptedDTO;
+import com.lifeline.openicu.ambulance.dto.HospitalMatchDTO;
+import com.lifeline.openicu.ambulance.dto.ReassignRequestDTO;
+import com.lifeline.openicu.ambulance.entity.BedReservation;
+import com.lifeline.openicu.entity.Hospital;
+import com.lifeline.openicu.realtime.ambulance.AmbulanceRealtimeService;
+import com.lifeline.openicu.routing.dto.RouteResponse;
+import com.lifeline.openicu.routing.service.RoutingService;
+import com.lifeline.openicu.tracing.DispatchTracer;
+import com.lifeline.openicu.tracing.TraceScope;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Non-blocking variant of findNearestHospital.
+ *
+ * The pipeline has two stages, each on its own executor and with its own timeout:
+ * 1. claim: expiry, candidate lookup and bed reservation in one transaction on
+ *    dispatchExecutor. The Dispatch completes as soon as it commits.
+ * 2. route: the road route is fetched on routingExecutor. A failed or timed-out
+ *    route falls back to a straight-line estimate, so ETA tracking always starts.
+ *    The route is published as AMBULANCE_ROUTED on /topic/ambulance and
+ *    completes Dispatch.route().
+ *
+ * Cancelling the returned future before the claim starts skips the claim.
+ * A claim that is already running is not interrupted mid-transaction. If a
+ * dispatch claim commits after the claim timeout or cancellation, the caller
+ * has already been told the dispatch failed, so the reservation is cancelled
+ * right away instead of holding the bed until it expires.
+ *
+ * dispatchBatch runs the same two stages for a batch of ambulances: one
+ * claim stage solves and reserves the whole batch (see reserveBatch), then
+ * every assigned ambulance is routed as above.
+ *
+ * reassign runs the same two stages for a diverted ambulance: the claim stage
+ * swaps its reservation for the nearest bed to its new position (see
+ * BedReservationService.reassign), then the new destination is routed.
+ * A reassign that commits late is kept, not cancelled: its previous
+ * reservation is already gone, so cancelling the new one would leave the
+ * ambulance without a bed. It is still routed, and the outcome reaches clients
+ * as RESERVATION_REASSIGNED and AMBULANCE_ROUTED.
+ */
+@Service
+public class AsyncDispatchService {
+
+    public static final String ROUTE_TOPIC = "/topic/ambulance";
+
+    private static final Logger log = LoggerFactory.getLogger(AsyncDispatchService.class);
+
+    private final AmbulanceRoutingService ambulanceRoutingService;
+    private final BedReservationService bedReservationService;
+    private final RoutingService routingService;
+    private final EtaTrackingService etaTrackingService;
+    private final AmbulanceRealtimeService realtimeService;
+    private final DispatchTracer tracer;
+    private final TaskExecutor dispatchExecutor;
+    private final TaskExecutor routingExecutor;
+    private final long claimTimeoutMillis;
+    private final long routeTimeoutMillis;
+    private final long batchTimeoutMillis;
+    private final int maxBatchSize;
+
+    public AsyncDispatchService(AmbulanceRoutingService ambulanceRoutingService,
+            BedReservationService bedReservationService,
+            RoutingService routingService,
+            EtaTrackingService etaTrackingService,
+            AmbulanceRealtimeService realtimeService,
+            DispatchTracer tracer,
+            @Qualifier("dispatchExecutor") TaskExecutor dispatchExecutor,
+            @Qualifier("routingExecutor") TaskExecutor routingExecutor,
+            @Value("${openicu.dispatch.async.claim-timeout-ms:5000}") long claimTimeoutMillis,
+            @Value("${openicu.dispatch.async.route-timeout-ms:8000}") long routeTimeoutMillis,
+            @Value("${openicu.dispatch.batch.timeout-ms:15000}") long batchTimeoutMillis,
+            @Value("${openicu.dispatch.batch.max-size:500}") int maxBatchSize) {
+        this.ambulanceRoutingService = ambulanceRoutingService;
+        this.bedReservationService = bedReservationService;
+        this.routingService = routingService;
+        this.etaTrackingService = etaTrackingService;
+        this.realtimeService = realtimeService;
+        this.tracer = tracer;
+        this.dispatchExecutor = dispatchExecutor;
+        this.routingExecutor = routingExecutor;
+        this.claimTimeoutMillis = claimTimeoutMillis;
+        this.routeTimeoutMillis = routeTimeoutMillis;
+        this.batchTimeoutMillis = batchTimeoutMillis;
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    /**
+     * Start a dispatch. Completes with the confirmed reservation once the bed
+     * claim commits, or exceptionally with the claim's failure (no bed found,
+     * invalid bed type, timeout, executor saturated).
+     */
+    public CompletableFuture<Dispatch> dispatch(AmbulanceRequestDTO request) {
+        return start(request.getLatitude(), request.getLongitude(), () -> {
+            try (TraceScope trace = tracer.startTrace("async dispatch claim")) {
+                trace.tag("ambulanceId", request.getAmbulanceId()).tag("bedType", request.getRequiredBedType());
+                return ambulanceRoutingService.reserveNearestBed(request);
+            }
+        }, late -> {
+            log.warn("Reservation {} for ambulance {} committed after the dispatch was abandoned; cancelling it",
+                    late.reservation().getId(), late.reservation().getAmbulanceId());
+            release(late.reservation());
+        });
+    }
+
+    /**
+     * Start a reassignment of a diverted ambulance. Completes with the new
+     * reservation once the old one is cancelled and the new bed claimed, or
+     * exceptionally as dispatch does (plus ReservationNotFoundException and
+     * ReservationConflictException). After a timeout the swap may still
+     * commit; it then stands and is routed.
+     */
+    public CompletableFuture<Dispatch> reassign(UUID reservationId, ReassignRequestDTO request) {
+        return start(request.getLatitude(), request.getLongitude(), () -> {
+            try (TraceScope trace = tracer.startTrace("async reassign claim")) {
+                trace.tag("reservationId", reservationId).tag("bedType", request.getRequiredBedType());
+                return bedReservationService.reassign(reservationId, request);
+            }
+        }, late -> {
+            log.warn("Reassignment of reservation {} to {} committed after the request was abandoned; keeping it",
+                    reservationId, late.reservation().getId());
+            route(request.getLatitude(), request.getLongitude(), late);
+        });
+    }
+
+    /**
+     * @param onAbandoned what to do with a claim that commits after the caller
+     *                    was already answered (timeout or cancellation)
+     */
+    private CompletableFuture<Dispatch> start(double latitude, double longitude, Supplier<BedClaim> claimer,
+            Consumer<BedClaim> onAbandoned) {
+        CompletableFuture<BedClaim> claim = new CompletableFuture<>();
+        try {
+            dispatchExecutor.execute(() -> claim(claimer, claim, onAbandoned));
+        } catch (RuntimeException e) {
+            claim.completeExceptionally(e); // dispatch executor saturated
+        }
+        claim.orTimeout(claimTimeoutMillis, TimeUnit.MILLISECONDS);
+
+        CompletableFuture<Dispatch> dispatch = claim.thenApply(
+                c -> new Dispatch(accepted(c), route(latitude, longitude, c)));
+        dispatch.whenComplete((result, error) -> {
+            if (error instanceof CancellationException) {
+                claim.cancel(false);
+            }
+        });
+        return dispatch;
+    }
+
+    private void claim(Supplier<BedClaim> claimer, CompletableFuture<BedClaim> claim,
+            Consumer<BedClaim> onAbandoned) {
+        if (claim.isDone()) {
+            return; // cancelled or timed out while queued: reserve nothing
+        }
+        try {
+            BedClaim result = claimer.get();
+            if (!claim.complete(result)) {
+                onAbandoned.accept(result);
+            }
+        } catch (RuntimeException e) {
+            claim.completeExceptionally(e);
+        }
+    }
+
+    /**
+     * Start a batch dispatch. Completes once the whole batch is reserved, with
+     * the reservations and the ambulances left without a bed; routes follow
+     * per ambulance as AMBULANCE_ROUTED events.
+     */
+    public CompletableFuture<BatchDispatchResultDTO> dispatchBatch(List<AmbulanceRequestDTO> requests) {
+        if (requests.size() > maxBatchSize) {
+            return CompletableFuture.failedFuture(new IllegalArgumentException(
+                    "Batch of " + requests.size() + " ambulances exceeds the limit of " + maxBatchSize));
+        }
+        Set<String> ambulanceIds = new HashSet<>();
+        for (AmbulanceRequestDTO request : requests) {
+            if (!ambulanceIds.add(request.getAmbulanceId())) {
+                return CompletableFuture.failedFuture(new IllegalArgumentException(
+                        "Ambulance " + request.getAmbulanceId() + " appears more than once in the batch"));
+            }
+        }
+
+        CompletableFuture<BatchReservation> batch = new CompletableFuture<>();
+        try {
+            dispatchExecutor.execute(() -> claimBatch(requests, batch));
+        } catch (RuntimeException e) {
+            batch.completeExceptionally(e); // dispatch executor saturated
+        }
+        batch.orTimeout(batchTimeoutMillis, TimeUnit.MILLISECONDS);
+
+        CompletableFuture<BatchDispatchResultDTO> result = batch.thenApply(reservation -> {
+            double totalKm = 0;
+            List<DispatchAcceptedDTO> accepted = new ArrayList<>(reservation.assigned().size());
+            for (BatchReservation.Assigned assignment : reservation.assigned()) {
+                route(assignment.request().getLatitude(), assignment.request().getLongitude(), assignment.claim());
+                accepted.add(accepted(assignment.claim()));
+                totalKm += assignment.claim().straightLineKm();
+            }
+            return new BatchDispatchResultDTO(accepted, reservation.unassigned(), totalKm);
+        });
+        result.whenComplete((value, error) -> {
+            if (error instanceof CancellationException) {
+                batch.cancel(false);
+            }
+        });
+        return result;
+    }
+
+    private void claimBatch(List<AmbulanceRequestDTO> requests, CompletableFuture<BatchReservation> batch) {
+        if (batch.isDone()) {
+            return; // cancelled or timed out while queued: reserve nothing
+        }
+        try (TraceScope trace = tracer.startTrace("async batch dispatch")) {
+            trace.tag("ambulances", requests.size());
+            BatchReservation result = ambulanceRoutingService.reserveBatch(requests);
+            trace.tag("assigned", result.assigned().size()).tag("unassigned", result.unassigned().size());
+            if (!batch.complete(result)) {
+                log.warn("Batch of {} reservations committed after the dispatch was abandoned; cancelling them",
+                        result.assigned().size());
+                for (BatchReservation.Assigned assignment : result.assigned()) {
+                    release(assignment.claim().reservation());
+                }
+            }
+        } catch (RuntimeException e) {
+            batch.completeExceptionally(e);
+        }
+    }
+
+    private void release(BedReservation reservation) {
+        try {
+            bedReservationService.cancel(reservation.getId());
+        } catch (RuntimeException e) {
+            // Already confirmed or cancelled by the crew, or the database is unavailable;
+            // in the latter case the reservation still lapses at its expiry
+            log.warn("Could not cancel abandoned reservation {}: {}", reservation.getId(), e.toString());
+        }
+    }
+
+    private CompletableFuture<HospitalMatchDTO> route(double latitude, double longitude, BedClaim claim) {
+        Hospital hospital = claim.hospital();
+        BedReservation reservation = claim.reservation();
+        return fetchRoute(latitude, longitude, hospital.getLatitude(), hospital.getLongitude())
+                .orTimeout(routeTimeoutMillis, TimeUnit.MILLISECONDS)
+                .exceptionally(error -> {
+                    log.warn("Route for reservation {} unavailable ({}); using straight-line estimate",
+                            reservation.getId(), error.toString());
+                    return RoutingService.straightLine(latitude, longitude,
+                            hospital.getLatitude(), hospital.getLongitude());
+                })
+                .thenApply(route -> {
+                    etaTrackingService.track(reservation, route);
+                    realtimeService.emitAmbulanceRouted(reservation, route);
+                    return claim.toMatch(route);
+                });
+    }
+
+    private CompletableFuture<RouteResponse> fetchRoute(double fromLat, double fromLon, double toLat, double toLon) {
+        try {
+            return CompletableFuture.supplyAsync(
+                    () -> routingService.getRoute(fromLat, fromLon, toLat, toLon), routingExecutor);
+        } catch (RuntimeException e) {
+            // Routing executor saturated: the reservation stands, fall back to the estimate
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private static DispatchAcceptedDTO accepted(BedClaim claim) {
+        BedReservation reservation = claim.reservation();
+        return new DispatchAcceptedDTO(
+                reservation.getId(),
+                reservation.getAmbulanceId(),
+                claim.hospital().getId(),
+                claim.hospital().getName(),
+                claim.bed().getId(),
+                claim.bedType().name(),
+                claim.straightLineKm(),
+                reservation.getExpiryTime(),
+                ROUTE_TOPIC);
+    }
+
+    /**
+     * A confirmed reservation and its pending route.
+     */
+    public record Dispatch(DispatchAcceptedDTO accepted, CompletableFuture<HospitalMatchDTO> route) {
+    }
+}
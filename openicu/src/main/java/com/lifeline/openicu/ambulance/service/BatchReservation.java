@@ -0,0 +1,15 @@
+package com.lifeline.openicu.ambulance.service;
+
+import com.lifeline.openicu.ambulance.dto.AmbulanceRequestDTO;
+import com.lifeline.openicu.ambulance.dto.UnassignedAmbulanceDTO;
+
+import java.util.List;
+
+/**
+ * Beds reserved for a batch of ambulances, before routing.
+ */
+public record BatchReservation(List<Assigned> assigned, List<UnassignedAmbulanceDTO> unassigned) {
+
+    public record Assigned(AmbulanceRequestDTO request, BedClaim claim) {
+    }
+}
@@ -0,0 +1,36 @@
+package com.lifeline.openicu.ambulance.service;
+
+import com.lifeline.openicu.ambulance.dto.HospitalMatchDTO;
+import com.lifeline.openicu.ambulance.entity.BedReservation;
+import com.lifeline.openicu.bed.entity.Bed;
+import com.lifeline.openicu.bed.entity.BedType;
+import com.lifeline.openicu.entity.Hospital;
+import com.lifeline.openicu.routing.dto.RouteResponse;
+
+/**
+ * A bed reserved for an ambulance, before or without a road route.
+ * straightLineKm is the Haversine distance the candidate was ranked by.
+ */
+public record BedClaim(Hospital hospital, Bed bed, BedType bedType, int availableBeds, double straightLineKm,
+        BedReservation reservation) {
+
+    /**
+     * Match result for the claim; without a route it carries the straight-line
+     * distance and no ETA or path.
+     */
+    public HospitalMatchDTO toMatch(RouteResponse route) {
+        if (route == null) {
+            return new HospitalMatchDTO(hospital.getId(), hospital.getName(), straightLineKm, availableBeds,
+                    bed.getId());
+        }
+        return new HospitalMatchDTO(
+                hospital.getId(),
+                hospital.getName(),
+                route.getDistanceKm(),
+                availableBeds,
+                bed.getId(),
+                route.getTimeMinutes(),
+                route.getEncodedPolyline(),
+                route.getCoordinates());
+    }
+}
@@ -0,0 +1,153 @@
+package com.lifeline.openicu.ambulance.service;
+
+import com.lifeline.openicu.ambulance.dto.AmbulanceRequestDTO;
+import com.lifeline.openicu.ambulance.dto.ReassignRequestDTO;
+import com.lifeline.openicu.ambulance.entity.BedReservation;
+import com.lifeline.openicu.ambulance.entity.ReservationStatus;
+import com.lifeline.openicu.ambulance.exception.ReservationConflictException;
+import com.lifeline.openicu.ambulance.exception.ReservationNotFoundException;
+import com.lifeline.openicu.ambulance.repository.BedReservationRepository;
+import com.lifeline.openicu.bed.entity.Bed;
+import com.lifeline.openicu.bed.entity.BedStatus;
+import com.lifeline.openicu.bed.exception.BedNotFoundException;
+import com.lifeline.openicu.bed.repository.BedRepository;
+import com.lifeline.openicu.bed.service.BedService;
+import com.lifeline.openicu.realtime.ambulance.AmbulanceRealtimeService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.UUID;
+
+/**
+ * Ends a reservation before its expiry instead of letting it hold the bed for
+ * the full reservation window.
+ *
+ * confirm: the ambulance arrived; the bed becomes OCCUPIED and the
+ * reservation CONFIRMED in one transaction.
+ * cancel: the ambulance was stood down; the bed is free for the next claim.
+ * reassign: the ambulance was diverted; the reservation is cancelled and a new
+ * bed claimed from the new position in one transaction, so the ambulance never
+ * ends up with no bed or two.
+ *
+ * Each operation locks the reservation row first and only starts from
+ * RESERVED, so concurrent calls on the same reservation see each other's
+ * result and the loser gets a ReservationConflictException.
+ */
+@Service
+public class BedReservationService {
+
+    private static final Logger log = LoggerFactory.getLogger(BedReservationService.class);
+
+    private final BedReservationRepository bedReservationRepository;
+    private final BedRepository bedRepository;
+    private final BedService bedService;
+    private final AmbulanceRoutingService ambulanceRoutingService;
+    private final AmbulanceTrackingService trackingService;
+    private final EtaTrackingService etaTrackingService;
+    private final AmbulanceRealtimeService realtimeService;
+
+    public BedReservationService(BedReservationRepository bedReservationRepository,
+            BedRepository bedRepository,
+            BedService bedService,
+            AmbulanceRoutingService ambulanceRoutingService,
+            AmbulanceTrackingService trackingService,
+            EtaTrackingService etaTrackingService,
+            AmbulanceRealtimeService realtimeService) {
+        this.bedReservationRepository = bedReservationRepository;
+        this.bedRepository = bedRepository;
+        this.bedService = bedService;
+        this.ambulanceRoutingService = ambulanceRoutingService;
+        this.trackingService = trackingService;
+        this.etaTrackingService = etaTrackingService;
+        this.realtimeService = realtimeService;
+    }
+
+    /**
+     * The ambulance arrived: mark the bed OCCUPIED and the reservation CONFIRMED.
+     */
+    @Transactional
+    public BedReservation confirm(UUID reservationId) {
+        BedReservation reservation = lockReserved(reservationId, "confirm");
+
+        Bed bed = bedRepository.findByIdForUpdate(reservation.getBedId())
+                .orElseThrow(() -> new BedNotFoundException(reservation.getBedId()));
+        if (bed.getBedStatus() != BedStatus.AVAILABLE) {
+            throw new ReservationConflictException("Bed " + bed.getId() + " is " + bed.getBedStatus()
+                    + ", cannot confirm bed reservation " + reservationId);
+        }
+        bedService.updateBedStatus(bed.getId(), BedStatus.OCCUPIED);
+
+        reservation.setStatus(ReservationStatus.CONFIRMED);
+        bedReservationRepository.save(reservation);
+        release(reservation);
+        realtimeService.emitReservationConfirmed(reservation);
+        log.info("Reservation {} confirmed: ambulance {} arrived at hospital {}, bed {}",
+                reservationId, reservation.getAmbulanceId(), reservation.getHospitalId(), bed.getId());
+        return reservation;
+    }
+
+    /**
+     * The ambulance no longer needs the bed: cancel the reservation and return
+     * the bed to the pool.
+     */
+    @Transactional
+    public BedReservation cancel(UUID reservationId) {
+        BedReservation reservation = lockReserved(reservationId, "cancel");
+
+        reservation.setStatus(ReservationStatus.CANCELLED);
+        bedReservationRepository.save(reservation);
+        release(reservation);
+        realtimeService.emitReservationCancelled(reservation);
+        log.info("Reservation {} cancelled: bed {} at hospital {} released",
+                reservationId, reservation.getBedId(), reservation.getHospitalId());
+        return reservation;
+    }
+
+    /**
+     * The ambulance was diverted: cancel the reservation and reserve the
+     * nearest bed to the new position, as reserveNearestBed does. If no bed is
+     * found the whole operation rolls back and the original reservation stands.
+     */
+    @Transactional
+    public BedClaim reassign(UUID reservationId, ReassignRequestDTO reassign) {
+        BedReservation previous = lockReserved(reservationId, "reassign");
+
+        String bedType = reassign.getRequiredBedType();
+        if (bedType == null || bedType.isBlank()) {
+            bedType = bedRepository.findById(previous.getBedId())
+                    .orElseThrow(() -> new BedNotFoundException(previous.getBedId()))
+                    .getBedType().name();
+        }
+
+        // Flushed first so the claim below can pick the released bed again
+        previous.setStatus(ReservationStatus.CANCELLED);
+        bedReservationRepository.saveAndFlush(previous);
+
+        AmbulanceRequestDTO request = new AmbulanceRequestDTO(previous.getAmbulanceId(),
+                reassign.getLatitude(), reassign.getLongitude(), bedType);
+        BedClaim claim = ambulanceRoutingService.reserveNearestBed(request);
+
+        release(previous);
+        realtimeService.emitReservationReassigned(previous, claim.reservation());
+        log.info("Reservation {} reassigned to {}: ambulance {} from hospital {} to hospital {}",
+                reservationId, claim.reservation().getId(), previous.getAmbulanceId(),
+                previous.getHospitalId(), claim.hospital().getId());
+        return claim;
+    }
+
+    private BedReservation lockReserved(UUID reservationId, String operation) {
+        BedReservation reservation = bedReservationRepository.findByIdForUpdate(reservationId)
+                .orElseThrow(() -> new ReservationNotFoundException(reservationId));
+        if (reservation.getStatus() != ReservationStatus.RESERVED) {
+            throw new ReservationConflictException(reservationId, reservation.getStatus(), operation);
+        }
+        return reservation;
+    }
+
+    private void release(BedReservation reservation) {
+        trackingService.releaseReservation(reservation);
+        etaTrackingService.untrack(reservation);
+    }
+}
@@ -0,0 +1,226 @@
+package com.lifeline.openicu.ambulance.service;
+
+import com.lifeline.openicu.ambulance.entity.BedReservation;
+import com.lifeline.openicu.ambulance.entity.ReservationStatus;
+import com.lifeline.openicu.ambulance.repository.BedReservationRepository;
+import com.lifeline.openicu.ambulance.tracking.AmbulanceSnapshot;
+import com.lifeline.openicu.ambulance.tracking.AmbulanceTrackingTable;
+import com.lifeline.openicu.ambulance.tracking.RouteProgress;
+import com.lifeline.openicu.realtime.EventTimestamps;
+import com.lifeline.openicu.realtime.ambulance.AmbulanceRealtimeService;
+import com.lifeline.openicu.realtime.ambulance.dto.EtaUpdatedEvent;
+import com.lifeline.openicu.routing.dto.RouteResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Re-estimates arrival times of en-route ambulances from their live fixes.
+ *
+ * Every active reservation keeps its route polyline. A single scheduled pass
+ * projects the latest fix of each ambulance that has moved since the previous
+ * pass onto its route, extends or releases reservations with conditional
+ * writes, and after they commit publishes changed ETAs to the destination hospital.
+ */
+@Service
+public class EtaTrackingService {
+
+    private static final Logger log = LoggerFactory.getLogger(EtaTrackingService.class);
+
+    private final AmbulanceTrackingTable trackingTable;
+    private final AmbulanceTrackingService trackingService;
+    private final BedReservationRepository bedReservationRepository;
+    private final AmbulanceRealtimeService realtimeService;
+    private final TransactionTemplate changeTransaction;
+
+    private final Map<String, RouteProgress> routes = new ConcurrentHashMap<>();
+
+    @Value("${openicu.tracking.eta.grace-minutes:5}")
+    private int graceMinutes;
+
+    @Value("${openicu.tracking.eta.max-hold-minutes:60}")
+    private int maxHoldMinutes;
+
+    @Value("${openicu.tracking.eta.off-route-km:0.5}")
+    private double offRouteKm;
+
+    @Value("${openicu.tracking.eta.arrived-km:0.1}")
+    private double arrivedKm;
+
+    @Value("${openicu.tracking.eta.min-live-speed-kmh:5}")
+    private double minLiveSpeedKmh;
+
+    public EtaTrackingService(AmbulanceTrackingTable trackingTable,
+            AmbulanceTrackingService trackingService,
+            BedReservationRepository bedReservationRepository,
+            AmbulanceRealtimeService realtimeService,
+            PlatformTransactionManager transactionManager) {
+        this.trackingTable = trackingTable;
+        this.trackingService = trackingService;
+        this.bedReservationRepository = bedReservationRepository;
+        this.realtimeService = realtimeService;
+        this.changeTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Start tracking progress of a freshly reserved ambulance along its route.
+     */
+    public void track(BedReservation reservation, RouteResponse route) {
+        if (route.getCoordinates() == null || route.getCoordinates().isEmpty()) {
+            return;
+        }
+        routes.put(reservation.getAmbulanceId(), new RouteProgress(
+                reservation.getAmbulanceId(),
+                reservation.getId(),
+                reservation.getHospitalId(),
+                EventTimestamps.millis(reservation.getReservationTime()),
+                EventTimestamps.millis(reservation.getExpiryTime()),
+                route.getCoordinates(),
+                route.getDistanceKm(),
+                route.getTimeMillis()));
+    }
+
+    /**
+     * Stop tracking a reservation (expired, cancelled or completed elsewhere).
+     */
+    public void untrack(BedReservation reservation) {
+        routes.computeIfPresent(reservation.getAmbulanceId(),
+                (id, route) -> route.getReservationId().equals(reservation.getId()) ? null : route);
+    }
+
+    public int getTrackedCount() {
+        return routes.size();
+    }
+
+    /**
+     * Recompute ETAs of the ambulances that reported a new fix since the last pass,
+     * as handed over by AmbulanceTrackingService; the others are not visited.
+     * Reservation changes commit in one transaction; ETA and expiry events are
+     * only published once it has committed.
+     */
+    @Scheduled(fixedDelayString = "${openicu.tracking.eta.interval-ms:5000}")
+    public void recomputeEtas() {
+        List<String> moved = trackingService.drainMoved();
+        if (moved.isEmpty() || routes.isEmpty()) {
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+        Map<UUID, Long> extended = new HashMap<>();
+        List<UUID> released = new ArrayList<>();
+        List<EtaUpdatedEvent> updates = new ArrayList<>();
+
+        for (String ambulanceId : moved) {
+            RouteProgress route = routes.get(ambulanceId);
+            if (route == null) {
+                continue;
+            }
+            Optional<AmbulanceSnapshot> fix = trackingTable.get(ambulanceId);
+            if (fix.isEmpty()) {
+                continue;
+            }
+            AmbulanceSnapshot snapshot = fix.get();
+            if (!route.getReservationId().equals(snapshot.getReservationId())) {
+                // Reservation was released or replaced since the route was stored
+                routes.remove(ambulanceId, route);
+                continue;
+            }
+            if (snapshot.getFixTimeMillis() <= route.getLastFixMillis()) {
+                continue;
+            }
+            route.setLastFixMillis(snapshot.getFixTimeMillis());
+
+            route.project(snapshot.getLatitude(), snapshot.getLongitude(), offRouteKm);
+            boolean arrived = route.getRemainingKm() <= arrivedKm;
+            int etaMinutes = arrived ? 0 : route.estimateMinutes(snapshot.getSpeed(), minLiveSpeedKmh);
+            long arrivalMillis = now + etaMinutes * 60_000L;
+
+            if (!route.canHoldUntil(arrivalMillis, maxHoldMinutes * 60_000L)) {
+                released.add(route.getReservationId());
+                routes.remove(ambulanceId, route);
+                continue;
+            }
+
+            boolean extendedNow = route.extendFor(arrivalMillis, graceMinutes * 60_000L);
+            if (extendedNow) {
+                extended.put(route.getReservationId(), route.getExpiresAtMillis());
+            }
+
+            if (extendedNow || etaMinutes != route.getLastEtaMinutes()) {
+                route.setLastEtaMinutes(etaMinutes);
+                updates.add(new EtaUpdatedEvent(
+                        route.getAmbulanceId(),
+                        route.getHospitalId(),
+                        route.getReservationId(),
+                        etaMinutes,
+                        route.getRemainingKm(),
+                        route.getExpiresAtMillis(),
+                        now));
+            }
+
+            if (arrived) {
+                routes.remove(ambulanceId, route);
+            }
+        }
+
+        Set<UUID> ended = new HashSet<>();
+        List<BedReservation> expired = extended.isEmpty() && released.isEmpty()
+                ? List.of()
+                : changeTransaction.execute(status -> applyReservationChanges(extended, released, ended));
+
+        for (EtaUpdatedEvent update : updates) {
+            if (!ended.contains(update.getReservationId())) {
+                realtimeService.emitEtaUpdated(update);
+            }
+        }
+        for (BedReservation reservation : expired) {
+            log.info("Released reservation {}: ambulance {} cannot arrive within {} minutes",
+                    reservation.getId(), reservation.getAmbulanceId(), maxHoldMinutes);
+            trackingService.releaseReservation(reservation);
+            realtimeService.emitReservationExpired(reservation);
+        }
+    }
+
+    /**
+     * Each change is a conditional UPDATE on a still RESERVED row, so a confirm or
+     * cancel that commits while the pass runs is never overwritten. Returns the
+     * reservations actually released; extended ones that already left RESERVED
+     * are added to ended and their routes dropped.
+     */
+    private List<BedReservation> applyReservationChanges(Map<UUID, Long> extended, List<UUID> released,
+            Set<UUID> ended) {
+        for (Map.Entry<UUID, Long> entry : extended.entrySet()) {
+            LocalDateTime expiry = LocalDateTime.ofInstant(Instant.ofEpochMilli(entry.getValue()),
+                    ZoneId.systemDefault());
+            if (bedReservationRepository.extendReserved(entry.getKey(), expiry) == 0) {
+                ended.add(entry.getKey());
+                routes.values().removeIf(route -> route.getReservationId().equals(entry.getKey()));
+            }
+        }
+
+        List<BedReservation> expired = new ArrayList<>();
+        for (UUID id : released) {
+            if (bedReservationRepository.endReserved(id, ReservationStatus.EXPIRED) > 0) {
+                bedReservationRepository.findById(id).ifPresent(expired::add);
+            }
+        }
+        return expired;
+    }
+}
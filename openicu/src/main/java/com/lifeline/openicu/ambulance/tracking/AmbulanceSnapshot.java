@@ -0,0 +1,23 @@
+package com.lifeline.openicu.ambulance.tracking;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.UUID;
+
+/**
+ * Immutable copy of an ambulance's tracking state, for readers outside the table.
+ */
+@Getter
+@AllArgsConstructor
+public class AmbulanceSnapshot {
+
+    private final String ambulanceId;
+    private final double latitude;
+    private final double longitude;
+    private final double speed;
+    private final double heading;
+    private final long fixTimeMillis;
+    private final UUID reservationId;
+    private final Long hospitalId;
+}
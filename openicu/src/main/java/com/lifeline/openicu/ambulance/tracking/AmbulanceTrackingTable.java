@@ -0,0 +1,190 @@
+package com.lifeline.openicu.ambulance.tracking;
+
+import com.lifeline.openicu.realtime.ambulance.dto.AmbulancePositionEvent;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory table of live ambulance state (latest fix, speed, heading and
+ * assigned reservation), keyed by ambulance id.
+ *
+ * The table is split into lock-striped segments so concurrent fixes from
+ * different ambulances rarely contend, and each ambulance's state object is
+ * updated in place so a fix allocates nothing beyond the outgoing event.
+ */
+@Component
+public class AmbulanceTrackingTable {
+
+    private static final int STRIPES = 64; // power of two
+
+    private final ReentrantLock[] locks = new ReentrantLock[STRIPES];
+    private final List<Map<String, State>> segments = new ArrayList<>(STRIPES);
+
+    public AmbulanceTrackingTable() {
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+            segments.add(new HashMap<>());
+        }
+    }
+
+    /**
+     * Record a GPS fix. Fixes older than the stored one are ignored.
+     *
+     * @return the event to fan out, or null if the fix was out of order
+     */
+    public AmbulancePositionEvent recordFix(String ambulanceId, double latitude, double longitude,
+            double speed, double heading, long fixTimeMillis) {
+        int stripe = stripe(ambulanceId);
+        ReentrantLock lock = locks[stripe];
+        lock.lock();
+        try {
+            State state = segments.get(stripe).computeIfAbsent(ambulanceId, id -> new State());
+            if (fixTimeMillis < state.fixTimeMillis) {
+                return null;
+            }
+            state.latitude = latitude;
+            state.longitude = longitude;
+            state.speed = speed;
+            state.heading = heading;
+            state.fixTimeMillis = fixTimeMillis;
+            return new AmbulancePositionEvent(ambulanceId, latitude, longitude, speed, heading,
+                    state.hospitalId, state.reservationId, fixTimeMillis);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Attach a reservation (and its destination hospital) to an ambulance.
+     */
+    public void assign(String ambulanceId, UUID reservationId, Long hospitalId) {
+        int stripe = stripe(ambulanceId);
+        ReentrantLock lock = locks[stripe];
+        lock.lock();
+        try {
+            State state = segments.get(stripe).computeIfAbsent(ambulanceId, id -> new State());
+            state.reservationId = reservationId;
+            state.hospitalId = hospitalId;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Detach a reservation, if it is still the one assigned to the ambulance.
+     */
+    public void release(String ambulanceId, UUID reservationId) {
+        int stripe = stripe(ambulanceId);
+        ReentrantLock lock = locks[stripe];
+        lock.lock();
+        try {
+            State state = segments.get(stripe).get(ambulanceId);
+            if (state != null && reservationId.equals(state.reservationId)) {
+                state.reservationId = null;
+                state.hospitalId = null;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public Optional<AmbulanceSnapshot> get(String ambulanceId) {
+        int stripe = stripe(ambulanceId);
+        ReentrantLock lock = locks[stripe];
+        lock.lock();
+        try {
+            State state = segments.get(stripe).get(ambulanceId);
+            return Optional.ofNullable(state != null ? state.snapshot(ambulanceId) : null);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Copy of every tracked ambulance. Locks one stripe at a time, so the result
+     * is consistent per ambulance but not across the whole table.
+     */
+    public List<AmbulanceSnapshot> snapshot() {
+        List<AmbulanceSnapshot> result = new ArrayList<>();
+        for (int stripe = 0; stripe < STRIPES; stripe++) {
+            ReentrantLock lock = locks[stripe];
+            lock.lock();
+            try {
+                segments.get(stripe).forEach((id, state) -> result.add(state.snapshot(id)));
+            } finally {
+                lock.unlock();
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Drop ambulances with no fix since the cutoff and no active reservation.
+     *
+     * @return number of entries removed
+     */
+    public int evictIdle(long cutoffMillis) {
+        int removed = 0;
+        for (int stripe = 0; stripe < STRIPES; stripe++) {
+            ReentrantLock lock = locks[stripe];
+            lock.lock();
+            try {
+                var iterator = segments.get(stripe).values().iterator();
+                while (iterator.hasNext()) {
+                    State state = iterator.next();
+                    if (state.reservationId == null && state.fixTimeMillis < cutoffMillis) {
+                        iterator.remove();
+                        removed++;
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+        return removed;
+    }
+
+    public int size() {
+        int size = 0;
+        for (int stripe = 0; stripe < STRIPES; stripe++) {
+            ReentrantLock lock = locks[stripe];
+            lock.lock();
+            try {
+                size += segments.get(stripe).size();
+            } finally {
+                lock.unlock();
+            }
+        }
+        return size;
+    }
+
+    private int stripe(String ambulanceId) {
+        int h = ambulanceId.hashCode();
+        return (h ^ (h >>> 16)) & (STRIPES - 1);
+    }
+
+    /**
+     * Mutable per-ambulance state, only touched while holding its stripe lock.
+     */
+    private static final class State {
+        private double latitude;
+        private double longitude;
+        private double speed;
+        private double heading;
+        private long fixTimeMillis = Long.MIN_VALUE;
+        private UUID reservationId;
+        private Long hospitalId;
+
+        private AmbulanceSnapshot snapshot(String ambulanceId) {
+            return new AmbulanceSnapshot(ambulanceId, latitude, longitude, speed, heading,
+                    fixTimeMillis, reservationId, hospitalId);
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package com.lifeline.openicu.ambulance.tracking;
+
+import com.lifeline.openicu.ambulance.entity.ReservationStatus;
+import com.lifeline.openicu.ambulance.event.ReservationChangedEvent;
+import com.lifeline.openicu.bed.entity.BedStatus;
+import com.lifeline.openicu.bed.entity.BedType;
+import com.lifeline.openicu.bed.event.BedChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory bed load per hospital and bed type: total beds, AVAILABLE beds
+ * and inbound ambulances (active reservations).
+ *
+ * Counted with two GROUP BY queries at startup, then adjusted from
+ * BedChangedEvent and ReservationChangedEvent after each write commits, the
+ * same way HospitalStatsEngine keeps its totals. Reads are lock-free, so
+ * scoring candidates adds no queries to a dispatch. Beds written outside
+ * BedService are not seen until the next restart; such hospitals read as
+ * unknown load.
+ */
+@Component
+public class HospitalLoadTable {
+
+    private static final Logger log = LoggerFactory.getLogger(HospitalLoadTable.class);
+
+    private static final int TOTAL = 0;
+    private static final int AVAILABLE = 1;
+    private static final int INBOUND = 2;
+    private static final int FIELDS = 3;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    // Per hospital: FIELDS counters per BedType ordinal
+    private final Map<Long, AtomicIntegerArray> loads = new ConcurrentHashMap<>();
+    private final Map<UUID, Inbound> inbound = new ConcurrentHashMap<>();
+
+    public HospitalLoadTable(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void seed() {
+        lock.lock();
+        try {
+            loads.clear();
+            inbound.clear();
+            jdbcTemplate.query("SELECT hospital_id, bed_type, bed_status, COUNT(*) FROM beds "
+                    + "GROUP BY hospital_id, bed_type, bed_status", rs -> {
+                        Long hospitalId = rs.getLong(1);
+                        BedType type = BedType.valueOf(rs.getString(2));
+                        int count = rs.getInt(4);
+                        add(hospitalId, type, TOTAL, count);
+                        if (BedStatus.AVAILABLE.name().equals(rs.getString(3))) {
+                            add(hospitalId, type, AVAILABLE, count);
+                        }
+                    });
+            jdbcTemplate.query("SELECT r.id, r.hospital_id, b.bed_type FROM bed_reservations r "
+                    + "JOIN beds b ON b.id = r.bed_id WHERE r.status = ?", rs -> {
+                        Inbound entry = new Inbound(rs.getLong(2), BedType.valueOf(rs.getString(3)));
+                        inbound.put(rs.getObject(1, UUID.class), entry);
+                        add(entry.hospitalId(), entry.bedType(), INBOUND, 1);
+                    }, ReservationStatus.RESERVED.name());
+        } finally {
+            lock.unlock();
+        }
+        log.info("Hospital load seeded: {} hospitals, {} inbound reservations", loads.size(), inbound.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBedChanged(BedChangedEvent event) {
+        lock.lock();
+        try {
+            if (event.getPreviousStatus() == null) {
+                add(event.getHospitalId(), event.getBedType(), TOTAL, 1);
+            } else if (event.getStatus() == null) {
+                add(event.getHospitalId(), event.getBedType(), TOTAL, -1);
+            }
+            if (event.getPreviousStatus() == BedStatus.AVAILABLE) {
+                add(event.getHospitalId(), event.getBedType(), AVAILABLE, -1);
+            }
+            if (event.getStatus() == BedStatus.AVAILABLE) {
+                add(event.getHospitalId(), event.getBedType(), AVAILABLE, 1);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReservationChanged(ReservationChangedEvent event) {
+        lock.lock();
+        try {
+            if (event.getStatus() == ReservationStatus.RESERVED && event.getBedType() != null) {
+                Inbound entry = new Inbound(event.getHospitalId(), event.getBedType());
+                if (inbound.putIfAbsent(event.getReservationId(), entry) == null) {
+                    add(entry.hospitalId(), entry.bedType(), INBOUND, 1);
+                }
+            } else {
+                Inbound entry = inbound.remove(event.getReservationId());
+                if (entry != null) {
+                    add(entry.hospitalId(), entry.bedType(), INBOUND, -1);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Share of the hospital's beds of this type that are neither AVAILABLE nor
+     * promised to an inbound ambulance, from 0 (idle) to 1 (full), or -1 if
+     * the hospital's beds are unknown.
+     */
+    public double occupancy(Long hospitalId, BedType bedType) {
+        AtomicIntegerArray load = loads.get(hospitalId);
+        if (load == null) {
+            return -1;
+        }
+        int base = bedType.ordinal() * FIELDS;
+        int total = load.get(base + TOTAL);
+        if (total <= 0) {
+            return -1;
+        }
+        int free = Math.max(0, load.get(base + AVAILABLE) - load.get(base + INBOUND));
+        return 1.0 - Math.min(free, total) / (double) total;
+    }
+
+    /**
+     * AVAILABLE beds of this type not yet promised to an inbound ambulance, or
+     * -1 if the hospital's beds are unknown.
+     */
+    public int freeBeds(Long hospitalId, BedType bedType) {
+        AtomicIntegerArray load = loads.get(hospitalId);
+        if (load == null) {
+            return -1;
+        }
+        int base = bedType.ordinal() * FIELDS;
+        return Math.max(0, load.get(base + AVAILABLE) - load.get(base + INBOUND));
+    }
+
+    public int inbound(Long hospitalId, BedType bedType) {
+        AtomicIntegerArray load = loads.get(hospitalId);
+        return load == null ? 0 : load.get(bedType.ordinal() * FIELDS + INBOUND);
+    }
+
+    private void add(Long hospitalId, BedType bedType, int field, int delta) {
+        loads.computeIfAbsent(hospitalId, id -> new AtomicIntegerArray(BedType.values().length * FIELDS))
+                .addAndGet(bedType.ordinal() * FIELDS + field, delta);
+    }
+
+    private record Inbound(Long hospitalId, BedType bedType) {
+    }
+}
@@ -0,0 +1,203 @@
+package com.lifeline.openicu.ambulance.tracking;
+
+import com.lifeline.openicu.util.GeoUtils;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Route polyline of one en-route ambulance, preprocessed for cheap progress
+ * projection: cumulative distances are computed once, and each projection
+ * only scans a short window of segments ahead of the last matched one.
+ *
+ * Not thread-safe - owned by the ETA tracking loop.
+ */
+public class RouteProgress {
+
+    /** Segments examined ahead of the cursor before falling back to a full scan. */
+    private static final int WINDOW = 16;
+    private static final double KM_PER_DEGREE = 111.32;
+
+    private final String ambulanceId;
+    private final UUID reservationId;
+    private final Long hospitalId;
+    private final long reservedAtMillis;
+    private final double[] lats;
+    private final double[] lons;
+    private final double[] cumulativeKm;
+    private final double routeSpeedKmPerMin;
+
+    private long expiresAtMillis;
+    private int cursor;
+    private long lastFixMillis = Long.MIN_VALUE;
+    private int lastEtaMinutes;
+    private double remainingKm;
+    private double offRouteKm;
+
+    public RouteProgress(String ambulanceId, UUID reservationId, Long hospitalId,
+            long reservedAtMillis, long expiresAtMillis,
+            List<double[]> coordinates, double distanceKm, long timeMillis) {
+        this.ambulanceId = ambulanceId;
+        this.reservationId = reservationId;
+        this.hospitalId = hospitalId;
+        this.reservedAtMillis = reservedAtMillis;
+        this.expiresAtMillis = expiresAtMillis;
+
+        int n = coordinates.size();
+        this.lats = new double[n];
+        this.lons = new double[n];
+        this.cumulativeKm = new double[n];
+        for (int i = 0; i < n; i++) {
+            lats[i] = coordinates.get(i)[0];
+            lons[i] = coordinates.get(i)[1];
+            if (i > 0) {
+                cumulativeKm[i] = cumulativeKm[i - 1]
+                        + GeoUtils.haversineKm(lats[i - 1], lons[i - 1], lats[i], lons[i]);
+            }
+        }
+
+        double totalKm = n > 0 ? cumulativeKm[n - 1] : distanceKm;
+        double minutes = timeMillis / 60000.0;
+        // Router's own average speed over this route; 40 km/h if it gave no time
+        this.routeSpeedKmPerMin = minutes > 0 && totalKm > 0 ? totalKm / minutes : 40.0 / 60.0;
+        this.remainingKm = totalKm;
+        this.lastEtaMinutes = (int) Math.round(totalKm / routeSpeedKmPerMin);
+    }
+
+    /**
+     * Project a fix onto the route and update remaining distance.
+     *
+     * @param offRouteKm distance beyond which a windowed match is considered lost
+     *                   and the whole polyline is re-scanned
+     */
+    public void project(double latitude, double longitude, double offRouteKm) {
+        int segments = lats.length - 1;
+        if (segments < 1) {
+            this.offRouteKm = 0;
+            this.remainingKm = lats.length == 1
+                    ? GeoUtils.haversineKm(latitude, longitude, lats[0], lons[0])
+                    : 0;
+            return;
+        }
+
+        Match match = new Match();
+        scan(latitude, longitude, cursor, Math.min(segments, cursor + WINDOW), match);
+        if (match.distanceKm > offRouteKm) {
+            // Lost the route locally (detour or GPS jump): re-acquire over the full polyline
+            scan(latitude, longitude, 0, segments, match);
+        }
+
+        cursor = match.segment;
+        this.offRouteKm = match.distanceKm;
+        double along = cumulativeKm[match.segment]
+                + match.fraction * (cumulativeKm[match.segment + 1] - cumulativeKm[match.segment]);
+        this.remainingKm = cumulativeKm[segments] - along + match.distanceKm;
+    }
+
+    /**
+     * Remaining minutes, blending the live speed with the router's average when moving.
+     */
+    public int estimateMinutes(double liveSpeedKmh, double minLiveSpeedKmh) {
+        double speed = routeSpeedKmPerMin;
+        if (liveSpeedKmh >= minLiveSpeedKmh) {
+            speed = (routeSpeedKmPerMin + liveSpeedKmh / 60.0) / 2;
+        }
+        return (int) Math.ceil(remainingKm / speed);
+    }
+
+    /**
+     * Whether an arrival at arrivalMillis is still within maxHoldMillis of the
+     * reservation being made; beyond that the bed is released.
+     */
+    public boolean canHoldUntil(long arrivalMillis, long maxHoldMillis) {
+        return arrivalMillis <= reservedAtMillis + maxHoldMillis;
+    }
+
+    /**
+     * Push the expiry out to arrivalMillis plus graceMillis if it would lapse
+     * before that. Never shortens it.
+     *
+     * @return true if the expiry moved
+     */
+    public boolean extendFor(long arrivalMillis, long graceMillis) {
+        long requiredExpiry = arrivalMillis + graceMillis;
+        if (requiredExpiry <= expiresAtMillis) {
+            return false;
+        }
+        expiresAtMillis = requiredExpiry;
+        return true;
+    }
+
+    private void scan(double latitude, double longitude, int from, int to, Match best) {
+        double cosLat = Math.cos(Math.toRadians(latitude));
+        for (int i = from; i < to; i++) {
+            // Local equirectangular projection, accurate enough over one segment
+            double ax = (lons[i] - longitude) * cosLat * KM_PER_DEGREE;
+            double ay = (lats[i] - latitude) * KM_PER_DEGREE;
+            double bx = (lons[i + 1] - longitude) * cosLat * KM_PER_DEGREE;
+            double by = (lats[i + 1] - latitude) * KM_PER_DEGREE;
+            double dx = bx - ax;
+            double dy = by - ay;
+            double lengthSq = dx * dx + dy * dy;
+            double t = lengthSq == 0 ? 0 : Math.max(0, Math.min(1, -(ax * dx + ay * dy) / lengthSq));
+            double px = ax + t * dx;
+            double py = ay + t * dy;
+            double distance = Math.sqrt(px * px + py * py);
+            if (distance < best.distanceKm) {
+                best.distanceKm = distance;
+                best.segment = i;
+                best.fraction = t;
+            }
+        }
+    }
+
+    private static final class Match {
+        double distanceKm = Double.MAX_VALUE;
+        int segment;
+        double fraction;
+    }
+
+    public String getAmbulanceId() {
+        return ambulanceId;
+    }
+
+    public UUID getReservationId() {
+        return reservationId;
+    }
+
+    public Long getHospitalId() {
+        return hospitalId;
+    }
+
+    public long getReservedAtMillis() {
+        return reservedAtMillis;
+    }
+
+    public long getExpiresAtMillis() {
+        return expiresAtMillis;
+    }
+
+    public long getLastFixMillis() {
+        return lastFixMillis;
+    }
+
+    public void setLastFixMillis(long lastFixMillis) {
+        this.lastFixMillis = lastFixMillis;
+    }
+
+    public int getLastEtaMinutes() {
+        return lastEtaMinutes;
+    }
+
+    public void setLastEtaMinutes(int lastEtaMinutes) {
+        this.lastEtaMinutes = lastEtaMinutes;
+    }
+
+    public double getRemainingKm() {
+        return remainingKm;
+    }
+
+    public double getOffRouteKm() {
+        return offRouteKm;
+    }
+}
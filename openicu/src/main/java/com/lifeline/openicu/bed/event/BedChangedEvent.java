@@ -0,0 +1,43 @@
+package com.lifeline.openicu.bed.event;
+
+import com.lifeline.openicu.bed.entity.BedStatus;
+import com.lifeline.openicu.bed.entity.BedType;
+
+/**
+ * Application event raised by BedService when a bed is created, changes
+ * status or is deleted.
+ */
+public class BedChangedEvent {
+
+    private final Long hospitalId;
+    private final BedType bedType;
+    private final BedStatus previousStatus;
+    private final BedStatus status;
+
+    /**
+     * @param previousStatus status before the change, or null if the bed was created
+     * @param status status after the change, or null if the bed was deleted
+     */
+    public BedChangedEvent(Long hospitalId, BedType bedType, BedStatus previousStatus, BedStatus status) {
+        this.hospitalId = hospitalId;
+        this.bedType = bedType;
+        this.previousStatus = previousStatus;
+        this.status = status;
+    }
+
+    public Long getHospitalId() {
+        return hospitalId;
+    }
+
+    public BedType getBedType() {
+        return bedType;
+    }
+
+    public BedStatus getPreviousStatus() {
+        return previousStatus;
+    }
+
+    public BedStatus getStatus() {
+        return status;
+    }
+}
@@ -3,12 +3,16 @@ package com.lifeline.openicu.bed.repository;
 import com.lifeline.openicu.bed.entity.Bed;
 import com.lifeline.openicu.bed.entity.BedType;
 import com.lifeline.openicu.bed.entity.BedStatus;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface BedRepository extends JpaRepository<Bed, Long> {
@@ -17,8 +21,42 @@ public interface BedRepository extends JpaRepository<Bed, Long> {
 
     List<Bed> findByHospitalId(Long hospitalId);
 
+    /**
+     * Load a bed with a row lock held until the transaction ends, so claiming
+     * or confirming it is serialised with other transactions doing the same.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM Bed b WHERE b.id = :bedId")
+    Optional<Bed> findByIdForUpdate(@Param("bedId") Long bedId);
+
     int countByHospitalIdAndBedTypeAndBedStatus(Long hospitalId, BedType bedType, BedStatus bedStatus);
 
+    /**
+     * Bed counts for several hospitals in one query: rows of [hospitalId, count].
+     */
+    @Query("SELECT b.hospitalId, COUNT(b) FROM Bed b WHERE b.hospitalId IN :hospitalIds " +
+           "AND b.bedType = :bedType AND b.bedStatus = :bedStatus GROUP BY b.hospitalId")
+    List<Object[]> countByHospitalIdsAndBedTypeAndBedStatus(@Param("hospitalIds") Collection<Long> hospitalIds,
+                                                            @Param("bedType") BedType bedType,
+                                                            @Param("bedStatus") BedStatus bedStatus);
+
+    /**
+     * Hospitals in a bounding box with available beds of a type that have no
+     * active reservation: rows of [hospitalId, latitude, longitude, count].
+     * Only what batch planning needs, no Hospital entities.
+     */
+    @Query("SELECT h.id, h.latitude, h.longitude, COUNT(b) FROM Bed b JOIN Hospital h ON h.id = b.hospitalId " +
+           "WHERE h.latitude BETWEEN :minLat AND :maxLat AND h.longitude BETWEEN :minLon AND :maxLon " +
+           "AND b.bedType = :bedType AND b.bedStatus = com.lifeline.openicu.bed.entity.BedStatus.AVAILABLE " +
+           "AND NOT EXISTS (SELECT r FROM BedReservation r WHERE r.bedId = b.id " +
+           "AND r.status = com.lifeline.openicu.ambulance.entity.ReservationStatus.RESERVED) " +
+           "GROUP BY h.id, h.latitude, h.longitude")
+    List<Object[]> countUnreservedAvailableInBoundingBox(@Param("minLat") double minLat,
+                                                         @Param("maxLat") double maxLat,
+                                                         @Param("minLon") double minLon,
+                                                         @Param("maxLon") double maxLon,
+                                                         @Param("bedType") BedType bedType);
+
     @Query("SELECT COUNT(h) > 0 FROM Hospital h WHERE h.id = :hospitalId")
     boolean existsHospitalById(@Param("hospitalId") Long hospitalId);
 }
\ No newline at end of file
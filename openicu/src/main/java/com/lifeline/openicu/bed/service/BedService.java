@@ -3,9 +3,11 @@ package com.lifeline.openicu.bed.service;
 import com.lifeline.openicu.bed.entity.Bed;
 import com.lifeline.openicu.bed.entity.BedType;
 import com.lifeline.openicu.bed.entity.BedStatus;
+import com.lifeline.openicu.bed.event.BedChangedEvent;
 import com.lifeline.openicu.bed.exception.BedNotFoundException;
 import com.lifeline.openicu.bed.repository.BedRepository;
 import com.lifeline.openicu.exception.HospitalNotFoundException;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -14,9 +16,11 @@ import java.util.List;
 public class BedService {
 
     private final BedRepository bedRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public BedService(BedRepository bedRepository) {
+    public BedService(BedRepository bedRepository, ApplicationEventPublisher eventPublisher) {
         this.bedRepository = bedRepository;
+        this.eventPublisher = eventPublisher;
     }
 
     public Bed createBed(Long hospitalId, String bedNumber, BedType bedType) {
@@ -26,15 +30,21 @@ public class BedService {
         }
 
         Bed bed = new Bed(bedNumber, hospitalId, bedType, BedStatus.AVAILABLE);
-        return bedRepository.save(bed);
+        Bed saved = bedRepository.save(bed);
+        eventPublisher.publishEvent(new BedChangedEvent(hospitalId, bedType, null, saved.getBedStatus()));
+        return saved;
     }
 
     public Bed updateBedStatus(Long bedId, BedStatus newStatus) {
         Bed bed = bedRepository.findById(bedId)
                 .orElseThrow(() -> new BedNotFoundException(bedId));
 
+        BedStatus previousStatus = bed.getBedStatus();
         bed.setBedStatus(newStatus);
-        return bedRepository.save(bed);
+        Bed saved = bedRepository.save(bed);
+        eventPublisher.publishEvent(new BedChangedEvent(saved.getHospitalId(), saved.getBedType(),
+                previousStatus, newStatus));
+        return saved;
     }
 
     public List<Bed> getAvailableBeds(Long hospitalId, BedType bedType) {
@@ -58,5 +68,7 @@ public class BedService {
         Bed bed = bedRepository.findById(bedId)
                 .orElseThrow(() -> new BedNotFoundException(bedId));
         bedRepository.delete(bed);
+        eventPublisher.publishEvent(new BedChangedEvent(bed.getHospitalId(), bed.getBedType(),
+                bed.getBedStatus(), null));
     }
 }
\ No newline at end of file
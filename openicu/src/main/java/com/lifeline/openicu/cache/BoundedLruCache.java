@@ -0,0 +1,159 @@
+package com.lifeline.openicu.cache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+
+/**
+ * Size-bounded LRU map with a per-entry time to live.
+ *
+ * Entries are evicted least-recently-used first once maxSize is exceeded and
+ * are treated as misses once older than the TTL, which bounds staleness for
+ * changes this node never hears about. Targeted removal is by key or by a
+ * predicate over the values.
+ *
+ * Bound to a MeterRegistry it reports the usual cache.gets, cache.evictions
+ * and cache.size meters tagged with its name.
+ */
+public class BoundedLruCache<K, V> implements MeterBinder {
+
+    private final String name;
+    private final int maxSize;
+    private final long ttlMillis;
+    private final Map<K, Entry<V>> entries;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    public BoundedLruCache(String name, int maxSize, long ttlMillis) {
+        this.name = name;
+        this.maxSize = maxSize;
+        this.ttlMillis = ttlMillis;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                if (size() > BoundedLruCache.this.maxSize) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Cached value, or null on a miss or an expired entry.
+     */
+    public V get(K key) {
+        long now = System.currentTimeMillis();
+        lock.lock();
+        try {
+            Entry<V> entry = entries.get(key);
+            if (entry == null) {
+                misses.increment();
+                return null;
+            }
+            if (entry.expiresAt <= now) {
+                entries.remove(key);
+                expirations.increment();
+                misses.increment();
+                return null;
+            }
+            hits.increment();
+            return entry.value;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void put(K key, V value) {
+        Entry<V> entry = new Entry<>(value, System.currentTimeMillis() + ttlMillis);
+        lock.lock();
+        try {
+            entries.put(key, entry);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void invalidate(K key) {
+        lock.lock();
+        try {
+            if (entries.remove(key) != null) {
+                invalidations.increment();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Remove every entry whose value matches; returns how many were removed.
+     */
+    public int invalidateIf(Predicate<V> predicate) {
+        int removed = 0;
+        lock.lock();
+        try {
+            Iterator<Entry<V>> it = entries.values().iterator();
+            while (it.hasNext()) {
+                if (predicate.test(it.next().value)) {
+                    it.remove();
+                    removed++;
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        invalidations.add(removed);
+        return removed;
+    }
+
+    public int size() {
+        lock.lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public CacheStats getStats() {
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        long requests = hitCount + missCount;
+        return new CacheStats(name, size(), maxSize, hitCount, missCount,
+                requests == 0 ? 0.0 : (double) hitCount / requests,
+                evictions.sum(), expirations.sum(), invalidations.sum());
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("cache.gets", hits, LongAdder::sum)
+                .tag("cache", name).tag("result", "hit").register(registry);
+        FunctionCounter.builder("cache.gets", misses, LongAdder::sum)
+                .tag("cache", name).tag("result", "miss").register(registry);
+        FunctionCounter.builder("cache.evictions", evictions, LongAdder::sum)
+                .tag("cache", name).tag("cause", "size").register(registry);
+        FunctionCounter.builder("cache.evictions", expirations, LongAdder::sum)
+                .tag("cache", name).tag("cause", "expired").register(registry);
+        FunctionCounter.builder("cache.evictions", invalidations, LongAdder::sum)
+                .tag("cache", name).tag("cause", "invalidated").register(registry);
+        Gauge.builder("cache.size", this, BoundedLruCache::size)
+                .tag("cache", name).register(registry);
+    }
+
+    private record Entry<V>(V value, long expiresAt) {
+    }
+}
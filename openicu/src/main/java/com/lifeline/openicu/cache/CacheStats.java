@@ -0,0 +1,22 @@
+package com.lifeline.openicu.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Snapshot of a BoundedLruCache's size and counters.
+ */
+@Getter
+@AllArgsConstructor
+public class CacheStats {
+
+    private final String name;
+    private final int size;
+    private final int maxSize;
+    private final long hits;
+    private final long misses;
+    private final double hitRate;
+    private final long evictions;
+    private final long expirations;
+    private final long invalidations;
+}
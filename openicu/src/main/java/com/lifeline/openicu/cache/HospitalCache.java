@@ -0,0 +1,183 @@
+package com.lifeline.openicu.cache;
+
+import com.lifeline.openicu.dto.HospitalResponseDTO;
+import com.lifeline.openicu.dto.HospitalSearchCriteria;
+import com.lifeline.openicu.dto.HospitalView;
+import com.lifeline.openicu.entity.Hospital;
+import com.lifeline.openicu.realtime.hospital.HospitalChangedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Read-through cache for hospital details (by id) and search result pages
+ * (by normalized criteria, view, page and sort).
+ *
+ * Invalidation follows HospitalChangedEvent after the write commits: the
+ * changed hospital's detail entry, and every cached search whose criteria
+ * matched the hospital before or after the change. Searches it matched in
+ * neither state cannot have changed. The TTL bounds staleness for writes made
+ * on other nodes.
+ *
+ * The DTOs are mutable beans, so entries are copies of what the loader
+ * returned and every hit hands out a fresh copy: a caller that modifies its
+ * result cannot change what later callers see.
+ *
+ * Both caches report cache.gets, cache.evictions and cache.size meters.
+ */
+@Component
+public class HospitalCache implements MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(HospitalCache.class);
+
+    private final BoundedLruCache<Long, HospitalResponseDTO> details;
+    private final BoundedLruCache<String, SearchEntry> searches;
+
+    // Bumped on every invalidation; a load that raced one is not kept
+    private final AtomicLong generation = new AtomicLong();
+
+    public HospitalCache(@Value("${openicu.hospital.cache.detail-size:5000}") int detailSize,
+            @Value("${openicu.hospital.cache.search-size:500}") int searchSize,
+            @Value("${openicu.hospital.cache.ttl-seconds:300}") long ttlSeconds) {
+        long ttlMillis = TimeUnit.SECONDS.toMillis(ttlSeconds);
+        this.details = new BoundedLruCache<>("hospital-details", detailSize, ttlMillis);
+        this.searches = new BoundedLruCache<>("hospital-searches", searchSize, ttlMillis);
+    }
+
+    public HospitalResponseDTO getDetail(Long id, Supplier<HospitalResponseDTO> loader) {
+        HospitalResponseDTO cached = details.get(id);
+        if (cached != null) {
+            return copyDto(cached);
+        }
+        long loadedAt = generation.get();
+        HospitalResponseDTO loaded = loader.get();
+        details.put(id, copyDto(loaded));
+        if (generation.get() != loadedAt) {
+            details.invalidate(id);
+        }
+        return loaded;
+    }
+
+    public Page<?> getSearch(HospitalSearchCriteria criteria, Pageable pageable, HospitalView view,
+            Supplier<Page<?>> loader) {
+        HospitalSearchCriteria normalized = normalize(criteria);
+        String key = normalized + "|" + view + "|" + pageable.getPageNumber() + "|" + pageable.getPageSize()
+                + "|" + pageable.getSort();
+        SearchEntry cached = searches.get(key);
+        if (cached != null) {
+            return copyPage(cached.page());
+        }
+        long loadedAt = generation.get();
+        Page<?> loaded = loader.get();
+        searches.put(key, new SearchEntry(normalized, copyPage(loaded)));
+        if (generation.get() != loadedAt) {
+            searches.invalidate(key);
+        }
+        return loaded;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onHospitalChanged(HospitalChangedEvent event) {
+        generation.incrementAndGet();
+        Hospital hospital = event.getHospital();
+        Hospital previous = event.getPrevious();
+
+        details.invalidate(hospital.getId());
+        int removed = searches.invalidateIf(entry -> matches(entry.criteria(), hospital)
+                || (previous != null && matches(entry.criteria(), previous)));
+        log.debug("Hospital {} changed: invalidated detail and {} search pages", hospital.getId(), removed);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        details.bindTo(registry);
+        searches.bindTo(registry);
+    }
+
+    public List<CacheStats> getStats() {
+        return List.of(details.getStats(), searches.getStats());
+    }
+
+    /**
+     * Lower-cases filters and drops blank ones, mirroring how HospitalSpecification
+     * treats them, so equivalent requests share an entry.
+     */
+    static HospitalSearchCriteria normalize(HospitalSearchCriteria criteria) {
+        return new HospitalSearchCriteria(
+                normalize(criteria.getKeyword()),
+                normalize(criteria.getState()),
+                normalize(criteria.getDistrict()),
+                normalize(criteria.getCategory()),
+                normalize(criteria.getCareType()),
+                criteria.getMinBeds(),
+                normalize(criteria.getEmergencyService()),
+                normalize(criteria.getSpecialty()),
+                normalize(criteria.getFacility()));
+    }
+
+    /**
+     * In-memory equivalent of the HospitalSpecification predicates for normalized criteria.
+     */
+    static boolean matches(HospitalSearchCriteria criteria, Hospital hospital) {
+        String keyword = criteria.getKeyword();
+        if (keyword != null && !(contains(hospital.getName(), keyword)
+                || contains(hospital.getLocation(), keyword)
+                || contains(hospital.getState(), keyword)
+                || contains(hospital.getDistrict(), keyword)
+                || contains(hospital.getAddress(), keyword))) {
+            return false;
+        }
+        if (criteria.getMinBeds() != null
+                && (hospital.getTotalNumBeds() == null || hospital.getTotalNumBeds() < criteria.getMinBeds())) {
+            return false;
+        }
+        return filter(criteria.getState(), hospital.getState())
+                && filter(criteria.getDistrict(), hospital.getDistrict())
+                && filter(criteria.getCategory(), hospital.getHospitalCategory())
+                && filter(criteria.getCareType(), hospital.getHospitalCareType())
+                && filter(criteria.getEmergencyService(), hospital.getEmergencyServices())
+                && filter(criteria.getSpecialty(), hospital.getSpecialties())
+                && filter(criteria.getFacility(), hospital.getFacilities());
+    }
+
+    private static boolean filter(String pattern, String value) {
+        return pattern == null || contains(value, pattern);
+    }
+
+    private static boolean contains(String value, String pattern) {
+        return value != null && value.toLowerCase(Locale.ROOT).contains(pattern);
+    }
+
+    private static <T> T copyDto(T dto) {
+        @SuppressWarnings("unchecked")
+        T copy = (T) BeanUtils.instantiateClass(dto.getClass());
+        BeanUtils.copyProperties(dto, copy);
+        return copy;
+    }
+
+    private static Page<?> copyPage(Page<?> page) {
+        List<?> content = page.getContent().stream().map(HospitalCache::copyDto).toList();
+        return new PageImpl<>(content, page.getPageable(), page.getTotalElements());
+    }
+
+    private static String normalize(String value) {
+        return value == null || value.trim().isEmpty() ? null : value.toLowerCase(Locale.ROOT);
+    }
+
+    private record SearchEntry(HospitalSearchCriteria criteria, Page<?> page) {
+    }
+}
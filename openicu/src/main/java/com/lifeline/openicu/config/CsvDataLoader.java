@@ -4,6 +4,11 @@ import com.lifeline.openicu.entity.Hospital;
 import com.lifeline.openicu.repository.HospitalRepository;
 import com.opencsv.CSVReader;
 import com.opencsv.CSVReaderBuilder;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.core.io.ClassPathResource;
 import org.springframework.stereotype.Component;
@@ -21,27 +26,51 @@ import java.util.Map;
 @Component
 public class CsvDataLoader implements CommandLineRunner {
 
+    private static final Logger log = LoggerFactory.getLogger(CsvDataLoader.class);
+
     private final HospitalRepository hospitalRepository;
 
-    public CsvDataLoader(HospitalRepository hospitalRepository) {
+    // openicu.csv.import.rows by result; the saved rate is the import rate
+    private final Counter savedRows;
+    private final Counter rejectedRows;
+    private final Counter failedRows;
+    private final Timer importTimer;
+
+    public CsvDataLoader(HospitalRepository hospitalRepository, MeterRegistry meterRegistry) {
         this.hospitalRepository = hospitalRepository;
+        this.savedRows = rowCounter(meterRegistry, "saved");
+        this.rejectedRows = rowCounter(meterRegistry, "rejected");
+        this.failedRows = rowCounter(meterRegistry, "failed");
+        this.importTimer = Timer.builder("openicu.csv.import")
+                .description("Duration of the hospital CSV import")
+                .register(meterRegistry);
+    }
+
+    private static Counter rowCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("openicu.csv.import.rows")
+                .description("Hospital CSV rows by import result")
+                .tag("result", result)
+                .register(meterRegistry);
     }
 
     @Override
     public void run(String... args) throws Exception {
         if (hospitalRepository.count() > 0) {
-            System.out.println("Hospitals already loaded. Skipping CSV load.");
+            log.info("Hospitals already loaded. Skipping CSV load.");
             return;
         }
 
-        System.out.println("Loading hospitals from CSV...");
-
         File csvFile = new File("hospital_directory.csv");
         if (!csvFile.exists()) {
-            System.out.println("hospital_directory.csv not found in working directory!");
+            log.warn("hospital_directory.csv not found in working directory!");
             return;
         }
 
+        log.info("Loading hospitals from CSV...");
+        importTimer.record(() -> load(csvFile));
+    }
+
+    private void load(File csvFile) {
         try (FileReader fileReader = new FileReader(csvFile, StandardCharsets.UTF_8);
                 CSVReader csvReader = new CSVReaderBuilder(fileReader).withSkipLines(1).build()) {
 
@@ -58,34 +87,36 @@ public class CsvDataLoader implements CommandLineRunner {
                         Hospital hospital = mapRecordToHospital(record);
                         hospitals.add(hospital);
                     } catch (Exception e) {
-                        // Log but continue
-                        // System.err.println("Error parsing record: " + e.getMessage());
+                        rejectedRows.increment();
+                        log.debug("Error parsing record: {}", e.getMessage());
                     }
                 } catch (Exception e) {
-                    System.err.println("Skipping malformed CSV line: " + e.getMessage());
+                    rejectedRows.increment();
+                    log.warn("Skipping malformed CSV line: {}", e.getMessage());
                 }
             }
 
-            System.out.println("Found " + hospitals.size() + " hospitals in CSV. Saving...");
+            log.info("Found {} hospitals in CSV. Saving...", hospitals.size());
 
             int savedCount = 0;
             for (Hospital h : hospitals) {
                 try {
                     hospitalRepository.save(h);
                     savedCount++;
+                    savedRows.increment();
                 } catch (Exception e) {
-                    System.err.println("Failed to save hospital " + h.getName() + ": " + e.getMessage());
+                    failedRows.increment();
+                    log.warn("Failed to save hospital {}: {}", h.getName(), e.getMessage());
                 }
             }
 
             if (savedCount > 0) {
-                System.out.println("Successfully loaded " + savedCount + " hospitals from CSV.");
+                log.info("Successfully loaded {} hospitals from CSV.", savedCount);
             } else {
-                System.out.println("No hospitals saved.");
+                log.info("No hospitals saved.");
             }
         } catch (Exception e) {
-            System.err.println("Failed to load CSV: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Failed to load CSV: {}", e.getMessage(), e);
         }
     }
 
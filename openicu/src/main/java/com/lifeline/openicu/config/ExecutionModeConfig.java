@@ -0,0 +1,128 @@
+package com.lifeline.openicu.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Platform or virtual-thread execution for blocking request handling.
+ *
+ * Virtual threads are switched on with spring.threads.virtual.enabled=true
+ * (the virtual-threads profile sets it together with matching pool sizes) and
+ * only take effect on Java 21+. Spring Boot then runs Tomcat requests, and so
+ * the blocking JDBC and GraphHopper calls made on them, on virtual threads;
+ * the STOMP channel executors below follow the same switch.
+ *
+ * - Inbound STOMP messages each get a virtual thread, capped at
+ *   openicu.execution.virtual.inbound-concurrency in flight.
+ * - Outbound keeps a fixed-size pool with a queue, now of virtual threads, so
+ *   OutboundBackpressureInterceptor still sees frames queue for slow sessions.
+ *
+ * The async dispatch pipeline claims beds on dispatchExecutor and fetches
+ * routes on routingExecutor: bounded platform pools by default (a full queue
+ * rejects the request with 503), virtual threads with a concurrency cap in
+ * virtual mode.
+ */
+@Configuration
+public class ExecutionModeConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(ExecutionModeConfig.class);
+
+    private final Environment environment;
+
+    public ExecutionModeConfig(Environment environment) {
+        this.environment = environment;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void logExecutionMode() {
+        boolean requested = environment.getProperty("spring.threads.virtual.enabled", Boolean.class, false);
+        boolean active = Threading.VIRTUAL.isActive(environment);
+        if (requested && !active) {
+            log.warn("Virtual threads requested but Java {} does not support them; using platform threads. "
+                    + "Build and run with Java 21 (mvn -Pjava21).", Runtime.version().feature());
+        } else {
+            log.info("Request execution mode: {} threads", active ? "virtual" : "platform");
+        }
+    }
+
+    @Bean
+    @ConditionalOnThreading(Threading.PLATFORM)
+    ThreadPoolTaskExecutor dispatchExecutor(
+            @Value("${openicu.dispatch.async.claim-threads:16}") int threads,
+            @Value("${openicu.dispatch.async.claim-queue:200}") int queueCapacity) {
+        return boundedPool("dispatch-", threads, queueCapacity);
+    }
+
+    @Bean
+    @ConditionalOnThreading(Threading.PLATFORM)
+    ThreadPoolTaskExecutor routingExecutor(
+            @Value("${openicu.dispatch.async.route-threads:32}") int threads,
+            @Value("${openicu.dispatch.async.route-queue:500}") int queueCapacity) {
+        return boundedPool("routing-", threads, queueCapacity);
+    }
+
+    private static ThreadPoolTaskExecutor boundedPool(String prefix, int threads, int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix(prefix);
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setAllowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    @Configuration
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    static class VirtualThreadExecutors {
+
+        @Bean
+        TaskExecutor dispatchExecutor(
+                @Value("${openicu.execution.virtual.dispatch-concurrency:2000}") int concurrency) {
+            return virtualExecutor("dispatch-", concurrency);
+        }
+
+        @Bean
+        TaskExecutor routingExecutor(
+                @Value("${openicu.execution.virtual.routing-concurrency:2000}") int concurrency) {
+            return virtualExecutor("routing-", concurrency);
+        }
+
+        private static TaskExecutor virtualExecutor(String prefix, int concurrency) {
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor(prefix);
+            executor.setVirtualThreads(true);
+            executor.setConcurrencyLimit(concurrency);
+            return executor;
+        }
+
+        @Bean
+        TaskExecutor stompInboundExecutor(
+                @Value("${openicu.execution.virtual.inbound-concurrency:2000}") int inboundConcurrency) {
+            return virtualExecutor("stomp-inbound-", inboundConcurrency);
+        }
+
+        @Bean
+        ThreadPoolTaskExecutor stompOutboundExecutor(
+                @Value("${openicu.execution.virtual.outbound-threads:0}") int outboundThreads) {
+            // Same size as Spring's default outbound pool unless configured
+            int threads = outboundThreads > 0 ? outboundThreads : Runtime.getRuntime().availableProcessors() * 2;
+            ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+            executor.setThreadFactory(new VirtualThreadTaskExecutor("stomp-outbound-").getVirtualThreadFactory());
+            executor.setCorePoolSize(threads);
+            executor.setMaxPoolSize(threads);
+            executor.setAllowCoreThreadTimeOut(true);
+            return executor;
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.lifeline.openicu.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.PropertySource;
+
+/**
+ * Exposes the actuator metrics and Prometheus endpoints by default.
+ * Meters are named openicu.* and registered by the components they measure
+ * (dispatch phases, routing calls, hospital caches, realtime topics, CSV import).
+ * Values in application.properties take precedence over metrics.properties.
+ */
+@Configuration
+@PropertySource("classpath:metrics.properties")
+public class MetricsConfig {
+}
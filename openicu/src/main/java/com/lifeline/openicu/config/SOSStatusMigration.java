@@ -0,0 +1,85 @@
+package com.lifeline.openicu.config;
+
+import com.lifeline.openicu.sos.entity.SOSStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Brings sos_reports rows written before SOSReport.status became an enum in
+ * line with the entity, so they can still be loaded:
+ * statuses differing only in case or surrounding blanks are upper-cased,
+ * known legacy aliases are mapped to their SOSStatus, and rows from before
+ * the version column get version 0.
+ * Any other value (or NULL) fails startup with the offending values listed,
+ * before anything is changed: guessing would reopen handled cases or close
+ * live ones, so they have to be mapped by hand or added to LEGACY_ALIASES.
+ *
+ * Runs before the other startup runners and before ApplicationReadyEvent
+ * listeners such as the SOS cluster seeding. Idempotent; a no-op once migrated.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class SOSStatusMigration implements CommandLineRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(SOSStatusMigration.class);
+
+    static final Map<String, SOSStatus> LEGACY_ALIASES = Map.of(
+            "NEW", SOSStatus.PENDING,
+            "OPEN", SOSStatus.PENDING,
+            "ESCALATED", SOSStatus.DISPATCHED,
+            "IN_PROGRESS", SOSStatus.DISPATCHED,
+            "CLOSED", SOSStatus.RESOLVED,
+            "COMPLETED", SOSStatus.RESOLVED,
+            "CANCELLED", SOSStatus.RESOLVED);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public SOSStatusMigration(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void run(String... args) {
+        String known = quoted(Arrays.stream(SOSStatus.values()).map(SOSStatus::name));
+        String mappable = quoted(Stream.concat(Arrays.stream(SOSStatus.values()).map(SOSStatus::name),
+                LEGACY_ALIASES.keySet().stream()));
+
+        List<String> unknown = jdbcTemplate.queryForList("SELECT DISTINCT status FROM sos_reports "
+                + "WHERE status IS NULL OR UPPER(TRIM(status)) NOT IN (" + mappable + ")", String.class);
+        if (!unknown.isEmpty()) {
+            throw new IllegalStateException("sos_reports has statuses with no SOSStatus mapping: " + unknown
+                    + "; update those rows by hand or add the values to SOSStatusMigration.LEGACY_ALIASES");
+        }
+
+        int recased = jdbcTemplate.update("UPDATE sos_reports SET status = UPPER(TRIM(status)) "
+                + "WHERE status NOT IN (" + known + ") AND UPPER(TRIM(status)) IN (" + known + ")");
+
+        int aliased = 0;
+        for (Map.Entry<String, SOSStatus> alias : LEGACY_ALIASES.entrySet()) {
+            aliased += jdbcTemplate.update("UPDATE sos_reports SET status = ? WHERE UPPER(TRIM(status)) = ?",
+                    alias.getValue().name(), alias.getKey());
+        }
+
+        int versioned = jdbcTemplate.update("UPDATE sos_reports SET version = 0 WHERE version IS NULL");
+
+        if (recased > 0 || aliased > 0 || versioned > 0) {
+            log.info("Migrated SOS reports: {} statuses upper-cased, {} legacy statuses mapped, "
+                    + "{} unversioned rows set to version 0", recased, aliased, versioned);
+        }
+    }
+
+    private static String quoted(Stream<String> values) {
+        return values.map(value -> "'" + value + "'").collect(Collectors.joining(", "));
+    }
+}
@@ -0,0 +1,13 @@
+package com.lifeline.openicu.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables @Scheduled background jobs (ETA recomputation of en-route ambulances,
+ * eviction of idle ambulances from the tracking table).
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
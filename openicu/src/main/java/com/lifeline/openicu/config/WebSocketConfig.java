@@ -1,33 +1,166 @@
 package com.lifeline.openicu.config;
 
+import com.lifeline.openicu.realtime.RealtimeTopicMetrics;
+import com.lifeline.openicu.realtime.backpressure.OutboundBackpressureInterceptor;
+import com.lifeline.openicu.realtime.broker.BrokerMode;
+import com.lifeline.openicu.realtime.broker.LocalBrokerBridge;
+import com.lifeline.openicu.realtime.codec.WireFormatInterceptor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketTransportRegistration;
 
 /**
  * WebSocket configuration for real-time hospital data broadcasting.
  * Configures STOMP messaging over WebSocket with SockJS fallback support.
+ *
+ * The broker is selected with openicu.realtime.broker.mode:
+ * simple (default, single node), relay (external STOMP broker, multi-node)
+ * or local (in-JVM bridge between nodes, used by tests).
+ *
+ * Outbound traffic is bounded per session: frames queued on the outbound
+ * channel are collapsed or dropped by OutboundBackpressureInterceptor, and
+ * sessions that exceed the socket send buffer or send time limit are closed.
+ * Publishes are counted per topic by RealtimeTopicMetrics on the broker channel.
+ *
+ * In virtual-thread execution mode the inbound and outbound channels run on
+ * the executors defined in ExecutionModeConfig.
  */
 @Configuration
 @EnableWebSocketMessageBroker
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
+    private static final Logger logger = LoggerFactory.getLogger(WebSocketConfig.class);
+
+    private final BrokerMode brokerMode;
+    private final ObjectProvider<LocalBrokerBridge> localBrokerBridge;
+    private final WireFormatInterceptor wireFormatInterceptor;
+    private final OutboundBackpressureInterceptor backpressureInterceptor;
+    private final RealtimeTopicMetrics topicMetrics;
+    private final ObjectProvider<TaskExecutor> inboundExecutor;
+    private final ObjectProvider<TaskExecutor> outboundExecutor;
+
+    @Value("${openicu.realtime.broker.relay.host:localhost}")
+    private String relayHost;
+
+    @Value("${openicu.realtime.broker.relay.port:61613}")
+    private int relayPort;
+
+    @Value("${openicu.realtime.broker.relay.virtual-host:}")
+    private String relayVirtualHost;
+
+    @Value("${openicu.realtime.broker.relay.client-login:guest}")
+    private String relayClientLogin;
+
+    @Value("${openicu.realtime.broker.relay.client-passcode:guest}")
+    private String relayClientPasscode;
+
+    @Value("${openicu.realtime.broker.relay.system-login:guest}")
+    private String relaySystemLogin;
+
+    @Value("${openicu.realtime.broker.relay.system-passcode:guest}")
+    private String relaySystemPasscode;
+
+    @Value("${openicu.realtime.outbound.send-time-limit-ms:10000}")
+    private int sendTimeLimitMillis;
+
+    @Value("${openicu.realtime.outbound.send-buffer-size-kb:512}")
+    private int sendBufferSizeKb;
+
+    @Value("${openicu.realtime.inbound.message-size-kb:64}")
+    private int messageSizeKb;
+
+    public WebSocketConfig(@Value("${openicu.realtime.broker.mode:simple}") String brokerMode,
+                           ObjectProvider<LocalBrokerBridge> localBrokerBridge,
+                           WireFormatInterceptor wireFormatInterceptor,
+                           OutboundBackpressureInterceptor backpressureInterceptor,
+                           RealtimeTopicMetrics topicMetrics,
+                           @Qualifier("stompInboundExecutor") ObjectProvider<TaskExecutor> inboundExecutor,
+                           @Qualifier("stompOutboundExecutor") ObjectProvider<TaskExecutor> outboundExecutor) {
+        this.brokerMode = BrokerMode.from(brokerMode);
+        this.localBrokerBridge = localBrokerBridge;
+        this.wireFormatInterceptor = wireFormatInterceptor;
+        this.backpressureInterceptor = backpressureInterceptor;
+        this.topicMetrics = topicMetrics;
+        this.inboundExecutor = inboundExecutor;
+        this.outboundExecutor = outboundExecutor;
+    }
+
     /**
      * Configure message broker for handling messages.
-     * Enables simple in-memory broker for /topic destinations.
+     * Enables the configured broker for /topic destinations.
      * Sets application destination prefix for @MessageMapping.
      */
     @Override
     public void configureMessageBroker(MessageBrokerRegistry config) {
-        // Enable simple in-memory broker for /topic destinations
-        config.enableSimpleBroker("/topic");
-        
+        logger.info("Configuring STOMP broker in {} mode", brokerMode);
+
+        switch (brokerMode) {
+            case RELAY -> {
+                // Relay /topic to an external STOMP broker so events reach clients on every node
+                config.enableStompBrokerRelay("/topic")
+                        .setRelayHost(relayHost)
+                        .setRelayPort(relayPort)
+                        .setVirtualHost(relayVirtualHost.isEmpty() ? null : relayVirtualHost)
+                        .setClientLogin(relayClientLogin)
+                        .setClientPasscode(relayClientPasscode)
+                        .setSystemLogin(relaySystemLogin)
+                        .setSystemPasscode(relaySystemPasscode)
+                        // Resolve user destinations (per-session hospital list) across nodes
+                        .setUserDestinationBroadcast("/topic/unresolved-user-destination")
+                        .setUserRegistryBroadcast("/topic/simp-user-registry");
+            }
+            case LOCAL -> {
+                config.enableSimpleBroker("/topic");
+                config.configureBrokerChannel().interceptors(localBrokerBridge.getObject());
+            }
+            default -> config.enableSimpleBroker("/topic");
+        }
+
+        config.configureBrokerChannel().interceptors(topicMetrics);
+
         // Set application destination prefix for @MessageMapping
         config.setApplicationDestinationPrefixes("/app");
     }
 
+    /**
+     * Negotiate JSON vs compact binary frames per session on CONNECT/SUBSCRIBE.
+     */
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        registration.interceptors(wireFormatInterceptor);
+        inboundExecutor.ifAvailable(registration::executor);
+    }
+
+    /**
+     * Collapse or drop frames queued for sessions that fall behind.
+     */
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration) {
+        registration.interceptors(backpressureInterceptor);
+        outboundExecutor.ifAvailable(registration::executor);
+    }
+
+    /**
+     * Per-session socket limits: a session whose send buffer or blocked send
+     * exceeds these is closed instead of growing without bound.
+     */
+    @Override
+    public void configureWebSocketTransport(WebSocketTransportRegistration registration) {
+        registration.setSendTimeLimit(sendTimeLimitMillis)
+                .setSendBufferSizeLimit(sendBufferSizeKb * 1024)
+                .setMessageSizeLimit(messageSizeKb * 1024);
+    }
+
     /**
      * Register STOMP endpoints for WebSocket connections.
      * Configures /ws endpoint with SockJS fallback and CORS support.
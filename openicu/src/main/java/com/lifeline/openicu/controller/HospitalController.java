@@ -1,13 +1,18 @@
 package com.lifeline.openicu.controller;
 
+import com.lifeline.openicu.cache.CacheStats;
+import com.lifeline.openicu.cache.HospitalCache;
 import com.lifeline.openicu.dto.HospitalCreateDTO;
 import com.lifeline.openicu.dto.HospitalResponseDTO;
 import com.lifeline.openicu.dto.HospitalSearchCriteria;
+import com.lifeline.openicu.dto.HospitalStatsDTO;
+import com.lifeline.openicu.dto.HospitalView;
 import com.lifeline.openicu.dto.NearbyHospitalRequest;
 import com.lifeline.openicu.dto.NearbyHospitalResponse;
 import com.lifeline.openicu.exception.InvalidCoordinatesException;
 import com.lifeline.openicu.exception.InvalidSearchCriteriaException;
 import com.lifeline.openicu.service.HospitalService;
+import com.lifeline.openicu.service.HospitalStatsEngine;
 import jakarta.validation.Valid;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
@@ -20,7 +25,6 @@ import org.springframework.web.bind.annotation.*;
 
 import java.util.Arrays;
 import java.util.List;
-import java.util.Map;
 import java.util.Set;
 
 @RestController
@@ -29,6 +33,8 @@ import java.util.Set;
 public class HospitalController {
 
     private final HospitalService hospitalService;
+    private final HospitalCache hospitalCache;
+    private final HospitalStatsEngine hospitalStatsEngine;
     
     private static final Set<String> VALID_SORT_FIELDS = Set.of(
         "name", "state", "district", "totalNumBeds", "createdAt", "updatedAt"
@@ -37,8 +43,11 @@ public class HospitalController {
     private static final int MIN_PAGE_SIZE = 1;
     private static final int MAX_PAGE_SIZE = 100;
 
-    public HospitalController(HospitalService hospitalService) {
+    public HospitalController(HospitalService hospitalService, HospitalCache hospitalCache,
+                              HospitalStatsEngine hospitalStatsEngine) {
         this.hospitalService = hospitalService;
+        this.hospitalCache = hospitalCache;
+        this.hospitalStatsEngine = hospitalStatsEngine;
     }
 
     @PostMapping
@@ -48,12 +57,17 @@ public class HospitalController {
         return new ResponseEntity<>(response, HttpStatus.CREATED);
     }
 
+    /**
+     * fields=list|summary|detail (default detail) selects the columns read and returned.
+     */
     @GetMapping
-    public ResponseEntity<Page<HospitalResponseDTO>> getAllHospitals(
+    public ResponseEntity<Page<?>> getAllHospitals(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size,
             @RequestParam(defaultValue = "name") String sortBy,
-            @RequestParam(defaultValue = "ASC") String sortDir) {
+            @RequestParam(defaultValue = "ASC") String sortDir,
+            @RequestParam(required = false) String fields) {
+        HospitalView view = HospitalView.from(fields);
         
         // Validate page size
         if (size < MIN_PAGE_SIZE || size > MAX_PAGE_SIZE) {
@@ -83,12 +97,12 @@ public class HospitalController {
         // Create pageable with sorting
         Pageable pageable = PageRequest.of(page, size, Sort.by(direction, sortBy));
         
-        Page<HospitalResponseDTO> hospitals = hospitalService.getAllHospitals(pageable);
+        Page<?> hospitals = hospitalService.getAllHospitals(pageable, view);
         return ResponseEntity.ok(hospitals);
     }
 
     @GetMapping("/search")
-    public ResponseEntity<Page<HospitalResponseDTO>> searchHospitals(
+    public ResponseEntity<Page<?>> searchHospitals(
             @RequestParam(required = false) String keyword,
             @RequestParam(required = false) String state,
             @RequestParam(required = false) String district,
@@ -101,7 +115,9 @@ public class HospitalController {
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size,
             @RequestParam(defaultValue = "name") String sortBy,
-            @RequestParam(defaultValue = "ASC") String sortDir) {
+            @RequestParam(defaultValue = "ASC") String sortDir,
+            @RequestParam(required = false) String fields) {
+        HospitalView view = HospitalView.from(fields);
         
         // Validate page size
         if (size < MIN_PAGE_SIZE || size > MAX_PAGE_SIZE) {
@@ -144,13 +160,14 @@ public class HospitalController {
         Pageable pageable = PageRequest.of(page, size, Sort.by(direction, sortBy));
         
         // Delegate to service layer
-        Page<HospitalResponseDTO> results = hospitalService.searchHospitals(criteria, pageable);
+        Page<?> results = hospitalService.searchHospitals(criteria, pageable, view);
         return ResponseEntity.ok(results);
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<HospitalResponseDTO> getHospitalById(@PathVariable Long id) {
-        HospitalResponseDTO response = hospitalService.getHospitalById(id);
+    public ResponseEntity<?> getHospitalById(@PathVariable Long id,
+                                             @RequestParam(required = false) String fields) {
+        Object response = hospitalService.getHospitalById(id, HospitalView.from(fields));
         return ResponseEntity.ok(response);
     }
 
@@ -162,13 +179,21 @@ public class HospitalController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Hospital counts by state, city, district and category and bed counts by type,
+     * served from in-memory counters.
+     */
     @GetMapping("/stats")
-    public ResponseEntity<Map<String, Object>> getHospitalStats() {
-        long totalHospitals = hospitalService.getTotalHospitals();
-        Map<String, Object> stats = new java.util.HashMap<>();
-        stats.put("totalHospitals", totalHospitals);
-        stats.put("message", "Hospital data loaded from CSV");
-        return ResponseEntity.ok(stats);
+    public ResponseEntity<HospitalStatsDTO> getHospitalStats() {
+        return ResponseEntity.ok(hospitalStatsEngine.getStats());
+    }
+    
+    /**
+     * Hit rate, size and eviction counters of the hospital detail and search caches.
+     */
+    @GetMapping("/cache/stats")
+    public ResponseEntity<List<CacheStats>> getCacheStats() {
+        return ResponseEntity.ok(hospitalCache.getStats());
     }
     
     @PostMapping("/nearby")
@@ -0,0 +1,21 @@
+package com.lifeline.openicu.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Smallest hospital projection (fields=list).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class HospitalListDTO {
+
+    private Long id;
+    private String name;
+    private Double latitude;
+    private Double longitude;
+    private String state;
+    private String district;
+}
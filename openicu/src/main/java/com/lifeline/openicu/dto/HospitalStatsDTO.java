@@ -4,6 +4,7 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.LocalDateTime;
 import java.util.Map;
 
 @Data
@@ -13,4 +14,9 @@ public class HospitalStatsDTO {
     private long totalHospitals;
     private Map<String, Long> hospitalsByState;
     private Map<String, Long> hospitalsByCity;
+    private Map<String, Long> hospitalsByDistrict;
+    private Map<String, Long> hospitalsByCategory;
+    private Map<String, Long> bedsByType;
+    private Map<String, Long> availableBedsByType;
+    private LocalDateTime updatedAt;
 }
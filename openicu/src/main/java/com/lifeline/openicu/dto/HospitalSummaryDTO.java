@@ -0,0 +1,27 @@
+package com.lifeline.openicu.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Hospital projection for result lists (fields=summary).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class HospitalSummaryDTO {
+
+    private Long id;
+    private String name;
+    private Double latitude;
+    private Double longitude;
+    private String state;
+    private String district;
+    private String address;
+    private String phoneNumber;
+    private String hospitalCategory;
+    private String hospitalCareType;
+    private Integer totalNumBeds;
+    private String emergencyServices;
+}
@@ -0,0 +1,42 @@
+package com.lifeline.openicu.dto;
+
+import com.lifeline.openicu.exception.InvalidSearchCriteriaException;
+
+/**
+ * Column set selected for hospital reads, chosen with the fields= request parameter.
+ * LIST and SUMMARY are read as constructor projections and never load the entity.
+ */
+public enum HospitalView {
+
+    /** id, name, coordinates, state and district: map markers and pickers */
+    LIST(HospitalListDTO.class),
+
+    /** LIST plus contact, category, bed total and emergency services: result cards */
+    SUMMARY(HospitalSummaryDTO.class),
+
+    /** Every column: HospitalResponseDTO */
+    DETAIL(HospitalResponseDTO.class);
+
+    private final Class<?> type;
+
+    HospitalView(Class<?> type) {
+        this.type = type;
+    }
+
+    public Class<?> getType() {
+        return type;
+    }
+
+    public static HospitalView from(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return DETAIL;
+        }
+        try {
+            return valueOf(fields.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new InvalidSearchCriteriaException(
+                String.format("Invalid fields '%s'. Valid values are: list, summary, detail", fields)
+            );
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.lifeline.openicu.realtime;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Timestamp helper for realtime event payloads.
+ * Events keep the raw epoch millis (used as-is by the compact wire format)
+ * and only format the ISO string when a JSON frame is actually written.
+ */
+public final class EventTimestamps {
+
+    private static final DateTimeFormatter ISO_FORMATTER = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
+
+    private EventTimestamps() {
+    }
+
+    public static String iso(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault())
+                .format(ISO_FORMATTER);
+    }
+
+    public static long millis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,67 @@
+package com.lifeline.openicu.realtime;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * Counts messages published to the broker channel per topic
+ * (openicu.realtime.published). Registered on the broker channel in every
+ * broker mode, so it sees each publish once, before fan-out to subscribers.
+ *
+ * Topics are normalized so the tag stays low-cardinality: numeric path
+ * segments become {id} and resolved user destinations lose their session
+ * suffix.
+ */
+@Component
+public class RealtimeTopicMetrics implements ChannelInterceptor {
+
+    private static final Pattern NUMERIC_SEGMENT = Pattern.compile("/\\d+(?=/|$|\\.)");
+    private static final String USER_SUFFIX = "-user";
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Counter> published = new ConcurrentHashMap<>();
+
+    public RealtimeTopicMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        if (SimpMessageHeaderAccessor.getMessageType(message.getHeaders()) == SimpMessageType.MESSAGE) {
+            String destination = SimpMessageHeaderAccessor.getDestination(message.getHeaders());
+            if (destination != null) {
+                published.computeIfAbsent(topicOf(destination), this::publishedCounter).increment();
+            }
+        }
+        return message;
+    }
+
+    private Counter publishedCounter(String topic) {
+        return Counter.builder("openicu.realtime.published")
+                .description("Messages published to the broker, per topic")
+                .tag("topic", topic)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Low-cardinality form of a destination for use as a meter tag,
+     * e.g. /topic/hospitals/42/ambulances becomes /topic/hospitals/{id}/ambulances.
+     */
+    public static String topicOf(String destination) {
+        int user = destination.indexOf(USER_SUFFIX);
+        if (user > 0) {
+            destination = destination.substring(0, user);
+        }
+        return NUMERIC_SEGMENT.matcher(destination).replaceAll("/{id}");
+    }
+}
@@ -1,23 +1,32 @@
 package com.lifeline.openicu.realtime.ambulance;
 
-import org.springframework.messaging.simp.SimpMessagingTemplate;
+import com.lifeline.openicu.realtime.EventTimestamps;
+import com.lifeline.openicu.realtime.ambulance.dto.AmbulanceAssignedEvent;
+import com.lifeline.openicu.realtime.ambulance.dto.AmbulancePositionEvent;
+import com.lifeline.openicu.realtime.ambulance.dto.AmbulanceRoutedEvent;
+import com.lifeline.openicu.realtime.ambulance.dto.BedReservedEvent;
+import com.lifeline.openicu.realtime.ambulance.dto.EtaUpdatedEvent;
+import com.lifeline.openicu.realtime.ambulance.dto.ReservationCancelledEvent;
+import com.lifeline.openicu.realtime.ambulance.dto.ReservationConfirmedEvent;
+import com.lifeline.openicu.realtime.ambulance.dto.ReservationExpiredEvent;
+import com.lifeline.openicu.realtime.ambulance.dto.ReservationReassignedEvent;
+import com.lifeline.openicu.realtime.codec.RealtimeEventSender;
 import org.springframework.stereotype.Component;
 
 import java.time.LocalDateTime;
-import java.util.Map;
 import java.util.UUID;
 
 /**
  * Publishes ambulance-related events to WebSocket topics.
- * Topics: /topic/ambulance, /topic/reservations
+ * Topics: /topic/ambulance, /topic/reservations, /topic/hospitals/{hospitalId}/ambulances
  */
 @Component
 public class AmbulanceEventPublisher {
 
-    private final SimpMessagingTemplate messagingTemplate;
+    private final RealtimeEventSender eventSender;
 
-    public AmbulanceEventPublisher(SimpMessagingTemplate messagingTemplate) {
-        this.messagingTemplate = messagingTemplate;
+    public AmbulanceEventPublisher(RealtimeEventSender eventSender) {
+        this.eventSender = eventSender;
     }
 
     /**
@@ -25,16 +34,22 @@ public class AmbulanceEventPublisher {
      */
     public void publishAmbulanceAssigned(String ambulanceId, Long hospitalId, String hospitalName,
             Long bedId, String bedType, double distanceKm) {
-        Map<String, Object> payload = Map.of(
-                "event", "AMBULANCE_ASSIGNED",
-                "ambulanceId", ambulanceId,
-                "hospitalId", hospitalId,
-                "hospitalName", hospitalName,
-                "bedId", bedId,
-                "bedType", bedType,
-                "distanceKm", distanceKm,
-                "timestamp", LocalDateTime.now().toString());
-        messagingTemplate.convertAndSend("/topic/ambulance", payload);
+        AmbulanceAssignedEvent event = new AmbulanceAssignedEvent(
+                ambulanceId,
+                hospitalId,
+                hospitalName,
+                bedId,
+                bedType,
+                distanceKm,
+                System.currentTimeMillis());
+        eventSender.send("/topic/ambulance", event);
+    }
+
+    /**
+     * Broadcast the route of an ambulance dispatched ahead of routing.
+     */
+    public void publishAmbulanceRouted(AmbulanceRoutedEvent event) {
+        eventSender.send("/topic/ambulance", event);
     }
 
     /**
@@ -42,14 +57,13 @@ public class AmbulanceEventPublisher {
      */
     public void publishBedReserved(UUID reservationId, String ambulanceId, Long hospitalId,
             Long bedId, LocalDateTime expiresAt) {
-        Map<String, Object> payload = Map.of(
-                "event", "BED_RESERVED",
-                "reservationId", reservationId.toString(),
-                "ambulanceId", ambulanceId,
-                "hospitalId", hospitalId,
-                "bedId", bedId,
-                "expiresAt", expiresAt.toString());
-        messagingTemplate.convertAndSend("/topic/reservations", payload);
+        BedReservedEvent event = new BedReservedEvent(
+                reservationId,
+                ambulanceId,
+                hospitalId,
+                bedId,
+                EventTimestamps.millis(expiresAt));
+        eventSender.send("/topic/reservations", event);
     }
 
     /**
@@ -57,13 +71,47 @@ public class AmbulanceEventPublisher {
      */
     public void publishReservationExpired(UUID reservationId, String ambulanceId,
             Long hospitalId, Long bedId) {
-        Map<String, Object> payload = Map.of(
-                "event", "RESERVATION_EXPIRED",
-                "reservationId", reservationId.toString(),
-                "ambulanceId", ambulanceId,
-                "hospitalId", hospitalId,
-                "bedId", bedId,
-                "timestamp", LocalDateTime.now().toString());
-        messagingTemplate.convertAndSend("/topic/reservations", payload);
+        ReservationExpiredEvent event = new ReservationExpiredEvent(
+                reservationId,
+                ambulanceId,
+                hospitalId,
+                bedId,
+                System.currentTimeMillis());
+        eventSender.send("/topic/reservations", event);
+    }
+
+    /**
+     * Broadcast when an arrived ambulance's reservation is confirmed.
+     */
+    public void publishReservationConfirmed(ReservationConfirmedEvent event) {
+        eventSender.send("/topic/reservations", event);
+    }
+
+    /**
+     * Broadcast when a reservation is cancelled.
+     */
+    public void publishReservationCancelled(ReservationCancelledEvent event) {
+        eventSender.send("/topic/reservations", event);
+    }
+
+    /**
+     * Broadcast when a diverted ambulance's reservation moves to another bed.
+     */
+    public void publishReservationReassigned(ReservationReassignedEvent event) {
+        eventSender.send("/topic/reservations", event);
+    }
+
+    /**
+     * Broadcast a live position fix to the ambulance's destination hospital.
+     */
+    public void publishAmbulancePosition(AmbulancePositionEvent event) {
+        eventSender.send("/topic/hospitals/" + event.getHospitalId() + "/ambulances", event);
+    }
+
+    /**
+     * Broadcast a changed arrival estimate to the ambulance's destination hospital.
+     */
+    public void publishEtaUpdated(EtaUpdatedEvent event) {
+        eventSender.send("/topic/hospitals/" + event.getHospitalId() + "/ambulances", event);
     }
 }
@@ -2,6 +2,13 @@ package com.lifeline.openicu.realtime.ambulance;
 
 import com.lifeline.openicu.ambulance.dto.HospitalMatchDTO;
 import com.lifeline.openicu.ambulance.entity.BedReservation;
+import com.lifeline.openicu.realtime.ambulance.dto.AmbulancePositionEvent;
+import com.lifeline.openicu.realtime.ambulance.dto.AmbulanceRoutedEvent;
+import com.lifeline.openicu.realtime.ambulance.dto.EtaUpdatedEvent;
+import com.lifeline.openicu.realtime.ambulance.dto.ReservationCancelledEvent;
+import com.lifeline.openicu.realtime.ambulance.dto.ReservationConfirmedEvent;
+import com.lifeline.openicu.realtime.ambulance.dto.ReservationReassignedEvent;
+import com.lifeline.openicu.routing.dto.RouteResponse;
 import org.springframework.stereotype.Service;
 
 /**
@@ -30,6 +37,21 @@ public class AmbulanceRealtimeService {
                 match.getDistanceInKm());
     }
 
+    /**
+     * Emit the route of a reservation that was confirmed before routing finished.
+     */
+    public void emitAmbulanceRouted(BedReservation reservation, RouteResponse route) {
+        publisher.publishAmbulanceRouted(new AmbulanceRoutedEvent(
+                reservation.getAmbulanceId(),
+                reservation.getId(),
+                reservation.getHospitalId(),
+                route.getDistanceKm(),
+                route.getTimeMinutes(),
+                route.getEncodedPolyline(),
+                route.getEncodedPolyline() == null,
+                System.currentTimeMillis()));
+    }
+
     /**
      * Emit event when bed is reserved.
      */
@@ -52,4 +74,57 @@ public class AmbulanceRealtimeService {
                 reservation.getHospitalId(),
                 reservation.getBedId());
     }
+
+    /**
+     * Emit event when an arrived ambulance's reservation is confirmed.
+     */
+    public void emitReservationConfirmed(BedReservation reservation) {
+        publisher.publishReservationConfirmed(new ReservationConfirmedEvent(
+                reservation.getId(),
+                reservation.getAmbulanceId(),
+                reservation.getHospitalId(),
+                reservation.getBedId(),
+                System.currentTimeMillis()));
+    }
+
+    /**
+     * Emit event when a reservation is cancelled.
+     */
+    public void emitReservationCancelled(BedReservation reservation) {
+        publisher.publishReservationCancelled(new ReservationCancelledEvent(
+                reservation.getId(),
+                reservation.getAmbulanceId(),
+                reservation.getHospitalId(),
+                reservation.getBedId(),
+                System.currentTimeMillis()));
+    }
+
+    /**
+     * Emit event when a diverted ambulance's reservation is replaced.
+     */
+    public void emitReservationReassigned(BedReservation previous, BedReservation reservation) {
+        publisher.publishReservationReassigned(new ReservationReassignedEvent(
+                previous.getId(),
+                reservation.getId(),
+                reservation.getAmbulanceId(),
+                previous.getHospitalId(),
+                previous.getBedId(),
+                reservation.getHospitalId(),
+                reservation.getBedId(),
+                System.currentTimeMillis()));
+    }
+
+    /**
+     * Emit a live position fix to the destination hospital.
+     */
+    public void emitAmbulancePosition(AmbulancePositionEvent event) {
+        publisher.publishAmbulancePosition(event);
+    }
+
+    /**
+     * Emit a changed arrival estimate to the destination hospital.
+     */
+    public void emitEtaUpdated(EtaUpdatedEvent event) {
+        publisher.publishEtaUpdated(event);
+    }
 }
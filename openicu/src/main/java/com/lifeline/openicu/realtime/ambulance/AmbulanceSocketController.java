@@ -1,6 +1,9 @@
 package com.lifeline.openicu.realtime.ambulance;
 
+import com.lifeline.openicu.ambulance.service.AmbulanceTrackingService;
+import com.lifeline.openicu.realtime.ambulance.dto.AmbulancePositionUpdate;
 import org.springframework.messaging.handler.annotation.MessageMapping;
+import org.springframework.messaging.handler.annotation.Payload;
 import org.springframework.messaging.handler.annotation.SendTo;
 import org.springframework.messaging.simp.annotation.SubscribeMapping;
 import org.springframework.stereotype.Controller;
@@ -15,6 +18,12 @@ import java.util.Map;
 @Controller
 public class AmbulanceSocketController {
 
+    private final AmbulanceTrackingService trackingService;
+
+    public AmbulanceSocketController(AmbulanceTrackingService trackingService) {
+        this.trackingService = trackingService;
+    }
+
     /**
      * Handle subscription to /topic/ambulance.
      * Returns confirmation message on subscribe.
@@ -51,4 +60,14 @@ public class AmbulanceSocketController {
                 "status", "ACTIVE",
                 "message", "Ambulance WebSocket channel is active");
     }
+
+    /**
+     * Live GPS fix from an ambulance.
+     * Client sends to /app/ambulance/position; accepted fixes are fanned out to
+     * /topic/hospitals/{hospitalId}/ambulances of the assigned hospital.
+     */
+    @MessageMapping("/ambulance/position")
+    public void handlePosition(@Payload AmbulancePositionUpdate update) {
+        trackingService.recordPosition(update);
+    }
 }
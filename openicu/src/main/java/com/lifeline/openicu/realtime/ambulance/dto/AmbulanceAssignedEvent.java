@@ -0,0 +1,35 @@
+package com.lifeline.openicu.realtime.ambulance.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.lifeline.openicu.realtime.EventTimestamps;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Immutable WebSocket event payload published to /topic/ambulance
+ * when an ambulance is matched to a hospital.
+ */
+@Getter
+@AllArgsConstructor
+public class AmbulanceAssignedEvent {
+
+    public static final String EVENT = "AMBULANCE_ASSIGNED";
+
+    private final String ambulanceId;
+    private final Long hospitalId;
+    private final String hospitalName;
+    private final Long bedId;
+    private final String bedType;
+    private final double distanceKm;
+
+    @JsonIgnore
+    private final long timestampMillis;
+
+    public String getEvent() {
+        return EVENT;
+    }
+
+    public String getTimestamp() {
+        return EventTimestamps.iso(timestampMillis);
+    }
+}
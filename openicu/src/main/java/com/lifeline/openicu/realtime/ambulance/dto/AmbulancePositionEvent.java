@@ -0,0 +1,51 @@
+package com.lifeline.openicu.realtime.ambulance.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.lifeline.openicu.realtime.EventTimestamps;
+import com.lifeline.openicu.realtime.backpressure.CollapsibleEvent;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.UUID;
+
+/**
+ * Immutable WebSocket event payload published to
+ * /topic/hospitals/{hospitalId}/ambulances for every accepted GPS fix
+ * of an ambulance heading to that hospital.
+ */
+@Getter
+@AllArgsConstructor
+public class AmbulancePositionEvent implements CollapsibleEvent {
+
+    public static final String EVENT = "AMBULANCE_POSITION";
+
+    private final String ambulanceId;
+    private final double latitude;
+    private final double longitude;
+    private final double speed;
+    private final double heading;
+    private final Long hospitalId;
+
+    @JsonIgnore
+    private final UUID reservationUuid;
+
+    @JsonIgnore
+    private final long timestampMillis;
+
+    public String getEvent() {
+        return EVENT;
+    }
+
+    public String getReservationId() {
+        return reservationUuid != null ? reservationUuid.toString() : null;
+    }
+
+    public String getTimestamp() {
+        return EventTimestamps.iso(timestampMillis);
+    }
+
+    @Override
+    public String collapseKey() {
+        return "position:" + ambulanceId;
+    }
+}
@@ -0,0 +1,35 @@
+package com.lifeline.openicu.realtime.ambulance.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Inbound GPS fix sent by an ambulance to /app/ambulance/position.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class AmbulancePositionUpdate {
+
+    private String ambulanceId;
+
+    private Double latitude;
+
+    private Double longitude;
+
+    /**
+     * Ground speed in km/h (optional)
+     */
+    private Double speed;
+
+    /**
+     * Heading in degrees clockwise from north (optional)
+     */
+    private Double heading;
+
+    /**
+     * Device fix time in epoch millis (optional, defaults to server receive time)
+     */
+    private Long timestamp;
+}
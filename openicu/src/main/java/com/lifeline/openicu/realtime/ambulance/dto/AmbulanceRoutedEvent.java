@@ -0,0 +1,46 @@
+package com.lifeline.openicu.realtime.ambulance.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.lifeline.openicu.realtime.EventTimestamps;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.UUID;
+
+/**
+ * Immutable WebSocket event payload published to /topic/ambulance when the
+ * route of an asynchronously dispatched ambulance is known. fallback is set
+ * when the route is a straight-line estimate (routing failed or timed out).
+ */
+@Getter
+@AllArgsConstructor
+public class AmbulanceRoutedEvent {
+
+    public static final String EVENT = "AMBULANCE_ROUTED";
+
+    private final String ambulanceId;
+
+    @JsonIgnore
+    private final UUID reservationUuid;
+
+    private final Long hospitalId;
+    private final double distanceKm;
+    private final int etaMinutes;
+    private final String encodedPolyline;
+    private final boolean fallback;
+
+    @JsonIgnore
+    private final long timestampMillis;
+
+    public String getEvent() {
+        return EVENT;
+    }
+
+    public String getReservationId() {
+        return reservationUuid.toString();
+    }
+
+    public String getTimestamp() {
+        return EventTimestamps.iso(timestampMillis);
+    }
+}
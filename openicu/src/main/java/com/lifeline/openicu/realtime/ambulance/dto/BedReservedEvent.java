@@ -0,0 +1,41 @@
+package com.lifeline.openicu.realtime.ambulance.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.lifeline.openicu.realtime.EventTimestamps;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.UUID;
+
+/**
+ * Immutable WebSocket event payload published to /topic/reservations
+ * when a bed is reserved for an ambulance.
+ */
+@Getter
+@AllArgsConstructor
+public class BedReservedEvent {
+
+    public static final String EVENT = "BED_RESERVED";
+
+    @JsonIgnore
+    private final UUID reservationUuid;
+
+    private final String ambulanceId;
+    private final Long hospitalId;
+    private final Long bedId;
+
+    @JsonIgnore
+    private final long expiresAtMillis;
+
+    public String getEvent() {
+        return EVENT;
+    }
+
+    public String getReservationId() {
+        return reservationUuid.toString();
+    }
+
+    public String getExpiresAt() {
+        return EventTimestamps.iso(expiresAtMillis);
+    }
+}
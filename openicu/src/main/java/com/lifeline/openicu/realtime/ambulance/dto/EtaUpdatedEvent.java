@@ -0,0 +1,57 @@
+package com.lifeline.openicu.realtime.ambulance.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.lifeline.openicu.realtime.EventTimestamps;
+import com.lifeline.openicu.realtime.backpressure.CollapsibleEvent;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.UUID;
+
+/**
+ * Immutable WebSocket event payload published to
+ * /topic/hospitals/{hospitalId}/ambulances when the projected arrival time
+ * of an en-route ambulance changes.
+ */
+@Getter
+@AllArgsConstructor
+public class EtaUpdatedEvent implements CollapsibleEvent {
+
+    public static final String EVENT = "ETA_UPDATED";
+
+    private final String ambulanceId;
+    private final Long hospitalId;
+
+    @JsonIgnore
+    private final UUID reservationUuid;
+
+    private final int etaMinutes;
+    private final double remainingKm;
+
+    @JsonIgnore
+    private final long expiresAtMillis;
+
+    @JsonIgnore
+    private final long timestampMillis;
+
+    public String getEvent() {
+        return EVENT;
+    }
+
+    public String getReservationId() {
+        return reservationUuid.toString();
+    }
+
+    public String getExpiresAt() {
+        return EventTimestamps.iso(expiresAtMillis);
+    }
+
+    public String getTimestamp() {
+        return EventTimestamps.iso(timestampMillis);
+    }
+
+    @Override
+    public String collapseKey() {
+        return "eta:" + ambulanceId;
+    }
+}
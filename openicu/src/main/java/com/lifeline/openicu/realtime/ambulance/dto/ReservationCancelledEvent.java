@@ -0,0 +1,41 @@
+package com.lifeline.openicu.realtime.ambulance.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.lifeline.openicu.realtime.EventTimestamps;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.UUID;
+
+/**
+ * Immutable WebSocket event payload published to /topic/reservations
+ * when a reservation is cancelled and its bed returns to the pool.
+ */
+@Getter
+@AllArgsConstructor
+public class ReservationCancelledEvent {
+
+    public static final String EVENT = "RESERVATION_CANCELLED";
+
+    @JsonIgnore
+    private final UUID reservationUuid;
+
+    private final String ambulanceId;
+    private final Long hospitalId;
+    private final Long bedId;
+
+    @JsonIgnore
+    private final long timestampMillis;
+
+    public String getEvent() {
+        return EVENT;
+    }
+
+    public String getReservationId() {
+        return reservationUuid.toString();
+    }
+
+    public String getTimestamp() {
+        return EventTimestamps.iso(timestampMillis);
+    }
+}
@@ -0,0 +1,42 @@
+package com.lifeline.openicu.realtime.ambulance.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.lifeline.openicu.realtime.EventTimestamps;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.UUID;
+
+/**
+ * Immutable WebSocket event payload published to /topic/reservations
+ * when an arrived ambulance's reservation is confirmed and its bed becomes
+ * OCCUPIED.
+ */
+@Getter
+@AllArgsConstructor
+public class ReservationConfirmedEvent {
+
+    public static final String EVENT = "RESERVATION_CONFIRMED";
+
+    @JsonIgnore
+    private final UUID reservationUuid;
+
+    private final String ambulanceId;
+    private final Long hospitalId;
+    private final Long bedId;
+
+    @JsonIgnore
+    private final long timestampMillis;
+
+    public String getEvent() {
+        return EVENT;
+    }
+
+    public String getReservationId() {
+        return reservationUuid.toString();
+    }
+
+    public String getTimestamp() {
+        return EventTimestamps.iso(timestampMillis);
+    }
+}
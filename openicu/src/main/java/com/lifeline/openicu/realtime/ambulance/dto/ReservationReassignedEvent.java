@@ -0,0 +1,52 @@
+package com.lifeline.openicu.realtime.ambulance.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.lifeline.openicu.realtime.EventTimestamps;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.UUID;
+
+/**
+ * Immutable WebSocket event payload published to /topic/reservations
+ * when a diverted ambulance's reservation is replaced by one at another bed.
+ * The previous bed returns to the pool; the new reservation is also announced
+ * with the usual AMBULANCE_ASSIGNED and BED_RESERVED events.
+ */
+@Getter
+@AllArgsConstructor
+public class ReservationReassignedEvent {
+
+    public static final String EVENT = "RESERVATION_REASSIGNED";
+
+    @JsonIgnore
+    private final UUID previousReservationUuid;
+
+    @JsonIgnore
+    private final UUID reservationUuid;
+
+    private final String ambulanceId;
+    private final Long previousHospitalId;
+    private final Long previousBedId;
+    private final Long hospitalId;
+    private final Long bedId;
+
+    @JsonIgnore
+    private final long timestampMillis;
+
+    public String getEvent() {
+        return EVENT;
+    }
+
+    public String getPreviousReservationId() {
+        return previousReservationUuid.toString();
+    }
+
+    public String getReservationId() {
+        return reservationUuid.toString();
+    }
+
+    public String getTimestamp() {
+        return EventTimestamps.iso(timestampMillis);
+    }
+}
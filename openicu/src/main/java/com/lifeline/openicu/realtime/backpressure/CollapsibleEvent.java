@@ -0,0 +1,14 @@
+package com.lifeline.openicu.realtime.backpressure;
+
+/**
+ * A state-type event where only the latest value per key matters, so queued
+ * frames for a slow subscriber may be collapsed into the newest one.
+ * Discrete events (assignments, reservations, expiries) must not implement this.
+ */
+public interface CollapsibleEvent {
+
+    /**
+     * Entity key, e.g. "icu:42". Not a bean getter so it stays out of JSON frames.
+     */
+    String collapseKey();
+}
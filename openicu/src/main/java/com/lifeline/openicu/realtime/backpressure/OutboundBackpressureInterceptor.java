@@ -0,0 +1,234 @@
+package com.lifeline.openicu.realtime.backpressure;
+
+import com.lifeline.openicu.realtime.RealtimeTopicMetrics;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.ExecutorChannelInterceptor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounds the collapsible frames queued per session on the client outbound channel.
+ *
+ * Frames carrying a collapse key are ticketed when they enter the channel and
+ * released when an executor thread picks them up. While a ticket is still queued:
+ * - a newer frame for the same subscription and collapse key replaces its
+ *   payload in place (collapse-to-latest), and
+ * - once a session has more than max-queued-per-session tickets, the oldest
+ *   one is dropped (drop-oldest).
+ * The channel's executor queue only holds a header-only placeholder per
+ * ticket; the frame itself stays on its ticket and is released when the ticket
+ * is dropped, so a stalled session holds at most max-queued-per-session
+ * collapsible frames however far behind it is.
+ * Frames without a collapse key (lifecycle events, initial snapshots) are never
+ * dropped and pass through unticketed; a session too slow for those exceeds
+ * the socket-level send buffer or send time limit configured in WebSocketConfig
+ * and is closed.
+ *
+ * Queued tickets are also tracked per topic and reported as the
+ * openicu.realtime.outbound.queued gauge.
+ */
+@Component
+public class OutboundBackpressureInterceptor implements ExecutorChannelInterceptor, MeterBinder {
+
+    /** Message header set by publishers of collapsible events. */
+    public static final String COLLAPSE_KEY_HEADER = "openicuCollapseKey";
+
+    private static final String TICKET_HEADER = "openicuOutboundTicket";
+    private static final byte[] NO_PAYLOAD = new byte[0];
+
+    private final int maxQueuedPerSession;
+    private final Map<String, SessionQueue> sessions = new ConcurrentHashMap<>();
+
+    private final LongAdder delivered = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+
+    private final Map<String, AtomicInteger> queuedByTopic = new ConcurrentHashMap<>();
+    private volatile MeterRegistry meterRegistry;
+
+    public OutboundBackpressureInterceptor(
+            @Value("${openicu.realtime.outbound.max-queued-per-session:1000}") int maxQueuedPerSession) {
+        this.maxQueuedPerSession = maxQueuedPerSession;
+    }
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        String sessionId = SimpMessageHeaderAccessor.getSessionId(message.getHeaders());
+        if (sessionId == null || SimpMessageHeaderAccessor.getMessageType(message.getHeaders()) != SimpMessageType.MESSAGE) {
+            return message;
+        }
+
+        String collapseKey = (String) message.getHeaders().get(COLLAPSE_KEY_HEADER);
+        if (collapseKey == null) {
+            return message;
+        }
+        collapseKey = SimpMessageHeaderAccessor.getSubscriptionId(message.getHeaders()) + '|' + collapseKey;
+
+        SessionQueue queue = sessions.computeIfAbsent(sessionId, id -> new SessionQueue());
+        Ticket ticket;
+        queue.lock.lock();
+        try {
+            Ticket pending = queue.byKey.get(collapseKey);
+            if (pending != null) {
+                pending.message = message;
+                coalesced.increment();
+                return null;
+            }
+
+            ticket = new Ticket(message, collapseKey, queuedFor(message));
+            queue.queued.addLast(ticket);
+            ticket.topicQueued.incrementAndGet();
+            queue.byKey.put(collapseKey, ticket);
+            while (queue.queued.size() > maxQueuedPerSession) {
+                Ticket oldest = queue.queued.pollFirst();
+                oldest.dropped = true;
+                oldest.message = null;
+                oldest.topicQueued.decrementAndGet();
+                queue.byKey.remove(oldest.collapseKey, oldest);
+                dropped.increment();
+            }
+        } finally {
+            queue.lock.unlock();
+        }
+
+        return placeholder(sessionId, ticket);
+    }
+
+    @Override
+    public Message<?> beforeHandle(Message<?> message, MessageChannel channel, MessageHandler handler) {
+        Ticket ticket = (Ticket) message.getHeaders().get(TICKET_HEADER);
+        if (ticket == null) {
+            return message;
+        }
+
+        SessionQueue queue = sessions.get(SimpMessageHeaderAccessor.getSessionId(message.getHeaders()));
+        if (queue == null) {
+            return ticket.dropped ? null : ticket.message;
+        }
+        queue.lock.lock();
+        try {
+            if (ticket.dropped) {
+                return null;
+            }
+            if (!ticket.taken) {
+                // Usually the head of the queue, so this removal is cheap
+                ticket.taken = true;
+                queue.queued.remove(ticket);
+                ticket.topicQueued.decrementAndGet();
+                queue.byKey.remove(ticket.collapseKey, ticket);
+                delivered.increment();
+            }
+            return ticket.message;
+        } finally {
+            queue.lock.unlock();
+        }
+    }
+
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        SessionQueue queue = sessions.remove(event.getSessionId());
+        if (queue == null) {
+            return;
+        }
+        queue.lock.lock();
+        try {
+            for (Ticket ticket : queue.queued) {
+                ticket.dropped = true;
+                ticket.message = null;
+                ticket.topicQueued.decrementAndGet();
+            }
+        } finally {
+            queue.lock.unlock();
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        this.meterRegistry = registry;
+        queuedByTopic.forEach((topic, queued) -> registerQueuedGauge(registry, topic, queued));
+    }
+
+    private AtomicInteger queuedFor(Message<?> message) {
+        String destination = SimpMessageHeaderAccessor.getDestination(message.getHeaders());
+        String topic = destination == null ? "unknown" : RealtimeTopicMetrics.topicOf(destination);
+        return queuedByTopic.computeIfAbsent(topic, t -> {
+            AtomicInteger queued = new AtomicInteger();
+            MeterRegistry registry = meterRegistry;
+            if (registry != null) {
+                registerQueuedGauge(registry, t, queued);
+            }
+            return queued;
+        });
+    }
+
+    private static void registerQueuedGauge(MeterRegistry registry, String topic, AtomicInteger queued) {
+        Gauge.builder("openicu.realtime.outbound.queued", queued, AtomicInteger::get)
+                .description("Collapsible frames queued on the client outbound channel, per topic")
+                .tag("topic", topic)
+                .register(registry);
+    }
+
+    public OutboundStats getStats() {
+        int queued = 0;
+        for (SessionQueue queue : sessions.values()) {
+            queue.lock.lock();
+            try {
+                queued += queue.queued.size();
+            } finally {
+                queue.lock.unlock();
+            }
+        }
+        return new OutboundStats(delivered.sum(), coalesced.sum(), dropped.sum(),
+                queued, sessions.size(), maxQueuedPerSession);
+    }
+
+    /**
+     * What the executor queue holds until the frame is handled: the session
+     * and the ticket, without the frame's payload or headers.
+     */
+    private Message<?> placeholder(String sessionId, Ticket ticket) {
+        return MessageBuilder.withPayload(NO_PAYLOAD)
+                .setHeader(SimpMessageHeaderAccessor.SESSION_ID_HEADER, sessionId)
+                .setHeader(TICKET_HEADER, ticket)
+                .build();
+    }
+
+    private static final class SessionQueue {
+        final ReentrantLock lock = new ReentrantLock();
+        final ArrayDeque<Ticket> queued = new ArrayDeque<>();
+        final Map<String, Ticket> byKey = new HashMap<>();
+    }
+
+    private static final class Ticket {
+        final String collapseKey;
+        final AtomicInteger topicQueued;
+        // Also read without the session lock once the session is gone
+        volatile Message<?> message;
+        volatile boolean dropped;
+        boolean taken;
+
+        Ticket(Message<?> message, String collapseKey, AtomicInteger topicQueued) {
+            this.message = message;
+            this.collapseKey = collapseKey;
+            this.topicQueued = topicQueued;
+        }
+    }
+}
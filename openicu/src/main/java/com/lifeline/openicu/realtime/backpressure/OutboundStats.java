@@ -0,0 +1,19 @@
+package com.lifeline.openicu.realtime.backpressure;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Snapshot of outbound WebSocket backpressure counters.
+ */
+@Getter
+@AllArgsConstructor
+public class OutboundStats {
+
+    private final long delivered;
+    private final long coalesced;
+    private final long dropped;
+    private final int queued;
+    private final int sessions;
+    private final int maxQueuedPerSession;
+}
@@ -0,0 +1,25 @@
+package com.lifeline.openicu.realtime.backpressure;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/realtime/outbound")
+public class OutboundStatsController {
+
+    private final OutboundBackpressureInterceptor backpressureInterceptor;
+
+    public OutboundStatsController(OutboundBackpressureInterceptor backpressureInterceptor) {
+        this.backpressureInterceptor = backpressureInterceptor;
+    }
+
+    /**
+     * Delivered, coalesced and dropped frame counters for the outbound channel.
+     */
+    @GetMapping("/stats")
+    public ResponseEntity<OutboundStats> getStats() {
+        return ResponseEntity.ok(backpressureInterceptor.getStats());
+    }
+}
@@ -1,7 +1,10 @@
 package com.lifeline.openicu.realtime.beds.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.lifeline.openicu.bed.entity.BedType;
 import com.lifeline.openicu.bed.entity.BedStatus;
+import com.lifeline.openicu.realtime.EventTimestamps;
+import com.lifeline.openicu.realtime.backpressure.CollapsibleEvent;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 
@@ -11,11 +14,25 @@ import lombok.Getter;
  */
 @Getter
 @AllArgsConstructor
-public class BedStatusEvent {
+public class BedStatusEvent implements CollapsibleEvent {
     
     private final Long bedId;
     private final Long hospitalId;
     private final BedType bedType;
     private final BedStatus status;
-    private final String timestamp;
-}
\ No newline at end of file
+
+    @JsonIgnore
+    private final long timestampMillis;
+
+    /**
+     * ISO 8601 timestamp, formatted only for JSON frames.
+     */
+    public String getTimestamp() {
+        return EventTimestamps.iso(timestampMillis);
+    }
+
+    @Override
+    public String collapseKey() {
+        return "bed:" + bedId;
+    }
+}
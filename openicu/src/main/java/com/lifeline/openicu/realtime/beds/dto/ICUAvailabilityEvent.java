@@ -1,5 +1,8 @@
 package com.lifeline.openicu.realtime.beds.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.lifeline.openicu.realtime.EventTimestamps;
+import com.lifeline.openicu.realtime.backpressure.CollapsibleEvent;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 
@@ -9,10 +12,24 @@ import lombok.Getter;
  */
 @Getter
 @AllArgsConstructor
-public class ICUAvailabilityEvent {
+public class ICUAvailabilityEvent implements CollapsibleEvent {
     
     private final Long hospitalId;
     private final int availableICUBeds;
     private final int availableVentilators;
-    private final String timestamp;
-}
\ No newline at end of file
+
+    @JsonIgnore
+    private final long timestampMillis;
+
+    /**
+     * ISO 8601 timestamp, formatted only for JSON frames.
+     */
+    public String getTimestamp() {
+        return EventTimestamps.iso(timestampMillis);
+    }
+
+    @Override
+    public String collapseKey() {
+        return "icu:" + hospitalId;
+    }
+}
@@ -2,7 +2,7 @@ package com.lifeline.openicu.realtime.beds.publisher;
 
 import com.lifeline.openicu.realtime.beds.dto.BedStatusEvent;
 import com.lifeline.openicu.realtime.beds.dto.ICUAvailabilityEvent;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
+import com.lifeline.openicu.realtime.codec.RealtimeEventSender;
 import org.springframework.stereotype.Component;
 
 /**
@@ -12,10 +12,10 @@ import org.springframework.stereotype.Component;
 @Component
 public class BedEventPublisher {
     
-    private final SimpMessagingTemplate messagingTemplate;
+    private final RealtimeEventSender eventSender;
     
-    public BedEventPublisher(SimpMessagingTemplate messagingTemplate) {
-        this.messagingTemplate = messagingTemplate;
+    public BedEventPublisher(RealtimeEventSender eventSender) {
+        this.eventSender = eventSender;
     }
     
     /**
@@ -24,7 +24,7 @@ public class BedEventPublisher {
      * @param event pre-prepared bed status event payload
      */
     public void publishBedStatusChange(BedStatusEvent event) {
-        messagingTemplate.convertAndSend("/topic/beds", event);
+        eventSender.send("/topic/beds", event);
     }
     
     /**
@@ -33,6 +33,6 @@ public class BedEventPublisher {
      * @param event pre-prepared ICU availability event payload
      */
     public void publishICUAvailabilityUpdate(ICUAvailabilityEvent event) {
-        messagingTemplate.convertAndSend("/topic/icu", event);
+        eventSender.send("/topic/icu", event);
     }
-}
\ No newline at end of file
+}
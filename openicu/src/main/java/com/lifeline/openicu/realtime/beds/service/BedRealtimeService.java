@@ -8,9 +8,6 @@ import com.lifeline.openicu.realtime.beds.dto.ICUAvailabilityEvent;
 import com.lifeline.openicu.realtime.beds.publisher.BedEventPublisher;
 import org.springframework.stereotype.Service;
 
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
-
 /**
  * Orchestration service for Backend-2 real-time bed events.
  * Creates event payloads and delegates publishing to BedEventPublisher.
@@ -20,7 +17,6 @@ public class BedRealtimeService {
     
     private final BedEventPublisher bedEventPublisher;
     private final BedRepository bedRepository;
-    private final DateTimeFormatter isoFormatter = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
     
     public BedRealtimeService(BedEventPublisher bedEventPublisher, BedRepository bedRepository) {
         this.bedEventPublisher = bedEventPublisher;
@@ -37,14 +33,12 @@ public class BedRealtimeService {
      * @param bedStatus the new status (AVAILABLE, OCCUPIED, MAINTENANCE)
      */
     public void onBedStatusChange(Long bedId, Long hospitalId, BedType bedType, BedStatus bedStatus) {
-        String timestamp = LocalDateTime.now().format(isoFormatter);
-        
         BedStatusEvent event = new BedStatusEvent(
             bedId,
             hospitalId,
             bedType,
             bedStatus,
-            timestamp
+            System.currentTimeMillis()
         );
         
         bedEventPublisher.publishBedStatusChange(event);
@@ -67,13 +61,11 @@ public class BedRealtimeService {
             hospitalId, BedType.VENTILATOR, BedStatus.AVAILABLE
         );
         
-        String timestamp = LocalDateTime.now().format(isoFormatter);
-        
         ICUAvailabilityEvent event = new ICUAvailabilityEvent(
             hospitalId,
             availableICUBeds,
             availableVentilators,
-            timestamp
+            System.currentTimeMillis()
         );
         
         bedEventPublisher.publishICUAvailabilityUpdate(event);
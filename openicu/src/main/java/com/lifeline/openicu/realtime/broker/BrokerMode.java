@@ -0,0 +1,23 @@
+package com.lifeline.openicu.realtime.broker;
+
+/**
+ * How STOMP /topic traffic is brokered.
+ * SIMPLE keeps the in-memory broker (single node only), RELAY forwards to an
+ * external STOMP broker (RabbitMQ/ActiveMQ) so every node sees every event,
+ * LOCAL keeps the in-memory broker but bridges nodes running in the same JVM
+ * (stand-in for RELAY in tests and local multi-node runs).
+ */
+public enum BrokerMode {
+    SIMPLE,
+    RELAY,
+    LOCAL;
+
+    public static BrokerMode from(String value) {
+        try {
+            return BrokerMode.valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalStateException(
+                    "Invalid openicu.realtime.broker.mode: " + value + ". Allowed values: simple, relay, local");
+        }
+    }
+}
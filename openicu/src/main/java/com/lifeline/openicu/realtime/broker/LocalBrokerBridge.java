@@ -0,0 +1,89 @@
+package com.lifeline.openicu.realtime.broker;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+/**
+ * Bridges this node's broker channel to a {@link LocalBrokerHub}.
+ * Outgoing /topic messages are copied to the other nodes in the hub and
+ * messages from other nodes are re-injected into the local simple broker.
+ * Only active when openicu.realtime.broker.mode=local.
+ */
+@Component
+@ConditionalOnProperty(name = "openicu.realtime.broker.mode", havingValue = "local")
+public class LocalBrokerBridge implements ChannelInterceptor {
+
+    private static final Logger logger = LoggerFactory.getLogger(LocalBrokerBridge.class);
+    static final String RELAYED_FROM_HEADER = "openicuRelayedFrom";
+
+    private final LocalBrokerHub hub;
+    private final String nodeId;
+    private final ObjectProvider<MessageChannel> brokerChannel;
+
+    public LocalBrokerBridge(@Value("${openicu.realtime.broker.local-hub:openicu}") String hubName,
+                             @Qualifier("brokerChannel") ObjectProvider<MessageChannel> brokerChannel) {
+        this.hub = LocalBrokerHub.named(hubName);
+        this.nodeId = UUID.randomUUID().toString();
+        this.brokerChannel = brokerChannel;
+    }
+
+    @PostConstruct
+    public void join() {
+        hub.join(this);
+        logger.info("Node {} joined local broker hub '{}' ({} nodes)", nodeId, hub.getName(), hub.getNodeCount());
+    }
+
+    @PreDestroy
+    public void leave() {
+        hub.leave(this);
+        logger.info("Node {} left local broker hub '{}'", nodeId, hub.getName());
+    }
+
+    /**
+     * Copy locally published topic messages to the other nodes.
+     */
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        if (isRelayable(message)) {
+            hub.publish(this, message);
+        }
+        return message;
+    }
+
+    /**
+     * Inject a message published by another node into the local broker.
+     */
+    void deliver(Message<?> message) {
+        Message<?> copy = MessageBuilder.fromMessage(message)
+                .setHeader(RELAYED_FROM_HEADER, nodeId)
+                .build();
+        brokerChannel.getObject().send(copy);
+    }
+
+    private boolean isRelayable(Message<?> message) {
+        if (message.getHeaders().containsKey(RELAYED_FROM_HEADER)) {
+            return false;
+        }
+        if (SimpMessageHeaderAccessor.getMessageType(message.getHeaders()) != SimpMessageType.MESSAGE) {
+            return false;
+        }
+        String destination = SimpMessageHeaderAccessor.getDestination(message.getHeaders());
+        // User destinations are resolved per session ("-user<sessionId>") and stay on the owning node
+        return destination != null && destination.startsWith("/topic/") && !destination.contains("-user");
+    }
+}
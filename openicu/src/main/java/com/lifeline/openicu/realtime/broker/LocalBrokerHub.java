@@ -0,0 +1,59 @@
+package com.lifeline.openicu.realtime.broker;
+
+import org.springframework.messaging.Message;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * In-process stand-in for an external STOMP broker.
+ * Every node that joins the same named hub receives the /topic messages
+ * published by the other nodes, the same way they would through a relay.
+ */
+public final class LocalBrokerHub {
+
+    private static final Map<String, LocalBrokerHub> HUBS = new ConcurrentHashMap<>();
+
+    private final String name;
+    private final List<LocalBrokerBridge> nodes = new CopyOnWriteArrayList<>();
+
+    private LocalBrokerHub(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Get (or create) the hub with the given name.
+     */
+    public static LocalBrokerHub named(String name) {
+        return HUBS.computeIfAbsent(name, LocalBrokerHub::new);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getNodeCount() {
+        return nodes.size();
+    }
+
+    void join(LocalBrokerBridge node) {
+        nodes.add(node);
+    }
+
+    void leave(LocalBrokerBridge node) {
+        nodes.remove(node);
+    }
+
+    /**
+     * Deliver a message published on one node to every other node in the hub.
+     */
+    void publish(LocalBrokerBridge origin, Message<?> message) {
+        for (LocalBrokerBridge node : nodes) {
+            if (node != origin) {
+                node.deliver(message);
+            }
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package com.lifeline.openicu.realtime.codec;
+
+import com.lifeline.openicu.realtime.ambulance.dto.AmbulanceAssignedEvent;
+import com.lifeline.openicu.realtime.ambulance.dto.AmbulancePositionEvent;
+import com.lifeline.openicu.realtime.ambulance.dto.BedReservedEvent;
+import com.lifeline.openicu.realtime.ambulance.dto.EtaUpdatedEvent;
+import com.lifeline.openicu.realtime.ambulance.dto.ReservationCancelledEvent;
+import com.lifeline.openicu.realtime.ambulance.dto.ReservationConfirmedEvent;
+import com.lifeline.openicu.realtime.ambulance.dto.ReservationExpiredEvent;
+import com.lifeline.openicu.realtime.ambulance.dto.ReservationReassignedEvent;
+import com.lifeline.openicu.realtime.beds.dto.BedStatusEvent;
+import com.lifeline.openicu.realtime.beds.dto.ICUAvailabilityEvent;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+/**
+ * Encodes realtime events into a fixed binary layout for low-bandwidth clients.
+ *
+ * Every frame starts with a version byte and a type byte, followed by the fields
+ * in declaration order. Ids and counts are zig-zag varints (null id = -1),
+ * timestamps are 8-byte big-endian epoch millis, distances are 4-byte floats,
+ * coordinates are varints of micro-degrees, strings are varint length + UTF-8,
+ * enums are their ordinal byte and UUIDs are two 8-byte longs (most significant first).
+ *
+ * 1  BED_STATUS:             bedId, hospitalId, bedType, status, timestamp
+ * 2  ICU_AVAILABILITY:       hospitalId, availableICUBeds, availableVentilators, timestamp
+ * 3  AMBULANCE_ASSIGNED:     ambulanceId, hospitalId, hospitalName, bedId, bedType, distanceKm, timestamp
+ * 4  BED_RESERVED:           reservationId, ambulanceId, hospitalId, bedId, expiresAt
+ * 5  RESERVATION_EXPIRED:    reservationId, ambulanceId, hospitalId, bedId, timestamp
+ * 6  AMBULANCE_POSITION:     ambulanceId, hospitalId, latitude, longitude, speed, heading, timestamp
+ * 7  ETA_UPDATED:            reservationId, ambulanceId, hospitalId, etaMinutes, remainingKm, expiresAt, timestamp
+ * 8  RESERVATION_CONFIRMED:  reservationId, ambulanceId, hospitalId, bedId, timestamp
+ * 9  RESERVATION_CANCELLED:  reservationId, ambulanceId, hospitalId, bedId, timestamp
+ * 10 RESERVATION_REASSIGNED: previousReservationId, reservationId, ambulanceId, previousHospitalId,
+ *                            previousBedId, hospitalId, bedId, timestamp
+ */
+@Component
+public class CompactEventCodec {
+
+    public static final byte VERSION = 1;
+    public static final byte TYPE_BED_STATUS = 1;
+    public static final byte TYPE_ICU_AVAILABILITY = 2;
+    public static final byte TYPE_AMBULANCE_ASSIGNED = 3;
+    public static final byte TYPE_BED_RESERVED = 4;
+    public static final byte TYPE_RESERVATION_EXPIRED = 5;
+    public static final byte TYPE_AMBULANCE_POSITION = 6;
+    public static final byte TYPE_ETA_UPDATED = 7;
+    public static final byte TYPE_RESERVATION_CONFIRMED = 8;
+    public static final byte TYPE_RESERVATION_CANCELLED = 9;
+    public static final byte TYPE_RESERVATION_REASSIGNED = 10;
+
+    private static final ThreadLocal<CompactWriter> WRITERS = ThreadLocal.withInitial(CompactWriter::new);
+
+    /**
+     * Whether the event has a compact layout.
+     */
+    public boolean supports(Object event) {
+        return event instanceof BedStatusEvent
+                || event instanceof ICUAvailabilityEvent
+                || event instanceof AmbulanceAssignedEvent
+                || event instanceof BedReservedEvent
+                || event instanceof ReservationExpiredEvent
+                || event instanceof AmbulancePositionEvent
+                || event instanceof EtaUpdatedEvent
+                || event instanceof ReservationConfirmedEvent
+                || event instanceof ReservationCancelledEvent
+                || event instanceof ReservationReassignedEvent;
+    }
+
+    /**
+     * Encode a supported event into a compact frame payload.
+     *
+     * @throws IllegalArgumentException if the event type has no compact layout
+     */
+    public byte[] encode(Object event) {
+        CompactWriter out = WRITERS.get();
+        out.reset();
+        out.writeByte(VERSION);
+
+        if (event instanceof BedStatusEvent e) {
+            out.writeByte(TYPE_BED_STATUS);
+            out.writeNullableId(e.getBedId());
+            out.writeNullableId(e.getHospitalId());
+            out.writeByte(e.getBedType() != null ? e.getBedType().ordinal() : -1);
+            out.writeByte(e.getStatus() != null ? e.getStatus().ordinal() : -1);
+            out.writeLong(e.getTimestampMillis());
+        } else if (event instanceof ICUAvailabilityEvent e) {
+            out.writeByte(TYPE_ICU_AVAILABILITY);
+            out.writeNullableId(e.getHospitalId());
+            out.writeVarLong(e.getAvailableICUBeds());
+            out.writeVarLong(e.getAvailableVentilators());
+            out.writeLong(e.getTimestampMillis());
+        } else if (event instanceof AmbulanceAssignedEvent e) {
+            out.writeByte(TYPE_AMBULANCE_ASSIGNED);
+            out.writeString(e.getAmbulanceId());
+            out.writeNullableId(e.getHospitalId());
+            out.writeString(e.getHospitalName());
+            out.writeNullableId(e.getBedId());
+            out.writeString(e.getBedType());
+            out.writeFloat((float) e.getDistanceKm());
+            out.writeLong(e.getTimestampMillis());
+        } else if (event instanceof BedReservedEvent e) {
+            out.writeByte(TYPE_BED_RESERVED);
+            writeUuid(out, e.getReservationUuid());
+            out.writeString(e.getAmbulanceId());
+            out.writeNullableId(e.getHospitalId());
+            out.writeNullableId(e.getBedId());
+            out.writeLong(e.getExpiresAtMillis());
+        } else if (event instanceof ReservationExpiredEvent e) {
+            out.writeByte(TYPE_RESERVATION_EXPIRED);
+            writeUuid(out, e.getReservationUuid());
+            out.writeString(e.getAmbulanceId());
+            out.writeNullableId(e.getHospitalId());
+            out.writeNullableId(e.getBedId());
+            out.writeLong(e.getTimestampMillis());
+        } else if (event instanceof AmbulancePositionEvent e) {
+            out.writeByte(TYPE_AMBULANCE_POSITION);
+            out.writeString(e.getAmbulanceId());
+            out.writeNullableId(e.getHospitalId());
+            out.writeVarLong(Math.round(e.getLatitude() * 1e6));
+            out.writeVarLong(Math.round(e.getLongitude() * 1e6));
+            out.writeFloat((float) e.getSpeed());
+            out.writeFloat((float) e.getHeading());
+            out.writeLong(e.getTimestampMillis());
+        } else if (event instanceof EtaUpdatedEvent e) {
+            out.writeByte(TYPE_ETA_UPDATED);
+            writeUuid(out, e.getReservationUuid());
+            out.writeString(e.getAmbulanceId());
+            out.writeNullableId(e.getHospitalId());
+            out.writeVarLong(e.getEtaMinutes());
+            out.writeFloat((float) e.getRemainingKm());
+            out.writeLong(e.getExpiresAtMillis());
+            out.writeLong(e.getTimestampMillis());
+        } else if (event instanceof ReservationConfirmedEvent e) {
+            out.writeByte(TYPE_RESERVATION_CONFIRMED);
+            writeUuid(out, e.getReservationUuid());
+            out.writeString(e.getAmbulanceId());
+            out.writeNullableId(e.getHospitalId());
+            out.writeNullableId(e.getBedId());
+            out.writeLong(e.getTimestampMillis());
+        } else if (event instanceof ReservationCancelledEvent e) {
+            out.writeByte(TYPE_RESERVATION_CANCELLED);
+            writeUuid(out, e.getReservationUuid());
+            out.writeString(e.getAmbulanceId());
+            out.writeNullableId(e.getHospitalId());
+            out.writeNullableId(e.getBedId());
+            out.writeLong(e.getTimestampMillis());
+        } else if (event instanceof ReservationReassignedEvent e) {
+            out.writeByte(TYPE_RESERVATION_REASSIGNED);
+            writeUuid(out, e.getPreviousReservationUuid());
+            writeUuid(out, e.getReservationUuid());
+            out.writeString(e.getAmbulanceId());
+            out.writeNullableId(e.getPreviousHospitalId());
+            out.writeNullableId(e.getPreviousBedId());
+            out.writeNullableId(e.getHospitalId());
+            out.writeNullableId(e.getBedId());
+            out.writeLong(e.getTimestampMillis());
+        } else {
+            throw new IllegalArgumentException("No compact layout for " + event.getClass().getName());
+        }
+
+        return out.toByteArray();
+    }
+
+    private void writeUuid(CompactWriter out, UUID uuid) {
+        out.writeLong(uuid.getMostSignificantBits());
+        out.writeLong(uuid.getLeastSignificantBits());
+    }
+}
@@ -0,0 +1,82 @@
+package com.lifeline.openicu.realtime.codec;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Growable byte buffer for the compact wire format.
+ * Instances are reused per thread by {@link CompactEventCodec}; only the final
+ * {@link #toByteArray()} copy is allocated per frame.
+ */
+final class CompactWriter {
+
+    private byte[] buffer = new byte[128];
+    private int position;
+
+    void reset() {
+        position = 0;
+    }
+
+    void writeByte(int value) {
+        ensureCapacity(1);
+        buffer[position++] = (byte) value;
+    }
+
+    /**
+     * Unsigned LEB128 varint of the zig-zag encoded value (1 byte for small ids).
+     */
+    void writeVarLong(long value) {
+        long zigZag = (value << 1) ^ (value >> 63);
+        ensureCapacity(10);
+        while ((zigZag & ~0x7FL) != 0) {
+            buffer[position++] = (byte) ((zigZag & 0x7F) | 0x80);
+            zigZag >>>= 7;
+        }
+        buffer[position++] = (byte) zigZag;
+    }
+
+    void writeNullableId(Long value) {
+        writeVarLong(value != null ? value : -1L);
+    }
+
+    void writeLong(long value) {
+        ensureCapacity(8);
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            buffer[position++] = (byte) (value >>> shift);
+        }
+    }
+
+    void writeFloat(float value) {
+        int bits = Float.floatToIntBits(value);
+        ensureCapacity(4);
+        buffer[position++] = (byte) (bits >>> 24);
+        buffer[position++] = (byte) (bits >>> 16);
+        buffer[position++] = (byte) (bits >>> 8);
+        buffer[position++] = (byte) bits;
+    }
+
+    /**
+     * Varint length prefix followed by UTF-8 bytes; length -1 encodes null.
+     */
+    void writeString(String value) {
+        if (value == null) {
+            writeVarLong(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarLong(bytes.length);
+        ensureCapacity(bytes.length);
+        System.arraycopy(bytes, 0, buffer, position, bytes.length);
+        position += bytes.length;
+    }
+
+    byte[] toByteArray() {
+        return Arrays.copyOf(buffer, position);
+    }
+
+    private void ensureCapacity(int extra) {
+        if (position + extra > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, position + extra));
+        }
+    }
+}
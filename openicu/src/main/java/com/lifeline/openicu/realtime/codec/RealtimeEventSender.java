@@ -0,0 +1,72 @@
+package com.lifeline.openicu.realtime.codec;
+
+import com.lifeline.openicu.realtime.backpressure.CollapsibleEvent;
+import com.lifeline.openicu.realtime.backpressure.OutboundBackpressureInterceptor;
+import com.lifeline.openicu.realtime.broker.BrokerMode;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeTypeUtils;
+
+/**
+ * Sends realtime events in every negotiated wire format.
+ * JSON frames go to the topic itself; compact binary frames go to
+ * "topic.bin" when there are compact subscribers on this node. With an external
+ * or bridged broker, subscribers on other nodes are not visible here, so every
+ * node publishes compact frames regardless, at the cost of encoding and relaying
+ * each event twice. Setting openicu.realtime.compact.multi-node-publish to false
+ * opts out; WireFormatInterceptor then keeps new sessions on JSON.
+ * State-type events carry a collapse key so slow subscribers only get the latest value.
+ */
+@Component
+public class RealtimeEventSender {
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final CompactEventCodec codec;
+    private final WireFormatInterceptor wireFormatInterceptor;
+    private final boolean multiNode;
+
+    public RealtimeEventSender(SimpMessagingTemplate messagingTemplate,
+                               CompactEventCodec codec,
+                               WireFormatInterceptor wireFormatInterceptor,
+                               @Value("${openicu.realtime.broker.mode:simple}") String brokerMode,
+                               @Value("${openicu.realtime.compact.multi-node-publish:true}") boolean multiNodePublish) {
+        this.messagingTemplate = messagingTemplate;
+        this.codec = codec;
+        this.wireFormatInterceptor = wireFormatInterceptor;
+        this.multiNode = multiNodePublish && BrokerMode.from(brokerMode) != BrokerMode.SIMPLE;
+    }
+
+    /**
+     * Publish an event to a topic as JSON, plus a compact frame if negotiated.
+     */
+    public void send(String topic, Object event) {
+        String collapseKey = event instanceof CollapsibleEvent c ? c.collapseKey() : null;
+        if (collapseKey == null) {
+            messagingTemplate.convertAndSend(topic, event);
+        } else {
+            SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+            accessor.setHeader(OutboundBackpressureInterceptor.COLLAPSE_KEY_HEADER, collapseKey);
+            accessor.setLeaveMutable(true);
+            messagingTemplate.convertAndSend(topic, event, accessor.getMessageHeaders());
+        }
+
+        if (codec.supports(event) && (multiNode || wireFormatInterceptor.hasCompactSubscribers(topic))) {
+            sendBinary(topic + WireFormatInterceptor.COMPACT_SUFFIX, codec.encode(event), collapseKey);
+        }
+    }
+
+    private void sendBinary(String destination, byte[] payload, String collapseKey) {
+        // application/octet-stream makes STOMP over raw WebSocket use binary frames
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setContentType(MimeTypeUtils.APPLICATION_OCTET_STREAM);
+        if (collapseKey != null) {
+            accessor.setHeader(OutboundBackpressureInterceptor.COLLAPSE_KEY_HEADER, collapseKey);
+        }
+        accessor.setLeaveMutable(true);
+        messagingTemplate.send(destination, MessageBuilder.createMessage(payload, accessor.getMessageHeaders()));
+    }
+}
@@ -0,0 +1,142 @@
+package com.lifeline.openicu.realtime.codec;
+
+import com.lifeline.openicu.realtime.broker.BrokerMode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Negotiates the wire format per STOMP session on the client inbound channel.
+ *
+ * A client that sends "wire-format: compact" in its CONNECT frame has its
+ * subscriptions to compact-capable topics (the fixed topics below plus
+ * /topic/hospitals/{id}/ambulances) rewritten to the ".bin" variant
+ * (clients may also subscribe to "/topic/beds.bin" etc. directly).
+ * Tracks the number of compact subscribers so publishers only encode
+ * binary frames when somebody is listening.
+ *
+ * With a multi-node broker and openicu.realtime.compact.multi-node-publish
+ * turned off, compact frames only carry events published on the local node,
+ * so a compact CONNECT is downgraded to JSON instead.
+ */
+@Component
+public class WireFormatInterceptor implements ChannelInterceptor {
+
+    public static final String WIRE_FORMAT_HEADER = "wire-format";
+    public static final String COMPACT = "compact";
+    public static final String COMPACT_SUFFIX = ".bin";
+    public static final Set<String> COMPACT_TOPICS = Set.of(
+            "/topic/beds", "/topic/icu", "/topic/ambulance", "/topic/reservations");
+
+    private static final String SESSION_FORMAT_ATTRIBUTE = "openicu.wireFormat";
+
+    private static final Logger log = LoggerFactory.getLogger(WireFormatInterceptor.class);
+
+    private final boolean compactNegotiable;
+
+    // sessionId -> (subscriptionId -> compact destination)
+    private final Map<String, Map<String, String>> compactSubscriptions = new ConcurrentHashMap<>();
+    private final Map<String, AtomicInteger> subscriberCounts = new ConcurrentHashMap<>();
+
+    public WireFormatInterceptor(@Value("${openicu.realtime.broker.mode:simple}") String brokerMode,
+            @Value("${openicu.realtime.compact.multi-node-publish:true}") boolean multiNodePublish) {
+        this.compactNegotiable = multiNodePublish || BrokerMode.from(brokerMode) == BrokerMode.SIMPLE;
+    }
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(message);
+        StompCommand command = accessor.getCommand();
+        if (command == null) {
+            return message;
+        }
+
+        switch (command) {
+            case CONNECT, STOMP -> {
+                Map<String, Object> attributes = accessor.getSessionAttributes();
+                if (attributes != null && COMPACT.equalsIgnoreCase(accessor.getFirstNativeHeader(WIRE_FORMAT_HEADER))) {
+                    if (compactNegotiable) {
+                        attributes.put(SESSION_FORMAT_ATTRIBUTE, COMPACT);
+                    } else {
+                        log.debug("Session {} asked for compact frames; using JSON on a multi-node broker",
+                                accessor.getSessionId());
+                    }
+                }
+            }
+            case SUBSCRIBE -> {
+                return onSubscribe(message, accessor);
+            }
+            case UNSUBSCRIBE -> {
+                Map<String, String> subscriptions = compactSubscriptions.get(accessor.getSessionId());
+                if (subscriptions != null) {
+                    release(subscriptions.remove(accessor.getSubscriptionId()));
+                }
+            }
+            case DISCONNECT -> {
+                Map<String, String> subscriptions = compactSubscriptions.remove(accessor.getSessionId());
+                if (subscriptions != null) {
+                    subscriptions.values().forEach(this::release);
+                }
+            }
+            default -> {
+            }
+        }
+        return message;
+    }
+
+    /**
+     * Whether any session on this node is subscribed to the compact variant of the topic.
+     */
+    public boolean hasCompactSubscribers(String topic) {
+        AtomicInteger count = subscriberCounts.get(topic + COMPACT_SUFFIX);
+        return count != null && count.get() > 0;
+    }
+
+    private Message<?> onSubscribe(Message<?> message, StompHeaderAccessor accessor) {
+        String destination = accessor.getDestination();
+        if (destination == null) {
+            return message;
+        }
+
+        Map<String, Object> attributes = accessor.getSessionAttributes();
+        boolean compactSession = attributes != null && COMPACT.equals(attributes.get(SESSION_FORMAT_ATTRIBUTE));
+        if (compactSession && isCompactCapable(destination)) {
+            destination = destination + COMPACT_SUFFIX;
+            accessor.setDestination(destination);
+            message = MessageBuilder.createMessage(message.getPayload(), accessor.getMessageHeaders());
+        }
+
+        if (destination.endsWith(COMPACT_SUFFIX) && accessor.getSubscriptionId() != null) {
+            compactSubscriptions.computeIfAbsent(accessor.getSessionId(), id -> new ConcurrentHashMap<>())
+                    .put(accessor.getSubscriptionId(), destination);
+            subscriberCounts.computeIfAbsent(destination, d -> new AtomicInteger()).incrementAndGet();
+        }
+        return message;
+    }
+
+    private boolean isCompactCapable(String destination) {
+        return COMPACT_TOPICS.contains(destination)
+                || (destination.startsWith("/topic/hospitals/") && destination.endsWith("/ambulances"));
+    }
+
+    private void release(String destination) {
+        if (destination != null) {
+            AtomicInteger count = subscriberCounts.get(destination);
+            if (count != null) {
+                count.decrementAndGet();
+            }
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.lifeline.openicu.realtime.hospital;
+
+import com.lifeline.openicu.entity.Hospital;
+
+/**
+ * Application event raised alongside the HOSPITAL_CREATED / HOSPITAL_UPDATED
+ * broadcasts so in-process caches can invalidate precisely.
+ */
+public class HospitalChangedEvent {
+
+    private final Hospital previous;
+    private final Hospital hospital;
+
+    /**
+     * @param previous searchable fields before the change, or null on create
+     * @param hospital the hospital as saved
+     */
+    public HospitalChangedEvent(Hospital previous, Hospital hospital) {
+        this.previous = previous;
+        this.hospital = hospital;
+    }
+
+    public Hospital getPrevious() {
+        return previous;
+    }
+
+    public Hospital getHospital() {
+        return hospital;
+    }
+}
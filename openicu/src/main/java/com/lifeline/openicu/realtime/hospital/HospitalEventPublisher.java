@@ -3,11 +3,13 @@ package com.lifeline.openicu.realtime.hospital;
 import com.lifeline.openicu.entity.Hospital;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Component;
 
 /**
  * Publisher for hospital events.
- * Bridges the Hospital Service and Realtime Service to broadcast hospital changes.
+ * Bridges the Hospital Service and Realtime Service to broadcast hospital changes,
+ * and raises a HospitalChangedEvent for in-process listeners such as HospitalCache.
  */
 @Component
 public class HospitalEventPublisher {
@@ -17,9 +19,12 @@ public class HospitalEventPublisher {
     private static final String EVENT_UPDATED = "HOSPITAL_UPDATED";
     
     private final HospitalRealtimeService realtimeService;
+    private final ApplicationEventPublisher applicationEventPublisher;
     
-    public HospitalEventPublisher(HospitalRealtimeService realtimeService) {
+    public HospitalEventPublisher(HospitalRealtimeService realtimeService,
+                                  ApplicationEventPublisher applicationEventPublisher) {
         this.realtimeService = realtimeService;
+        this.applicationEventPublisher = applicationEventPublisher;
     }
     
     /**
@@ -29,6 +34,7 @@ public class HospitalEventPublisher {
      * @param hospital The newly created hospital
      */
     public void publishHospitalCreated(Hospital hospital) {
+        applicationEventPublisher.publishEvent(new HospitalChangedEvent(null, hospital));
         try {
             logger.info("Publishing HOSPITAL_CREATED event for hospital ID: {}", hospital.getId());
             realtimeService.broadcastHospitalEvent(hospital, EVENT_CREATED);
@@ -43,9 +49,11 @@ public class HospitalEventPublisher {
      * Publish a hospital updated event.
      * Broadcasts the updated hospital to all subscribed WebSocket clients.
      * 
+     * @param previous Searchable fields of the hospital before the update
      * @param hospital The updated hospital
      */
-    public void publishHospitalUpdated(Hospital hospital) {
+    public void publishHospitalUpdated(Hospital previous, Hospital hospital) {
+        applicationEventPublisher.publishEvent(new HospitalChangedEvent(previous, hospital));
         try {
             logger.info("Publishing HOSPITAL_UPDATED event for hospital ID: {}", hospital.getId());
             realtimeService.broadcastHospitalEvent(hospital, EVENT_UPDATED);
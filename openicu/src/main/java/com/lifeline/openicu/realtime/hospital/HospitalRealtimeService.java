@@ -1,10 +1,15 @@
 package com.lifeline.openicu.realtime.hospital;
 
+import com.lifeline.openicu.dto.HospitalListDTO;
 import com.lifeline.openicu.entity.Hospital;
+import com.lifeline.openicu.realtime.backpressure.OutboundBackpressureInterceptor;
 import com.lifeline.openicu.realtime.hospital.dto.HospitalBroadcastMessage;
 import com.lifeline.openicu.repository.HospitalRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
 
@@ -41,7 +46,7 @@ public class HospitalRealtimeService {
     public void broadcastHospitalEvent(Hospital hospital, String eventType) {
         try {
             HospitalBroadcastMessage message = createBroadcastMessage(hospital, eventType);
-            messagingTemplate.convertAndSend(HOSPITAL_TOPIC, message);
+            messagingTemplate.convertAndSend(HOSPITAL_TOPIC, message, collapseHeaders(hospital.getId()));
             logger.debug("Broadcast {} event for hospital ID: {}", eventType, hospital.getId());
         } catch (Exception e) {
             logger.error("Failed to broadcast hospital event for ID: {}", hospital.getId(), e);
@@ -56,15 +61,27 @@ public class HospitalRealtimeService {
      */
     public void sendAllHospitalsToClient(String sessionId) {
         try {
-            List<Hospital> hospitals = hospitalRepository.findAll();
+            // Only the broadcast columns are read; the full entity is never loaded
+            List<HospitalListDTO> hospitals = hospitalRepository.findAllProjected(HospitalListDTO.class);
             logger.info("Sending {} hospitals to client session: {}", hospitals.size(), sessionId);
             
-            for (Hospital hospital : hospitals) {
-                HospitalBroadcastMessage message = createBroadcastMessage(hospital, "HOSPITAL_LIST");
+            String timestamp = LocalDateTime.now().format(ISO_FORMATTER);
+            for (HospitalListDTO hospital : hospitals) {
+                HospitalBroadcastMessage message = new HospitalBroadcastMessage(
+                    "HOSPITAL_LIST",
+                    hospital.getId(),
+                    hospital.getName(),
+                    hospital.getLatitude(),
+                    hospital.getLongitude(),
+                    hospital.getState(),
+                    hospital.getDistrict(),
+                    timestamp
+                );
                 messagingTemplate.convertAndSendToUser(
                     sessionId, 
                     HOSPITAL_TOPIC, 
-                    message
+                    message,
+                    collapseHeaders(hospital.getId())
                 );
             }
         } catch (Exception e) {
@@ -72,6 +89,17 @@ public class HospitalRealtimeService {
         }
     }
     
+    /**
+     * Only the latest state of a hospital matters to a client that is falling behind,
+     * so queued frames for the same hospital may be collapsed on the outbound channel.
+     */
+    private MessageHeaders collapseHeaders(Long hospitalId) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setHeader(OutboundBackpressureInterceptor.COLLAPSE_KEY_HEADER, "hospital:" + hospitalId);
+        accessor.setLeaveMutable(true);
+        return accessor.getMessageHeaders();
+    }
+    
     /**
      * Create a broadcast message from a hospital entity.
      * Handles null values gracefully for optional fields.
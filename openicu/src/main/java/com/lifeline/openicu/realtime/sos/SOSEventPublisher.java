@@ -0,0 +1,50 @@
+package com.lifeline.openicu.realtime.sos;
+
+import com.lifeline.openicu.realtime.codec.RealtimeEventSender;
+import com.lifeline.openicu.realtime.sos.dto.SOSClusterEvent;
+import com.lifeline.openicu.realtime.sos.dto.SOSReportEvent;
+import com.lifeline.openicu.realtime.sos.dto.SOSStatusChangedEvent;
+import com.lifeline.openicu.realtime.sos.dto.SOSSuggestionsEvent;
+import org.springframework.stereotype.Component;
+
+/**
+ * Publishes SOS events to WebSocket topics.
+ * Topics: /topic/sos, /topic/sos/clusters
+ */
+@Component
+public class SOSEventPublisher {
+
+    private final RealtimeEventSender eventSender;
+
+    public SOSEventPublisher(RealtimeEventSender eventSender) {
+        this.eventSender = eventSender;
+    }
+
+    /**
+     * Broadcast a new or updated SOS report.
+     */
+    public void publishReport(SOSReportEvent event) {
+        eventSender.send("/topic/sos", event);
+    }
+
+    /**
+     * Broadcast a report's lifecycle status change.
+     */
+    public void publishStatusChanged(SOSStatusChangedEvent event) {
+        eventSender.send("/topic/sos", event);
+    }
+
+    /**
+     * Broadcast the ranked hospital suggestions for a report.
+     */
+    public void publishSuggestions(SOSSuggestionsEvent event) {
+        eventSender.send("/topic/sos", event);
+    }
+
+    /**
+     * Broadcast the new state of a hotspot cluster.
+     */
+    public void publishCluster(SOSClusterEvent event) {
+        eventSender.send("/topic/sos/clusters", event);
+    }
+}
@@ -0,0 +1,105 @@
+package com.lifeline.openicu.realtime.sos;
+
+import com.lifeline.openicu.realtime.sos.dto.SOSClusterEvent;
+import com.lifeline.openicu.realtime.sos.dto.SOSReportEvent;
+import com.lifeline.openicu.realtime.sos.dto.SOSStatusChangedEvent;
+import com.lifeline.openicu.realtime.sos.dto.SOSSuggestionsEvent;
+import com.lifeline.openicu.sos.cluster.SOSCluster;
+import com.lifeline.openicu.sos.cluster.SOSClusterIndex;
+import com.lifeline.openicu.sos.entity.SOSReport;
+import com.lifeline.openicu.sos.entity.SOSStatus;
+import com.lifeline.openicu.sos.entity.SOSSuggestion;
+import com.lifeline.openicu.sos.repository.SOSReportRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * Keeps the SOS hotspot clusters in step with report changes and streams
+ * both to the command center. Called from SOSService after each write.
+ */
+@Service
+public class SOSRealtimeService {
+
+    private static final Logger log = LoggerFactory.getLogger(SOSRealtimeService.class);
+
+    private final SOSEventPublisher publisher;
+    private final SOSClusterIndex clusterIndex;
+    private final SOSReportRepository sosRepository;
+
+    public SOSRealtimeService(SOSEventPublisher publisher, SOSClusterIndex clusterIndex,
+            SOSReportRepository sosRepository) {
+        this.publisher = publisher;
+        this.clusterIndex = clusterIndex;
+        this.sosRepository = sosRepository;
+    }
+
+    /**
+     * Seed the clusters with reports that are still PENDING.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadPendingReports() {
+        clusterIndex.clear();
+        sosRepository.findByStatusOrderByServerTimestampDesc(SOSStatus.PENDING).forEach(clusterIndex::add);
+        log.info("SOS clusters loaded with {} pending reports", clusterIndex.pendingCount());
+    }
+
+    /**
+     * Emit a newly received report and update its cluster.
+     */
+    public void emitReportCreated(SOSReport report) {
+        publisher.publishReport(toEvent(SOSReportEvent.CREATED, report));
+        if (report.getStatus() == SOSStatus.PENDING) {
+            emitCluster(clusterIndex.add(report));
+        }
+    }
+
+    /**
+     * Emit a status transition. Reports only leave PENDING, so the cluster
+     * update is a removal by id and needs no entity.
+     */
+    public void emitStatusChanged(Long reportId, SOSStatus previousStatus, SOSStatus status) {
+        publisher.publishStatusChanged(new SOSStatusChangedEvent(reportId, previousStatus, status,
+                System.currentTimeMillis()));
+        if (previousStatus == SOSStatus.PENDING) {
+            emitCluster(clusterIndex.remove(reportId));
+        }
+    }
+
+    /**
+     * Emit the pre-matched hospital suggestions of a report.
+     */
+    public void emitSuggestions(Long reportId, List<SOSSuggestion> suggestions) {
+        publisher.publishSuggestions(new SOSSuggestionsEvent(reportId, suggestions, System.currentTimeMillis()));
+    }
+
+    private void emitCluster(SOSCluster cluster) {
+        if (cluster == null) {
+            return;
+        }
+        publisher.publishCluster(new SOSClusterEvent(
+                cluster.getCellId(),
+                cluster.getLatitude(),
+                cluster.getLongitude(),
+                cluster.getCount(),
+                cluster.getEmergencyTypes(),
+                System.currentTimeMillis()));
+    }
+
+    private SOSReportEvent toEvent(String eventType, SOSReport report) {
+        return new SOSReportEvent(
+                eventType,
+                report.getId(),
+                report.getOfflineId(),
+                report.getLatitude(),
+                report.getLongitude(),
+                report.getEmergencyType(),
+                report.getMessage(),
+                report.getStatus(),
+                System.currentTimeMillis());
+    }
+}
@@ -0,0 +1,43 @@
+package com.lifeline.openicu.realtime.sos.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.lifeline.openicu.realtime.EventTimestamps;
+import com.lifeline.openicu.realtime.backpressure.CollapsibleEvent;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Map;
+
+/**
+ * Immutable WebSocket event payload published to /topic/sos/clusters when a
+ * hotspot cell gains or loses a PENDING report. A count of 0 means the
+ * cluster is gone.
+ */
+@Getter
+@AllArgsConstructor
+public class SOSClusterEvent implements CollapsibleEvent {
+
+    public static final String EVENT = "SOS_CLUSTER_UPDATED";
+
+    private final String cellId;
+    private final double latitude;
+    private final double longitude;
+    private final int count;
+    private final Map<String, Integer> emergencyTypes;
+
+    @JsonIgnore
+    private final long timestampMillis;
+
+    public String getEvent() {
+        return EVENT;
+    }
+
+    public String getTimestamp() {
+        return EventTimestamps.iso(timestampMillis);
+    }
+
+    @Override
+    public String collapseKey() {
+        return "cluster:" + cellId;
+    }
+}
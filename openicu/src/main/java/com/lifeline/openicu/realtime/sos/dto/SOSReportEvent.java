@@ -0,0 +1,40 @@
+package com.lifeline.openicu.realtime.sos.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.lifeline.openicu.realtime.EventTimestamps;
+import com.lifeline.openicu.realtime.backpressure.CollapsibleEvent;
+import com.lifeline.openicu.sos.entity.SOSStatus;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Immutable WebSocket event payload published to /topic/sos when an SOS
+ * report is received (SOS_CREATED).
+ */
+@Getter
+@AllArgsConstructor
+public class SOSReportEvent implements CollapsibleEvent {
+
+    public static final String CREATED = "SOS_CREATED";
+
+    private final String event;
+    private final Long id;
+    private final String offlineId;
+    private final double latitude;
+    private final double longitude;
+    private final String emergencyType;
+    private final String message;
+    private final SOSStatus status;
+
+    @JsonIgnore
+    private final long timestampMillis;
+
+    public String getTimestamp() {
+        return EventTimestamps.iso(timestampMillis);
+    }
+
+    @Override
+    public String collapseKey() {
+        return "sos:" + id;
+    }
+}
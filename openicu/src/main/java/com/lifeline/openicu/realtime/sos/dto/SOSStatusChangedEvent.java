@@ -0,0 +1,33 @@
+package com.lifeline.openicu.realtime.sos.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.lifeline.openicu.realtime.EventTimestamps;
+import com.lifeline.openicu.sos.entity.SOSStatus;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Immutable WebSocket event payload published to /topic/sos when a report
+ * moves to its next lifecycle status.
+ */
+@Getter
+@AllArgsConstructor
+public class SOSStatusChangedEvent {
+
+    public static final String EVENT = "SOS_STATUS_CHANGED";
+
+    private final Long id;
+    private final SOSStatus previousStatus;
+    private final SOSStatus status;
+
+    @JsonIgnore
+    private final long timestampMillis;
+
+    public String getEvent() {
+        return EVENT;
+    }
+
+    public String getTimestamp() {
+        return EventTimestamps.iso(timestampMillis);
+    }
+}
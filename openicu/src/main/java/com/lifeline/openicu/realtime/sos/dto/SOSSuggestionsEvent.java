@@ -0,0 +1,40 @@
+package com.lifeline.openicu.realtime.sos.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.lifeline.openicu.realtime.EventTimestamps;
+import com.lifeline.openicu.realtime.backpressure.CollapsibleEvent;
+import com.lifeline.openicu.sos.entity.SOSSuggestion;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Immutable WebSocket event payload published to /topic/sos when the
+ * pre-matching pipeline has ranked hospitals for a report.
+ */
+@Getter
+@AllArgsConstructor
+public class SOSSuggestionsEvent implements CollapsibleEvent {
+
+    public static final String EVENT = "SOS_SUGGESTIONS";
+
+    private final Long reportId;
+    private final List<SOSSuggestion> suggestions;
+
+    @JsonIgnore
+    private final long timestampMillis;
+
+    public String getEvent() {
+        return EVENT;
+    }
+
+    public String getTimestamp() {
+        return EventTimestamps.iso(timestampMillis);
+    }
+
+    @Override
+    public String collapseKey() {
+        return "suggestions:" + reportId;
+    }
+}
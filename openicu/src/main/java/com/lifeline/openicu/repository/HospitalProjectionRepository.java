@@ -0,0 +1,22 @@
+package com.lifeline.openicu.repository;
+
+import com.lifeline.openicu.entity.Hospital;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Column-limited hospital reads. Only the columns of the requested projection
+ * (HospitalListDTO or HospitalSummaryDTO) are selected.
+ */
+public interface HospitalProjectionRepository {
+
+    <T> Page<T> findAllProjected(Specification<Hospital> specification, Pageable pageable, Class<T> type);
+
+    <T> List<T> findAllProjected(Class<T> type);
+
+    <T> Optional<T> findProjectedById(Long id, Class<T> type);
+}
@@ -0,0 +1,103 @@
+package com.lifeline.openicu.repository;
+
+import com.lifeline.openicu.dto.HospitalListDTO;
+import com.lifeline.openicu.dto.HospitalSummaryDTO;
+import com.lifeline.openicu.entity.Hospital;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Criteria implementation of HospitalProjectionRepository. Spring Data picks it up
+ * by the Impl suffix and mixes it into HospitalRepository.
+ */
+public class HospitalProjectionRepositoryImpl implements HospitalProjectionRepository {
+
+    // Constructor argument order of each projection
+    private static final Map<Class<?>, List<String>> COLUMNS = Map.of(
+            HospitalListDTO.class, List.of(
+                    "id", "name", "latitude", "longitude", "state", "district"),
+            HospitalSummaryDTO.class, List.of(
+                    "id", "name", "latitude", "longitude", "state", "district",
+                    "address", "phoneNumber", "hospitalCategory", "hospitalCareType",
+                    "totalNumBeds", "emergencyServices"));
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public <T> Page<T> findAllProjected(Specification<Hospital> specification, Pageable pageable, Class<T> type) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<T> query = cb.createQuery(type);
+        Root<Hospital> root = query.from(Hospital.class);
+        select(query, root, cb, type);
+        if (specification != null) {
+            query.where(specification.toPredicate(root, query, cb));
+        }
+        if (pageable.getSort().isSorted()) {
+            query.orderBy(QueryUtils.toOrders(pageable.getSort(), root, cb));
+        }
+
+        List<T> content = entityManager.createQuery(query)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize())
+                .getResultList();
+        return new PageImpl<>(content, pageable, count(specification));
+    }
+
+    @Override
+    public <T> List<T> findAllProjected(Class<T> type) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<T> query = cb.createQuery(type);
+        select(query, query.from(Hospital.class), cb, type);
+        return entityManager.createQuery(query).getResultList();
+    }
+
+    @Override
+    public <T> Optional<T> findProjectedById(Long id, Class<T> type) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<T> query = cb.createQuery(type);
+        Root<Hospital> root = query.from(Hospital.class);
+        select(query, root, cb, type);
+        query.where(cb.equal(root.get("id"), id));
+        return entityManager.createQuery(query)
+                .setMaxResults(1)
+                .getResultList()
+                .stream()
+                .findFirst();
+    }
+
+    private <T> void select(CriteriaQuery<T> query, Root<Hospital> root, CriteriaBuilder cb, Class<T> type) {
+        List<String> columns = COLUMNS.get(type);
+        if (columns == null) {
+            throw new IllegalArgumentException("No hospital projection for " + type.getSimpleName());
+        }
+        Selection<?>[] selections = columns.stream()
+                .map(root::get)
+                .toArray(Selection[]::new);
+        query.select(cb.construct(type, selections));
+    }
+
+    private long count(Specification<Hospital> specification) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Hospital> root = query.from(Hospital.class);
+        query.select(cb.count(root));
+        if (specification != null) {
+            query.where(specification.toPredicate(root, query, cb));
+        }
+        return entityManager.createQuery(query).getSingleResult();
+    }
+}
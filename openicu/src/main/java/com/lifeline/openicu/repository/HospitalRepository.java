@@ -12,7 +12,8 @@ import org.springframework.stereotype.Repository;
 import java.util.List;
 
 @Repository
-public interface HospitalRepository extends JpaRepository<Hospital, Long>, JpaSpecificationExecutor<Hospital> {
+public interface HospitalRepository extends JpaRepository<Hospital, Long>, JpaSpecificationExecutor<Hospital>,
+              HospitalProjectionRepository {
 
        // Simple name search
        Page<Hospital> findByNameContainingIgnoreCase(String name, Pageable pageable);
@@ -27,9 +28,12 @@ public interface HospitalRepository extends JpaRepository<Hospital, Long>, JpaSp
        Page<Hospital> searchByKeyword(@Param("keyword") String keyword, Pageable pageable);
 
        // Native query for nearby hospitals using Haversine formula (PostgreSQL
-       // compatible) - uses bounding box pre-filter for speed (±6 degrees ≈ 660km)
+       // compatible) - uses bounding box pre-filter for speed (±6 degrees ≈ 660km).
+       // Selects only what the distance and request filters need; columns are aliased
+       // so the projection does not depend on table column order or driver id types.
        @Query(value = "SELECT * FROM (" +
-                     "SELECT *, " +
+                     "SELECT id AS id, total_num_beds AS totalNumBeds, " +
+                     "hospital_category AS hospitalCategory, emergency_services AS emergencyServices, " +
                      "(6371 * acos(LEAST(1.0, cos(radians(:latitude)) * cos(radians(latitude)) * " +
                      "cos(radians(longitude) - radians(:longitude)) + " +
                      "sin(radians(:latitude)) * sin(radians(latitude))))) AS distance " +
@@ -38,7 +42,7 @@ public interface HospitalRepository extends JpaRepository<Hospital, Long>, JpaSp
                      "AND latitude BETWEEN :latitude - 6 AND :latitude + 6 " +
                      "AND longitude BETWEEN :longitude - 6 AND :longitude + 6" +
                      ") AS subq WHERE distance <= :radiusKm ORDER BY distance LIMIT 100", nativeQuery = true)
-       List<Object[]> findNearbyHospitals(@Param("latitude") Double latitude,
+       List<NearbyHospitalCandidate> findNearbyHospitals(@Param("latitude") Double latitude,
                      @Param("longitude") Double longitude,
                      @Param("radiusKm") Double radiusKm);
 
@@ -0,0 +1,18 @@
+package com.lifeline.openicu.repository;
+
+/**
+ * Row of the nearby-hospitals query: the id, the distance and only the columns
+ * the request filters need. Columns are bound by alias, not position.
+ */
+public interface NearbyHospitalCandidate {
+
+    Long getId();
+
+    Double getDistance();
+
+    Integer getTotalNumBeds();
+
+    String getHospitalCategory();
+
+    String getEmergencyServices();
+}
@@ -3,9 +3,13 @@ package com.lifeline.openicu.routing.service;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.lifeline.openicu.routing.dto.RouteResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.util.UriComponentsBuilder;
@@ -19,6 +23,10 @@ import java.util.List;
  * 
  * Design Decision: This is an EXTERNAL dependency.
  * Our contribution is the emergency decision layer on top.
+ *
+ * Calls are bounded by connect and read timeouts so a slow provider cannot hold
+ * request threads (or pile up parked virtual threads) indefinitely; a timed-out
+ * call takes the straight-line fallback.
  */
 @Service
 public class GraphHopperCloudService implements RoutingService {
@@ -30,13 +38,45 @@ public class GraphHopperCloudService implements RoutingService {
     private final ObjectMapper objectMapper;
     private final String apiKey;
 
-    public GraphHopperCloudService(@Value("${graphhopper.api.key:}") String apiKey) {
-        this.restTemplate = new RestTemplate();
+    // openicu.routing.request by outcome; fallback rate is fallback / (ok + fallback)
+    private final Timer okTimer;
+    private final Timer fallbackTimer;
+    private final Counter noKeyFallbacks;
+    private final Counter errorFallbacks;
+
+    public GraphHopperCloudService(@Value("${graphhopper.api.key:}") String apiKey,
+            @Value("${graphhopper.connect-timeout-ms:2000}") int connectTimeoutMillis,
+            @Value("${graphhopper.read-timeout-ms:5000}") int readTimeoutMillis,
+            MeterRegistry meterRegistry) {
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(connectTimeoutMillis);
+        requestFactory.setReadTimeout(readTimeoutMillis);
+        this.restTemplate = new RestTemplate(requestFactory);
         this.objectMapper = new ObjectMapper();
         this.apiKey = apiKey;
+        this.okTimer = requestTimer(meterRegistry, "ok");
+        this.fallbackTimer = requestTimer(meterRegistry, "fallback");
+        this.noKeyFallbacks = fallbackCounter(meterRegistry, "no_key");
+        this.errorFallbacks = fallbackCounter(meterRegistry, "error");
         log.info("GraphHopper service initialized. API key configured: {}", !apiKey.isEmpty());
     }
 
+    private static Timer requestTimer(MeterRegistry meterRegistry, String outcome) {
+        return Timer.builder("openicu.routing.request")
+                .description("GraphHopper route requests, including the straight-line fallback")
+                .tag("provider", "graphhopper")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private static Counter fallbackCounter(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder("openicu.routing.fallback")
+                .description("Routes answered with the straight-line fallback")
+                .tag("provider", "graphhopper")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
     @Override
     public RouteResponse getRoute(double fromLat, double fromLon, double toLat, double toLon) {
         return getRoute(fromLat, fromLon, toLat, toLon, "car");
@@ -45,10 +85,12 @@ public class GraphHopperCloudService implements RoutingService {
     @Override
     public RouteResponse getRoute(double fromLat, double fromLon, double toLat, double toLon, String profile) {
         if (apiKey == null || apiKey.isEmpty()) {
-            log.warn("GraphHopper API key not configured. Using straight-line fallback.");
-            return createFallbackRoute(fromLat, fromLon, toLat, toLon);
+            log.debug("GraphHopper API key not configured. Using straight-line fallback.");
+            noKeyFallbacks.increment();
+            return fallbackTimer.record(() -> createFallbackRoute(fromLat, fromLon, toLat, toLon));
         }
 
+        Timer.Sample sample = Timer.start();
         try {
             String url = UriComponentsBuilder.fromHttpUrl(GRAPHHOPPER_API_URL)
                     .queryParam("point", fromLat + "," + fromLon)
@@ -60,16 +102,19 @@ public class GraphHopperCloudService implements RoutingService {
                     .build()
                     .toUriString();
 
-            log.info("Calling GraphHopper API: {}→{}",
-                    String.format("%.4f,%.4f", fromLat, fromLon),
-                    String.format("%.4f,%.4f", toLat, toLon));
+            log.debug("Calling GraphHopper API: {},{}→{},{}", fromLat, fromLon, toLat, toLon);
 
             String response = restTemplate.getForObject(url, String.class);
-            return parseResponse(response);
+            RouteResponse route = parseResponse(response);
+            sample.stop(okTimer);
+            return route;
 
         } catch (Exception e) {
             log.error("GraphHopper API call failed: {}", e.getMessage());
-            return createFallbackRoute(fromLat, fromLon, toLat, toLon);
+            errorFallbacks.increment();
+            RouteResponse route = createFallbackRoute(fromLat, fromLon, toLat, toLon);
+            sample.stop(fallbackTimer);
+            return route;
         }
     }
 
@@ -89,7 +134,7 @@ public class GraphHopperCloudService implements RoutingService {
             // Decode polyline to coordinates
             List<double[]> coordinates = decodePolyline(encodedPolyline);
 
-            log.info("Route calculated: {:.1f}km, {} min", distance / 1000, time / 60000);
+            log.debug("Route calculated: {} km, {} min", String.format("%.1f", distance / 1000), time / 60000);
             return new RouteResponse(distance, time, coordinates, encodedPolyline);
         }
 
@@ -133,28 +178,11 @@ public class GraphHopperCloudService implements RoutingService {
 
     /**
      * Fallback: Create straight-line route when API is unavailable.
-     * Uses Haversine formula for distance estimation.
      */
     private RouteResponse createFallbackRoute(double fromLat, double fromLon, double toLat, double toLon) {
-        // Haversine distance
-        double R = 6371000; // Earth radius in meters
-        double dLat = Math.toRadians(toLat - fromLat);
-        double dLon = Math.toRadians(toLon - fromLon);
-        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2) +
-                Math.cos(Math.toRadians(fromLat)) * Math.cos(Math.toRadians(toLat)) *
-                        Math.sin(dLon / 2) * Math.sin(dLon / 2);
-        double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
-        double distance = R * c;
-
-        // Estimate time at 40 km/h average speed
-        long time = (long) ((distance / 40000) * 3600000);
-
-        // Create simple 2-point path
-        List<double[]> coordinates = List.of(
-                new double[] { fromLat, fromLon },
-                new double[] { toLat, toLon });
-
-        log.info("Fallback route: {:.1f}km, {} min (straight-line)", distance / 1000, time / 60000);
-        return new RouteResponse(distance, time, coordinates, null);
+        RouteResponse route = RoutingService.straightLine(fromLat, fromLon, toLat, toLon);
+        log.debug("Fallback route: {} km, {} min (straight-line)", String.format("%.1f", route.getDistanceKm()),
+                route.getTimeMinutes());
+        return route;
     }
 }
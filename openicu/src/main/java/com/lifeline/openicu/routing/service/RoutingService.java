@@ -1,6 +1,9 @@
 package com.lifeline.openicu.routing.service;
 
 import com.lifeline.openicu.routing.dto.RouteResponse;
+import com.lifeline.openicu.util.GeoUtils;
+
+import java.util.List;
 
 /**
  * Routing service interface for calculating routes between points.
@@ -30,4 +33,22 @@ public interface RoutingService {
      * @return RouteResponse with distance, ETA, and path
      */
     RouteResponse getRoute(double fromLat, double fromLon, double toLat, double toLon, String profile);
+
+    /**
+     * Straight-line route estimate (Haversine distance at 40 km/h average),
+     * used when no road route is available in time.
+     * Has no encoded polyline, which marks it as a fallback.
+     */
+    static RouteResponse straightLine(double fromLat, double fromLon, double toLat, double toLon) {
+        double distance = GeoUtils.haversineKm(fromLat, fromLon, toLat, toLon) * 1000; // metres
+
+        // Estimate time at 40 km/h average speed
+        long time = (long) ((distance / 40000) * 3600000);
+
+        // Create simple 2-point path
+        List<double[]> coordinates = List.of(
+                new double[] { fromLat, fromLon },
+                new double[] { toLat, toLon });
+        return new RouteResponse(distance, time, coordinates, null);
+    }
 }
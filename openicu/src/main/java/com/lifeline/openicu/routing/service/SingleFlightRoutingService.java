@@ -0,0 +1,127 @@
+package com.lifeline.openicu.routing.service;
+
+import com.lifeline.openicu.routing.dto.RouteResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Single-flight layer in front of the routing provider.
+ *
+ * Concurrent getRoute calls for the same snapped origin, destination and
+ * profile share one upstream call: the first caller (the leader) calls the
+ * provider, later callers wait for its result. Nothing is cached once the
+ * call completes, so upstream QPS during a burst follows the number of
+ * distinct routes in flight rather than the number of callers.
+ *
+ * Coordinates are snapped to snap-decimals places (4 is about 11 m), and
+ * waiters receive the route computed from the leader's exact points.
+ * Waiters give up after wait-timeout-ms and call the provider themselves.
+ * A leader failure is passed on to the waiters. The shared RouteResponse
+ * must be treated as read-only.
+ */
+@Primary
+@Service
+public class SingleFlightRoutingService implements RoutingService {
+
+    private static final String DEFAULT_PROFILE = "car";
+
+    private final RoutingService delegate;
+    private final double snapScale;
+    private final long waitTimeoutMillis;
+    private final Map<RouteKey, CompletableFuture<RouteResponse>> inFlight = new ConcurrentHashMap<>();
+
+    private final Counter leaderCalls;
+    private final Counter coalescedCalls;
+    private final Counter waitTimeouts;
+
+    public SingleFlightRoutingService(@Qualifier("graphHopperCloudService") RoutingService delegate,
+            @Value("${openicu.routing.single-flight.snap-decimals:4}") int snapDecimals,
+            @Value("${openicu.routing.single-flight.wait-timeout-ms:10000}") long waitTimeoutMillis,
+            MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.snapScale = Math.pow(10, snapDecimals);
+        this.waitTimeoutMillis = waitTimeoutMillis;
+        this.leaderCalls = callCounter(meterRegistry, "leader");
+        this.coalescedCalls = callCounter(meterRegistry, "coalesced");
+        this.waitTimeouts = callCounter(meterRegistry, "wait_timeout");
+        Gauge.builder("openicu.routing.single_flight.in_flight", inFlight, Map::size)
+                .description("Distinct route lookups currently in flight upstream")
+                .register(meterRegistry);
+    }
+
+    private static Counter callCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("openicu.routing.single_flight.calls")
+                .description("Route lookups by single-flight result")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public RouteResponse getRoute(double fromLat, double fromLon, double toLat, double toLon) {
+        return getRoute(fromLat, fromLon, toLat, toLon, DEFAULT_PROFILE);
+    }
+
+    @Override
+    public RouteResponse getRoute(double fromLat, double fromLon, double toLat, double toLon, String profile) {
+        RouteKey key = new RouteKey(snap(fromLat), snap(fromLon), snap(toLat), snap(toLon), profile);
+        CompletableFuture<RouteResponse> call = new CompletableFuture<>();
+        CompletableFuture<RouteResponse> leader = inFlight.putIfAbsent(key, call);
+        if (leader != null) {
+            return await(leader, fromLat, fromLon, toLat, toLon, profile);
+        }
+
+        leaderCalls.increment();
+        try {
+            RouteResponse route = delegate.getRoute(fromLat, fromLon, toLat, toLon, profile);
+            call.complete(route);
+            return route;
+        } catch (RuntimeException e) {
+            call.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, call);
+        }
+    }
+
+    private RouteResponse await(CompletableFuture<RouteResponse> leader, double fromLat, double fromLon,
+            double toLat, double toLon, String profile) {
+        coalescedCalls.increment();
+        try {
+            return leader.get(waitTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            waitTimeouts.increment();
+            return delegate.getRoute(fromLat, fromLon, toLat, toLon, profile);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Route lookup failed", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted waiting for route", e);
+        }
+    }
+
+    public int getInFlightCount() {
+        return inFlight.size();
+    }
+
+    private long snap(double degrees) {
+        return Math.round(degrees * snapScale);
+    }
+
+    private record RouteKey(long fromLat, long fromLon, long toLat, long toLon, String profile) {
+    }
+}
@@ -1,27 +1,31 @@
 package com.lifeline.openicu.service;
 
+import com.lifeline.openicu.cache.HospitalCache;
 import com.lifeline.openicu.dto.HospitalCreateDTO;
 import com.lifeline.openicu.dto.HospitalResponseDTO;
 import com.lifeline.openicu.dto.HospitalSearchCriteria;
+import com.lifeline.openicu.dto.HospitalView;
 import com.lifeline.openicu.dto.NearbyHospitalRequest;
 import com.lifeline.openicu.dto.NearbyHospitalResponse;
 import com.lifeline.openicu.entity.Hospital;
 import com.lifeline.openicu.exception.HospitalNotFoundException;
 import com.lifeline.openicu.realtime.hospital.HospitalEventPublisher;
 import com.lifeline.openicu.repository.HospitalRepository;
+import com.lifeline.openicu.repository.NearbyHospitalCandidate;
 import com.lifeline.openicu.specification.HospitalSpecification;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.math.BigInteger;
-import java.sql.Timestamp;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -30,11 +34,14 @@ public class HospitalService {
 
     private final HospitalRepository hospitalRepository;
     private final HospitalEventPublisher eventPublisher;
+    private final HospitalCache hospitalCache;
 
     public HospitalService(HospitalRepository hospitalRepository,
-                          HospitalEventPublisher eventPublisher) {
+                          HospitalEventPublisher eventPublisher,
+                          HospitalCache hospitalCache) {
         this.hospitalRepository = hospitalRepository;
         this.eventPublisher = eventPublisher;
+        this.hospitalCache = hospitalCache;
     }
 
     public HospitalResponseDTO createHospital(HospitalCreateDTO createDTO) {
@@ -50,7 +57,7 @@ public class HospitalService {
     @Transactional(readOnly = true)
     public List<HospitalResponseDTO> getAllHospitals() {
         return hospitalRepository.findAll().stream()
-                .map(this::convertToDTO)
+                .map(HospitalService::convertToDTO)
                 .collect(Collectors.toList());
     }
 
@@ -60,30 +67,73 @@ public class HospitalService {
         return convertToPageDTO(hospitalPage);
     }
 
+    /**
+     * Page of hospitals in the given view; LIST and SUMMARY select only their columns.
+     */
     @Transactional(readOnly = true)
-    public HospitalResponseDTO getHospitalById(Long id) {
-        Hospital hospital = hospitalRepository.findById(id)
+    public Page<?> getAllHospitals(Pageable pageable, HospitalView view) {
+        if (view == HospitalView.DETAIL) {
+            return getAllHospitals(pageable);
+        }
+        return hospitalRepository.findAllProjected(null, pageable, view.getType());
+    }
+
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
+    public Object getHospitalById(Long id, HospitalView view) {
+        if (view == HospitalView.DETAIL) {
+            return getHospitalById(id);
+        }
+        return hospitalRepository.findProjectedById(id, view.getType())
                 .orElseThrow(() -> new HospitalNotFoundException(id));
-        return convertToDTO(hospital);
+    }
+
+    /**
+     * Read-through HospitalCache; cache hits do not open a transaction.
+     */
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
+    public HospitalResponseDTO getHospitalById(Long id) {
+        return hospitalCache.getDetail(id, () -> {
+            Hospital hospital = hospitalRepository.findById(id)
+                    .orElseThrow(() -> new HospitalNotFoundException(id));
+            return convertToDTO(hospital);
+        });
     }
 
     public HospitalResponseDTO updateHospital(Long id, HospitalCreateDTO updateDTO) {
         Hospital hospital = hospitalRepository.findById(id)
                 .orElseThrow(() -> new HospitalNotFoundException(id));
         
+        Hospital previous = copySearchFields(hospital);
         updateEntityFromDTO(hospital, updateDTO);
         Hospital updatedHospital = hospitalRepository.save(hospital);
         
-        // Publish hospital updated event for WebSocket broadcast
-        eventPublisher.publishHospitalUpdated(updatedHospital);
+        // Publish hospital updated event for WebSocket broadcast and cache invalidation
+        eventPublisher.publishHospitalUpdated(previous, updatedHospital);
         
         return convertToDTO(updatedHospital);
     }
 
     @Transactional(readOnly = true)
     public Page<HospitalResponseDTO> searchHospitals(HospitalSearchCriteria criteria, Pageable pageable) {
+        // Execute query with combined specifications
+        Page<Hospital> hospitalPage = hospitalRepository.findAll(buildSpecification(criteria), pageable);
+        
+        return convertToPageDTO(hospitalPage);
+    }
+
+    /**
+     * Read-through HospitalCache keyed by normalized criteria, view, page and sort.
+     */
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
+    public Page<?> searchHospitals(HospitalSearchCriteria criteria, Pageable pageable, HospitalView view) {
+        return hospitalCache.getSearch(criteria, pageable, view, () -> view == HospitalView.DETAIL
+                ? searchHospitals(criteria, pageable)
+                : hospitalRepository.findAllProjected(buildSpecification(criteria), pageable, view.getType()));
+    }
+
+    private Specification<Hospital> buildSpecification(HospitalSearchCriteria criteria) {
         // Build composite specification from all criteria using AND logic
-        Specification<Hospital> specification = Specification.where(
+        return Specification.where(
             HospitalSpecification.searchByKeyword(criteria.getKeyword())
         )
         .and(HospitalSpecification.hasState(criteria.getState()))
@@ -94,11 +144,6 @@ public class HospitalService {
         .and(HospitalSpecification.hasEmergencyService(criteria.getEmergencyService()))
         .and(HospitalSpecification.hasSpecialty(criteria.getSpecialty()))
         .and(HospitalSpecification.hasFacility(criteria.getFacility()));
-        
-        // Execute query with combined specifications
-        Page<Hospital> hospitalPage = hospitalRepository.findAll(specification, pageable);
-        
-        return convertToPageDTO(hospitalPage);
     }
     
     @Transactional(readOnly = true)
@@ -112,116 +157,61 @@ public class HospitalService {
             throw new IllegalArgumentException("Radius must be between 0.1 and 500 kilometers");
         }
         
-        // Call repository native query
-        List<Object[]> results = hospitalRepository.findNearbyHospitals(
+        // Stage 1: ids, distances and filter columns only, nearest first
+        List<NearbyHospitalCandidate> candidates = hospitalRepository.findNearbyHospitals(
             request.getLatitude(),
             request.getLongitude(),
             request.getRadiusKm()
         );
         
-        // Parse Object[] results into NearbyHospitalResponse DTOs
-        List<NearbyHospitalResponse> nearbyHospitals = new ArrayList<>();
-        
-        for (Object[] row : results) {
-            // Parse hospital data from Object array
-            Hospital hospital = parseHospitalFromRow(row);
-            
-            // Get distance (last column in the result)
-            Double distance = ((Number) row[row.length - 1]).doubleValue();
-            
-            // Apply additional filters if provided
-            boolean passesFilters = true;
-            
-            if (request.getMinBeds() != null && hospital.getTotalNumBeds() != null) {
-                if (hospital.getTotalNumBeds() < request.getMinBeds()) {
-                    passesFilters = false;
-                }
-            }
-            
-            if (request.getCategory() != null && hospital.getHospitalCategory() != null) {
-                if (!hospital.getHospitalCategory().equalsIgnoreCase(request.getCategory())) {
-                    passesFilters = false;
-                }
-            }
-            
-            if (request.getEmergencyService() != null && hospital.getEmergencyServices() != null) {
-                if (!hospital.getEmergencyServices().toLowerCase().contains(request.getEmergencyService().toLowerCase())) {
-                    passesFilters = false;
-                }
-            }
-            
-            if (passesFilters) {
-                HospitalResponseDTO hospitalDTO = convertToDTO(hospital);
-                NearbyHospitalResponse nearbyResponse = new NearbyHospitalResponse(hospitalDTO, distance);
-                nearbyHospitals.add(nearbyResponse);
-            }
-        }
+        // Apply additional filters if provided
+        List<NearbyHospitalCandidate> matches = candidates.stream()
+                .filter(candidate -> passesFilters(candidate, request))
+                .collect(Collectors.toList());
         
         // Apply pagination to results
-        int start = (int) pageable.getOffset();
-        int end = Math.min((start + pageable.getPageSize()), nearbyHospitals.size());
+        int start = (int) Math.min(pageable.getOffset(), matches.size());
+        int end = Math.min((start + pageable.getPageSize()), matches.size());
+        List<NearbyHospitalCandidate> pageCandidates = matches.subList(start, end);
         
-        List<NearbyHospitalResponse> pageContent = nearbyHospitals.subList(start, end);
+        // Stage 2: load full rows for the requested page only
+        Map<Long, Hospital> hospitals = hospitalRepository.findAllById(
+                pageCandidates.stream().map(NearbyHospitalCandidate::getId).collect(Collectors.toList()))
+                .stream()
+                .collect(Collectors.toMap(Hospital::getId, Function.identity()));
         
-        return new PageImpl<>(pageContent, pageable, nearbyHospitals.size());
+        List<NearbyHospitalResponse> pageContent = new ArrayList<>();
+        for (NearbyHospitalCandidate candidate : pageCandidates) {
+            Hospital hospital = hospitals.get(candidate.getId());
+            if (hospital != null) {
+                pageContent.add(new NearbyHospitalResponse(convertToDTO(hospital), candidate.getDistance()));
+            }
+        }
+        
+        return new PageImpl<>(pageContent, pageable, matches.size());
     }
     
     /**
-     * Parse Hospital entity from native query result row
+     * Request filters; a hospital with no value for a filtered column is kept.
+     * Package-private for the JMH benchmarks.
      */
-    private Hospital parseHospitalFromRow(Object[] row) {
-        Hospital hospital = new Hospital();
+    static boolean passesFilters(NearbyHospitalCandidate candidate, NearbyHospitalRequest request) {
+        if (request.getMinBeds() != null && candidate.getTotalNumBeds() != null
+                && candidate.getTotalNumBeds() < request.getMinBeds()) {
+            return false;
+        }
         
-        int i = 0;
-        hospital.setId(((BigInteger) row[i++]).longValue());
-        hospital.setName((String) row[i++]);
-        hospital.setAddress((String) row[i++]);
-        hospital.setPhoneNumber((String) row[i++]);
-        hospital.setEmail((String) row[i++]);
-        hospital.setLatitude(row[i] != null ? ((Number) row[i]).doubleValue() : null); i++;
-        hospital.setLongitude(row[i] != null ? ((Number) row[i]).doubleValue() : null); i++;
-        hospital.setLocation((String) row[i++]);
-        hospital.setHospitalCategory((String) row[i++]);
-        hospital.setHospitalCareType((String) row[i++]);
-        hospital.setDisciplineSystemsOfMedicine((String) row[i++]);
-        hospital.setState((String) row[i++]);
-        hospital.setDistrict((String) row[i++]);
-        hospital.setSubdistrict((String) row[i++]);
-        hospital.setPincode((String) row[i++]);
-        hospital.setTelephone((String) row[i++]);
-        hospital.setMobileNumber((String) row[i++]);
-        hospital.setEmergencyNum((String) row[i++]);
-        hospital.setAmbulancePhoneNo((String) row[i++]);
-        hospital.setBloodbankPhoneNo((String) row[i++]);
-        hospital.setTollfree((String) row[i++]);
-        hospital.setHelpline((String) row[i++]);
-        hospital.setHospitalFax((String) row[i++]);
-        hospital.setHospitalSecondaryEmailId((String) row[i++]);
-        hospital.setWebsite((String) row[i++]);
-        hospital.setSpecialties((String) row[i++]);
-        hospital.setFacilities((String) row[i++]);
-        hospital.setAccreditation((String) row[i++]);
-        hospital.setHospitalRegisNumber((String) row[i++]);
-        hospital.setTown((String) row[i++]);
-        hospital.setSubtown((String) row[i++]);
-        hospital.setVillage((String) row[i++]);
-        hospital.setEstablishedYear((String) row[i++]);
-        hospital.setMiscellaneousFacilities((String) row[i++]);
-        hospital.setNumberDoctor(row[i] != null ? ((Number) row[i]).intValue() : null); i++;
-        hospital.setNumMediconsultantOrExpert(row[i] != null ? ((Number) row[i]).intValue() : null); i++;
-        hospital.setTotalNumBeds(row[i] != null ? ((Number) row[i]).intValue() : null); i++;
-        hospital.setNumberPrivateWards(row[i] != null ? ((Number) row[i]).intValue() : null); i++;
-        hospital.setNumBedForEcoWeakerSec(row[i] != null ? ((Number) row[i]).intValue() : null); i++;
-        hospital.setEmpanelmentOrCollaborationWith((String) row[i++]);
-        hospital.setEmergencyServices((String) row[i++]);
-        hospital.setTariffRange((String) row[i++]);
-        hospital.setStateId((String) row[i++]);
-        hospital.setDistrictId((String) row[i++]);
-        hospital.setCreatedAt(row[i] != null ? ((Timestamp) row[i]).toLocalDateTime() : null); i++;
-        hospital.setUpdatedAt(row[i] != null ? ((Timestamp) row[i]).toLocalDateTime() : null); i++;
-        // Skip distance column (last one)
+        if (request.getCategory() != null && candidate.getHospitalCategory() != null
+                && !candidate.getHospitalCategory().equalsIgnoreCase(request.getCategory())) {
+            return false;
+        }
         
-        return hospital;
+        if (request.getEmergencyService() != null && candidate.getEmergencyServices() != null
+                && !candidate.getEmergencyServices().toLowerCase().contains(request.getEmergencyService().toLowerCase())) {
+            return false;
+        }
+        
+        return true;
     }
 
     private Hospital convertToEntity(HospitalCreateDTO dto) {
@@ -272,7 +262,8 @@ public class HospitalService {
         return hospital;
     }
 
-    private HospitalResponseDTO convertToDTO(Hospital entity) {
+    // Package-private for the JMH benchmarks
+    static HospitalResponseDTO convertToDTO(Hospital entity) {
         HospitalResponseDTO dto = new HospitalResponseDTO();
         dto.setId(entity.getId());
         dto.setName(entity.getName());
@@ -323,6 +314,28 @@ public class HospitalService {
         return dto;
     }
 
+    /**
+     * Detached copy of the fields search criteria, sorting and aggregate stats look at,
+     * taken before an update.
+     */
+    private Hospital copySearchFields(Hospital entity) {
+        Hospital copy = new Hospital();
+        copy.setId(entity.getId());
+        copy.setName(entity.getName());
+        copy.setAddress(entity.getAddress());
+        copy.setLocation(entity.getLocation());
+        copy.setState(entity.getState());
+        copy.setDistrict(entity.getDistrict());
+        copy.setTown(entity.getTown());
+        copy.setHospitalCategory(entity.getHospitalCategory());
+        copy.setHospitalCareType(entity.getHospitalCareType());
+        copy.setTotalNumBeds(entity.getTotalNumBeds());
+        copy.setEmergencyServices(entity.getEmergencyServices());
+        copy.setSpecialties(entity.getSpecialties());
+        copy.setFacilities(entity.getFacilities());
+        return copy;
+    }
+
     private void updateEntityFromDTO(Hospital entity, HospitalCreateDTO dto) {
         entity.setName(dto.getName());
         entity.setAddress(dto.getAddress());
@@ -374,7 +387,7 @@ public class HospitalService {
     }
 
     private Page<HospitalResponseDTO> convertToPageDTO(Page<Hospital> hospitalPage) {
-        return hospitalPage.map(this::convertToDTO);
+        return hospitalPage.map(HospitalService::convertToDTO);
     }
     
     /**
@@ -0,0 +1,189 @@
+package com.lifeline.openicu.service;
+
+import com.lifeline.openicu.bed.entity.BedStatus;
+import com.lifeline.openicu.bed.entity.BedType;
+import com.lifeline.openicu.bed.event.BedChangedEvent;
+import com.lifeline.openicu.dto.HospitalStatsDTO;
+import com.lifeline.openicu.entity.Hospital;
+import com.lifeline.openicu.realtime.hospital.HospitalChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory aggregate counters behind /api/hospitals/stats.
+ *
+ * Hospitals per state, city (town), district and category, and beds per type
+ * (total and AVAILABLE), are counted with GROUP BY queries once at startup and
+ * then adjusted from HospitalChangedEvent and BedChangedEvent after each write
+ * commits. Reads return an immutable snapshot that is rebuilt only after a
+ * change, so serving the stats never touches the table.
+ */
+@Component
+public class HospitalStatsEngine {
+
+    private static final Logger log = LoggerFactory.getLogger(HospitalStatsEngine.class);
+    private static final String UNKNOWN = "Unknown";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private long totalHospitals;
+    private final Map<String, Long> byState = new HashMap<>();
+    private final Map<String, Long> byCity = new HashMap<>();
+    private final Map<String, Long> byDistrict = new HashMap<>();
+    private final Map<String, Long> byCategory = new HashMap<>();
+    private final Map<BedType, Long> bedsByType = new EnumMap<>(BedType.class);
+    private final Map<BedType, Long> availableByType = new EnumMap<>(BedType.class);
+
+    private volatile HospitalStatsDTO snapshot;
+
+    public HospitalStatsEngine(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Seed the counters; runs after CsvDataLoader has imported hospitals.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void seed() {
+        lock.lock();
+        try {
+            totalHospitals = countHospitals();
+            seedGrouped(byState, "state");
+            seedGrouped(byCity, "town");
+            seedGrouped(byDistrict, "district");
+            seedGrouped(byCategory, "hospital_category");
+
+            bedsByType.clear();
+            availableByType.clear();
+            jdbcTemplate.query("SELECT bed_type, bed_status, COUNT(*) FROM beds GROUP BY bed_type, bed_status",
+                    rs -> {
+                        BedType type = BedType.valueOf(rs.getString(1));
+                        long count = rs.getLong(3);
+                        bedsByType.merge(type, count, Long::sum);
+                        if (BedStatus.AVAILABLE.name().equals(rs.getString(2))) {
+                            availableByType.merge(type, count, Long::sum);
+                        }
+                    });
+            snapshot = null;
+        } finally {
+            lock.unlock();
+        }
+        log.info("Hospital stats seeded: {} hospitals across {} states", totalHospitals, byState.size());
+    }
+
+    public HospitalStatsDTO getStats() {
+        HospitalStatsDTO current = snapshot;
+        if (current != null) {
+            return current;
+        }
+        lock.lock();
+        try {
+            if (snapshot == null) {
+                snapshot = new HospitalStatsDTO(totalHospitals,
+                        copy(byState), copy(byCity), copy(byDistrict), copy(byCategory),
+                        copyByType(bedsByType), copyByType(availableByType),
+                        LocalDateTime.now());
+            }
+            return snapshot;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onHospitalChanged(HospitalChangedEvent event) {
+        Hospital previous = event.getPrevious();
+        Hospital hospital = event.getHospital();
+        lock.lock();
+        try {
+            if (previous == null) {
+                totalHospitals++;
+            } else {
+                adjust(previous, -1);
+            }
+            adjust(hospital, 1);
+            snapshot = null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBedChanged(BedChangedEvent event) {
+        BedType type = event.getBedType();
+        lock.lock();
+        try {
+            if (event.getPreviousStatus() == null) {
+                increment(bedsByType, type, 1);
+            } else if (event.getStatus() == null) {
+                increment(bedsByType, type, -1);
+            }
+            if (event.getPreviousStatus() == BedStatus.AVAILABLE) {
+                increment(availableByType, type, -1);
+            }
+            if (event.getStatus() == BedStatus.AVAILABLE) {
+                increment(availableByType, type, 1);
+            }
+            snapshot = null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void adjust(Hospital hospital, long delta) {
+        increment(byState, key(hospital.getState()), delta);
+        increment(byCity, key(hospital.getTown()), delta);
+        increment(byDistrict, key(hospital.getDistrict()), delta);
+        increment(byCategory, key(hospital.getHospitalCategory()), delta);
+    }
+
+    private void seedGrouped(Map<String, Long> counters, String column) {
+        counters.clear();
+        jdbcTemplate.query("SELECT " + column + ", COUNT(*) FROM hospitals GROUP BY " + column,
+                rs -> {
+                    counters.merge(key(rs.getString(1)), rs.getLong(2), Long::sum);
+                });
+    }
+
+    private long countHospitals() {
+        Long count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM hospitals", Long.class);
+        return count == null ? 0 : count;
+    }
+
+    private static <K> void increment(Map<K, Long> counters, K key, long delta) {
+        counters.compute(key, (k, count) -> {
+            long next = (count == null ? 0 : count) + delta;
+            return next <= 0 ? null : next;
+        });
+    }
+
+    private static String key(String value) {
+        return value == null || value.isBlank() ? UNKNOWN : value.trim();
+    }
+
+    private static Map<String, Long> copy(Map<String, Long> counters) {
+        return Collections.unmodifiableMap(new TreeMap<>(counters));
+    }
+
+    private static Map<String, Long> copyByType(Map<BedType, Long> counters) {
+        Map<String, Long> copy = new TreeMap<>();
+        for (BedType type : BedType.values()) {
+            copy.put(type.name(), counters.getOrDefault(type, 0L));
+        }
+        return Collections.unmodifiableMap(copy);
+    }
+}
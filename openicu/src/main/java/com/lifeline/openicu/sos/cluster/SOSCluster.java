@@ -0,0 +1,20 @@
+package com.lifeline.openicu.sos.cluster;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Map;
+
+/**
+ * Immutable aggregate of the PENDING SOS reports in one grid cell.
+ */
+@Getter
+@AllArgsConstructor
+public class SOSCluster {
+
+    private final String cellId;
+    private final double latitude;   // centroid
+    private final double longitude;  // centroid
+    private final int count;
+    private final Map<String, Integer> emergencyTypes;
+}
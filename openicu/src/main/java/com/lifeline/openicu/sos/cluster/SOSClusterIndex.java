@@ -0,0 +1,137 @@
+package com.lifeline.openicu.sos.cluster;
+
+import com.lifeline.openicu.sos.entity.SOSReport;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Incremental grid clustering of PENDING SOS reports.
+ *
+ * Reports are bucketed into fixed-size lat/lon cells; each cell keeps a
+ * running count, coordinate sums (for the centroid) and per-type counts,
+ * so adding or removing a report touches exactly one cell - O(1) - and no
+ * recomputation is ever needed.
+ */
+@Component
+public class SOSClusterIndex {
+
+    private final double cellSizeDegrees;
+
+    // reportId -> cell it was counted in, so removals don't need the entity
+    private final Map<Long, Member> members = new ConcurrentHashMap<>();
+    private final Map<Long, Cell> cells = new ConcurrentHashMap<>();
+
+    public SOSClusterIndex(@Value("${openicu.sos.cluster.cell-size-degrees:0.05}") double cellSizeDegrees) {
+        this.cellSizeDegrees = cellSizeDegrees;
+    }
+
+    /**
+     * Count a PENDING report. Idempotent per report id.
+     *
+     * @return the updated cluster, or null if the report was already counted
+     */
+    public SOSCluster add(SOSReport report) {
+        long key = cellKey(report.getLatitude(), report.getLongitude());
+        Member member = new Member(key, report.getLatitude(), report.getLongitude(), report.getEmergencyType());
+        if (members.putIfAbsent(report.getId(), member) != null) {
+            return null;
+        }
+        Cell cell = cells.computeIfAbsent(key, k -> new Cell());
+        cell.lock.lock();
+        try {
+            cell.count++;
+            cell.sumLat += member.latitude;
+            cell.sumLon += member.longitude;
+            cell.types.merge(member.emergencyType, 1, Integer::sum);
+            return cell.snapshot(key);
+        } finally {
+            cell.lock.unlock();
+        }
+    }
+
+    /**
+     * Stop counting a report (no longer PENDING).
+     *
+     * @return the updated cluster (count 0 when the cell emptied), or null if not counted
+     */
+    public SOSCluster remove(Long reportId) {
+        Member member = members.remove(reportId);
+        if (member == null) {
+            return null;
+        }
+        Cell cell = cells.computeIfAbsent(member.cellKey, k -> new Cell());
+        cell.lock.lock();
+        try {
+            cell.count--;
+            cell.sumLat -= member.latitude;
+            cell.sumLon -= member.longitude;
+            cell.types.computeIfPresent(member.emergencyType, (type, n) -> n > 1 ? n - 1 : null);
+            return cell.snapshot(member.cellKey);
+        } finally {
+            cell.lock.unlock();
+        }
+    }
+
+    /**
+     * Current clusters with at least minCount reports, largest first.
+     */
+    public List<SOSCluster> clusters(int minCount) {
+        List<SOSCluster> result = new ArrayList<>();
+        for (Map.Entry<Long, Cell> entry : cells.entrySet()) {
+            Cell cell = entry.getValue();
+            cell.lock.lock();
+            try {
+                if (cell.count > 0 && cell.count >= minCount) {
+                    result.add(cell.snapshot(entry.getKey()));
+                }
+            } finally {
+                cell.lock.unlock();
+            }
+        }
+        result.sort(Comparator.comparingInt(SOSCluster::getCount).reversed());
+        return result;
+    }
+
+    public int pendingCount() {
+        return members.size();
+    }
+
+    public void clear() {
+        members.clear();
+        cells.clear();
+    }
+
+    private long cellKey(double latitude, double longitude) {
+        long row = (long) Math.floor(latitude / cellSizeDegrees);
+        long col = (long) Math.floor(longitude / cellSizeDegrees);
+        return (row << 32) | (col & 0xffffffffL);
+    }
+
+    private record Member(long cellKey, double latitude, double longitude, String emergencyType) {
+    }
+
+    private static final class Cell {
+        final ReentrantLock lock = new ReentrantLock();
+        int count;
+        double sumLat;
+        double sumLon;
+        final Map<String, Integer> types = new HashMap<>();
+
+        SOSCluster snapshot(long key) {
+            String cellId = (int) (key >> 32) + ":" + (int) key;
+            return new SOSCluster(cellId,
+                    count > 0 ? sumLat / count : 0,
+                    count > 0 ? sumLon / count : 0,
+                    count,
+                    Map.copyOf(types));
+        }
+    }
+}
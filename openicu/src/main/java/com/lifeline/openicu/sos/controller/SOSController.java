@@ -1,14 +1,28 @@
 package com.lifeline.openicu.sos.controller;
 
+import com.lifeline.openicu.exception.InvalidSearchCriteriaException;
+import com.lifeline.openicu.sos.cluster.SOSCluster;
+import com.lifeline.openicu.sos.cluster.SOSClusterIndex;
+import com.lifeline.openicu.sos.dto.SOSQueryCriteria;
 import com.lifeline.openicu.sos.dto.SOSReportDTO;
+import com.lifeline.openicu.sos.dto.SOSReportPageDTO;
+import com.lifeline.openicu.sos.dto.SOSStatusUpdateDTO;
+import com.lifeline.openicu.sos.dto.SOSSyncResultDTO;
 import com.lifeline.openicu.sos.entity.SOSReport;
+import com.lifeline.openicu.sos.entity.SOSStatus;
+import com.lifeline.openicu.sos.entity.SOSSuggestion;
 import com.lifeline.openicu.sos.repository.SOSReportRepository;
+import com.lifeline.openicu.sos.repository.SOSSuggestionRepository;
+import com.lifeline.openicu.sos.service.SOSService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 
@@ -18,10 +32,23 @@ import java.util.Map;
 public class SOSController {
 
     private static final Logger log = LoggerFactory.getLogger(SOSController.class);
+    private static final int MIN_PAGE_SIZE = 1;
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int MAX_LIST_LIMIT = 1000;
     private final SOSReportRepository sosRepository;
+    private final SOSService sosService;
+    private final SOSClusterIndex clusterIndex;
+    private final SOSSuggestionRepository suggestionRepository;
+    private final int maxBatchSize;
 
-    public SOSController(SOSReportRepository sosRepository) {
+    public SOSController(SOSReportRepository sosRepository, SOSService sosService, SOSClusterIndex clusterIndex,
+            SOSSuggestionRepository suggestionRepository,
+            @Value("${openicu.sos.batch.max-size:500}") int maxBatchSize) {
         this.sosRepository = sosRepository;
+        this.sosService = sosService;
+        this.clusterIndex = clusterIndex;
+        this.suggestionRepository = suggestionRepository;
+        this.maxBatchSize = maxBatchSize;
     }
 
     /**
@@ -32,69 +59,145 @@ public class SOSController {
     public ResponseEntity<?> reportSOS(@RequestBody SOSReportDTO dto) {
         log.info("🆘 SOS Report received: type={}, offlineId={}", dto.getEmergencyType(), dto.getOfflineId());
 
-        // Check for duplicate (idempotent)
-        if (dto.getOfflineId() != null) {
-            var existing = sosRepository.findByOfflineId(dto.getOfflineId());
-            if (existing.isPresent()) {
-                log.info("Duplicate SOS ignored (already synced): {}", dto.getOfflineId());
-                return ResponseEntity.ok(Map.of(
-                        "status", "already_synced",
-                        "id", existing.get().getId(),
-                        "offlineId", dto.getOfflineId()));
-            }
+        // Idempotent: duplicates are answered from the in-memory index where possible
+        SOSSyncResultDTO result = sosService.sync(dto);
+        if (SOSSyncResultDTO.ALREADY_SYNCED.equals(result.getStatus())) {
+            log.info("Duplicate SOS ignored (already synced): {}", dto.getOfflineId());
+            return ResponseEntity.ok(Map.of(
+                    "status", "already_synced",
+                    "id", result.getId(),
+                    "offlineId", dto.getOfflineId()));
         }
 
-        // Create new SOS report
-        SOSReport report = new SOSReport(
-                dto.getLatitude(),
-                dto.getLongitude(),
-                dto.getEmergencyType(),
-                dto.getMessage(),
-                dto.getClientTimestamp() != null ? dto.getClientTimestamp() : System.currentTimeMillis(),
-                dto.getOfflineId());
-
-        SOSReport saved = sosRepository.save(report);
-        log.info("✅ SOS saved to database: id={}, offlineId={}", saved.getId(), saved.getOfflineId());
+        log.info("✅ SOS saved to database: id={}, offlineId={}", result.getId(), result.getOfflineId());
 
         return ResponseEntity.status(HttpStatus.CREATED).body(Map.of(
                 "status", "synced",
-                "id", saved.getId(),
+                "id", result.getId(),
                 "offlineId", dto.getOfflineId(),
                 "message", "SOS received by command center"));
     }
 
     /**
-     * Get all SOS reports (for command center dashboard)
+     * Receive a batch of queued SOS reports from a client coming back online.
+     * Idempotent per offlineId; returns one sync result per item, in order.
+     */
+    @PostMapping("/reports/batch")
+    public ResponseEntity<?> reportSOSBatch(@RequestBody List<SOSReportDTO> reports) {
+        if (reports.size() > maxBatchSize) {
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).body(Map.of(
+                    "status", "rejected",
+                    "message", "Batch exceeds " + maxBatchSize + " reports"));
+        }
+
+        List<SOSSyncResultDTO> results = sosService.syncBatch(reports);
+        return ResponseEntity.ok(results);
+    }
+
+    /**
+     * Get the most recent SOS reports (for command center dashboard)
+     * Bounded by limit; use /reports/query to page further back.
      */
     @GetMapping("/reports")
-    public ResponseEntity<List<SOSReport>> getAllReports() {
-        List<SOSReport> reports = sosRepository.findAllByOrderByServerTimestampDesc();
-        return ResponseEntity.ok(reports);
+    public ResponseEntity<List<SOSReport>> getAllReports(@RequestParam(defaultValue = "500") int limit) {
+        return ResponseEntity.ok(recentReports(new SOSQueryCriteria(), limit));
     }
 
     /**
-     * Get pending SOS reports
+     * Get the most recent pending SOS reports
      */
     @GetMapping("/reports/pending")
-    public ResponseEntity<List<SOSReport>> getPendingReports() {
-        List<SOSReport> reports = sosRepository.findByStatusOrderByServerTimestampDesc("PENDING");
-        return ResponseEntity.ok(reports);
+    public ResponseEntity<List<SOSReport>> getPendingReports(@RequestParam(defaultValue = "500") int limit) {
+        SOSQueryCriteria criteria = new SOSQueryCriteria();
+        criteria.setStatus(SOSStatus.PENDING);
+        return ResponseEntity.ok(recentReports(criteria, limit));
     }
 
     /**
-     * Update SOS status
+     * Keyset-paginated SOS query with optional status, type, time window and
+     * bounding box filters. Newest first; follow nextCursor for older reports.
+     */
+    @GetMapping("/reports/query")
+    public ResponseEntity<SOSReportPageDTO> queryReports(
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String emergencyType,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) Double minLat,
+            @RequestParam(required = false) Double maxLat,
+            @RequestParam(required = false) Double minLon,
+            @RequestParam(required = false) Double maxLon,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
+
+        // Validate page size
+        if (size < MIN_PAGE_SIZE || size > MAX_PAGE_SIZE) {
+            throw new InvalidSearchCriteriaException(
+                String.format("Page size must be between %d and %d", MIN_PAGE_SIZE, MAX_PAGE_SIZE)
+            );
+        }
+
+        SOSQueryCriteria criteria = new SOSQueryCriteria(parseStatus(status), emergencyType, from, to,
+                minLat, maxLat, minLon, maxLon);
+        boolean anyEdge = minLat != null || maxLat != null || minLon != null || maxLon != null;
+        if (anyEdge && !criteria.hasBoundingBox()) {
+            throw new InvalidSearchCriteriaException("Bounding box needs minLat, maxLat, minLon and maxLon");
+        }
+
+        return ResponseEntity.ok(sosService.query(criteria, cursor, size));
+    }
+
+    /**
+     * Ranked hospital suggestions attached by the pre-matching pipeline
+     * (empty until the report has been matched)
+     */
+    @GetMapping("/reports/{id}/suggestions")
+    public ResponseEntity<List<SOSSuggestion>> getSuggestions(@PathVariable Long id) {
+        return ResponseEntity.ok(suggestionRepository.findBySosReportIdOrderByRankAsc(id));
+    }
+
+    /**
+     * Hotspot clusters of PENDING reports, largest first.
+     * Live changes are streamed on /topic/sos/clusters.
+     */
+    @GetMapping("/clusters")
+    public ResponseEntity<List<SOSCluster>> getClusters(@RequestParam(defaultValue = "1") int minCount) {
+        return ResponseEntity.ok(clusterIndex.clusters(minCount));
+    }
+
+    private List<SOSReport> recentReports(SOSQueryCriteria criteria, int limit) {
+        if (limit < MIN_PAGE_SIZE || limit > MAX_LIST_LIMIT) {
+            throw new InvalidSearchCriteriaException(
+                String.format("Limit must be between %d and %d", MIN_PAGE_SIZE, MAX_LIST_LIMIT)
+            );
+        }
+        return sosRepository.findPage(criteria, null, null, limit);
+    }
+
+    private static SOSStatus parseStatus(String status) {
+        if (status == null || status.isBlank()) {
+            return null;
+        }
+        try {
+            return SOSStatus.valueOf(status.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new InvalidSearchCriteriaException("Unknown SOS status: " + status);
+        }
+    }
+
+    /**
+     * Move a report to its next status (PENDING -> ACKNOWLEDGED -> DISPATCHED -> RESOLVED).
+     * Returns 409 if the report is not in the status the transition starts from.
      */
     @PutMapping("/reports/{id}/status")
-    public ResponseEntity<?> updateStatus(@PathVariable Long id, @RequestBody Map<String, String> body) {
-        String newStatus = body.get("status");
-
-        return sosRepository.findById(id)
-                .map(report -> {
-                    report.setStatus(newStatus);
-                    sosRepository.save(report);
-                    log.info("SOS status updated: id={}, status={}", id, newStatus);
-                    return ResponseEntity.ok(Map.of("status", "updated", "id", id));
-                })
-                .orElse(ResponseEntity.notFound().build());
+    public ResponseEntity<?> updateStatus(@PathVariable Long id, @RequestBody SOSStatusUpdateDTO body) {
+        SOSStatus newStatus = parseStatus(body.getStatus());
+        if (newStatus == null) {
+            throw new InvalidSearchCriteriaException("status is required");
+        }
+
+        sosService.transitionStatus(id, newStatus);
+        log.info("SOS status updated: id={}, status={}", id, newStatus);
+        return ResponseEntity.ok(Map.of("status", "updated", "id", id, "reportStatus", newStatus));
     }
 }
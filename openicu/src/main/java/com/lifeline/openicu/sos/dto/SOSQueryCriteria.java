@@ -0,0 +1,105 @@
+package com.lifeline.openicu.sos.dto;
+
+import com.lifeline.openicu.sos.entity.SOSStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Filters for the keyset-paginated SOS query. All fields are optional.
+ * The bounding box applies only when all four edges are given.
+ */
+public class SOSQueryCriteria {
+
+    private SOSStatus status;
+    private String emergencyType;
+    private LocalDateTime from;
+    private LocalDateTime to;
+    private Double minLat;
+    private Double maxLat;
+    private Double minLon;
+    private Double maxLon;
+
+    public SOSQueryCriteria() {
+    }
+
+    public SOSQueryCriteria(SOSStatus status, String emergencyType, LocalDateTime from, LocalDateTime to,
+            Double minLat, Double maxLat, Double minLon, Double maxLon) {
+        this.status = status;
+        this.emergencyType = emergencyType;
+        this.from = from;
+        this.to = to;
+        this.minLat = minLat;
+        this.maxLat = maxLat;
+        this.minLon = minLon;
+        this.maxLon = maxLon;
+    }
+
+    public boolean hasBoundingBox() {
+        return minLat != null && maxLat != null && minLon != null && maxLon != null;
+    }
+
+    // Getters and Setters
+    public SOSStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(SOSStatus status) {
+        this.status = status;
+    }
+
+    public String getEmergencyType() {
+        return emergencyType;
+    }
+
+    public void setEmergencyType(String emergencyType) {
+        this.emergencyType = emergencyType;
+    }
+
+    public LocalDateTime getFrom() {
+        return from;
+    }
+
+    public void setFrom(LocalDateTime from) {
+        this.from = from;
+    }
+
+    public LocalDateTime getTo() {
+        return to;
+    }
+
+    public void setTo(LocalDateTime to) {
+        this.to = to;
+    }
+
+    public Double getMinLat() {
+        return minLat;
+    }
+
+    public void setMinLat(Double minLat) {
+        this.minLat = minLat;
+    }
+
+    public Double getMaxLat() {
+        return maxLat;
+    }
+
+    public void setMaxLat(Double maxLat) {
+        this.maxLat = maxLat;
+    }
+
+    public Double getMinLon() {
+        return minLon;
+    }
+
+    public void setMinLon(Double minLon) {
+        this.minLon = minLon;
+    }
+
+    public Double getMaxLon() {
+        return maxLon;
+    }
+
+    public void setMaxLon(Double maxLon) {
+        this.maxLon = maxLon;
+    }
+}
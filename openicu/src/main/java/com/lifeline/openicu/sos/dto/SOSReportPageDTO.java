@@ -0,0 +1,50 @@
+package com.lifeline.openicu.sos.dto;
+
+import com.lifeline.openicu.sos.entity.SOSReport;
+
+import java.util.List;
+
+/**
+ * One keyset page of SOS reports, newest first.
+ * nextCursor is null on the last page; pass it back as ?cursor= for the next one.
+ */
+public class SOSReportPageDTO {
+
+    private List<SOSReport> items;
+    private String nextCursor;
+    private int size;
+
+    public SOSReportPageDTO() {
+    }
+
+    public SOSReportPageDTO(List<SOSReport> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+        this.size = items.size();
+    }
+
+    // Getters and Setters
+    public List<SOSReport> getItems() {
+        return items;
+    }
+
+    public void setItems(List<SOSReport> items) {
+        this.items = items;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public void setSize(int size) {
+        this.size = size;
+    }
+}
@@ -0,0 +1,23 @@
+package com.lifeline.openicu.sos.dto;
+
+public class SOSStatusUpdateDTO {
+
+    private String status;
+
+    // Default constructor
+    public SOSStatusUpdateDTO() {
+    }
+
+    public SOSStatusUpdateDTO(String status) {
+        this.status = status;
+    }
+
+    // Getters and Setters
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+}
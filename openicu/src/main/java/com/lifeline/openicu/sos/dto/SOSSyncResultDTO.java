@@ -0,0 +1,70 @@
+package com.lifeline.openicu.sos.dto;
+
+/**
+ * Per-item outcome of a batched SOS sync, in the order the client sent them.
+ * status: synced, already_synced or rejected (with error).
+ */
+public class SOSSyncResultDTO {
+
+    public static final String SYNCED = "synced";
+    public static final String ALREADY_SYNCED = "already_synced";
+    public static final String REJECTED = "rejected";
+
+    private int index;
+    private String offlineId;
+    private String status;
+    private Long id;
+    private String error;
+
+    public SOSSyncResultDTO() {
+    }
+
+    public SOSSyncResultDTO(int index, String offlineId, String status, Long id, String error) {
+        this.index = index;
+        this.offlineId = offlineId;
+        this.status = status;
+        this.id = id;
+        this.error = error;
+    }
+
+    // Getters and Setters
+    public int getIndex() {
+        return index;
+    }
+
+    public void setIndex(int index) {
+        this.index = index;
+    }
+
+    public String getOfflineId() {
+        return offlineId;
+    }
+
+    public void setOfflineId(String offlineId) {
+        this.offlineId = offlineId;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+}
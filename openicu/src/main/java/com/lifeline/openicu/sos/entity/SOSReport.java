@@ -4,7 +4,12 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "sos_reports")
+@Table(name = "sos_reports", indexes = {
+    // Keyset pagination: every list query orders by (server_timestamp, id) DESC
+    @Index(name = "idx_sos_time", columnList = "server_timestamp, id"),
+    @Index(name = "idx_sos_status_time", columnList = "status, server_timestamp, id"),
+    @Index(name = "idx_sos_type_time", columnList = "emergency_type, server_timestamp, id")
+})
 public class SOSReport {
 
     @Id
@@ -32,13 +37,18 @@ public class SOSReport {
     @Column(unique = true)
     private String offlineId;
 
+    @Enumerated(EnumType.STRING)
     @Column(nullable = false)
-    private String status; // PENDING, ACKNOWLEDGED, DISPATCHED, RESOLVED
+    private SOSStatus status;
+
+    // Bumped by every status transition; transitions are conditional on the current status
+    @Version
+    private Long version;
 
     // Constructors
     public SOSReport() {
         this.serverTimestamp = LocalDateTime.now();
-        this.status = "PENDING";
+        this.status = SOSStatus.PENDING;
     }
 
     public SOSReport(Double latitude, Double longitude, String emergencyType, String message, Long clientTimestamp,
@@ -52,7 +62,7 @@ public class SOSReport {
                 java.time.ZoneId.systemDefault());
         this.serverTimestamp = LocalDateTime.now();
         this.offlineId = offlineId;
-        this.status = "PENDING";
+        this.status = SOSStatus.PENDING;
     }
 
     // Getters and Setters
@@ -120,11 +130,19 @@ public class SOSReport {
         this.offlineId = offlineId;
     }
 
-    public String getStatus() {
+    public SOSStatus getStatus() {
         return status;
     }
 
-    public void setStatus(String status) {
+    public void setStatus(SOSStatus status) {
         this.status = status;
     }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
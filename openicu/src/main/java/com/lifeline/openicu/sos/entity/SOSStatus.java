@@ -0,0 +1,19 @@
+package com.lifeline.openicu.sos.entity;
+
+/**
+ * SOS report lifecycle: PENDING -> ACKNOWLEDGED -> DISPATCHED -> RESOLVED.
+ * Each status can only be entered from the one before it.
+ */
+public enum SOSStatus {
+    PENDING,
+    ACKNOWLEDGED,
+    DISPATCHED,
+    RESOLVED;
+
+    /**
+     * The only status this one may be entered from, or null for PENDING (initial only).
+     */
+    public SOSStatus previous() {
+        return this == PENDING ? null : values()[ordinal() - 1];
+    }
+}
@@ -0,0 +1,132 @@
+package com.lifeline.openicu.sos.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Ranked hospital suggestion attached to an SOS report by the pre-matching
+ * pipeline, for the dispatcher to confirm.
+ */
+@Entity
+@Table(name = "sos_suggestions", indexes = {
+    @Index(name = "idx_sos_suggestion_report", columnList = "sos_report_id, suggestion_rank")
+})
+public class SOSSuggestion {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "sos_report_id", nullable = false)
+    private Long sosReportId;
+
+    @Column(name = "suggestion_rank", nullable = false)
+    private int rank;
+
+    @Column(name = "hospital_id", nullable = false)
+    private Long hospitalId;
+
+    @Column(name = "hospital_name")
+    private String hospitalName;
+
+    @Column(name = "distance_km", nullable = false)
+    private double distanceKm;
+
+    @Column(name = "bed_type", nullable = false)
+    private String bedType;
+
+    @Column(name = "available_beds", nullable = false)
+    private int availableBeds;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    // Default constructor
+    public SOSSuggestion() {
+    }
+
+    public SOSSuggestion(Long sosReportId, int rank, Long hospitalId, String hospitalName, double distanceKm,
+            String bedType, int availableBeds) {
+        this.sosReportId = sosReportId;
+        this.rank = rank;
+        this.hospitalId = hospitalId;
+        this.hospitalName = hospitalName;
+        this.distanceKm = distanceKm;
+        this.bedType = bedType;
+        this.availableBeds = availableBeds;
+        this.createdAt = LocalDateTime.now();
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getSosReportId() {
+        return sosReportId;
+    }
+
+    public void setSosReportId(Long sosReportId) {
+        this.sosReportId = sosReportId;
+    }
+
+    public int getRank() {
+        return rank;
+    }
+
+    public void setRank(int rank) {
+        this.rank = rank;
+    }
+
+    public Long getHospitalId() {
+        return hospitalId;
+    }
+
+    public void setHospitalId(Long hospitalId) {
+        this.hospitalId = hospitalId;
+    }
+
+    public String getHospitalName() {
+        return hospitalName;
+    }
+
+    public void setHospitalName(String hospitalName) {
+        this.hospitalName = hospitalName;
+    }
+
+    public double getDistanceKm() {
+        return distanceKm;
+    }
+
+    public void setDistanceKm(double distanceKm) {
+        this.distanceKm = distanceKm;
+    }
+
+    public String getBedType() {
+        return bedType;
+    }
+
+    public void setBedType(String bedType) {
+        this.bedType = bedType;
+    }
+
+    public int getAvailableBeds() {
+        return availableBeds;
+    }
+
+    public void setAvailableBeds(int availableBeds) {
+        this.availableBeds = availableBeds;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
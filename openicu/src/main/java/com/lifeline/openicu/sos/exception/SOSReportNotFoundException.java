@@ -0,0 +1,8 @@
+package com.lifeline.openicu.sos.exception;
+
+public class SOSReportNotFoundException extends RuntimeException {
+
+    public SOSReportNotFoundException(Long reportId) {
+        super("SOS report not found with id: " + reportId);
+    }
+}
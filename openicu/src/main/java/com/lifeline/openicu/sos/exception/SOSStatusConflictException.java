@@ -0,0 +1,17 @@
+package com.lifeline.openicu.sos.exception;
+
+import com.lifeline.openicu.sos.entity.SOSStatus;
+
+/**
+ * The report was not in the status the requested transition starts from,
+ * typically because another dispatcher changed it first.
+ */
+public class SOSStatusConflictException extends RuntimeException {
+
+    public SOSStatusConflictException(Long reportId, SOSStatus requested, SOSStatus current) {
+        super(requested.previous() == null
+                ? "SOS report " + reportId + " cannot be moved back to " + requested
+                : "SOS report " + reportId + " is " + current + ", cannot move to " + requested
+                        + " (expected " + requested.previous() + ")");
+    }
+}
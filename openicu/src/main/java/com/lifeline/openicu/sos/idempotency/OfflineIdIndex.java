@@ -0,0 +1,115 @@
+package com.lifeline.openicu.sos.idempotency;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory front for SOS offlineId idempotency checks.
+ *
+ * - A bounded LRU of recently synced offlineIds answers retries without a query.
+ * - A scalable Bloom filter over every offlineId seen short-circuits IDs that
+ *   are definitely new, so the common case skips the duplicate lookup.
+ * - Only Bloom positives hit the database; the unique constraint on
+ *   sos_reports.offline_id remains the final arbiter (other nodes, races).
+ */
+@Component
+public class OfflineIdIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(OfflineIdIndex.class);
+
+    private final ScalableBloomFilter seen;
+    private final Map<String, Long> recent;
+    private final ReentrantLock recentLock = new ReentrantLock();
+    private final JdbcTemplate jdbcTemplate;
+
+    private final LongAdder recentHits = new LongAdder();
+    private final LongAdder definitelyNew = new LongAdder();
+    private final LongAdder lookups = new LongAdder();
+
+    public OfflineIdIndex(JdbcTemplate jdbcTemplate,
+            @Value("${openicu.sos.idempotency.bloom-capacity:100000}") long bloomCapacity,
+            @Value("${openicu.sos.idempotency.bloom-fpp:0.01}") double bloomFalsePositiveRate,
+            @Value("${openicu.sos.idempotency.recent-size:10000}") int recentSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.seen = new ScalableBloomFilter(bloomCapacity, bloomFalsePositiveRate);
+        this.recent = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Long> eldest) {
+                return size() > recentSize;
+            }
+        };
+    }
+
+    /**
+     * Seed the Bloom filter with offlineIds already in the database.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        jdbcTemplate.query("SELECT offline_id FROM sos_reports WHERE offline_id IS NOT NULL",
+                rs -> {
+                    seen.put(rs.getString(1));
+                });
+        log.info("SOS idempotency index warmed with {} offlineIds", seen.approximateSize());
+    }
+
+    /**
+     * Server id of a recently synced offlineId, or null if not in the LRU.
+     */
+    public Long findRecent(String offlineId) {
+        recentLock.lock();
+        try {
+            Long id = recent.get(offlineId);
+            if (id != null) {
+                recentHits.increment();
+            }
+            return id;
+        } finally {
+            recentLock.unlock();
+        }
+    }
+
+    /**
+     * False means the offlineId has definitely never been synced through this node
+     * or loaded at startup, so the duplicate lookup can be skipped.
+     */
+    public boolean mightExist(String offlineId) {
+        if (seen.mightContain(offlineId)) {
+            lookups.increment();
+            return true;
+        }
+        definitelyNew.increment();
+        return false;
+    }
+
+    public void record(String offlineId, Long id) {
+        seen.put(offlineId);
+        recentLock.lock();
+        try {
+            recent.put(offlineId, id);
+        } finally {
+            recentLock.unlock();
+        }
+    }
+
+    public long getRecentHits() {
+        return recentHits.sum();
+    }
+
+    public long getDefinitelyNew() {
+        return definitelyNew.sum();
+    }
+
+    public long getLookups() {
+        return lookups.sum();
+    }
+}
@@ -0,0 +1,146 @@
+package com.lifeline.openicu.sos.idempotency;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Thread-safe scalable Bloom filter for strings.
+ *
+ * Starts with one stage sized for the initial capacity; when a stage fills
+ * up a new one is added with twice the capacity and half the false-positive
+ * rate, so the compound false-positive rate stays below twice the target
+ * however many items are added. No false negatives.
+ */
+public class ScalableBloomFilter {
+
+    private final List<Stage> stages = new CopyOnWriteArrayList<>();
+    private final ReentrantLock growLock = new ReentrantLock();
+
+    public ScalableBloomFilter(long initialCapacity, double falsePositiveRate) {
+        stages.add(new Stage(initialCapacity, falsePositiveRate));
+    }
+
+    public boolean mightContain(String value) {
+        long hash = hash(value);
+        for (Stage stage : stages) {
+            if (stage.mightContain(hash)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public void put(String value) {
+        long hash = hash(value);
+        Stage current = stages.get(stages.size() - 1);
+        if (current.isFull()) {
+            current = grow(current);
+        }
+        current.put(hash);
+    }
+
+    public long approximateSize() {
+        long size = 0;
+        for (Stage stage : stages) {
+            size += stage.count.get();
+        }
+        return size;
+    }
+
+    public int stageCount() {
+        return stages.size();
+    }
+
+    private Stage grow(Stage full) {
+        growLock.lock();
+        try {
+            Stage last = stages.get(stages.size() - 1);
+            if (last == full) {
+                last = new Stage(full.capacity * 2, full.falsePositiveRate / 2);
+                stages.add(last);
+            }
+            return last;
+        } finally {
+            growLock.unlock();
+        }
+    }
+
+    /**
+     * 64-bit FNV-1a over the UTF-8 bytes, finished with a murmur3 mix.
+     */
+    private static long hash(String value) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b;
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    private static final class Stage {
+        final long capacity;
+        final double falsePositiveRate;
+        final long bitCount;
+        final int hashCount;
+        final AtomicLongArray words;
+        final AtomicLong count = new AtomicLong();
+
+        Stage(long capacity, double falsePositiveRate) {
+            this.capacity = Math.max(1, capacity);
+            this.falsePositiveRate = falsePositiveRate;
+            // Optimal sizing: m = -n ln p / (ln 2)^2, k = m/n ln 2
+            long bits = (long) Math.ceil(-this.capacity * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+            this.words = new AtomicLongArray((int) Math.min(Integer.MAX_VALUE, (bits + 63) / 64));
+            this.bitCount = (long) words.length() * 64;
+            this.hashCount = Math.max(1, (int) Math.round((double) bitCount / this.capacity * Math.log(2)));
+        }
+
+        boolean isFull() {
+            return count.get() >= capacity;
+        }
+
+        boolean mightContain(long hash) {
+            // Kirsch-Mitzenmacher: derive k indexes from two 32-bit halves
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 1; i <= hashCount; i++) {
+                long bit = ((h1 + (long) i * h2) & Long.MAX_VALUE) % bitCount;
+                if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        void put(long hash) {
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            boolean changed = false;
+            for (int i = 1; i <= hashCount; i++) {
+                long bit = ((h1 + (long) i * h2) & Long.MAX_VALUE) % bitCount;
+                int word = (int) (bit >>> 6);
+                long mask = 1L << bit;
+                long current;
+                do {
+                    current = words.get(word);
+                    if ((current & mask) != 0) {
+                        break;
+                    }
+                    changed = true;
+                } while (!words.compareAndSet(word, current, current | mask));
+            }
+            if (changed) {
+                count.incrementAndGet();
+            }
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package com.lifeline.openicu.sos.matching;
+
+import com.lifeline.openicu.bed.entity.BedStatus;
+import com.lifeline.openicu.bed.entity.BedType;
+import com.lifeline.openicu.bed.repository.BedRepository;
+import com.lifeline.openicu.entity.Hospital;
+import com.lifeline.openicu.repository.HospitalRepository;
+import com.lifeline.openicu.sos.entity.SOSReport;
+import com.lifeline.openicu.sos.entity.SOSSuggestion;
+import com.lifeline.openicu.util.GeoUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Ranks the nearest hospitals with free beds for a batch of SOS reports.
+ *
+ * Reports needing the same bed type share one bounding-box query covering
+ * the whole batch (unless the batch is spread too wide), distances are
+ * Haversine in Java, and free-bed counts for every suggested hospital are
+ * fetched in one grouped query.
+ */
+@Component
+public class SOSHospitalMatcher {
+
+    private static final double KM_PER_DEGREE = 111.0;
+
+    private final HospitalRepository hospitalRepository;
+    private final BedRepository bedRepository;
+
+    @Value("${openicu.sos.matching.radius-km:50}")
+    private double radiusKm;
+
+    @Value("${openicu.sos.matching.fallback-radius-km:200}")
+    private double fallbackRadiusKm;
+
+    @Value("${openicu.sos.matching.max-suggestions:3}")
+    private int maxSuggestions;
+
+    @Value("${openicu.sos.matching.max-batch-span-degrees:2.0}")
+    private double maxBatchSpanDegrees;
+
+    public SOSHospitalMatcher(HospitalRepository hospitalRepository, BedRepository bedRepository) {
+        this.hospitalRepository = hospitalRepository;
+        this.bedRepository = bedRepository;
+    }
+
+    /**
+     * Bed type an emergency most likely needs. Unknown types default to ICU.
+     */
+    public static BedType bedTypeFor(String emergencyType) {
+        String type = emergencyType == null ? "" : emergencyType.toUpperCase(Locale.ROOT);
+        if (type.contains("RESPIRATORY") || type.contains("BREATH") || type.contains("VENTILATOR")) {
+            return BedType.VENTILATOR;
+        }
+        return BedType.ICU;
+    }
+
+    /**
+     * Ranked suggestions per report id; reports with no match map to an empty list.
+     */
+    public Map<Long, List<SOSSuggestion>> match(List<SOSReport> reports) {
+        Map<BedType, List<SOSReport>> byBedType = new EnumMap<>(BedType.class);
+        for (SOSReport report : reports) {
+            byBedType.computeIfAbsent(bedTypeFor(report.getEmergencyType()), t -> new ArrayList<>()).add(report);
+        }
+
+        Map<Long, List<SOSSuggestion>> result = new HashMap<>();
+        for (Map.Entry<BedType, List<SOSReport>> group : byBedType.entrySet()) {
+            BedType bedType = group.getKey();
+            List<SOSReport> pending = new ArrayList<>();
+            for (List<SOSReport> area : splitByArea(group.getValue())) {
+                List<Hospital> candidates = findCandidates(area, radiusKm, bedType);
+                for (SOSReport report : area) {
+                    List<SOSSuggestion> ranked = rank(report, candidates, radiusKm, bedType);
+                    if (ranked.isEmpty()) {
+                        pending.add(report);
+                    }
+                    result.put(report.getId(), ranked);
+                }
+            }
+            // Widen once, per report, for the few with nothing nearby
+            for (SOSReport report : pending) {
+                List<Hospital> candidates = findCandidates(List.of(report), fallbackRadiusKm, bedType);
+                result.put(report.getId(), rank(report, candidates, fallbackRadiusKm, bedType));
+            }
+            fillAvailableBeds(result, bedType);
+        }
+        return result;
+    }
+
+    private List<List<SOSReport>> splitByArea(List<SOSReport> reports) {
+        double minLat = Double.MAX_VALUE, maxLat = -Double.MAX_VALUE;
+        double minLon = Double.MAX_VALUE, maxLon = -Double.MAX_VALUE;
+        for (SOSReport report : reports) {
+            minLat = Math.min(minLat, report.getLatitude());
+            maxLat = Math.max(maxLat, report.getLatitude());
+            minLon = Math.min(minLon, report.getLongitude());
+            maxLon = Math.max(maxLon, report.getLongitude());
+        }
+        if (maxLat - minLat <= maxBatchSpanDegrees && maxLon - minLon <= maxBatchSpanDegrees) {
+            return List.of(reports);
+        }
+        // Too spread out for one shared box: query per report instead
+        List<List<SOSReport>> areas = new ArrayList<>();
+        for (SOSReport report : reports) {
+            areas.add(List.of(report));
+        }
+        return areas;
+    }
+
+    private List<Hospital> findCandidates(List<SOSReport> area, double radius, BedType bedType) {
+        double minLat = Double.MAX_VALUE, maxLat = -Double.MAX_VALUE;
+        double minLon = Double.MAX_VALUE, maxLon = -Double.MAX_VALUE;
+        for (SOSReport report : area) {
+            minLat = Math.min(minLat, report.getLatitude());
+            maxLat = Math.max(maxLat, report.getLatitude());
+            minLon = Math.min(minLon, report.getLongitude());
+            maxLon = Math.max(maxLon, report.getLongitude());
+        }
+        double latPad = radius / KM_PER_DEGREE;
+        double cosLat = Math.max(0.01, Math.cos(Math.toRadians(Math.max(Math.abs(minLat), Math.abs(maxLat)))));
+        double lonPad = radius / (KM_PER_DEGREE * cosLat);
+        return hospitalRepository.findHospitalsInBoundingBoxWithAvailableBeds(
+                minLat - latPad, maxLat + latPad, minLon - lonPad, maxLon + lonPad, bedType.name());
+    }
+
+    private List<SOSSuggestion> rank(SOSReport report, List<Hospital> candidates, double radius, BedType bedType) {
+        List<SOSSuggestion> ranked = new ArrayList<>();
+        for (Hospital hospital : candidates) {
+            if (hospital.getLatitude() == null || hospital.getLongitude() == null) {
+                continue;
+            }
+            double distance = GeoUtils.haversineKm(report.getLatitude(), report.getLongitude(),
+                    hospital.getLatitude(), hospital.getLongitude());
+            if (distance <= radius) {
+                ranked.add(new SOSSuggestion(report.getId(), 0, hospital.getId(), hospital.getName(),
+                        distance, bedType.name(), 0));
+            }
+        }
+        ranked.sort(Comparator.comparingDouble(SOSSuggestion::getDistanceKm));
+        if (ranked.size() > maxSuggestions) {
+            ranked = new ArrayList<>(ranked.subList(0, maxSuggestions));
+        }
+        for (int i = 0; i < ranked.size(); i++) {
+            ranked.get(i).setRank(i + 1);
+        }
+        return ranked;
+    }
+
+    private void fillAvailableBeds(Map<Long, List<SOSSuggestion>> result, BedType bedType) {
+        Set<Long> hospitalIds = new HashSet<>();
+        for (List<SOSSuggestion> suggestions : result.values()) {
+            for (SOSSuggestion suggestion : suggestions) {
+                if (suggestion.getBedType().equals(bedType.name())) {
+                    hospitalIds.add(suggestion.getHospitalId());
+                }
+            }
+        }
+        if (hospitalIds.isEmpty()) {
+            return;
+        }
+
+        Map<Long, Integer> counts = new HashMap<>();
+        for (Object[] row : bedRepository.countByHospitalIdsAndBedTypeAndBedStatus(
+                hospitalIds, bedType, BedStatus.AVAILABLE)) {
+            counts.put((Long) row[0], ((Number) row[1]).intValue());
+        }
+        for (List<SOSSuggestion> suggestions : result.values()) {
+            for (SOSSuggestion suggestion : suggestions) {
+                if (suggestion.getBedType().equals(bedType.name())) {
+                    suggestion.setAvailableBeds(counts.getOrDefault(suggestion.getHospitalId(), 0));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package com.lifeline.openicu.sos.matching;
+
+import com.lifeline.openicu.realtime.sos.SOSRealtimeService;
+import com.lifeline.openicu.sos.entity.SOSReport;
+import com.lifeline.openicu.sos.entity.SOSSuggestion;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Asynchronous SOS-to-hospital pre-matching stage.
+ *
+ * New reports are offered to a bounded queue - never blocking the request
+ * thread - and a small fixed pool of workers drains it in micro-batches:
+ * a worker waits up to batch-window-ms for reports arriving close together,
+ * matches the whole batch with shared queries, stores the ranked suggestions
+ * in one JDBC batch and streams them to the command center. When the queue
+ * is full the report stays unmatched for the dispatcher rather than
+ * backing up ingestion.
+ */
+@Component
+public class SOSMatchingPipeline {
+
+    private static final Logger log = LoggerFactory.getLogger(SOSMatchingPipeline.class);
+
+    private static final String INSERT_SQL = "INSERT INTO sos_suggestions "
+            + "(sos_report_id, suggestion_rank, hospital_id, hospital_name, distance_km, bed_type, available_beds, created_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final SOSHospitalMatcher matcher;
+    private final JdbcTemplate jdbcTemplate;
+    private final SOSRealtimeService realtimeService;
+    private final BlockingQueue<SOSReport> queue;
+    private final int workerCount;
+    private final int batchSize;
+    private final long batchWindowMillis;
+    private final List<Thread> workers = new ArrayList<>();
+    private volatile boolean running;
+
+    private final LongAdder matched = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+
+    public SOSMatchingPipeline(SOSHospitalMatcher matcher, JdbcTemplate jdbcTemplate,
+            SOSRealtimeService realtimeService,
+            @Value("${openicu.sos.matching.queue-capacity:10000}") int queueCapacity,
+            @Value("${openicu.sos.matching.workers:2}") int workerCount,
+            @Value("${openicu.sos.matching.batch-size:50}") int batchSize,
+            @Value("${openicu.sos.matching.batch-window-ms:50}") long batchWindowMillis) {
+        this.matcher = matcher;
+        this.jdbcTemplate = jdbcTemplate;
+        this.realtimeService = realtimeService;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.workerCount = workerCount;
+        this.batchSize = batchSize;
+        this.batchWindowMillis = batchWindowMillis;
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        for (int i = 0; i < workerCount; i++) {
+            Thread worker = new Thread(this::runWorker, "sos-match-" + i);
+            worker.setDaemon(true);
+            worker.start();
+            workers.add(worker);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        workers.forEach(Thread::interrupt);
+    }
+
+    /**
+     * Queue a new report for matching. Returns false (and counts it) if the queue is full.
+     */
+    public boolean submit(SOSReport report) {
+        if (queue.offer(report)) {
+            return true;
+        }
+        rejected.increment();
+        log.warn("SOS matching queue full, report {} left for manual dispatch", report.getId());
+        return false;
+    }
+
+    public long getMatched() {
+        return matched.sum();
+    }
+
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    public long getBatches() {
+        return batches.sum();
+    }
+
+    public int getQueued() {
+        return queue.size();
+    }
+
+    private void runWorker() {
+        List<SOSReport> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                SOSReport first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(batchWindowMillis);
+                while (batch.size() < batchSize) {
+                    queue.drainTo(batch, batchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= batchSize || remaining <= 0) {
+                        break;
+                    }
+                    SOSReport next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                process(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("SOS matching failed for a batch of {} reports", batch.size(), e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void process(List<SOSReport> batch) {
+        Map<Long, List<SOSSuggestion>> suggestions = matcher.match(batch);
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> rows = new ArrayList<>();
+        for (List<SOSSuggestion> ranked : suggestions.values()) {
+            for (SOSSuggestion s : ranked) {
+                rows.add(new Object[] { s.getSosReportId(), s.getRank(), s.getHospitalId(), s.getHospitalName(),
+                        s.getDistanceKm(), s.getBedType(), s.getAvailableBeds(), now });
+            }
+        }
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+        }
+
+        suggestions.forEach(realtimeService::emitSuggestions);
+        matched.add(batch.size());
+        batches.increment();
+        log.debug("Pre-matched {} SOS reports ({} suggestions)", batch.size(), rows.size());
+    }
+}
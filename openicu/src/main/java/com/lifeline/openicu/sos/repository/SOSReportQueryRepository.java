@@ -0,0 +1,20 @@
+package com.lifeline.openicu.sos.repository;
+
+import com.lifeline.openicu.sos.dto.SOSQueryCriteria;
+import com.lifeline.openicu.sos.entity.SOSReport;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Keyset-paginated SOS queries, implemented with the Criteria API.
+ */
+public interface SOSReportQueryRepository {
+
+    /**
+     * Reports matching the criteria, ordered by serverTimestamp DESC, id DESC,
+     * strictly after the (afterTimestamp, afterId) position when given.
+     * Uses LIMIT only - no OFFSET and no count query.
+     */
+    List<SOSReport> findPage(SOSQueryCriteria criteria, LocalDateTime afterTimestamp, Long afterId, int limit);
+}
@@ -0,0 +1,65 @@
+package com.lifeline.openicu.sos.repository;
+
+import com.lifeline.openicu.sos.dto.SOSQueryCriteria;
+import com.lifeline.openicu.sos.entity.SOSReport;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Criteria implementation of SOSReportQueryRepository. Spring Data picks it up
+ * by the Impl suffix and mixes it into SOSReportRepository.
+ */
+public class SOSReportQueryRepositoryImpl implements SOSReportQueryRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<SOSReport> findPage(SOSQueryCriteria criteria, LocalDateTime afterTimestamp, Long afterId, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<SOSReport> query = cb.createQuery(SOSReport.class);
+        Root<SOSReport> root = query.from(SOSReport.class);
+
+        List<Predicate> predicates = new ArrayList<>();
+        if (criteria.getStatus() != null) {
+            predicates.add(cb.equal(root.get("status"), criteria.getStatus()));
+        }
+        if (criteria.getEmergencyType() != null) {
+            predicates.add(cb.equal(root.get("emergencyType"), criteria.getEmergencyType()));
+        }
+        if (criteria.getFrom() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(root.get("serverTimestamp"), criteria.getFrom()));
+        }
+        if (criteria.getTo() != null) {
+            predicates.add(cb.lessThan(root.get("serverTimestamp"), criteria.getTo()));
+        }
+        if (criteria.hasBoundingBox()) {
+            predicates.add(cb.between(root.get("latitude"), criteria.getMinLat(), criteria.getMaxLat()));
+            predicates.add(cb.between(root.get("longitude"), criteria.getMinLon(), criteria.getMaxLon()));
+        }
+        if (afterTimestamp != null && afterId != null) {
+            // (serverTimestamp, id) < (afterTimestamp, afterId)
+            predicates.add(cb.or(
+                    cb.lessThan(root.get("serverTimestamp"), afterTimestamp),
+                    cb.and(
+                            cb.equal(root.get("serverTimestamp"), afterTimestamp),
+                            cb.lessThan(root.get("id"), afterId))));
+        }
+
+        query.select(root)
+                .where(predicates.toArray(new Predicate[0]))
+                .orderBy(cb.desc(root.get("serverTimestamp")), cb.desc(root.get("id")));
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+}
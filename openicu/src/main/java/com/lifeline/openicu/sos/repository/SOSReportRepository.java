@@ -1,18 +1,35 @@
 package com.lifeline.openicu.sos.repository;
 
 import com.lifeline.openicu.sos.entity.SOSReport;
+import com.lifeline.openicu.sos.entity.SOSStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface SOSReportRepository extends JpaRepository<SOSReport, Long> {
+public interface SOSReportRepository extends JpaRepository<SOSReport, Long>, SOSReportQueryRepository {
 
     Optional<SOSReport> findByOfflineId(String offlineId);
 
-    List<SOSReport> findByStatusOrderByServerTimestampDesc(String status);
+    List<SOSReport> findByOfflineIdIn(Collection<String> offlineIds);
 
-    List<SOSReport> findAllByOrderByServerTimestampDesc();
+    List<SOSReport> findByStatusOrderByServerTimestampDesc(SOSStatus status);
+
+    /**
+     * Move a report from one status to the next in a single conditional UPDATE.
+     * Returns 0 when the report is missing or no longer in the expected status.
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE SOSReport r SET r.status = :to, r.version = COALESCE(r.version, 0) + 1 " +
+           "WHERE r.id = :id AND r.status = :from")
+    int transitionStatus(@Param("id") Long id, @Param("from") SOSStatus from, @Param("to") SOSStatus to);
+
+    @Query("SELECT r.status FROM SOSReport r WHERE r.id = :id")
+    Optional<SOSStatus> findStatusById(@Param("id") Long id);
 }
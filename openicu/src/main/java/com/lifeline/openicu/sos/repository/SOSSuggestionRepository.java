@@ -0,0 +1,13 @@
+package com.lifeline.openicu.sos.repository;
+
+import com.lifeline.openicu.sos.entity.SOSSuggestion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface SOSSuggestionRepository extends JpaRepository<SOSSuggestion, Long> {
+
+    List<SOSSuggestion> findBySosReportIdOrderByRankAsc(Long sosReportId);
+}
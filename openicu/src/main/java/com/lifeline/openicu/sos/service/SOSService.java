@@ -0,0 +1,334 @@
+package com.lifeline.openicu.sos.service;
+
+import com.lifeline.openicu.exception.InvalidSearchCriteriaException;
+import com.lifeline.openicu.realtime.sos.SOSRealtimeService;
+import com.lifeline.openicu.sos.dto.SOSQueryCriteria;
+import com.lifeline.openicu.sos.dto.SOSReportDTO;
+import com.lifeline.openicu.sos.dto.SOSReportPageDTO;
+import com.lifeline.openicu.sos.dto.SOSSyncResultDTO;
+import com.lifeline.openicu.sos.entity.SOSReport;
+import com.lifeline.openicu.sos.entity.SOSStatus;
+import com.lifeline.openicu.sos.exception.SOSReportNotFoundException;
+import com.lifeline.openicu.sos.exception.SOSStatusConflictException;
+import com.lifeline.openicu.sos.idempotency.OfflineIdIndex;
+import com.lifeline.openicu.sos.matching.SOSMatchingPipeline;
+import com.lifeline.openicu.sos.repository.SOSReportRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Batched SOS ingestion for offline clients draining their local queue.
+ *
+ * A batch costs three statements regardless of its size: one set-based
+ * lookup of already-synced offlineIds, one JDBC batch insert of the new
+ * reports (SOSReport uses IDENTITY ids, which disables Hibernate batching),
+ * and one lookup to read back the generated ids. The insert and the read-back
+ * share one transaction.
+ *
+ * Duplicate checks go through OfflineIdIndex first, so retries of recently
+ * synced reports and definitely-new offlineIds never reach the lookup query.
+ */
+@Service
+public class SOSService {
+
+    private static final Logger log = LoggerFactory.getLogger(SOSService.class);
+
+    private static final String INSERT_SQL = "INSERT INTO sos_reports "
+            + "(latitude, longitude, emergency_type, message, client_timestamp, server_timestamp, offline_id, status, version) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, 'PENDING', 0)";
+
+    // A concurrent sync of the same offlineIds can win the insert race; re-check once
+    private static final int MAX_ATTEMPTS = 2;
+
+    private final SOSReportRepository sosRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final OfflineIdIndex offlineIdIndex;
+    private final SOSRealtimeService realtimeService;
+    private final SOSMatchingPipeline matchingPipeline;
+    private final TransactionTemplate insertTransaction;
+
+    public SOSService(SOSReportRepository sosRepository, JdbcTemplate jdbcTemplate, OfflineIdIndex offlineIdIndex,
+            SOSRealtimeService realtimeService, SOSMatchingPipeline matchingPipeline,
+            PlatformTransactionManager transactionManager) {
+        this.sosRepository = sosRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.offlineIdIndex = offlineIdIndex;
+        this.realtimeService = realtimeService;
+        this.matchingPipeline = matchingPipeline;
+        this.insertTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Ingest a single SOS report, idempotent per offlineId.
+     * Already-synced reports return the existing id with ALREADY_SYNCED.
+     */
+    public SOSSyncResultDTO sync(SOSReportDTO dto) {
+        String offlineId = dto.getOfflineId();
+        if (offlineId != null) {
+            Long existingId = findExisting(offlineId, false);
+            if (existingId != null) {
+                return new SOSSyncResultDTO(0, offlineId, SOSSyncResultDTO.ALREADY_SYNCED, existingId, null);
+            }
+        }
+
+        SOSReport report = new SOSReport(
+                dto.getLatitude(),
+                dto.getLongitude(),
+                dto.getEmergencyType(),
+                dto.getMessage(),
+                dto.getClientTimestamp() != null ? dto.getClientTimestamp() : System.currentTimeMillis(),
+                offlineId);
+
+        SOSReport saved;
+        try {
+            saved = sosRepository.save(report);
+        } catch (DataIntegrityViolationException e) {
+            // Lost the race against a concurrent sync of the same offlineId
+            Long existingId = offlineId != null ? findExisting(offlineId, true) : null;
+            if (existingId == null) {
+                throw e;
+            }
+            return new SOSSyncResultDTO(0, offlineId, SOSSyncResultDTO.ALREADY_SYNCED, existingId, null);
+        }
+
+        if (offlineId != null) {
+            offlineIdIndex.record(offlineId, saved.getId());
+        }
+        realtimeService.emitReportCreated(saved);
+        matchingPipeline.submit(saved);
+        return new SOSSyncResultDTO(0, offlineId, SOSSyncResultDTO.SYNCED, saved.getId(), null);
+    }
+
+    /**
+     * Ingest a batch of SOS reports, idempotent per offlineId.
+     * Reports without an offlineId are assigned a server-side one so the
+     * generated row can be read back; it is returned in the result.
+     */
+    public List<SOSSyncResultDTO> syncBatch(List<SOSReportDTO> reports) {
+        SOSSyncResultDTO[] results = new SOSSyncResultDTO[reports.size()];
+
+        // offlineId -> first index in the batch; later duplicates share its outcome
+        Map<String, Integer> firstIndex = new LinkedHashMap<>();
+        Map<Integer, Integer> duplicateOf = new HashMap<>();
+        String[] offlineIds = new String[reports.size()];
+
+        for (int i = 0; i < reports.size(); i++) {
+            SOSReportDTO dto = reports.get(i);
+            String error = validate(dto);
+            if (error != null) {
+                results[i] = new SOSSyncResultDTO(i, dto == null ? null : dto.getOfflineId(),
+                        SOSSyncResultDTO.REJECTED, null, error);
+                continue;
+            }
+            String offlineId = dto.getOfflineId() != null ? dto.getOfflineId() : "srv-" + UUID.randomUUID();
+            offlineIds[i] = offlineId;
+            Integer first = firstIndex.putIfAbsent(offlineId, i);
+            if (first != null) {
+                duplicateOf.put(i, first);
+            }
+        }
+
+        Map<String, Long> existing = Map.of();
+        Map<String, Long> inserted = Map.of();
+        for (int attempt = 1; attempt <= MAX_ATTEMPTS; attempt++) {
+            existing = findExisting(firstIndex.keySet(), attempt > 1);
+            List<String> toInsert = new ArrayList<>();
+            for (String offlineId : firstIndex.keySet()) {
+                if (!existing.containsKey(offlineId)) {
+                    toInsert.add(offlineId);
+                }
+            }
+            if (toInsert.isEmpty()) {
+                inserted = Map.of();
+                break;
+            }
+            try {
+                // One transaction, so a batch that loses the race part way through
+                // leaves none of its rows behind for the retry to mistake as synced
+                List<String> batch = toInsert;
+                List<SOSReport> created = insertTransaction.execute(status -> {
+                    insertBatch(batch, firstIndex, reports);
+                    return sosRepository.findByOfflineIdIn(batch);
+                });
+                inserted = new HashMap<>();
+                for (SOSReport report : created) {
+                    inserted.put(report.getOfflineId(), report.getId());
+                    offlineIdIndex.record(report.getOfflineId(), report.getId());
+                    realtimeService.emitReportCreated(report);
+                    matchingPipeline.submit(report);
+                }
+                break;
+            } catch (DataIntegrityViolationException e) {
+                if (attempt == MAX_ATTEMPTS) {
+                    throw e;
+                }
+                log.info("SOS batch raced with a concurrent sync, re-checking {} offlineIds", toInsert.size());
+            }
+        }
+
+        for (Map.Entry<String, Integer> entry : firstIndex.entrySet()) {
+            String offlineId = entry.getKey();
+            int i = entry.getValue();
+            Long insertedId = inserted.get(offlineId);
+            results[i] = insertedId != null
+                    ? new SOSSyncResultDTO(i, offlineId, SOSSyncResultDTO.SYNCED, insertedId, null)
+                    : new SOSSyncResultDTO(i, offlineId, SOSSyncResultDTO.ALREADY_SYNCED, existing.get(offlineId), null);
+        }
+        for (Map.Entry<Integer, Integer> entry : duplicateOf.entrySet()) {
+            int i = entry.getKey();
+            SOSSyncResultDTO first = results[entry.getValue()];
+            results[i] = new SOSSyncResultDTO(i, offlineIds[i], SOSSyncResultDTO.ALREADY_SYNCED, first.getId(), null);
+        }
+
+        log.info("🆘 SOS batch synced: {} items, {} new, {} already synced",
+                reports.size(), inserted.size(), firstIndex.size() - inserted.size());
+        return List.of(results);
+    }
+
+    /**
+     * One keyset page of reports matching the criteria, newest first.
+     * Cost depends on the page size, not on the table size or page depth.
+     *
+     * @param cursor opaque position from the previous page's nextCursor, or null
+     */
+    public SOSReportPageDTO query(SOSQueryCriteria criteria, String cursor, int size) {
+        LocalDateTime afterTimestamp = null;
+        Long afterId = null;
+        if (cursor != null && !cursor.isBlank()) {
+            try {
+                String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                String[] position = decoded.split("\\|");
+                afterTimestamp = LocalDateTime.parse(position[0]);
+                afterId = Long.parseLong(position[1]);
+            } catch (RuntimeException e) {
+                throw new InvalidSearchCriteriaException("Invalid cursor: " + cursor);
+            }
+        }
+
+        // Fetch one extra row to know whether there is a next page
+        List<SOSReport> rows = sosRepository.findPage(criteria, afterTimestamp, afterId, size + 1);
+        if (rows.size() <= size) {
+            return new SOSReportPageDTO(rows, null);
+        }
+        List<SOSReport> page = rows.subList(0, size);
+        SOSReport last = page.get(size - 1);
+        String nextCursor = Base64.getUrlEncoder().withoutPadding().encodeToString(
+                (last.getServerTimestamp() + "|" + last.getId()).getBytes(StandardCharsets.UTF_8));
+        return new SOSReportPageDTO(new ArrayList<>(page), nextCursor);
+    }
+
+    /**
+     * Move a report to its next lifecycle status and stream the change.
+     * The happy path is one conditional UPDATE with no prior read; the current
+     * status is only read to explain a failed transition.
+     *
+     * @throws SOSStatusConflictException if the report is not in the status the transition starts from
+     * @throws SOSReportNotFoundException if there is no such report
+     */
+    @Transactional
+    public void transitionStatus(Long id, SOSStatus status) {
+        SOSStatus from = status.previous();
+        if (from != null && sosRepository.transitionStatus(id, from, status) == 1) {
+            realtimeService.emitStatusChanged(id, from, status);
+            return;
+        }
+
+        SOSStatus current = sosRepository.findStatusById(id)
+                .orElseThrow(() -> new SOSReportNotFoundException(id));
+        throw new SOSStatusConflictException(id, status, current);
+    }
+
+    private void insertBatch(List<String> offlineIds, Map<String, Integer> firstIndex, List<SOSReportDTO> reports) {
+        Timestamp serverTimestamp = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> rows = new ArrayList<>(offlineIds.size());
+        for (String offlineId : offlineIds) {
+            SOSReportDTO dto = reports.get(firstIndex.get(offlineId));
+            long clientMillis = dto.getClientTimestamp() != null ? dto.getClientTimestamp() : System.currentTimeMillis();
+            rows.add(new Object[] {
+                    dto.getLatitude(),
+                    dto.getLongitude(),
+                    dto.getEmergencyType(),
+                    dto.getMessage(),
+                    Timestamp.valueOf(LocalDateTime.ofInstant(Instant.ofEpochMilli(clientMillis), ZoneId.systemDefault())),
+                    serverTimestamp,
+                    offlineId
+            });
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+    }
+
+    /**
+     * Existing server ids for the given offlineIds: recent LRU hits first, then one
+     * lookup for the Bloom positives. After a lost insert race every unresolved id
+     * is looked up, as another node may have inserted ids this filter never saw.
+     */
+    private Map<String, Long> findExisting(Collection<String> offlineIds, boolean bypassFilter) {
+        Map<String, Long> existing = new HashMap<>();
+        List<String> toLookUp = new ArrayList<>();
+        for (String offlineId : offlineIds) {
+            Long recentId = offlineIdIndex.findRecent(offlineId);
+            if (recentId != null) {
+                existing.put(offlineId, recentId);
+            } else if (bypassFilter || offlineIdIndex.mightExist(offlineId)) {
+                toLookUp.add(offlineId);
+            }
+        }
+        if (!toLookUp.isEmpty()) {
+            Map<String, Long> found = findIds(toLookUp);
+            found.forEach(offlineIdIndex::record);
+            existing.putAll(found);
+        }
+        return existing;
+    }
+
+    private Long findExisting(String offlineId, boolean bypassFilter) {
+        return findExisting(List.of(offlineId), bypassFilter).get(offlineId);
+    }
+
+    private Map<String, Long> findIds(Collection<String> offlineIds) {
+        Map<String, Long> ids = new HashMap<>();
+        for (SOSReport report : sosRepository.findByOfflineIdIn(offlineIds)) {
+            ids.put(report.getOfflineId(), report.getId());
+        }
+        return ids;
+    }
+
+    private String validate(SOSReportDTO dto) {
+        if (dto == null) {
+            return "Empty report";
+        }
+        if (dto.getLatitude() == null || dto.getLongitude() == null) {
+            return "Latitude and longitude are required";
+        }
+        if (dto.getLatitude() < -90 || dto.getLatitude() > 90 || dto.getLongitude() < -180 || dto.getLongitude() > 180) {
+            return "Coordinates out of range";
+        }
+        if (dto.getEmergencyType() == null || dto.getEmergencyType().isBlank()) {
+            return "Emergency type is required";
+        }
+        if (dto.getMessage() != null && dto.getMessage().length() > 1000) {
+            return "Message exceeds 1000 characters";
+        }
+        return null;
+    }
+}
@@ -3,12 +3,16 @@ package com.lifeline.openicu.specification;
 import com.lifeline.openicu.entity.Hospital;
 import org.springframework.data.jpa.domain.Specification;
 
+import java.util.Locale;
+
 /**
  * Specification builder for dynamic Hospital queries using JPA Criteria API.
  * Each method returns a Specification that can be combined with others using AND logic.
  */
 public class HospitalSpecification {
 
+    private static final char ESCAPE = '\\';
+
     /**
      * Filter hospitals by name (case-insensitive partial match)
      * @param name the name to search for
@@ -21,7 +25,8 @@ public class HospitalSpecification {
             }
             return criteriaBuilder.like(
                 criteriaBuilder.lower(root.get("name")),
-                "%" + name.toLowerCase() + "%"
+                containsPattern(name),
+                ESCAPE
             );
         };
     }
@@ -38,7 +43,8 @@ public class HospitalSpecification {
             }
             return criteriaBuilder.like(
                 criteriaBuilder.lower(root.get("state")),
-                "%" + state.toLowerCase() + "%"
+                containsPattern(state),
+                ESCAPE
             );
         };
     }
@@ -55,7 +61,8 @@ public class HospitalSpecification {
             }
             return criteriaBuilder.like(
                 criteriaBuilder.lower(root.get("district")),
-                "%" + district.toLowerCase() + "%"
+                containsPattern(district),
+                ESCAPE
             );
         };
     }
@@ -72,7 +79,8 @@ public class HospitalSpecification {
             }
             return criteriaBuilder.like(
                 criteriaBuilder.lower(root.get("hospitalCategory")),
-                "%" + category.toLowerCase() + "%"
+                containsPattern(category),
+                ESCAPE
             );
         };
     }
@@ -89,7 +97,8 @@ public class HospitalSpecification {
             }
             return criteriaBuilder.like(
                 criteriaBuilder.lower(root.get("hospitalCareType")),
-                "%" + careType.toLowerCase() + "%"
+                containsPattern(careType),
+                ESCAPE
             );
         };
     }
@@ -120,7 +129,8 @@ public class HospitalSpecification {
             }
             return criteriaBuilder.like(
                 criteriaBuilder.lower(root.get("emergencyServices")),
-                "%" + service.toLowerCase() + "%"
+                containsPattern(service),
+                ESCAPE
             );
         };
     }
@@ -137,7 +147,8 @@ public class HospitalSpecification {
             }
             return criteriaBuilder.like(
                 criteriaBuilder.lower(root.get("specialties")),
-                "%" + specialty.toLowerCase() + "%"
+                containsPattern(specialty),
+                ESCAPE
             );
         };
     }
@@ -154,7 +165,8 @@ public class HospitalSpecification {
             }
             return criteriaBuilder.like(
                 criteriaBuilder.lower(root.get("facilities")),
-                "%" + facility.toLowerCase() + "%"
+                containsPattern(facility),
+                ESCAPE
             );
         };
     }
@@ -169,14 +181,26 @@ public class HospitalSpecification {
             if (keyword == null || keyword.trim().isEmpty()) {
                 return criteriaBuilder.conjunction();
             }
-            String pattern = "%" + keyword.toLowerCase() + "%";
+            String pattern = containsPattern(keyword);
             return criteriaBuilder.or(
-                criteriaBuilder.like(criteriaBuilder.lower(root.get("name")), pattern),
-                criteriaBuilder.like(criteriaBuilder.lower(root.get("location")), pattern),
-                criteriaBuilder.like(criteriaBuilder.lower(root.get("state")), pattern),
-                criteriaBuilder.like(criteriaBuilder.lower(root.get("district")), pattern),
-                criteriaBuilder.like(criteriaBuilder.lower(root.get("address")), pattern)
+                criteriaBuilder.like(criteriaBuilder.lower(root.get("name")), pattern, ESCAPE),
+                criteriaBuilder.like(criteriaBuilder.lower(root.get("location")), pattern, ESCAPE),
+                criteriaBuilder.like(criteriaBuilder.lower(root.get("state")), pattern, ESCAPE),
+                criteriaBuilder.like(criteriaBuilder.lower(root.get("district")), pattern, ESCAPE),
+                criteriaBuilder.like(criteriaBuilder.lower(root.get("address")), pattern, ESCAPE)
             );
         };
     }
+
+    /**
+     * Lower-cased "%value%" with LIKE wildcards escaped, so a filter matches as a
+     * literal substring (the way HospitalCache re-checks it in memory).
+     */
+    static String containsPattern(String value) {
+        String escaped = value.toLowerCase(Locale.ROOT)
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+        return "%" + escaped + "%";
+    }
 }
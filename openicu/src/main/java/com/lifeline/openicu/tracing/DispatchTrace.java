@@ -0,0 +1,23 @@
+package com.lifeline.openicu.tracing;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * A finished request trace with its span breakdown.
+ * The root span is the first entry of spans.
+ */
+@Getter
+@AllArgsConstructor
+public class DispatchTrace {
+
+    private final long id;
+    private final String name;
+    private final long startedAt;
+    private final double durationMillis;
+    private final String error;
+    private final int droppedSpans;
+    private final List<TraceSpan> spans;
+}
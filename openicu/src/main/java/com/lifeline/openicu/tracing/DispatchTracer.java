@@ -0,0 +1,254 @@
+package com.lifeline.openicu.tracing;
+
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-process span tracer for dispatch requests.
+ *
+ * A trace is started at the request entry point and bound to the calling
+ * thread; spans opened further down the call (service phases, repository
+ * calls, routing, event publishing) nest under whatever span is open. When
+ * the root span closes the trace is kept in a bounded buffer of recent
+ * traces, from which the slowest can be listed without an external tracing
+ * backend.
+ *
+ * A span may also feed a Micrometer Timer, so phase timers are recorded
+ * whether or not a trace is active on the thread.
+ */
+@Component
+public class DispatchTracer {
+
+    private static final TraceScope NOOP = new TraceScope() {
+        @Override
+        public TraceScope tag(String key, Object value) {
+            return this;
+        }
+
+        @Override
+        public TraceScope error(Throwable error) {
+            return this;
+        }
+
+        @Override
+        public void close() {
+        }
+    };
+
+    private final int retained;
+    private final int maxSpans;
+    private final ThreadLocal<ActiveTrace> current = new ThreadLocal<>();
+    private final AtomicLong ids = new AtomicLong();
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final ArrayDeque<DispatchTrace> recent = new ArrayDeque<>();
+
+    public DispatchTracer(@Value("${openicu.tracing.retained:500}") int retained,
+            @Value("${openicu.tracing.max-spans:256}") int maxSpans) {
+        this.retained = retained;
+        this.maxSpans = Math.max(1, maxSpans);
+    }
+
+    /**
+     * Start a trace on this thread. If one is already active the new scope
+     * joins it as a child span instead.
+     */
+    public TraceScope startTrace(String name) {
+        ActiveTrace active = current.get();
+        if (active != null) {
+            return active.open(name, null);
+        }
+        active = new ActiveTrace(ids.incrementAndGet(), name);
+        current.set(active);
+        return active.open(name, null);
+    }
+
+    public TraceScope span(String name) {
+        return span(name, null);
+    }
+
+    /**
+     * Open a child span of the current trace, also recording its duration in
+     * the timer if one is given. Without an active trace only the timer is fed.
+     */
+    public TraceScope span(String name, Timer timer) {
+        ActiveTrace active = current.get();
+        if (active != null) {
+            return active.open(name, timer);
+        }
+        return timer == null ? NOOP : new TimerScope(timer);
+    }
+
+    /**
+     * Slowest of the retained recent traces, slowest first.
+     */
+    public List<DispatchTrace> slowest(int limit) {
+        List<DispatchTrace> traces = snapshot();
+        traces.sort(Comparator.comparingDouble(DispatchTrace::getDurationMillis).reversed());
+        return traces.subList(0, Math.min(limit, traces.size()));
+    }
+
+    /**
+     * Most recent retained traces, newest first.
+     */
+    public List<DispatchTrace> recent(int limit) {
+        List<DispatchTrace> traces = snapshot();
+        List<DispatchTrace> newestFirst = new ArrayList<>(Math.min(limit, traces.size()));
+        for (int i = traces.size() - 1; i >= 0 && newestFirst.size() < limit; i--) {
+            newestFirst.add(traces.get(i));
+        }
+        return newestFirst;
+    }
+
+    private List<DispatchTrace> snapshot() {
+        lock.lock();
+        try {
+            return new ArrayList<>(recent);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void finish(DispatchTrace trace) {
+        current.remove();
+        lock.lock();
+        try {
+            recent.addLast(trace);
+            while (recent.size() > retained) {
+                recent.pollFirst();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static double millis(long nanos) {
+        return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    private final class ActiveTrace {
+        final long id;
+        final String name;
+        final long startedAt = System.currentTimeMillis();
+        final long startNanos = System.nanoTime();
+        final List<OpenSpan> spans = new ArrayList<>();
+        int depth;
+        int dropped;
+        String error;
+
+        ActiveTrace(long id, String name) {
+            this.id = id;
+            this.name = name;
+        }
+
+        TraceScope open(String spanName, Timer timer) {
+            OpenSpan span = new OpenSpan(this, spanName, depth++, timer);
+            if (spans.size() < maxSpans) {
+                spans.add(span);
+            } else {
+                dropped++;
+            }
+            return span;
+        }
+
+        void closed(OpenSpan span) {
+            depth--;
+            if (span.depth == 0) {
+                finish(toTrace());
+            }
+        }
+
+        DispatchTrace toTrace() {
+            long end = System.nanoTime();
+            List<TraceSpan> finished = new ArrayList<>(spans.size());
+            for (OpenSpan span : spans) {
+                // A span left open by an exception is cut off at the end of the trace
+                long spanEnd = span.endNanos < 0 ? end : span.endNanos;
+                finished.add(new TraceSpan(span.name, span.depth, millis(span.startNanos - startNanos),
+                        millis(spanEnd - span.startNanos), span.tags == null ? Map.of() : span.tags));
+            }
+            return new DispatchTrace(id, name, startedAt, millis(end - startNanos), error, dropped, finished);
+        }
+    }
+
+    private static final class OpenSpan implements TraceScope {
+        final ActiveTrace trace;
+        final String name;
+        final int depth;
+        final Timer timer;
+        final long startNanos = System.nanoTime();
+        long endNanos = -1;
+        Map<String, Object> tags;
+
+        OpenSpan(ActiveTrace trace, String name, int depth, Timer timer) {
+            this.trace = trace;
+            this.name = name;
+            this.depth = depth;
+            this.timer = timer;
+        }
+
+        @Override
+        public TraceScope tag(String key, Object value) {
+            if (tags == null) {
+                tags = new LinkedHashMap<>();
+            }
+            tags.put(key, value);
+            return this;
+        }
+
+        @Override
+        public TraceScope error(Throwable error) {
+            if (trace.error == null) {
+                trace.error = error.getClass().getSimpleName() + ": " + error.getMessage();
+            }
+            return tag("error", error.getClass().getSimpleName());
+        }
+
+        @Override
+        public void close() {
+            if (endNanos >= 0) {
+                return;
+            }
+            endNanos = System.nanoTime();
+            if (timer != null) {
+                timer.record(endNanos - startNanos, TimeUnit.NANOSECONDS);
+            }
+            trace.closed(this);
+        }
+    }
+
+    private static final class TimerScope implements TraceScope {
+        final Timer timer;
+        final long startNanos = System.nanoTime();
+
+        TimerScope(Timer timer) {
+            this.timer = timer;
+        }
+
+        @Override
+        public TraceScope tag(String key, Object value) {
+            return this;
+        }
+
+        @Override
+        public TraceScope error(Throwable error) {
+            return this;
+        }
+
+        @Override
+        public void close() {
+            timer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.lifeline.openicu.tracing;
+
+/**
+ * An open span, closed with try-with-resources.
+ */
+public interface TraceScope extends AutoCloseable {
+
+    /**
+     * Attach a value to the span, e.g. a candidate count or a pass number.
+     */
+    TraceScope tag(String key, Object value);
+
+    /**
+     * Mark the trace as failed; only the first error is kept.
+     */
+    TraceScope error(Throwable error);
+
+    @Override
+    void close();
+}
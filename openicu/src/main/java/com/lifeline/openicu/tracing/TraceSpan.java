@@ -0,0 +1,22 @@
+package com.lifeline.openicu.tracing;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Map;
+
+/**
+ * One finished span of a DispatchTrace. Spans are listed in start order;
+ * depth gives the nesting (0 is the root) and offsetMillis the start
+ * relative to the root.
+ */
+@Getter
+@AllArgsConstructor
+public class TraceSpan {
+
+    private final String name;
+    private final int depth;
+    private final double offsetMillis;
+    private final double durationMillis;
+    private final Map<String, Object> tags;
+}
@@ -0,0 +1,171 @@
+package com.lifeline.openicu.ambulance.assignment;
+
+import com.lifeline.openicu.util.GeoUtils;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static com.lifeline.openicu.ambulance.assignment.MinCostAssignmentSolver.UNASSIGNED;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BatchAssignmentPlannerTests {
+
+    private final BatchAssignmentPlanner planner = new BatchAssignmentPlanner(8, 600, 3);
+
+    @Test
+    void solverMatchesBruteForceOnSmallInstances() {
+        Random random = new Random(7);
+        for (int instance = 0; instance < 200; instance++) {
+            int sources = 1 + random.nextInt(5);
+            int targets = 1 + random.nextInt(4);
+            int[] capacities = new int[targets];
+            for (int t = 0; t < targets; t++) {
+                capacities[t] = random.nextInt(3);
+            }
+            int[][] candidates = new int[sources][];
+            long[][] costs = new long[sources][];
+            for (int s = 0; s < sources; s++) {
+                candidates[s] = random.ints(0, targets).distinct().limit(random.nextInt(targets + 1)).toArray();
+                costs[s] = random.longs(candidates[s].length, 0, 100).toArray();
+            }
+
+            int[] assignment = MinCostAssignmentSolver.solve(capacities, candidates, costs);
+
+            long[] best = bruteForce(0, capacities.clone(), candidates, costs, 0, 0);
+            assertThat(score(assignment, candidates, costs)).isEqualTo(best);
+            int[] used = new int[targets];
+            for (int target : assignment) {
+                if (target != UNASSIGNED) {
+                    used[target]++;
+                }
+            }
+            for (int t = 0; t < targets; t++) {
+                assertThat(used[t]).isLessThanOrEqualTo(capacities[t]);
+            }
+        }
+    }
+
+    @Test
+    void ambulanceWithTheNearerAlternativeGivesUpTheContestedBed() {
+        // With one candidate each both ambulances only see NEAR; widening the loser's
+        // list adds FAR, and the cheaper plan sends A (not B) there
+        BatchAssignmentPlanner narrow = new BatchAssignmentPlanner(1, 600, 3);
+        int[] plan = narrow.plan(
+                new double[] { -31.95, -31.95 }, new double[] { 116.20, 115.90 },
+                new double[] { -31.95, -31.95 }, new double[] { 115.80, 116.80 },
+                new int[] { 1, 1 });
+
+        assertThat(plan).containsExactly(1, 0);
+    }
+
+    @Test
+    void hospitalsBeyondTheDistanceLimitAreNeverAssigned() {
+        int[] plan = planner.plan(
+                new double[] { -31.95 }, new double[] { 115.86 },
+                new double[] { -33.87 }, new double[] { 151.21 },
+                new int[] { 5 });
+
+        assertThat(plan).containsExactly(UNASSIGNED);
+    }
+
+    @Test
+    void latitudeIndexFindsTheNearestHospitalAFullScanWould() {
+        BatchAssignmentPlanner nearestOnly = new BatchAssignmentPlanner(1, 600, 0);
+        Random random = new Random(23);
+        for (int instance = 0; instance < 500; instance++) {
+            int hospitals = 1 + random.nextInt(40);
+            double[] hospitalLat = random.doubles(hospitals, -20, -10).toArray();
+            double[] hospitalLon = random.doubles(hospitals, 130, 140).toArray();
+            int[] freeBeds = random.ints(hospitals, 0, 2).toArray();
+            double latitude = -20 + random.nextDouble() * 10;
+            double longitude = 130 + random.nextDouble() * 10;
+
+            int expected = UNASSIGNED;
+            double expectedKm = 600;
+            for (int h = 0; h < hospitals; h++) {
+                double km = GeoUtils.haversineKm(latitude, longitude, hospitalLat[h], hospitalLon[h]);
+                if (freeBeds[h] > 0 && km <= expectedKm) {
+                    expected = h;
+                    expectedKm = km;
+                }
+            }
+
+            int[] plan = nearestOnly.plan(new double[] { latitude }, new double[] { longitude },
+                    hospitalLat, hospitalLon, freeBeds);
+            assertThat(plan[0]).as("instance %d", instance).isEqualTo(expected);
+        }
+    }
+
+    @Test
+    void surgeOfHundredsOfAmbulancesIsPlannedWithinCapacity() {
+        Random random = new Random(11);
+        int ambulances = 500;
+        int hospitals = 300;
+        double[] ambulanceLat = random.doubles(ambulances, 28.3, 28.9).toArray();
+        double[] ambulanceLon = random.doubles(ambulances, 76.9, 77.5).toArray();
+        double[] hospitalLat = random.doubles(hospitals, 28.3, 28.9).toArray();
+        double[] hospitalLon = random.doubles(hospitals, 76.9, 77.5).toArray();
+        int[] freeBeds = random.ints(hospitals, 0, 3).toArray();
+
+        long started = System.nanoTime();
+        int[] plan = planner.plan(ambulanceLat, ambulanceLon, hospitalLat, hospitalLon, freeBeds);
+        long elapsedMillis = (System.nanoTime() - started) / 1_000_000;
+
+        int[] used = new int[hospitals];
+        int assigned = 0;
+        for (int a = 0; a < ambulances; a++) {
+            if (plan[a] != UNASSIGNED) {
+                used[plan[a]]++;
+                assigned++;
+                assertThat(GeoUtils.haversineKm(ambulanceLat[a], ambulanceLon[a],
+                        hospitalLat[plan[a]], hospitalLon[plan[a]])).isLessThanOrEqualTo(600);
+            }
+        }
+        for (int h = 0; h < hospitals; h++) {
+            assertThat(used[h]).isLessThanOrEqualTo(freeBeds[h]);
+        }
+        // Every bed in the area is in reach, so either all ambulances or all beds are used
+        assertThat(assigned).isEqualTo(Math.min(ambulances, Arrays.stream(freeBeds).sum()));
+        // Generous bound for slow CI machines; typically a few tens of milliseconds
+        assertThat(elapsedMillis).isLessThan(2000);
+    }
+
+    /**
+     * Best {assigned count, -cost} over all assignments, compared lexicographically.
+     */
+    private static long[] bruteForce(int source, int[] capacities, int[][] candidates, long[][] costs,
+            long assigned, long cost) {
+        if (source == candidates.length) {
+            return new long[] { assigned, -cost };
+        }
+        long[] best = bruteForce(source + 1, capacities, candidates, costs, assigned, cost);
+        for (int j = 0; j < candidates[source].length; j++) {
+            int target = candidates[source][j];
+            if (capacities[target] > 0) {
+                capacities[target]--;
+                long[] option = bruteForce(source + 1, capacities, candidates, costs, assigned + 1,
+                        cost + costs[source][j]);
+                capacities[target]++;
+                if (option[0] > best[0] || (option[0] == best[0] && option[1] > best[1])) {
+                    best = option;
+                }
+            }
+        }
+        return best;
+    }
+
+    private static long[] score(int[] assignment, int[][] candidates, long[][] costs) {
+        long assigned = 0;
+        long cost = 0;
+        for (int s = 0; s < assignment.length; s++) {
+            for (int j = 0; j < candidates[s].length; j++) {
+                if (candidates[s][j] == assignment[s]) {
+                    assigned++;
+                    cost += costs[s][j];
+                }
+            }
+        }
+        return new long[] { assigned, -cost };
+    }
+}
@@ -0,0 +1,113 @@
+package com.lifeline.openicu.ambulance.service;
+
+import com.lifeline.openicu.ambulance.entity.BedReservation;
+import com.lifeline.openicu.ambulance.tracking.AmbulanceTrackingTable;
+import com.lifeline.openicu.bed.entity.BedType;
+import com.lifeline.openicu.realtime.ambulance.AmbulanceEventPublisher;
+import com.lifeline.openicu.realtime.ambulance.AmbulanceRealtimeService;
+import com.lifeline.openicu.realtime.ambulance.dto.AmbulancePositionUpdate;
+import com.lifeline.openicu.realtime.codec.CompactEventCodec;
+import com.lifeline.openicu.realtime.codec.RealtimeEventSender;
+import com.lifeline.openicu.realtime.codec.WireFormatInterceptor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the service against the real realtime stack down to the messaging
+ * template, whose channel only records the destinations sent to.
+ */
+class AmbulanceTrackingServiceTests {
+
+    private static final long MAX_SKEW_MILLIS = 30_000;
+    private static final long IDLE_TTL_MILLIS = 60_000;
+
+    private final List<String> destinations = new ArrayList<>();
+    private final List<Object> applicationEvents = new ArrayList<>();
+    private final AmbulanceTrackingTable table = new AmbulanceTrackingTable();
+
+    private AmbulanceTrackingService service;
+
+    @BeforeEach
+    void setUp() {
+        SimpMessagingTemplate template = new SimpMessagingTemplate((Message<?> message, long timeout) -> {
+            destinations.add(SimpMessageHeaderAccessor.getDestination(message.getHeaders()));
+            return true;
+        });
+        AmbulanceRealtimeService realtimeService = new AmbulanceRealtimeService(new AmbulanceEventPublisher(
+                new RealtimeEventSender(template, new CompactEventCodec(), new WireFormatInterceptor("simple", true), "simple",
+                        false)));
+        service = new AmbulanceTrackingService(table, realtimeService, applicationEvents::add,
+                MAX_SKEW_MILLIS, IDLE_TTL_MILLIS);
+    }
+
+    @Test
+    void fixesFanOutOnlyToTheAssignedHospital() {
+        service.recordPosition(fix("AMB-1", System.currentTimeMillis()));
+        assertThat(destinations).isEmpty();
+
+        service.assignReservation(reservation("AMB-1", 42L), BedType.ICU);
+        service.recordPosition(fix("AMB-1", System.currentTimeMillis() + 1));
+
+        assertThat(destinations).containsExactly("/topic/hospitals/42/ambulances");
+        assertThat(applicationEvents).hasSize(1);
+        assertThat(service.getAcceptedFixes()).isEqualTo(2);
+    }
+
+    @Test
+    void onlyAmbulancesWithAReservationAreHandedToTheEtaPassOncePerFix() {
+        long now = System.currentTimeMillis();
+        service.assignReservation(reservation("AMB-3", 42L), BedType.ICU);
+        service.recordPosition(fix("AMB-3", now));
+        service.recordPosition(fix("AMB-3", now + 1));
+        service.recordPosition(fix("AMB-4", now));
+
+        assertThat(service.drainMoved()).containsExactly("AMB-3");
+        assertThat(service.drainMoved()).isEmpty();
+
+        service.recordPosition(fix("AMB-3", now + 2));
+        assertThat(service.drainMoved()).containsExactly("AMB-3");
+    }
+
+    @Test
+    void farFutureFixIsRejectedAndDoesNotBlockLaterFixes() {
+        long now = System.currentTimeMillis();
+        service.recordPosition(fix("AMB-2", now + 10 * MAX_SKEW_MILLIS));
+        service.recordPosition(fix("AMB-2", now));
+        service.recordPosition(fix("AMB-2", now + 1000));
+
+        assertThat(service.getRejectedFixes()).isEqualTo(1);
+        assertThat(service.getAcceptedFixes()).isEqualTo(2);
+        assertThat(table.get("AMB-2").orElseThrow().getFixTimeMillis()).isEqualTo(now + 1000);
+    }
+
+    @Test
+    void scheduledEvictionDropsAmbulancesIdleLongerThanTheTtl() {
+        long now = System.currentTimeMillis();
+        service.recordPosition(fix("AMB-STALE", now - 2 * IDLE_TTL_MILLIS));
+        service.recordPosition(fix("AMB-FRESH", now));
+
+        service.evictIdle();
+
+        assertThat(table.get("AMB-STALE")).isEmpty();
+        assertThat(table.get("AMB-FRESH")).isPresent();
+    }
+
+    private static AmbulancePositionUpdate fix(String ambulanceId, long timestamp) {
+        return new AmbulancePositionUpdate(ambulanceId, -33.87, 151.21, 40.0, 90.0, timestamp);
+    }
+
+    private static BedReservation reservation(String ambulanceId, Long hospitalId) {
+        BedReservation reservation = new BedReservation(hospitalId, 1L, ambulanceId);
+        reservation.setId(UUID.randomUUID());
+        return reservation;
+    }
+}
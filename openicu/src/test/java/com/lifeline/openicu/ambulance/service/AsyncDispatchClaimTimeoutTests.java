@@ -0,0 +1,112 @@
+package com.lifeline.openicu.ambulance.service;
+
+import com.lifeline.openicu.ambulance.dto.AmbulanceRequestDTO;
+import com.lifeline.openicu.ambulance.dto.ReassignRequestDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * The bed (or reservation) is row-locked by the test while the claim runs,
+ * so the claim commits only after the dispatch has already timed out.
+ */
+@SpringBootTest(properties = "openicu.dispatch.async.claim-timeout-ms=100")
+class AsyncDispatchClaimTimeoutTests {
+
+    @Autowired
+    private AsyncDispatchService asyncDispatchService;
+
+    @Autowired
+    private AmbulanceRoutingService ambulanceRoutingService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void reservationCommittedAfterTheClaimTimeoutIsCancelled() throws Exception {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.update("INSERT INTO hospitals (name, latitude, longitude, state, district, total_num_beds, "
+                + "created_at, updated_at) VALUES ('Late Canberra', -35.28, 149.13, 'ACT', 'Canberra', 10, ?, ?)",
+                now, now);
+        Long hospitalId = jdbcTemplate.queryForObject(
+                "SELECT id FROM hospitals WHERE name = 'Late Canberra'", Long.class);
+        jdbcTemplate.update("INSERT INTO beds (bed_number, hospital_id, bed_type, bed_status, created_at, updated_at) "
+                + "VALUES ('T1', ?, 'ICU', 'AVAILABLE', ?, ?)", hospitalId, now, now);
+        Long bedId = jdbcTemplate.queryForObject("SELECT id FROM beds WHERE hospital_id = ?", Long.class, hospitalId);
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            jdbcTemplate.queryForObject("SELECT id FROM beds WHERE id = ? FOR UPDATE", Long.class, bedId);
+            assertThatThrownBy(() -> asyncDispatchService.dispatch(
+                    new AmbulanceRequestDTO("AMB-LATE", -35.30, 149.10, "ICU")).get(2, TimeUnit.SECONDS))
+                    .isInstanceOf(ExecutionException.class)
+                    .hasCauseInstanceOf(TimeoutException.class);
+        });
+
+        // The claim now commits and must give the bed straight back
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!"CANCELLED".equals(statusOf("AMB-LATE")) && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+        assertThat(statusOf("AMB-LATE")).isEqualTo("CANCELLED");
+    }
+
+    @Test
+    void reassignCommittedAfterTheClaimTimeoutIsKept() throws Exception {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.update("INSERT INTO hospitals (name, latitude, longitude, state, district, total_num_beds, "
+                + "created_at, updated_at) VALUES ('Late Wagga', -35.12, 147.37, 'NSW', 'Wagga', 10, ?, ?)",
+                now, now);
+        Long hospitalId = jdbcTemplate.queryForObject(
+                "SELECT id FROM hospitals WHERE name = 'Late Wagga'", Long.class);
+        jdbcTemplate.update("INSERT INTO beds (bed_number, hospital_id, bed_type, bed_status, created_at, updated_at) "
+                + "VALUES ('W1', ?, 'ICU', 'AVAILABLE', ?, ?)", hospitalId, now, now);
+        UUID previousId = ambulanceRoutingService.reserveNearestBed(
+                new AmbulanceRequestDTO("AMB-LATE-REASSIGN", -35.10, 147.30, "ICU")).reservation().getId();
+
+        // Row-lock the reservation so the reassign claim blocks until the dispatch has timed out
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            jdbcTemplate.queryForObject("SELECT status FROM bed_reservations WHERE id = ? FOR UPDATE",
+                    String.class, previousId);
+            assertThatThrownBy(() -> asyncDispatchService.reassign(previousId,
+                    new ReassignRequestDTO(-35.11, 147.35, null)).get(2, TimeUnit.SECONDS))
+                    .isInstanceOf(ExecutionException.class)
+                    .hasCauseInstanceOf(TimeoutException.class);
+        });
+
+        // The swap commits late and must leave the ambulance with the new bed
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (reservedCount("AMB-LATE-REASSIGN", previousId) == 0 && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+        Thread.sleep(200); // an (incorrect) cancel of the new reservation would land by now
+        assertThat(reservedCount("AMB-LATE-REASSIGN", previousId)).isEqualTo(1);
+        assertThat(jdbcTemplate.queryForObject("SELECT status FROM bed_reservations WHERE id = ?", String.class,
+                previousId)).isEqualTo("CANCELLED");
+    }
+
+    private int reservedCount(String ambulanceId, UUID excluding) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM bed_reservations WHERE ambulance_id = ? "
+                + "AND status = 'RESERVED' AND id <> ?", Integer.class, ambulanceId, excluding);
+    }
+
+    private String statusOf(String ambulanceId) {
+        return jdbcTemplate.query("SELECT status FROM bed_reservations WHERE ambulance_id = ?",
+                rs -> rs.next() ? rs.getString(1) : null, ambulanceId);
+    }
+}
@@ -0,0 +1,171 @@
+package com.lifeline.openicu.ambulance.service;
+
+import com.lifeline.openicu.ambulance.dto.AmbulanceRequestDTO;
+import com.lifeline.openicu.ambulance.dto.BatchDispatchResultDTO;
+import com.lifeline.openicu.ambulance.dto.DispatchAcceptedDTO;
+import com.lifeline.openicu.ambulance.dto.HospitalMatchDTO;
+import com.lifeline.openicu.ambulance.dto.UnassignedAmbulanceDTO;
+import com.lifeline.openicu.ambulance.service.AsyncDispatchService.Dispatch;
+import com.lifeline.openicu.routing.dto.RouteResponse;
+import com.lifeline.openicu.routing.service.RoutingService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Routing here takes far longer than the route timeout, so the reservation
+ * must come back before any route exists and the route must fall back.
+ */
+@SpringBootTest(properties = {
+        "spring.main.allow-bean-definition-overriding=true",
+        "openicu.dispatch.async.route-timeout-ms=200"
+})
+class AsyncDispatchServiceTests {
+
+    private static final long ROUTE_DELAY_MILLIS = 3000;
+
+    @Autowired
+    private AsyncDispatchService asyncDispatchService;
+
+    @Autowired
+    private AmbulanceRoutingService ambulanceRoutingService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void reservationIsConfirmedBeforeASlowRouteAndTheRouteFallsBack() throws Exception {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.update("INSERT INTO hospitals (name, latitude, longitude, state, district, total_num_beds, "
+                + "created_at, updated_at) VALUES ('Async Hospital', -33.87, 151.21, 'NSW', 'Sydney', 10, ?, ?)",
+                now, now);
+        Long hospitalId = jdbcTemplate.queryForObject(
+                "SELECT id FROM hospitals WHERE name = 'Async Hospital'", Long.class);
+        jdbcTemplate.update("INSERT INTO beds (bed_number, hospital_id, bed_type, bed_status, created_at, updated_at) "
+                + "VALUES ('A1', ?, 'ICU', 'AVAILABLE', ?, ?)", hospitalId, now, now);
+
+        AmbulanceRequestDTO request = new AmbulanceRequestDTO();
+        request.setAmbulanceId("AMB-ASYNC");
+        request.setLatitude(-33.80);
+        request.setLongitude(151.10);
+        request.setRequiredBedType("ICU");
+
+        long started = System.nanoTime();
+        Dispatch dispatch = asyncDispatchService.dispatch(request).get(ROUTE_DELAY_MILLIS, TimeUnit.MILLISECONDS);
+
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started)).isLessThan(ROUTE_DELAY_MILLIS);
+        assertThat(dispatch.accepted().getHospitalId()).isEqualTo(hospitalId);
+        assertThat(dispatch.accepted().getReservationId()).isNotNull();
+        assertThat(dispatch.route()).isNotDone();
+
+        HospitalMatchDTO routed = dispatch.route().get(ROUTE_DELAY_MILLIS, TimeUnit.MILLISECONDS);
+        assertThat(routed.getEncodedPolyline()).isNull();
+        assertThat(routed.getRouteCoordinates()).hasSize(2);
+        assertThat(routed.getBedId()).isEqualTo(dispatch.accepted().getBedId());
+    }
+
+    @Test
+    void batchGivesTheContestedBedToTheAmbulanceWithoutAGoodAlternative() throws Exception {
+        // One ICU bed each on a line of longitude: NEAR at 115.80, FAR at 116.80
+        Long nearId = seedHospitalWithIcuBed("Batch Near", -31.95, 115.80);
+        Long farId = seedHospitalWithIcuBed("Batch Far", -31.95, 116.80);
+
+        // Greedy in request order sends A to NEAR and B all the way to FAR
+        List<AmbulanceRequestDTO> batch = List.of(
+                new AmbulanceRequestDTO("AMB-BATCH-A", -31.95, 116.20, "ICU"),
+                new AmbulanceRequestDTO("AMB-BATCH-B", -31.95, 115.90, "ICU"),
+                new AmbulanceRequestDTO("AMB-BATCH-C", -31.95, 116.00, "ICU"));
+
+        BatchDispatchResultDTO result = asyncDispatchService.dispatchBatch(batch)
+                .get(ROUTE_DELAY_MILLIS, TimeUnit.MILLISECONDS);
+
+        Map<String, Long> hospitalByAmbulance = result.getAssigned().stream()
+                .collect(Collectors.toMap(DispatchAcceptedDTO::getAmbulanceId, DispatchAcceptedDTO::getHospitalId));
+        assertThat(hospitalByAmbulance).containsOnly(Map.entry("AMB-BATCH-A", farId),
+                Map.entry("AMB-BATCH-B", nearId));
+        assertThat(result.getUnassigned()).extracting(UnassignedAmbulanceDTO::getAmbulanceId)
+                .containsExactly("AMB-BATCH-C");
+        assertThat(result.getAssigned()).allSatisfy(accepted -> assertThat(accepted.getReservationId()).isNotNull());
+    }
+
+    @Test
+    void syncDispatchDoesNotHoldTheBedLockWhileRouting() throws Exception {
+        Long hospitalId = seedHospitalWithIcuBed("Sync Adelaide", -34.93, 138.60);
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.update("INSERT INTO beds (bed_number, hospital_id, bed_type, bed_status, created_at, updated_at) "
+                + "VALUES ('B2', ?, 'ICU', 'AVAILABLE', ?, ?)", hospitalId, now, now);
+
+        CompletableFuture<HospitalMatchDTO> routed = CompletableFuture.supplyAsync(() -> ambulanceRoutingService
+                .findNearestHospital(new AmbulanceRequestDTO("AMB-SYNC-A", -34.90, 138.55, "ICU")));
+        // Wait for the first claim to commit; its route is still in flight
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+        while (reservationsFor("AMB-SYNC-A") == 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(routed).isNotDone();
+
+        long started = System.nanoTime();
+        BedClaim second = ambulanceRoutingService.reserveNearestBed(
+                new AmbulanceRequestDTO("AMB-SYNC-B", -34.90, 138.55, "ICU"));
+
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started)).isLessThan(ROUTE_DELAY_MILLIS / 2);
+        assertThat(second.hospital().getId()).isEqualTo(hospitalId);
+        assertThat(routed).isNotDone();
+        assertThat(routed.get(2 * ROUTE_DELAY_MILLIS, TimeUnit.MILLISECONDS).getBedId())
+                .isNotEqualTo(second.bed().getId());
+    }
+
+    private int reservationsFor(String ambulanceId) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM bed_reservations WHERE ambulance_id = ?",
+                Integer.class, ambulanceId);
+    }
+
+    private Long seedHospitalWithIcuBed(String name, double latitude, double longitude) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.update("INSERT INTO hospitals (name, latitude, longitude, state, district, total_num_beds, "
+                + "created_at, updated_at) VALUES (?, ?, ?, 'WA', 'Perth', 10, ?, ?)",
+                name, latitude, longitude, now, now);
+        Long hospitalId = jdbcTemplate.queryForObject("SELECT id FROM hospitals WHERE name = ?", Long.class, name);
+        jdbcTemplate.update("INSERT INTO beds (bed_number, hospital_id, bed_type, bed_status, created_at, updated_at) "
+                + "VALUES ('B1', ?, 'ICU', 'AVAILABLE', ?, ?)", hospitalId, now, now);
+        return hospitalId;
+    }
+
+    @TestConfiguration
+    static class SlowRouting {
+
+        @Bean
+        RoutingService graphHopperCloudService() {
+            return new RoutingService() {
+                @Override
+                public RouteResponse getRoute(double fromLat, double fromLon, double toLat, double toLon) {
+                    return getRoute(fromLat, fromLon, toLat, toLon, "car");
+                }
+
+                @Override
+                public RouteResponse getRoute(double fromLat, double fromLon, double toLat, double toLon,
+                        String profile) {
+                    try {
+                        Thread.sleep(ROUTE_DELAY_MILLIS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return new RouteResponse(1000, 60000, List.of(), "slow");
+                }
+            };
+        }
+    }
+}
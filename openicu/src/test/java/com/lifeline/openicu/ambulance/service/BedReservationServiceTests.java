@@ -0,0 +1,142 @@
+package com.lifeline.openicu.ambulance.service;
+
+import com.lifeline.openicu.ambulance.dto.AmbulanceRequestDTO;
+import com.lifeline.openicu.ambulance.dto.ReassignRequestDTO;
+import com.lifeline.openicu.ambulance.entity.ReservationStatus;
+import com.lifeline.openicu.ambulance.exception.ReservationConflictException;
+import com.lifeline.openicu.ambulance.tracking.AmbulanceTrackingTable;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+class BedReservationServiceTests {
+
+    @Autowired
+    private BedReservationService bedReservationService;
+
+    @Autowired
+    private AmbulanceRoutingService ambulanceRoutingService;
+
+    @Autowired
+    private AmbulanceTrackingTable trackingTable;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void confirmOccupiesTheBedAndCannotBeRepeated() {
+        Long bedId = seedHospitalWithIcuBed("Lifecycle Darwin", -12.46, 130.84);
+        BedClaim claim = ambulanceRoutingService.reserveNearestBed(
+                new AmbulanceRequestDTO("AMB-CONFIRM", -12.40, 130.90, "ICU"));
+        UUID reservationId = claim.reservation().getId();
+        assertThat(claim.bed().getId()).isEqualTo(bedId);
+
+        bedReservationService.confirm(reservationId);
+
+        assertThat(bedStatus(bedId)).isEqualTo("OCCUPIED");
+        assertThat(reservationStatus(reservationId)).isEqualTo(ReservationStatus.CONFIRMED.name());
+        assertThatThrownBy(() -> bedReservationService.confirm(reservationId))
+                .isInstanceOf(ReservationConflictException.class);
+        assertThatThrownBy(() -> bedReservationService.cancel(reservationId))
+                .isInstanceOf(ReservationConflictException.class);
+    }
+
+    @Test
+    void cancelReturnsTheBedToThePool() {
+        Long bedId = seedHospitalWithIcuBed("Lifecycle Hobart", -42.88, 147.33);
+        AmbulanceRequestDTO request = new AmbulanceRequestDTO("AMB-CANCEL-A", -42.80, 147.30, "ICU");
+        UUID reservationId = ambulanceRoutingService.reserveNearestBed(request).reservation().getId();
+
+        bedReservationService.cancel(reservationId);
+
+        assertThat(reservationStatus(reservationId)).isEqualTo(ReservationStatus.CANCELLED.name());
+        assertThat(bedStatus(bedId)).isEqualTo("AVAILABLE");
+        BedClaim next = ambulanceRoutingService.reserveNearestBed(
+                new AmbulanceRequestDTO("AMB-CANCEL-B", -42.80, 147.30, "ICU"));
+        assertThat(next.bed().getId()).isEqualTo(bedId);
+    }
+
+    @Test
+    void reassignMovesTheReservationToTheNearestBedFromTheNewPosition() {
+        Long cairnsBedId = seedHospitalWithIcuBed("Lifecycle Cairns", -16.92, 145.77);
+        Long mountIsaBedId = seedHospitalWithIcuBed("Lifecycle Mount Isa", -20.73, 139.49);
+        UUID reservationId = ambulanceRoutingService.reserveNearestBed(
+                new AmbulanceRequestDTO("AMB-REASSIGN", -16.90, 145.70, "ICU")).reservation().getId();
+
+        BedClaim claim = bedReservationService.reassign(reservationId,
+                new ReassignRequestDTO(-20.70, 139.50, null));
+
+        assertThat(claim.bed().getId()).isEqualTo(mountIsaBedId);
+        assertThat(claim.reservation().getAmbulanceId()).isEqualTo("AMB-REASSIGN");
+        assertThat(reservationStatus(reservationId)).isEqualTo(ReservationStatus.CANCELLED.name());
+        assertThat(reservationStatus(claim.reservation().getId())).isEqualTo(ReservationStatus.RESERVED.name());
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM bed_reservations WHERE bed_id = ? "
+                + "AND status = 'RESERVED'", Integer.class, cairnsBedId)).isZero();
+    }
+
+    @Test
+    void failedReassignKeepsTheOriginalReservation() {
+        // No hospital seeds GENERAL beds, so the new claim finds nothing
+        seedHospitalWithIcuBed("Lifecycle Broome", -17.96, 122.24);
+        UUID reservationId = ambulanceRoutingService.reserveNearestBed(
+                new AmbulanceRequestDTO("AMB-REASSIGN-FAIL", -17.90, 122.20, "ICU")).reservation().getId();
+
+        assertThatThrownBy(() -> bedReservationService.reassign(reservationId,
+                new ReassignRequestDTO(-18.00, 122.30, "GENERAL")))
+                .isInstanceOf(ResponseStatusException.class);
+
+        assertThat(reservationStatus(reservationId)).isEqualTo(ReservationStatus.RESERVED.name());
+        assertThat(trackingTable.get("AMB-REASSIGN-FAIL").orElseThrow().getReservationId())
+                .isEqualTo(reservationId);
+    }
+
+    @Test
+    void claimRolledBackWithItsTransactionLeavesTheAmbulanceUnassigned() {
+        seedHospitalWithIcuBed("Lifecycle Mackay", -21.14, 149.19);
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            ambulanceRoutingService.reserveNearestBed(
+                    new AmbulanceRequestDTO("AMB-ROLLBACK", -21.10, 149.10, "ICU"));
+            status.setRollbackOnly();
+        });
+
+        assertThat(trackingTable.get("AMB-ROLLBACK")).isEmpty();
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM bed_reservations WHERE ambulance_id = ?",
+                Integer.class, "AMB-ROLLBACK")).isZero();
+    }
+
+    private Long seedHospitalWithIcuBed(String name, double latitude, double longitude) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.update("INSERT INTO hospitals (name, latitude, longitude, state, district, total_num_beds, "
+                + "created_at, updated_at) VALUES (?, ?, ?, 'AU', 'Lifecycle', 10, ?, ?)",
+                name, latitude, longitude, now, now);
+        Long hospitalId = jdbcTemplate.queryForObject("SELECT id FROM hospitals WHERE name = ?", Long.class, name);
+        jdbcTemplate.update("INSERT INTO beds (bed_number, hospital_id, bed_type, bed_status, created_at, updated_at) "
+                + "VALUES ('L1', ?, 'ICU', 'AVAILABLE', ?, ?)", hospitalId, now, now);
+        return jdbcTemplate.queryForObject("SELECT id FROM beds WHERE hospital_id = ?", Long.class, hospitalId);
+    }
+
+    private String bedStatus(Long bedId) {
+        return jdbcTemplate.queryForObject("SELECT bed_status FROM beds WHERE id = ?", String.class, bedId);
+    }
+
+    private String reservationStatus(UUID reservationId) {
+        return jdbcTemplate.queryForObject("SELECT status FROM bed_reservations WHERE id = ?", String.class,
+                reservationId);
+    }
+}
@@ -0,0 +1,155 @@
+package com.lifeline.openicu.ambulance.service;
+
+import com.lifeline.openicu.ambulance.dto.AmbulanceRequestDTO;
+import com.lifeline.openicu.ambulance.entity.BedReservation;
+import com.lifeline.openicu.ambulance.tracking.AmbulanceTrackingTable;
+import com.lifeline.openicu.realtime.ambulance.dto.AmbulancePositionUpdate;
+import com.lifeline.openicu.routing.dto.RouteResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Passes are run by hand; the scheduled one only fires at startup.
+ * Routes run east along the ambulance's latitude, 0.01 degrees per point.
+ */
+@SpringBootTest(properties = "openicu.tracking.eta.interval-ms=3600000")
+class EtaTrackingServiceTests {
+
+    private static final long MINUTE = 60_000L;
+
+    @Autowired
+    private EtaTrackingService etaTrackingService;
+
+    @Autowired
+    private AmbulanceRoutingService ambulanceRoutingService;
+
+    @Autowired
+    private AmbulanceTrackingService trackingService;
+
+    @Autowired
+    private AmbulanceTrackingTable trackingTable;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void slowRouteExtendsTheReservationToArrivalPlusGrace() {
+        BedReservation reservation = reserve("Eta Geraldton", -28.77, 114.61, "AMB-ETA-SLOW");
+        // 40 minutes to go, well past the default 15 minute expiry but inside the 60 minute hold
+        etaTrackingService.track(reservation, route(-28.78, 114.50, 10, 40 * MINUTE));
+
+        fix("AMB-ETA-SLOW", -28.78, 114.50);
+        etaTrackingService.recomputeEtas();
+
+        assertThat(expiryOf(reservation.getId())).isAfter(reservation.getReservationTime().plusMinutes(44));
+        assertThat(statusOf(reservation.getId())).isEqualTo("RESERVED");
+    }
+
+    @Test
+    void routeLongerThanTheMaximumHoldReleasesTheReservation() {
+        BedReservation reservation = reserve("Eta Kalgoorlie", -30.75, 121.47, "AMB-ETA-FAR");
+        etaTrackingService.track(reservation, route(-30.76, 121.40, 10, 90 * MINUTE));
+
+        fix("AMB-ETA-FAR", -30.76, 121.40);
+        etaTrackingService.recomputeEtas();
+
+        assertThat(statusOf(reservation.getId())).isEqualTo("EXPIRED");
+        assertThat(trackingTable.get("AMB-ETA-FAR").orElseThrow().getReservationId()).isNull();
+    }
+
+    @Test
+    void ambulanceWithoutANewFixIsNotReestimated() {
+        BedReservation reservation = reserve("Eta Albany", -35.02, 117.88, "AMB-ETA-IDLE");
+        etaTrackingService.track(reservation, route(-35.03, 117.80, 10, 40 * MINUTE));
+        fix("AMB-ETA-IDLE", -35.03, 117.80);
+        etaTrackingService.recomputeEtas();
+        LocalDateTime extended = expiryOf(reservation.getId());
+
+        // Put the expiry back; an unchanged fix must not extend it again
+        jdbcTemplate.update("UPDATE bed_reservations SET expiry_time = ? WHERE id = ?",
+                Timestamp.valueOf(reservation.getExpiryTime()), reservation.getId());
+        LocalDateTime restored = expiryOf(reservation.getId());
+        etaTrackingService.recomputeEtas();
+
+        assertThat(extended).isAfter(restored);
+        assertThat(expiryOf(reservation.getId())).isEqualTo(restored);
+    }
+
+    @Test
+    void extensionDoesNotReviveAReservationCancelledMeanwhile() {
+        BedReservation reservation = reserve("Eta Broome", -17.96, 122.24, "AMB-ETA-GONE");
+        etaTrackingService.track(reservation, route(-17.97, 122.17, 10, 40 * MINUTE));
+        int tracked = etaTrackingService.getTrackedCount();
+        LocalDateTime expiry = expiryOf(reservation.getId());
+        // Cancel committed by another request before it got to untrack the route
+        jdbcTemplate.update("UPDATE bed_reservations SET status = 'CANCELLED' WHERE id = ?", reservation.getId());
+
+        fix("AMB-ETA-GONE", -17.97, 122.17);
+        etaTrackingService.recomputeEtas();
+
+        assertThat(statusOf(reservation.getId())).isEqualTo("CANCELLED");
+        assertThat(expiryOf(reservation.getId())).isEqualTo(expiry);
+        assertThat(etaTrackingService.getTrackedCount()).isEqualTo(tracked - 1);
+    }
+
+    @Test
+    void releaseDoesNotExpireAReservationConfirmedMeanwhile() {
+        BedReservation reservation = reserve("Eta Carnarvon", -24.88, 113.66, "AMB-ETA-DONE");
+        etaTrackingService.track(reservation, route(-24.89, 113.59, 10, 90 * MINUTE));
+        jdbcTemplate.update("UPDATE bed_reservations SET status = 'CONFIRMED' WHERE id = ?", reservation.getId());
+
+        fix("AMB-ETA-DONE", -24.89, 113.59);
+        etaTrackingService.recomputeEtas();
+
+        assertThat(statusOf(reservation.getId())).isEqualTo("CONFIRMED");
+        assertThat(trackingTable.get("AMB-ETA-DONE").orElseThrow().getReservationId())
+                .isEqualTo(reservation.getId());
+    }
+
+    private BedReservation reserve(String hospital, double latitude, double longitude, String ambulanceId) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.update("INSERT INTO hospitals (name, latitude, longitude, state, district, total_num_beds, "
+                + "created_at, updated_at) VALUES (?, ?, ?, 'WA', 'Eta', 10, ?, ?)",
+                hospital, latitude, longitude, now, now);
+        Long hospitalId = jdbcTemplate.queryForObject("SELECT id FROM hospitals WHERE name = ?", Long.class, hospital);
+        jdbcTemplate.update("INSERT INTO beds (bed_number, hospital_id, bed_type, bed_status, created_at, updated_at) "
+                + "VALUES ('E1', ?, 'ICU', 'AVAILABLE', ?, ?)", hospitalId, now, now);
+        BedClaim claim = ambulanceRoutingService.reserveNearestBed(
+                new AmbulanceRequestDTO(ambulanceId, latitude - 0.01, longitude - 0.07, "ICU"));
+        assertThat(claim.hospital().getId()).isEqualTo(hospitalId);
+        return claim.reservation();
+    }
+
+    private void fix(String ambulanceId, double latitude, double longitude) {
+        trackingService.recordPosition(new AmbulancePositionUpdate(ambulanceId, latitude, longitude, 0.0, 90.0,
+                System.currentTimeMillis()));
+    }
+
+    private static RouteResponse route(double latitude, double longitude, int segments, long timeMillis) {
+        List<double[]> coordinates = new ArrayList<>();
+        for (int i = 0; i <= segments; i++) {
+            coordinates.add(new double[] { latitude, longitude + i * 0.01 });
+        }
+        return new RouteResponse(segments * 1000.0, timeMillis, coordinates, null);
+    }
+
+    private LocalDateTime expiryOf(UUID reservationId) {
+        return jdbcTemplate.queryForObject("SELECT expiry_time FROM bed_reservations WHERE id = ?",
+                LocalDateTime.class, reservationId);
+    }
+
+    private String statusOf(UUID reservationId) {
+        return jdbcTemplate.queryForObject("SELECT status FROM bed_reservations WHERE id = ?", String.class,
+                reservationId);
+    }
+}
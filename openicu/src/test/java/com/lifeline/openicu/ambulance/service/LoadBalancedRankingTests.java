@@ -0,0 +1,107 @@
+package com.lifeline.openicu.ambulance.service;
+
+import com.lifeline.openicu.ambulance.dto.HospitalMatchDTO;
+import com.lifeline.openicu.ambulance.entity.ReservationStatus;
+import com.lifeline.openicu.ambulance.event.ReservationChangedEvent;
+import com.lifeline.openicu.ambulance.tracking.HospitalLoadTable;
+import com.lifeline.openicu.bed.entity.BedStatus;
+import com.lifeline.openicu.bed.entity.BedType;
+import com.lifeline.openicu.bed.event.BedChangedEvent;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LoadBalancedRankingTests {
+
+    private static final long NEAR = 1L;
+    private static final long SPACIOUS = 2L;
+    private static final long DISTANT = 3L;
+    private static final long UNKNOWN = 4L;
+
+    private final HospitalLoadTable loadTable = new HospitalLoadTable(null);
+
+    @Test
+    void slightlyFartherHospitalWithFreeBedsBeatsTheNearestOnItsLastBed() {
+        addIcuBeds(NEAR, 10, 1);
+        addIcuBeds(SPACIOUS, 20, 20);
+
+        List<HospitalMatchDTO> ranked = AmbulanceRoutingService.rankByLoad(
+                List.of(candidate(NEAR, 2.0), candidate(SPACIOUS, 8.0)), loadTable, BedType.ICU, 15);
+
+        assertThat(ranked).extracting(HospitalMatchDTO::getHospitalId).containsExactly(SPACIOUS, NEAR);
+    }
+
+    @Test
+    void loadNeverOutweighsMoreThanThePenaltyDistance() {
+        addIcuBeds(NEAR, 10, 1);
+        addIcuBeds(DISTANT, 20, 20);
+
+        List<HospitalMatchDTO> ranked = AmbulanceRoutingService.rankByLoad(
+                List.of(candidate(NEAR, 2.0), candidate(DISTANT, 30.0)), loadTable, BedType.ICU, 15);
+
+        assertThat(ranked).extracting(HospitalMatchDTO::getHospitalId).containsExactly(NEAR, DISTANT);
+    }
+
+    @Test
+    void inboundReservationsCountAsTakenUntilReleased() {
+        addIcuBeds(NEAR, 2, 2);
+        addIcuBeds(DISTANT, 2, 2);
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        loadTable.onReservationChanged(new ReservationChangedEvent(first, NEAR, BedType.ICU, ReservationStatus.RESERVED));
+        loadTable.onReservationChanged(new ReservationChangedEvent(second, NEAR, BedType.ICU, ReservationStatus.RESERVED));
+
+        assertThat(loadTable.inbound(NEAR, BedType.ICU)).isEqualTo(2);
+        assertThat(loadTable.freeBeds(NEAR, BedType.ICU)).isZero();
+        // Every bed promised: ranked after hospitals that still have one, however far
+        assertThat(AmbulanceRoutingService.rankByLoad(
+                List.of(candidate(NEAR, 1.0), candidate(DISTANT, 100.0)), loadTable, BedType.ICU, 15))
+                .extracting(HospitalMatchDTO::getHospitalId).containsExactly(DISTANT, NEAR);
+
+        loadTable.onReservationChanged(new ReservationChangedEvent(first, NEAR, null, ReservationStatus.EXPIRED));
+        // A repeated release is ignored
+        loadTable.onReservationChanged(new ReservationChangedEvent(first, NEAR, null, ReservationStatus.EXPIRED));
+
+        assertThat(loadTable.inbound(NEAR, BedType.ICU)).isEqualTo(1);
+        assertThat(loadTable.occupancy(NEAR, BedType.ICU)).isEqualTo(0.5);
+    }
+
+    @Test
+    void unknownLoadAmongIdleHospitalsIsRankedByDistance() {
+        addIcuBeds(SPACIOUS, 20, 20);
+
+        List<HospitalMatchDTO> ranked = AmbulanceRoutingService.rankByLoad(
+                List.of(candidate(NEAR, 2.0), candidate(SPACIOUS, 3.0)), loadTable, BedType.ICU, 15);
+
+        assertThat(loadTable.occupancy(NEAR, BedType.ICU)).isEqualTo(-1);
+        assertThat(ranked).extracting(HospitalMatchDTO::getHospitalId).containsExactly(NEAR, SPACIOUS);
+    }
+
+    @Test
+    void unknownLoadIsScoredAtTheMeanOfTheKnownCandidates() {
+        // 90% and 0% occupied: an unknown hospital counts as 45% occupied
+        addIcuBeds(NEAR, 10, 1);
+        addIcuBeds(SPACIOUS, 20, 20);
+
+        List<HospitalMatchDTO> ranked = AmbulanceRoutingService.rankByLoad(
+                List.of(candidate(NEAR, 2.0), candidate(UNKNOWN, 4.0), candidate(SPACIOUS, 10.0)),
+                loadTable, BedType.ICU, 15);
+
+        // Scores: SPACIOUS 10, UNKNOWN 4 + 6.75, NEAR 2 + 13.5
+        assertThat(ranked).extracting(HospitalMatchDTO::getHospitalId).containsExactly(SPACIOUS, UNKNOWN, NEAR);
+    }
+
+    private void addIcuBeds(long hospitalId, int total, int available) {
+        for (int i = 0; i < total; i++) {
+            BedStatus status = i < available ? BedStatus.AVAILABLE : BedStatus.OCCUPIED;
+            loadTable.onBedChanged(new BedChangedEvent(hospitalId, BedType.ICU, null, status));
+        }
+    }
+
+    private static HospitalMatchDTO candidate(long hospitalId, double distanceKm) {
+        return new HospitalMatchDTO(hospitalId, "Hospital " + hospitalId, distanceKm, 0, 0L, 0, null, null);
+    }
+}
@@ -0,0 +1,110 @@
+package com.lifeline.openicu.ambulance.tracking;
+
+import com.lifeline.openicu.realtime.ambulance.dto.AmbulancePositionEvent;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AmbulanceTrackingTableTests {
+
+    private final AmbulanceTrackingTable table = new AmbulanceTrackingTable();
+
+    @Test
+    void fixesOlderThanTheStoredOneAreRejected() {
+        assertThat(table.recordFix("AMB-1", 10.0, 20.0, 40, 90, 2000)).isNotNull();
+
+        assertThat(table.recordFix("AMB-1", 11.0, 21.0, 40, 90, 1000)).isNull();
+        assertThat(table.get("AMB-1")).get().satisfies(snapshot -> {
+            assertThat(snapshot.getLatitude()).isEqualTo(10.0);
+            assertThat(snapshot.getFixTimeMillis()).isEqualTo(2000);
+        });
+
+        assertThat(table.recordFix("AMB-1", 12.0, 22.0, 40, 90, 3000)).isNotNull();
+        assertThat(table.get("AMB-1").orElseThrow().getLatitude()).isEqualTo(12.0);
+    }
+
+    @Test
+    void fixesCarryTheAssignedReservationUntilItIsReleased() {
+        UUID reservationId = UUID.randomUUID();
+        assertThat(table.recordFix("AMB-2", 10.0, 20.0, 0, 0, 1000).getHospitalId()).isNull();
+
+        table.assign("AMB-2", reservationId, 7L);
+        AmbulancePositionEvent assigned = table.recordFix("AMB-2", 10.1, 20.1, 0, 0, 2000);
+        assertThat(assigned.getHospitalId()).isEqualTo(7L);
+        assertThat(assigned.getReservationUuid()).isEqualTo(reservationId);
+
+        // Releasing a reservation that was already replaced leaves the new one attached
+        table.release("AMB-2", UUID.randomUUID());
+        assertThat(table.get("AMB-2").orElseThrow().getHospitalId()).isEqualTo(7L);
+
+        table.release("AMB-2", reservationId);
+        assertThat(table.recordFix("AMB-2", 10.2, 20.2, 0, 0, 3000).getHospitalId()).isNull();
+    }
+
+    @Test
+    void idleAmbulancesWithoutReservationAreEvicted() {
+        table.recordFix("AMB-IDLE", 10.0, 20.0, 0, 0, 1000);
+        table.recordFix("AMB-ACTIVE", 10.0, 20.0, 0, 0, 5000);
+        table.recordFix("AMB-RESERVED", 10.0, 20.0, 0, 0, 1000);
+        table.assign("AMB-RESERVED", UUID.randomUUID(), 7L);
+
+        assertThat(table.evictIdle(2000)).isEqualTo(1);
+
+        assertThat(table.get("AMB-IDLE")).isEmpty();
+        assertThat(table.get("AMB-ACTIVE")).isPresent();
+        assertThat(table.get("AMB-RESERVED")).isPresent();
+        assertThat(table.size()).isEqualTo(2);
+    }
+
+    @Test
+    void concurrentFixesKeepTheLatestPerAmbulance() throws Exception {
+        int ambulances = 200;
+        int fixesPerAmbulance = 50;
+        List<Runnable> fixes = new ArrayList<>();
+        for (int a = 0; a < ambulances; a++) {
+            String ambulanceId = "AMB-C" + a;
+            for (int t = 1; t <= fixesPerAmbulance; t++) {
+                long fixTime = t;
+                fixes.add(() -> table.recordFix(ambulanceId, fixTime, fixTime, 0, 0, fixTime));
+            }
+        }
+        Collections.shuffle(fixes);
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<?>> done = new ArrayList<>();
+            int chunk = fixes.size() / 8;
+            for (int w = 0; w < 8; w++) {
+                List<Runnable> slice = fixes.subList(w * chunk, w == 7 ? fixes.size() : (w + 1) * chunk);
+                done.add(executor.submit(() -> {
+                    start.await();
+                    slice.forEach(Runnable::run);
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : done) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertThat(table.size()).isEqualTo(ambulances);
+        assertThat(table.snapshot()).allSatisfy(snapshot -> {
+            assertThat(snapshot.getFixTimeMillis()).isEqualTo(fixesPerAmbulance);
+            // Position and time come from the same fix
+            assertThat(snapshot.getLatitude()).isEqualTo(fixesPerAmbulance);
+        });
+    }
+}
@@ -0,0 +1,119 @@
+package com.lifeline.openicu.ambulance.tracking;
+
+import com.lifeline.openicu.util.GeoUtils;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * Routes run east along the equator, where 0.01 degrees of longitude is
+ * about 1.11 km and the projection error is negligible.
+ */
+class RouteProgressTests {
+
+    private static final double OFF_ROUTE_KM = 0.5;
+    private static final long MINUTE = 60_000L;
+
+    @Test
+    void fixBesideTheRouteProjectsOntoTheNearestSegment() {
+        RouteProgress route = equatorRoute(10, 12 * MINUTE);
+        double totalKm = route.getRemainingKm();
+
+        // 0.001 degrees north of the halfway point
+        route.project(0.001, 0.05, OFF_ROUTE_KM);
+
+        assertThat(route.getOffRouteKm()).isCloseTo(0.111, within(0.001));
+        assertThat(route.getRemainingKm()).isCloseTo(totalKm / 2 + route.getOffRouteKm(), within(0.01));
+    }
+
+    @Test
+    void fixBeyondTheWindowIsReacquiredByAFullScan() {
+        RouteProgress route = equatorRoute(40, 40 * MINUTE);
+
+        route.project(0, 0.35, OFF_ROUTE_KM);
+
+        assertThat(route.getOffRouteKm()).isCloseTo(0, within(0.001));
+        assertThat(route.getRemainingKm()).isCloseTo(GeoUtils.haversineKm(0, 0.35, 0, 0.40), within(0.01));
+    }
+
+    @Test
+    void fixWithinTheOffRouteThresholdKeepsTheWindowedMatch() {
+        RouteProgress route = equatorRoute(40, 40 * MINUTE);
+
+        // Threshold large enough that the windowed match (end of segment 16) is accepted
+        route.project(0, 0.35, 100);
+
+        assertThat(route.getOffRouteKm()).isCloseTo(GeoUtils.haversineKm(0, 0.16, 0, 0.35), within(0.05));
+    }
+
+    @Test
+    void cursorAdvancesSoLaterFixesScanFromTheMatchedSegment() {
+        RouteProgress route = equatorRoute(40, 40 * MINUTE);
+        route.project(0, 0.35, OFF_ROUTE_KM);
+
+        // No rescan allowed: a window from the start would stop at segment 16
+        route.project(0, 0.395, 100);
+
+        assertThat(route.getRemainingKm()).isCloseTo(GeoUtils.haversineKm(0, 0.395, 0, 0.40), within(0.01));
+    }
+
+    @Test
+    void estimateBlendsLiveSpeedOnlyWhenMoving() {
+        // 11.12 km in 12 minutes: the router averages 0.927 km/min
+        RouteProgress route = equatorRoute(10, 12 * MINUTE);
+        route.project(0, 0.03, OFF_ROUTE_KM);
+
+        // 7.78 km left
+        assertThat(route.estimateMinutes(4, 5)).isEqualTo(9);
+        assertThat(route.estimateMinutes(120, 5)).isEqualTo(6);
+    }
+
+    @Test
+    void singlePointRouteMeasuresStraightToTheDestination() {
+        RouteProgress route = new RouteProgress("AMB-1", UUID.randomUUID(), 1L, 0, 15 * MINUTE,
+                List.of(new double[] { 0, 0.1 }), 11.12, 10 * MINUTE);
+
+        route.project(0, 0, OFF_ROUTE_KM);
+
+        assertThat(route.getRemainingKm()).isCloseTo(GeoUtils.haversineKm(0, 0, 0, 0.1), within(0.001));
+    }
+
+    @Test
+    void expiryIsExtendedToArrivalPlusGraceButNeverShortened() {
+        RouteProgress route = equatorRoute(10, 12 * MINUTE);
+
+        assertThat(route.extendFor(5 * MINUTE, 5 * MINUTE)).isFalse();
+        assertThat(route.getExpiresAtMillis()).isEqualTo(15 * MINUTE);
+
+        assertThat(route.extendFor(20 * MINUTE, 5 * MINUTE)).isTrue();
+        assertThat(route.getExpiresAtMillis()).isEqualTo(25 * MINUTE);
+
+        assertThat(route.extendFor(18 * MINUTE, 5 * MINUTE)).isFalse();
+        assertThat(route.getExpiresAtMillis()).isEqualTo(25 * MINUTE);
+    }
+
+    @Test
+    void reservationIsHeldOnlyUntilTheMaximumHoldAfterReserving() {
+        RouteProgress route = equatorRoute(10, 12 * MINUTE);
+
+        assertThat(route.canHoldUntil(60 * MINUTE, 60 * MINUTE)).isTrue();
+        assertThat(route.canHoldUntil(60 * MINUTE + 1, 60 * MINUTE)).isFalse();
+    }
+
+    /**
+     * Reserved at time 0 with the default 15 minute expiry.
+     */
+    private static RouteProgress equatorRoute(int segments, long timeMillis) {
+        List<double[]> coordinates = new ArrayList<>();
+        for (int i = 0; i <= segments; i++) {
+            coordinates.add(new double[] { 0, i * 0.01 });
+        }
+        return new RouteProgress("AMB-1", UUID.randomUUID(), 1L, 0, 15 * MINUTE,
+                coordinates, segments * 1.11, timeMillis);
+    }
+}
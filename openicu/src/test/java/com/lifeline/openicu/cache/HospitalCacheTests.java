@@ -0,0 +1,136 @@
+package com.lifeline.openicu.cache;
+
+import com.lifeline.openicu.dto.HospitalListDTO;
+import com.lifeline.openicu.dto.HospitalResponseDTO;
+import com.lifeline.openicu.dto.HospitalSearchCriteria;
+import com.lifeline.openicu.dto.HospitalView;
+import com.lifeline.openicu.entity.Hospital;
+import com.lifeline.openicu.realtime.hospital.HospitalChangedEvent;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HospitalCacheTests {
+
+    private final HospitalCache cache = new HospitalCache(10, 10, 300);
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    void equivalentSearchesShareAnEntry() {
+        search(criteria("Karnataka", null));
+        search(criteria("KARNATAKA", " "));
+
+        assertThat(loads).hasValue(1);
+        assertThat(cache.getStats().get(1).getHitRate()).isEqualTo(0.5);
+    }
+
+    @Test
+    void updateInvalidatesOnlySearchesMatchingTheOldOrNewState() {
+        search(criteria("karnataka", null));
+        search(criteria("kerala", null));
+        search(criteria("goa", null));
+
+        Hospital previous = hospital(1L, "Karnataka");
+        Hospital updated = hospital(1L, "Kerala");
+        cache.onHospitalChanged(new HospitalChangedEvent(previous, updated));
+
+        assertThat(cache.getStats().get(1).getInvalidations()).isEqualTo(2);
+        search(criteria("goa", null));
+        assertThat(loads).hasValue(3);
+        search(criteria("karnataka", null));
+        search(criteria("kerala", null));
+        assertThat(loads).hasValue(5);
+    }
+
+    @Test
+    void detailIsInvalidatedOnUpdate() {
+        cache.getDetail(1L, this::loadDetail);
+        cache.getDetail(1L, this::loadDetail);
+        assertThat(loads).hasValue(1);
+
+        cache.onHospitalChanged(new HospitalChangedEvent(hospital(1L, "Goa"), hospital(1L, "Goa")));
+        cache.getDetail(1L, this::loadDetail);
+
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void callersCannotModifyACachedDetail() {
+        HospitalResponseDTO first = cache.getDetail(1L, () -> detail("City Hospital"));
+        first.setName("Renamed by caller");
+
+        HospitalResponseDTO second = cache.getDetail(1L, () -> detail("unused"));
+        second.setTotalNumBeds(-1);
+
+        assertThat(cache.getDetail(1L, () -> detail("unused")))
+                .extracting(HospitalResponseDTO::getName, HospitalResponseDTO::getTotalNumBeds)
+                .containsExactly("City Hospital", 40);
+    }
+
+    @Test
+    void callersCannotModifyACachedPage() {
+        HospitalListDTO row = new HospitalListDTO(1L, "City Hospital", 12.9, 77.6, "Karnataka", "Bengaluru");
+        Page<?> first = cache.getSearch(criteria("karnataka", null), PageRequest.of(0, 20), HospitalView.LIST,
+                () -> new PageImpl<>(List.of(row), PageRequest.of(0, 20), 1));
+        ((HospitalListDTO) first.getContent().get(0)).setName("Renamed by caller");
+
+        Page<?> second = search(criteria("karnataka", null));
+
+        assertThat(loads).hasValue(0);
+        assertThat(second.getTotalElements()).isEqualTo(1);
+        assertThat(((HospitalListDTO) second.getContent().get(0)).getName()).isEqualTo("City Hospital");
+    }
+
+    @Test
+    void likeWildcardsInCriteriaMatchLiterally() {
+        Hospital hospital = hospital(1L, "Karnataka");
+        hospital.setName("1000 Beds Hospital");
+
+        assertThat(HospitalCache.matches(HospitalCache.normalize(criteria(null, "100%")), hospital)).isFalse();
+        assertThat(HospitalCache.matches(HospitalCache.normalize(criteria(null, "1_00")), hospital)).isFalse();
+        hospital.setName("100% Care_Centre");
+        assertThat(HospitalCache.matches(HospitalCache.normalize(criteria(null, "100%")), hospital)).isTrue();
+        assertThat(HospitalCache.matches(HospitalCache.normalize(criteria(null, "care_c")), hospital)).isTrue();
+    }
+
+    private Page<?> search(HospitalSearchCriteria criteria) {
+        return cache.getSearch(criteria, PageRequest.of(0, 20), HospitalView.LIST, () -> {
+            loads.incrementAndGet();
+            return new PageImpl<>(List.of());
+        });
+    }
+
+    private HospitalResponseDTO loadDetail() {
+        loads.incrementAndGet();
+        return new HospitalResponseDTO();
+    }
+
+    private HospitalResponseDTO detail(String name) {
+        HospitalResponseDTO dto = new HospitalResponseDTO();
+        dto.setId(1L);
+        dto.setName(name);
+        dto.setTotalNumBeds(40);
+        return dto;
+    }
+
+    private HospitalSearchCriteria criteria(String state, String keyword) {
+        HospitalSearchCriteria criteria = new HospitalSearchCriteria();
+        criteria.setState(state);
+        criteria.setKeyword(keyword);
+        return criteria;
+    }
+
+    private Hospital hospital(Long id, String state) {
+        Hospital hospital = new Hospital();
+        hospital.setId(id);
+        hospital.setName("City Hospital");
+        hospital.setState(state);
+        return hospital;
+    }
+}
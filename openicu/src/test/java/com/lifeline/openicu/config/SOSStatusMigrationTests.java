@@ -0,0 +1,101 @@
+package com.lifeline.openicu.config;
+
+import com.lifeline.openicu.sos.entity.SOSStatus;
+import com.lifeline.openicu.sos.repository.SOSReportRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+class SOSStatusMigrationTests {
+
+    @Autowired
+    private SOSStatusMigration migration;
+
+    @Autowired
+    private SOSReportRepository sosReportRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void removeLegacyRows() {
+        jdbcTemplate.update("DELETE FROM sos_reports WHERE offline_id LIKE 'legacy-%'");
+    }
+
+    @Test
+    void legacyStatusesAreNormalizedAndRowsLoadAgain() {
+        useLegacyStatusColumn();
+        Long lowerCase = insertLegacy("legacy-1", "acknowledged");
+        Long padded = insertLegacy("legacy-2", " Resolved ");
+        Long escalated = insertLegacy("legacy-3", "escalated");
+        Long closed = insertLegacy("legacy-5", " Closed");
+
+        migration.run();
+
+        assertThat(sosReportRepository.findById(lowerCase).orElseThrow().getStatus())
+                .isEqualTo(SOSStatus.ACKNOWLEDGED);
+        assertThat(sosReportRepository.findById(padded).orElseThrow().getStatus()).isEqualTo(SOSStatus.RESOLVED);
+        assertThat(sosReportRepository.findById(escalated).orElseThrow().getStatus())
+                .isEqualTo(SOSStatus.DISPATCHED);
+        assertThat(sosReportRepository.findById(closed).orElseThrow().getStatus()).isEqualTo(SOSStatus.RESOLVED);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM sos_reports WHERE version IS NULL",
+                Integer.class)).isZero();
+    }
+
+    @Test
+    void unmappedStatusesFailTheMigrationBeforeAnythingChanges() {
+        useLegacyStatusColumn();
+        Long lowerCase = insertLegacy("legacy-6", "acknowledged");
+        insertLegacy("legacy-7", "triaged");
+        insertLegacy("legacy-8", null);
+
+        assertThatThrownBy(() -> migration.run())
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("triaged")
+                .hasMessageContaining("null");
+
+        assertThat(jdbcTemplate.queryForObject("SELECT status FROM sos_reports WHERE id = ?", String.class,
+                lowerCase)).isEqualTo("acknowledged");
+    }
+
+    @Test
+    void migratedRowsAreLeftAlone() {
+        Long id = insertLegacy("legacy-4", "DISPATCHED");
+        jdbcTemplate.update("UPDATE sos_reports SET version = 3 WHERE id = ?", id);
+
+        migration.run();
+
+        assertThat(jdbcTemplate.queryForMap("SELECT status, version FROM sos_reports WHERE id = ?", id))
+                .containsEntry("STATUS", "DISPATCHED")
+                .containsEntry("VERSION", 3L);
+    }
+
+    /**
+     * Before the enum mapping the column was a plain nullable VARCHAR without a value check.
+     */
+    private void useLegacyStatusColumn() {
+        jdbcTemplate.queryForList("SELECT CONSTRAINT_NAME FROM INFORMATION_SCHEMA.TABLE_CONSTRAINTS "
+                + "WHERE TABLE_NAME = 'SOS_REPORTS' AND CONSTRAINT_TYPE = 'CHECK'", String.class)
+                .forEach(name -> jdbcTemplate.execute("ALTER TABLE sos_reports DROP CONSTRAINT " + name));
+        jdbcTemplate.execute("ALTER TABLE sos_reports ALTER COLUMN status VARCHAR(255)");
+        jdbcTemplate.execute("ALTER TABLE sos_reports ALTER COLUMN status SET NULL");
+    }
+
+    private Long insertLegacy(String offlineId, String status) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.update("INSERT INTO sos_reports (latitude, longitude, emergency_type, client_timestamp, "
+                + "server_timestamp, offline_id, status, version) VALUES (10.0, 20.0, 'FIRE', ?, ?, ?, ?, NULL)",
+                now, now, offlineId, status);
+        return jdbcTemplate.queryForObject("SELECT id FROM sos_reports WHERE offline_id = ?", Long.class,
+                offlineId);
+    }
+}
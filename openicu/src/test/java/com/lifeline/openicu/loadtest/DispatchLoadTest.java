@@ -0,0 +1,251 @@
+package com.lifeline.openicu.loadtest;
+
+import com.lifeline.openicu.routing.service.RoutingService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+
+import java.lang.reflect.Type;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * End-to-end dispatch load test on H2, excluded from the default build.
+ *
+ *   mvn -Ploadtest test
+ *   mvn -Ploadtest test -Dloadtest.hospitals=30000 -Dloadtest.durationSeconds=60
+ *
+ * Seeds hospitals and beds around a handful of city centres, replaces the
+ * GraphHopper client with LatencyInjectingRoutingService, then runs closed-loop
+ * ambulance find-nearest, bed status, SOS and STOMP subscriber traffic for a
+ * fixed duration. Reports throughput, p50/p99/p999 latency per traffic type and
+ * the number of beds left with more than one active reservation.
+ */
+@Tag("load")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:loadtest;DB_CLOSE_DELAY=-1",
+        "spring.main.allow-bean-definition-overriding=true",
+        "logging.level.com.lifeline.openicu=WARN"
+})
+class DispatchLoadTest {
+
+    private static final double[][] CENTRES = {
+            { 19.076, 72.878 }, { 28.704, 77.102 }, { 12.972, 77.595 }, { 13.083, 80.271 },
+            { 22.573, 88.364 }, { 17.385, 78.487 }, { 23.023, 72.571 }, { 18.520, 73.857 }
+    };
+    private static final double SPREAD_DEGREES = 0.2;
+    private static final String[] TOPICS = { "/topic/ambulance", "/topic/beds", "/topic/sos" };
+
+    private final int hospitals = Integer.getInteger("loadtest.hospitals", 2000);
+    private final int bedsPerHospital = Integer.getInteger("loadtest.bedsPerHospital", 4);
+    private final int durationSeconds = Integer.getInteger("loadtest.durationSeconds", 20);
+    private final int ambulanceThreads = Integer.getInteger("loadtest.ambulanceThreads", 8);
+    private final int bedThreads = Integer.getInteger("loadtest.bedThreads", 2);
+    private final int sosThreads = Integer.getInteger("loadtest.sosThreads", 4);
+    private final int subscribers = Integer.getInteger("loadtest.subscribers", 20);
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final HttpClient http = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    @TestConfiguration
+    static class RoutingStandIn {
+
+        // Same bean name as the GraphHopper client, so it replaces that client
+        @Bean(name = "graphHopperCloudService")
+        RoutingService graphHopperCloudService() {
+            return new LatencyInjectingRoutingService(
+                    Long.getLong("loadtest.routeLatencyMs", 50),
+                    Long.getLong("loadtest.routeJitterMs", 30));
+        }
+    }
+
+    @Test
+    void dispatchUnderConcurrentLoad() throws Exception {
+        List<Long> bedIds = seed();
+
+        AtomicLong frames = new AtomicLong();
+        List<StompSession> sessions = connectSubscribers(frames);
+
+        LatencyRecorder ambulance = new LatencyRecorder("find-nearest");
+        LatencyRecorder beds = new LatencyRecorder("bed-status");
+        LatencyRecorder sos = new LatencyRecorder("sos-report");
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(durationSeconds);
+        ExecutorService workers = Executors.newFixedThreadPool(ambulanceThreads + bedThreads + sosThreads);
+        AtomicLong ambulanceIds = new AtomicLong();
+        for (int i = 0; i < ambulanceThreads; i++) {
+            workers.submit(() -> loop(deadline, ambulance, () -> {
+                double[] point = randomPoint();
+                String body = String.format(Locale.ROOT,
+                        "{\"ambulanceId\":\"AMB-%d\",\"latitude\":%.6f,\"longitude\":%.6f,\"requiredBedType\":\"%s\"}",
+                        ambulanceIds.incrementAndGet(), point[0], point[1],
+                        ThreadLocalRandom.current().nextBoolean() ? "ICU" : "VENTILATOR");
+                return post("/api/ambulance/find-nearest", body);
+            }));
+        }
+        for (int i = 0; i < bedThreads; i++) {
+            workers.submit(() -> loop(deadline, beds, () -> {
+                Long bedId = bedIds.get(ThreadLocalRandom.current().nextInt(bedIds.size()));
+                String status = ThreadLocalRandom.current().nextInt(4) == 0 ? "OCCUPIED" : "AVAILABLE";
+                return send(HttpRequest.newBuilder(uri("/api/beds/" + bedId + "/status"))
+                        .header("Content-Type", "application/json")
+                        .PUT(HttpRequest.BodyPublishers.ofString("{\"bedStatus\":\"" + status + "\"}")));
+            }));
+        }
+        for (int i = 0; i < sosThreads; i++) {
+            workers.submit(() -> loop(deadline, sos, () -> {
+                double[] point = randomPoint();
+                String body = String.format(Locale.ROOT,
+                        "{\"latitude\":%.6f,\"longitude\":%.6f,\"emergencyType\":\"MEDICAL\","
+                                + "\"message\":\"load test\",\"clientTimestamp\":%d,\"offlineId\":\"%s\"}",
+                        point[0], point[1], System.currentTimeMillis(), UUID.randomUUID());
+                return post("/api/sos/report", body);
+            }));
+        }
+        workers.shutdown();
+        assertThat(workers.awaitTermination(durationSeconds + 60L, TimeUnit.SECONDS)).isTrue();
+        sessions.forEach(StompSession::disconnect);
+
+        Long doubleBooked = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM (SELECT bed_id FROM bed_reservations WHERE status = 'RESERVED' "
+                        + "GROUP BY bed_id HAVING COUNT(*) > 1) t", Long.class);
+        Long reservations = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM bed_reservations", Long.class);
+
+        System.out.printf(Locale.ROOT, "%n=== Dispatch load test: %d hospitals, %d beds, %ds ===%n",
+                hospitals, bedIds.size(), durationSeconds);
+        System.out.println(ambulance.summary(durationSeconds));
+        System.out.println(beds.summary(durationSeconds));
+        System.out.println(sos.summary(durationSeconds));
+        System.out.printf(Locale.ROOT, "websocket          %8d frames to %d subscribers (%.1f frames/s)%n",
+                frames.get(), sessions.size(), frames.get() / (double) durationSeconds);
+        System.out.printf(Locale.ROOT, "reservations       %8d created, %d beds double-booked%n%n",
+                reservations, doubleBooked);
+
+        assertThat(ambulance.succeeded()).isPositive();
+        assertThat(ambulance.failed() + beds.failed() + sos.failed()).isZero();
+    }
+
+    private List<Long> seed() {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> hospitalRows = new ArrayList<>(hospitals);
+        for (int i = 0; i < hospitals; i++) {
+            double[] point = randomPoint();
+            hospitalRows.add(new Object[] { "Load Hospital " + i, point[0], point[1], "State", "District", 100, now, now });
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO hospitals (name, latitude, longitude, state, district, total_num_beds, "
+                + "created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?)", hospitalRows);
+
+        List<Long> hospitalIds = jdbcTemplate.queryForList("SELECT id FROM hospitals", Long.class);
+        List<Object[]> bedRows = new ArrayList<>(hospitalIds.size() * bedsPerHospital);
+        for (Long hospitalId : hospitalIds) {
+            for (int b = 0; b < bedsPerHospital; b++) {
+                bedRows.add(new Object[] { "B" + b, hospitalId, b % 2 == 0 ? "ICU" : "VENTILATOR", now, now });
+            }
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO beds (bed_number, hospital_id, bed_type, bed_status, created_at, "
+                + "updated_at) VALUES (?, ?, ?, 'AVAILABLE', ?, ?)", bedRows);
+        return jdbcTemplate.queryForList("SELECT id FROM beds", Long.class);
+    }
+
+    private List<StompSession> connectSubscribers(AtomicLong frames) throws Exception {
+        WebSocketStompClient client = new WebSocketStompClient(new StandardWebSocketClient());
+        StompFrameHandler counter = new StompFrameHandler() {
+            @Override
+            public Type getPayloadType(StompHeaders headers) {
+                return byte[].class;
+            }
+
+            @Override
+            public void handleFrame(StompHeaders headers, Object payload) {
+                frames.incrementAndGet();
+            }
+        };
+
+        List<StompSession> sessions = new ArrayList<>(subscribers);
+        for (int i = 0; i < subscribers; i++) {
+            StompSession session = client.connectAsync("ws://localhost:" + port + "/ws/websocket",
+                    new StompSessionHandlerAdapter() {
+                    }).get(10, TimeUnit.SECONDS);
+            for (String topic : TOPICS) {
+                session.subscribe(topic, counter);
+            }
+            sessions.add(session);
+        }
+        return sessions;
+    }
+
+    private void loop(long deadline, LatencyRecorder recorder, Request request) {
+        while (System.nanoTime() < deadline) {
+            long start = System.nanoTime();
+            int status;
+            try {
+                status = request.send();
+            } catch (Exception e) {
+                status = -1;
+            }
+            recorder.record(System.nanoTime() - start, status);
+        }
+    }
+
+    private int post(String path, String body) throws Exception {
+        return send(HttpRequest.newBuilder(uri(path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body)));
+    }
+
+    private int send(HttpRequest.Builder request) throws Exception {
+        return http.send(request.timeout(Duration.ofSeconds(30)).build(), HttpResponse.BodyHandlers.discarding())
+                .statusCode();
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    private static double[] randomPoint() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        double[] centre = CENTRES[random.nextInt(CENTRES.length)];
+        return new double[] {
+                centre[0] + random.nextGaussian() * SPREAD_DEGREES,
+                centre[1] + random.nextGaussian() * SPREAD_DEGREES };
+    }
+
+    @FunctionalInterface
+    private interface Request {
+        int send() throws Exception;
+    }
+}
@@ -0,0 +1,48 @@
+package com.lifeline.openicu.loadtest;
+
+import com.lifeline.openicu.routing.dto.RouteResponse;
+import com.lifeline.openicu.routing.service.RoutingService;
+import com.lifeline.openicu.util.GeoUtils;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Local stand-in for the GraphHopper API: a straight-line route returned after
+ * a configurable base latency plus uniform jitter, so the load test exercises
+ * the dispatch path with realistic routing waits but no network.
+ */
+class LatencyInjectingRoutingService implements RoutingService {
+
+    private static final double AVERAGE_SPEED_KMH = 40.0;
+
+    private final long baseLatencyMillis;
+    private final long jitterMillis;
+
+    LatencyInjectingRoutingService(long baseLatencyMillis, long jitterMillis) {
+        this.baseLatencyMillis = baseLatencyMillis;
+        this.jitterMillis = jitterMillis;
+    }
+
+    @Override
+    public RouteResponse getRoute(double fromLat, double fromLon, double toLat, double toLon) {
+        return getRoute(fromLat, fromLon, toLat, toLon, "car");
+    }
+
+    @Override
+    public RouteResponse getRoute(double fromLat, double fromLon, double toLat, double toLon, String profile) {
+        long latency = baseLatencyMillis
+                + (jitterMillis > 0 ? ThreadLocalRandom.current().nextLong(jitterMillis + 1) : 0);
+        try {
+            TimeUnit.MILLISECONDS.sleep(latency);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        double km = GeoUtils.haversineKm(fromLat, fromLon, toLat, toLon);
+        long timeMillis = (long) (km / AVERAGE_SPEED_KMH * TimeUnit.HOURS.toMillis(1));
+        return new RouteResponse(km * 1000, timeMillis,
+                List.of(new double[] { fromLat, fromLon }, new double[] { toLat, toLon }), null);
+    }
+}
@@ -0,0 +1,79 @@
+package com.lifeline.openicu.loadtest;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Collects per-request latencies and outcomes for one traffic type and
+ * summarises them as throughput and percentiles.
+ */
+class LatencyRecorder {
+
+    private final String name;
+    private final ReentrantLock lock = new ReentrantLock();
+    private long[] samples = new long[1024];
+    private int count;
+
+    private final LongAdder succeeded = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+
+    LatencyRecorder(String name) {
+        this.name = name;
+    }
+
+    /**
+     * @param status HTTP status, or -1 if the request did not complete
+     */
+    void record(long nanos, int status) {
+        if (status >= 200 && status < 300) {
+            succeeded.increment();
+        } else if (status >= 400 && status < 500) {
+            rejected.increment();
+        } else {
+            failed.increment();
+        }
+        lock.lock();
+        try {
+            if (count == samples.length) {
+                samples = Arrays.copyOf(samples, count * 2);
+            }
+            samples[count++] = nanos;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    long failed() {
+        return failed.sum();
+    }
+
+    long succeeded() {
+        return succeeded.sum();
+    }
+
+    String summary(double seconds) {
+        long[] sorted;
+        lock.lock();
+        try {
+            sorted = Arrays.copyOf(samples, count);
+        } finally {
+            lock.unlock();
+        }
+        Arrays.sort(sorted);
+        return String.format("%-18s %8d req %9.1f req/s  p50 %8.2f ms  p99 %8.2f ms  p999 %8.2f ms"
+                        + "  ok %d  4xx %d  err %d",
+                name, sorted.length, sorted.length / seconds,
+                percentileMillis(sorted, 0.50), percentileMillis(sorted, 0.99), percentileMillis(sorted, 0.999),
+                succeeded.sum(), rejected.sum(), failed.sum());
+    }
+
+    private static double percentileMillis(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))] / 1_000_000.0;
+    }
+}
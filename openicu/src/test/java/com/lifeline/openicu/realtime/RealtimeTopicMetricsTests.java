@@ -0,0 +1,18 @@
+package com.lifeline.openicu.realtime;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RealtimeTopicMetricsTests {
+
+    @Test
+    void topicsAreNormalizedToLowCardinalityTags() {
+        assertThat(RealtimeTopicMetrics.topicOf("/topic/icu")).isEqualTo("/topic/icu");
+        assertThat(RealtimeTopicMetrics.topicOf("/topic/hospitals/42/ambulances"))
+                .isEqualTo("/topic/hospitals/{id}/ambulances");
+        assertThat(RealtimeTopicMetrics.topicOf("/topic/hospitals/42/ambulances.bin"))
+                .isEqualTo("/topic/hospitals/{id}/ambulances.bin");
+        assertThat(RealtimeTopicMetrics.topicOf("/topic/hospitals-userx1y2z3")).isEqualTo("/topic/hospitals");
+    }
+}
@@ -0,0 +1,154 @@
+package com.lifeline.openicu.realtime.backpressure;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.ExecutorSubscribableChannel;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.messaging.support.MessageHandlingRunnable;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Drives the outbound channel with a manual executor so frames stay queued
+ * until the test releases them, like a stalled session.
+ */
+class OutboundBackpressureInterceptorTests {
+
+    private final List<Runnable> pendingTasks = new ArrayList<>();
+    private final List<String> handled = new ArrayList<>();
+
+    private OutboundBackpressureInterceptor interceptor;
+    private ExecutorSubscribableChannel channel;
+
+    @BeforeEach
+    void setUp() {
+        interceptor = new OutboundBackpressureInterceptor(3);
+        channel = new ExecutorSubscribableChannel(pendingTasks::add);
+        channel.addInterceptor(interceptor);
+        channel.subscribe(message -> handled.add((String) message.getPayload()));
+    }
+
+    @Test
+    void queuedFramesWithSameKeyCollapseToLatest() {
+        channel.send(frame("icu:1 v1", "icu:1"));
+        channel.send(frame("icu:2 v1", "icu:2"));
+        channel.send(frame("icu:1 v2", "icu:1"));
+        channel.send(frame("icu:1 v3", "icu:1"));
+
+        drain();
+
+        assertThat(handled).containsExactly("icu:1 v3", "icu:2 v1");
+        assertThat(interceptor.getStats().getCoalesced()).isEqualTo(2);
+        assertThat(interceptor.getStats().getDropped()).isZero();
+    }
+
+    @Test
+    void oldestFramesAreDroppedWhenSessionQueueIsFull() {
+        for (int i = 1; i <= 5; i++) {
+            channel.send(frame("event " + i, "icu:" + i));
+        }
+
+        drain();
+
+        assertThat(handled).containsExactly("event 3", "event 4", "event 5");
+        assertThat(interceptor.getStats().getDropped()).isEqualTo(2);
+        assertThat(interceptor.getStats().getQueued()).isZero();
+    }
+
+    @Test
+    void framesWithoutACollapseKeyAreNeverDropped() {
+        for (int i = 1; i <= 1500; i++) {
+            channel.send(frame("hospital " + i, null));
+        }
+        for (int i = 1; i <= 5; i++) {
+            channel.send(frame("event " + i, "icu:" + i));
+        }
+
+        drain();
+
+        assertThat(handled).hasSize(1503);
+        assertThat(handled.subList(0, 1500)).startsWith("hospital 1").endsWith("hospital 1500");
+        assertThat(handled.subList(1500, 1503)).containsExactly("event 3", "event 4", "event 5");
+        assertThat(interceptor.getStats().getDropped()).isEqualTo(2);
+    }
+
+    @Test
+    void executorQueueHoldsNoFramesForAStalledSession() throws InterruptedException {
+        Message<String> first = frame("event 1", "icu:1");
+        WeakReference<Message<String>> firstFrame = new WeakReference<>(first);
+        channel.send(first);
+        first = null;
+        for (int i = 2; i <= 1000; i++) {
+            channel.send(frame("event " + i, "icu:" + i));
+        }
+
+        // Every send queued a task, but only the placeholders, never the frames
+        assertThat(pendingTasks).hasSize(1000);
+        assertThat(pendingTasks).allSatisfy(task -> assertThat(
+                ((MessageHandlingRunnable) task).getMessage().getPayload()).isEqualTo(new byte[0]));
+        assertThat(interceptor.getStats().getQueued()).isEqualTo(3);
+        // The dropped frame is unreachable although its task is still queued
+        for (int i = 0; i < 20 && firstFrame.get() != null; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        assertThat(firstFrame.get()).isNull();
+
+        drain();
+
+        assertThat(handled).containsExactly("event 998", "event 999", "event 1000");
+    }
+
+    @Test
+    void framesAreNotCollapsedOnceHandled() {
+        channel.send(frame("icu:1 v1", "icu:1"));
+        drain();
+        channel.send(frame("icu:1 v2", "icu:1"));
+        drain();
+
+        assertThat(handled).containsExactly("icu:1 v1", "icu:1 v2");
+        assertThat(interceptor.getStats().getCoalesced()).isZero();
+    }
+
+    @Test
+    void queuedFramesAreReportedPerTopic() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        interceptor.bindTo(registry);
+
+        for (int i = 1; i <= 5; i++) {
+            channel.send(frame("event " + i, "icu:" + i));
+        }
+
+        assertThat(registry.get("openicu.realtime.outbound.queued").tag("topic", "/topic/icu").gauge().value())
+                .isEqualTo(3);
+        drain();
+        assertThat(registry.get("openicu.realtime.outbound.queued").tag("topic", "/topic/icu").gauge().value())
+                .isZero();
+    }
+
+    private void drain() {
+        List<Runnable> tasks = new ArrayList<>(pendingTasks);
+        pendingTasks.clear();
+        tasks.forEach(Runnable::run);
+    }
+
+    private Message<String> frame(String payload, String collapseKey) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setSessionId("session-1");
+        accessor.setSubscriptionId("sub-0");
+        accessor.setDestination("/topic/icu");
+        if (collapseKey != null) {
+            accessor.setHeader(OutboundBackpressureInterceptor.COLLAPSE_KEY_HEADER, collapseKey);
+        }
+        accessor.setLeaveMutable(true);
+        return MessageBuilder.createMessage(payload, accessor.getMessageHeaders());
+    }
+}
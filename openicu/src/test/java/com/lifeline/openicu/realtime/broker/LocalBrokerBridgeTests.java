@@ -0,0 +1,138 @@
+package com.lifeline.openicu.realtime.broker;
+
+import com.lifeline.openicu.OpenicuApplication;
+import com.lifeline.openicu.bed.entity.BedStatus;
+import com.lifeline.openicu.bed.entity.BedType;
+import com.lifeline.openicu.entity.Hospital;
+import com.lifeline.openicu.realtime.ambulance.AmbulanceEventPublisher;
+import com.lifeline.openicu.realtime.beds.dto.BedStatusEvent;
+import com.lifeline.openicu.realtime.beds.publisher.BedEventPublisher;
+import com.lifeline.openicu.realtime.hospital.HospitalRealtimeService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.SubscribableChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.broker.SimpleBrokerMessageHandler;
+import org.springframework.messaging.support.MessageBuilder;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+/**
+ * Starts several application nodes on the in-JVM broker hub and checks that
+ * bed, ambulance and hospital events published on one node reach subscribers
+ * connected to every node.
+ */
+class LocalBrokerBridgeTests {
+
+    private static final int NODE_COUNT = 3;
+    private static final String SESSION_ID = "session-1";
+    private static final List<String> TOPICS = List.of("/topic/beds", "/topic/ambulance", "/topic/hospitals");
+
+    private final List<ConfigurableApplicationContext> nodes = new ArrayList<>();
+    private final List<Map<String, AtomicInteger>> received = new ArrayList<>();
+
+    @BeforeEach
+    void startNodes() {
+        String hubName = "test-" + UUID.randomUUID();
+        for (int i = 0; i < NODE_COUNT; i++) {
+            ConfigurableApplicationContext context = new SpringApplicationBuilder(OpenicuApplication.class)
+                    .properties(
+                            "server.port=0",
+                            "spring.datasource.url=jdbc:h2:mem:" + hubName + "-node" + i + ";DB_CLOSE_DELAY=-1",
+                            "spring.datasource.driver-class-name=org.h2.Driver",
+                            "spring.datasource.username=sa",
+                            "spring.datasource.password=",
+                            "spring.jpa.hibernate.ddl-auto=create-drop",
+                            "openicu.realtime.broker.mode=local",
+                            "openicu.realtime.broker.local-hub=" + hubName)
+                    .run();
+            nodes.add(context);
+            received.add(captureOutbound(context));
+        }
+        for (ConfigurableApplicationContext node : nodes) {
+            connect(node);
+            for (String topic : TOPICS) {
+                subscribe(node, topic);
+            }
+        }
+    }
+
+    @AfterEach
+    void stopNodes() {
+        nodes.forEach(ConfigurableApplicationContext::close);
+    }
+
+    @Test
+    void eventsPublishedOnOneNodeFanOutToAllNodes() {
+        ConfigurableApplicationContext origin = nodes.get(0);
+
+        origin.getBean(BedEventPublisher.class).publishBedStatusChange(
+                new BedStatusEvent(1L, 10L, BedType.ICU, BedStatus.OCCUPIED, System.currentTimeMillis()));
+        origin.getBean(AmbulanceEventPublisher.class).publishAmbulanceAssigned(
+                "AMB-1", 10L, "City Hospital", 1L, "ICU", 4.2);
+
+        Hospital hospital = new Hospital();
+        hospital.setId(10L);
+        hospital.setName("City Hospital");
+        origin.getBean(HospitalRealtimeService.class).broadcastHospitalEvent(hospital, "HOSPITAL_UPDATED");
+
+        await().atMost(Duration.ofSeconds(10)).untilAsserted(() -> {
+            for (Map<String, AtomicInteger> counts : received) {
+                for (String topic : TOPICS) {
+                    assertThat(counts.get(topic)).as(topic).hasValue(1);
+                }
+            }
+        });
+    }
+
+    private Map<String, AtomicInteger> captureOutbound(ConfigurableApplicationContext context) {
+        Map<String, AtomicInteger> counts = new ConcurrentHashMap<>();
+        TOPICS.forEach(topic -> counts.put(topic, new AtomicInteger()));
+        context.getBean("clientOutboundChannel", SubscribableChannel.class).subscribe(message -> {
+            String destination = SimpMessageHeaderAccessor.getDestination(message.getHeaders());
+            if (destination != null && counts.containsKey(destination)) {
+                counts.get(destination).incrementAndGet();
+            }
+        });
+        return counts;
+    }
+
+    private void connect(ConfigurableApplicationContext context) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.CONNECT);
+        accessor.setSessionId(SESSION_ID);
+        accessor.setHeader(SimpMessageHeaderAccessor.HEART_BEAT_HEADER, new long[] { 0, 0 });
+        Message<byte[]> connect = MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+        context.getBean("clientInboundChannel", MessageChannel.class).send(connect);
+    }
+
+    private void subscribe(ConfigurableApplicationContext context, String destination) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.SUBSCRIBE);
+        accessor.setSessionId(SESSION_ID);
+        accessor.setSubscriptionId("sub-" + destination);
+        accessor.setDestination(destination);
+        Message<byte[]> subscribe = MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+        context.getBean("clientInboundChannel", MessageChannel.class).send(subscribe);
+
+        SimpleBrokerMessageHandler broker = context.getBean(SimpleBrokerMessageHandler.class);
+        SimpMessageHeaderAccessor probeHeaders = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        probeHeaders.setDestination(destination);
+        Message<byte[]> probe = MessageBuilder.createMessage(new byte[0], probeHeaders.getMessageHeaders());
+        await().atMost(Duration.ofSeconds(5))
+                .until(() -> !broker.getSubscriptionRegistry().findSubscriptions(probe).isEmpty());
+    }
+}
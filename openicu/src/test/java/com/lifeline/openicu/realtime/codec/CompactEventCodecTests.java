@@ -0,0 +1,259 @@
+package com.lifeline.openicu.realtime.codec;
+
+import com.lifeline.openicu.bed.entity.BedStatus;
+import com.lifeline.openicu.bed.entity.BedType;
+import com.lifeline.openicu.realtime.ambulance.dto.AmbulanceAssignedEvent;
+import com.lifeline.openicu.realtime.ambulance.dto.AmbulancePositionEvent;
+import com.lifeline.openicu.realtime.ambulance.dto.BedReservedEvent;
+import com.lifeline.openicu.realtime.ambulance.dto.EtaUpdatedEvent;
+import com.lifeline.openicu.realtime.ambulance.dto.ReservationCancelledEvent;
+import com.lifeline.openicu.realtime.ambulance.dto.ReservationConfirmedEvent;
+import com.lifeline.openicu.realtime.ambulance.dto.ReservationExpiredEvent;
+import com.lifeline.openicu.realtime.ambulance.dto.ReservationReassignedEvent;
+import com.lifeline.openicu.realtime.beds.dto.BedStatusEvent;
+import com.lifeline.openicu.realtime.beds.dto.ICUAvailabilityEvent;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Decodes every frame field by field against the layout documented on
+ * CompactEventCodec, as a compact client would.
+ */
+class CompactEventCodecTests {
+
+    private static final long TIME = 1_700_000_000_123L;
+    private static final UUID RESERVATION = UUID.fromString("0f1e2d3c-4b5a-6978-8796-a5b4c3d2e1f0");
+    private static final UUID PREVIOUS = UUID.fromString("11111111-2222-3333-4444-555555555555");
+
+    private final CompactEventCodec codec = new CompactEventCodec();
+
+    @Test
+    void bedStatus() {
+        Frame frame = encode(new BedStatusEvent(7L, 3L, BedType.VENTILATOR, BedStatus.OCCUPIED, TIME),
+                CompactEventCodec.TYPE_BED_STATUS);
+
+        assertThat(frame.varLong()).isEqualTo(7);
+        assertThat(frame.varLong()).isEqualTo(3);
+        assertThat(frame.signedByte()).isEqualTo(BedType.VENTILATOR.ordinal());
+        assertThat(frame.signedByte()).isEqualTo(BedStatus.OCCUPIED.ordinal());
+        assertThat(frame.fixedLong()).isEqualTo(TIME);
+        frame.assertConsumed();
+    }
+
+    @Test
+    void bedStatusWithoutTypeOrStatusUsesMinusOne() {
+        Frame frame = encode(new BedStatusEvent(null, 3L, null, null, TIME), CompactEventCodec.TYPE_BED_STATUS);
+
+        assertThat(frame.varLong()).isEqualTo(-1);
+        assertThat(frame.varLong()).isEqualTo(3);
+        assertThat(frame.signedByte()).isEqualTo(-1);
+        assertThat(frame.signedByte()).isEqualTo(-1);
+        assertThat(frame.fixedLong()).isEqualTo(TIME);
+        frame.assertConsumed();
+    }
+
+    @Test
+    void icuAvailability() {
+        Frame frame = encode(new ICUAvailabilityEvent(12L, 150, 4, TIME), CompactEventCodec.TYPE_ICU_AVAILABILITY);
+
+        assertThat(frame.varLong()).isEqualTo(12);
+        assertThat(frame.varLong()).isEqualTo(150);
+        assertThat(frame.varLong()).isEqualTo(4);
+        assertThat(frame.fixedLong()).isEqualTo(TIME);
+        frame.assertConsumed();
+    }
+
+    @Test
+    void ambulanceAssigned() {
+        Frame frame = encode(new AmbulanceAssignedEvent("AMB-1", 12L, "Royal Hôpital", 99L, "ICU", 4.25, TIME),
+                CompactEventCodec.TYPE_AMBULANCE_ASSIGNED);
+
+        assertThat(frame.string()).isEqualTo("AMB-1");
+        assertThat(frame.varLong()).isEqualTo(12);
+        assertThat(frame.string()).isEqualTo("Royal Hôpital");
+        assertThat(frame.varLong()).isEqualTo(99);
+        assertThat(frame.string()).isEqualTo("ICU");
+        assertThat(frame.fixedFloat()).isEqualTo(4.25f);
+        assertThat(frame.fixedLong()).isEqualTo(TIME);
+        frame.assertConsumed();
+    }
+
+    @Test
+    void bedReserved() {
+        Frame frame = encode(new BedReservedEvent(RESERVATION, "AMB-1", 12L, 99L, TIME + 900_000),
+                CompactEventCodec.TYPE_BED_RESERVED);
+
+        assertThat(frame.uuid()).isEqualTo(RESERVATION);
+        assertThat(frame.string()).isEqualTo("AMB-1");
+        assertThat(frame.varLong()).isEqualTo(12);
+        assertThat(frame.varLong()).isEqualTo(99);
+        assertThat(frame.fixedLong()).isEqualTo(TIME + 900_000);
+        frame.assertConsumed();
+    }
+
+    @Test
+    void reservationExpired() {
+        assertReservationLifecycleLayout(new ReservationExpiredEvent(RESERVATION, "AMB-1", 12L, 99L, TIME),
+                CompactEventCodec.TYPE_RESERVATION_EXPIRED);
+    }
+
+    @Test
+    void ambulancePosition() {
+        Frame frame = encode(new AmbulancePositionEvent("AMB-1", -33.868820, 151.209296, 42.5, 270, 12L,
+                RESERVATION, TIME), CompactEventCodec.TYPE_AMBULANCE_POSITION);
+
+        assertThat(frame.string()).isEqualTo("AMB-1");
+        assertThat(frame.varLong()).isEqualTo(12);
+        assertThat(frame.varLong()).isEqualTo(-33_868_820);
+        assertThat(frame.varLong()).isEqualTo(151_209_296);
+        assertThat(frame.fixedFloat()).isEqualTo(42.5f);
+        assertThat(frame.fixedFloat()).isEqualTo(270f);
+        assertThat(frame.fixedLong()).isEqualTo(TIME);
+        frame.assertConsumed();
+    }
+
+    @Test
+    void ambulancePositionWithoutDestination() {
+        Frame frame = encode(new AmbulancePositionEvent("AMB-1", 0, 0, 0, 0, null, null, TIME),
+                CompactEventCodec.TYPE_AMBULANCE_POSITION);
+
+        assertThat(frame.string()).isEqualTo("AMB-1");
+        assertThat(frame.varLong()).isEqualTo(-1);
+    }
+
+    @Test
+    void etaUpdated() {
+        Frame frame = encode(new EtaUpdatedEvent("AMB-1", 12L, RESERVATION, 17, 8.5, TIME + 1_200_000, TIME),
+                CompactEventCodec.TYPE_ETA_UPDATED);
+
+        assertThat(frame.uuid()).isEqualTo(RESERVATION);
+        assertThat(frame.string()).isEqualTo("AMB-1");
+        assertThat(frame.varLong()).isEqualTo(12);
+        assertThat(frame.varLong()).isEqualTo(17);
+        assertThat(frame.fixedFloat()).isEqualTo(8.5f);
+        assertThat(frame.fixedLong()).isEqualTo(TIME + 1_200_000);
+        assertThat(frame.fixedLong()).isEqualTo(TIME);
+        frame.assertConsumed();
+    }
+
+    @Test
+    void reservationConfirmed() {
+        assertReservationLifecycleLayout(new ReservationConfirmedEvent(RESERVATION, "AMB-1", 12L, 99L, TIME),
+                CompactEventCodec.TYPE_RESERVATION_CONFIRMED);
+    }
+
+    @Test
+    void reservationCancelled() {
+        assertReservationLifecycleLayout(new ReservationCancelledEvent(RESERVATION, "AMB-1", 12L, 99L, TIME),
+                CompactEventCodec.TYPE_RESERVATION_CANCELLED);
+    }
+
+    @Test
+    void reservationReassigned() {
+        Frame frame = encode(new ReservationReassignedEvent(PREVIOUS, RESERVATION, "AMB-1", 12L, 99L, 13L, 100L,
+                TIME), CompactEventCodec.TYPE_RESERVATION_REASSIGNED);
+
+        assertThat(frame.uuid()).isEqualTo(PREVIOUS);
+        assertThat(frame.uuid()).isEqualTo(RESERVATION);
+        assertThat(frame.string()).isEqualTo("AMB-1");
+        assertThat(frame.varLong()).isEqualTo(12);
+        assertThat(frame.varLong()).isEqualTo(99);
+        assertThat(frame.varLong()).isEqualTo(13);
+        assertThat(frame.varLong()).isEqualTo(100);
+        assertThat(frame.fixedLong()).isEqualTo(TIME);
+        frame.assertConsumed();
+    }
+
+    @Test
+    void smallFramesStayCompact() {
+        // version, type, 2 one-byte ids, 2 enum bytes, 8-byte timestamp
+        assertThat(codec.encode(new BedStatusEvent(7L, 3L, BedType.ICU, BedStatus.AVAILABLE, TIME))).hasSize(14);
+    }
+
+    @Test
+    void unsupportedEventsAreRejected() {
+        assertThat(codec.supports("not an event")).isFalse();
+        assertThat(codec.supports(new ICUAvailabilityEvent(1L, 0, 0, TIME))).isTrue();
+        assertThatThrownBy(() -> codec.encode("not an event")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void reusedWriterDoesNotLeakThePreviousFrame() {
+        codec.encode(new AmbulanceAssignedEvent("AMB-LONG-NAME", 12L, "x".repeat(200), 99L, "ICU", 1, TIME));
+
+        assertThat(codec.encode(new ICUAvailabilityEvent(1L, 0, 0, TIME))).hasSize(2 + 3 + 8);
+    }
+
+    private void assertReservationLifecycleLayout(Object event, byte type) {
+        Frame frame = encode(event, type);
+
+        assertThat(frame.uuid()).isEqualTo(RESERVATION);
+        assertThat(frame.string()).isEqualTo("AMB-1");
+        assertThat(frame.varLong()).isEqualTo(12);
+        assertThat(frame.varLong()).isEqualTo(99);
+        assertThat(frame.fixedLong()).isEqualTo(TIME);
+        frame.assertConsumed();
+    }
+
+    private Frame encode(Object event, byte type) {
+        assertThat(codec.supports(event)).isTrue();
+        Frame frame = new Frame(ByteBuffer.wrap(codec.encode(event)));
+        assertThat(frame.signedByte()).isEqualTo(CompactEventCodec.VERSION);
+        assertThat(frame.signedByte()).isEqualTo(type);
+        return frame;
+    }
+
+    /**
+     * Reader for the compact layout, the inverse of CompactWriter.
+     */
+    private record Frame(ByteBuffer buffer) {
+
+        int signedByte() {
+            return buffer.get();
+        }
+
+        long varLong() {
+            long zigZag = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = buffer.get();
+                zigZag |= (long) (b & 0x7F) << shift;
+                shift += 7;
+            } while ((b & 0x80) != 0);
+            return (zigZag >>> 1) ^ -(zigZag & 1);
+        }
+
+        long fixedLong() {
+            return buffer.getLong();
+        }
+
+        float fixedFloat() {
+            return buffer.getFloat();
+        }
+
+        String string() {
+            int length = (int) varLong();
+            if (length < 0) {
+                return null;
+            }
+            byte[] bytes = new byte[length];
+            buffer.get(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        UUID uuid() {
+            return new UUID(buffer.getLong(), buffer.getLong());
+        }
+
+        void assertConsumed() {
+            assertThat(buffer.remaining()).isZero();
+        }
+    }
+}
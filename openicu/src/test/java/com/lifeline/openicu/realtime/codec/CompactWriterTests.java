@@ -0,0 +1,78 @@
+package com.lifeline.openicu.realtime.codec;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CompactWriterTests {
+
+    private final CompactWriter writer = new CompactWriter();
+
+    @Test
+    void varintsAreZigZagEncodedLittleEndianGroupsOfSeven() {
+        writer.writeVarLong(0);
+        writer.writeVarLong(-1);
+        writer.writeVarLong(1);
+        writer.writeVarLong(63);
+        writer.writeVarLong(64);
+        writer.writeVarLong(-65);
+
+        assertThat(writer.toByteArray()).containsExactly(
+                0x00,
+                0x01,
+                0x02,
+                0x7E,
+                0x80, 0x01,
+                0x81, 0x01);
+    }
+
+    @Test
+    void extremeVarintsFitInTenBytes() {
+        writer.writeVarLong(Long.MIN_VALUE);
+
+        byte[] bytes = writer.toByteArray();
+        assertThat(bytes).hasSize(10);
+        assertThat(bytes[9]).isEqualTo((byte) 0x01);
+    }
+
+    @Test
+    void nullIdIsMinusOne() {
+        writer.writeNullableId(null);
+        writer.writeNullableId(5L);
+
+        assertThat(writer.toByteArray()).containsExactly(0x01, 0x0A);
+    }
+
+    @Test
+    void longsAndFloatsAreBigEndian() {
+        writer.writeLong(0x0102030405060708L);
+        writer.writeFloat(1.5f);
+
+        ByteBuffer buffer = ByteBuffer.wrap(writer.toByteArray());
+        assertThat(buffer.remaining()).isEqualTo(12);
+        assertThat(buffer.getLong()).isEqualTo(0x0102030405060708L);
+        assertThat(buffer.getFloat()).isEqualTo(1.5f);
+    }
+
+    @Test
+    void stringsAreLengthPrefixedUtf8AndNullIsMinusOne() {
+        writer.writeString("é");
+        writer.writeString("");
+        writer.writeString(null);
+
+        assertThat(writer.toByteArray()).containsExactly(0x04, 0xC3, 0xA9, 0x00, 0x01);
+    }
+
+    @Test
+    void bufferGrowsPastItsInitialSizeAndResetStartsOver() {
+        String longText = "x".repeat(300);
+        writer.writeString(longText);
+        assertThat(writer.toByteArray()).hasSize(2 + 300);
+
+        writer.reset();
+        writer.writeByte(7);
+        assertThat(writer.toByteArray()).containsExactly(7);
+    }
+}
@@ -0,0 +1,73 @@
+package com.lifeline.openicu.realtime.codec;
+
+import com.lifeline.openicu.realtime.beds.dto.ICUAvailabilityEvent;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RealtimeEventSenderTests {
+
+    private final List<String> destinations = new ArrayList<>();
+    private final WireFormatInterceptor wireFormatInterceptor = new WireFormatInterceptor("simple", true);
+    private final SimpMessagingTemplate template = new SimpMessagingTemplate((Message<?> message, long timeout) -> {
+        destinations.add(SimpMessageHeaderAccessor.getDestination(message.getHeaders()));
+        return true;
+    });
+
+    @Test
+    void compactFrameIsOnlyEncodedForLocalCompactSubscribers() {
+        RealtimeEventSender sender = sender("simple", false);
+
+        sender.send("/topic/icu", event());
+        assertThat(destinations).containsExactly("/topic/icu");
+
+        subscribeCompact("/topic/icu.bin");
+        sender.send("/topic/icu", event());
+        assertThat(destinations).containsExactly("/topic/icu", "/topic/icu", "/topic/icu.bin");
+    }
+
+    @Test
+    void multiNodeBrokerPublishesCompactFramesUnlessOptedOut() {
+        sender("relay", true).send("/topic/icu", event());
+        assertThat(destinations).containsExactly("/topic/icu", "/topic/icu.bin");
+
+        destinations.clear();
+        sender("relay", false).send("/topic/icu", event());
+        assertThat(destinations).containsExactly("/topic/icu");
+    }
+
+    @Test
+    void multiNodePublishHasNoEffectOnASingleNodeBroker() {
+        sender("simple", true).send("/topic/icu", event());
+
+        assertThat(destinations).containsExactly("/topic/icu");
+    }
+
+    private RealtimeEventSender sender(String brokerMode, boolean multiNodePublish) {
+        return new RealtimeEventSender(template, new CompactEventCodec(), wireFormatInterceptor, brokerMode,
+                multiNodePublish);
+    }
+
+    private void subscribeCompact(String destination) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.SUBSCRIBE);
+        accessor.setSessionId("s1");
+        accessor.setSessionAttributes(new HashMap<>());
+        accessor.setSubscriptionId("sub-0");
+        accessor.setDestination(destination);
+        wireFormatInterceptor.preSend(MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders()), null);
+    }
+
+    private static ICUAvailabilityEvent event() {
+        return new ICUAvailabilityEvent(1L, 5, 2, System.currentTimeMillis());
+    }
+}
@@ -0,0 +1,127 @@
+package com.lifeline.openicu.realtime.codec;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Feeds client inbound STOMP frames through the interceptor the way the
+ * clientInboundChannel would; session attributes persist across frames.
+ */
+class WireFormatInterceptorTests {
+
+    private final WireFormatInterceptor interceptor = new WireFormatInterceptor("simple", true);
+
+    @Test
+    void compactSessionSubscriptionsAreRewrittenAndCounted() {
+        Map<String, Object> session = connect("s1", "compact");
+
+        assertThat(subscribe(session, "s1", "sub-0", "/topic/beds")).isEqualTo("/topic/beds.bin");
+        assertThat(subscribe(session, "s1", "sub-1", "/topic/hospitals/42/ambulances"))
+                .isEqualTo("/topic/hospitals/42/ambulances.bin");
+
+        assertThat(interceptor.hasCompactSubscribers("/topic/beds")).isTrue();
+        assertThat(interceptor.hasCompactSubscribers("/topic/hospitals/42/ambulances")).isTrue();
+        assertThat(interceptor.hasCompactSubscribers("/topic/icu")).isFalse();
+    }
+
+    @Test
+    void negotiationIsCaseInsensitive() {
+        Map<String, Object> session = connect("s1", "COMPACT");
+
+        assertThat(subscribe(session, "s1", "sub-0", "/topic/icu")).isEqualTo("/topic/icu.bin");
+    }
+
+    @Test
+    void jsonSessionsAndUnsupportedTopicsAreLeftAlone() {
+        Map<String, Object> json = connect("s1", null);
+        Map<String, Object> compact = connect("s2", "compact");
+
+        assertThat(subscribe(json, "s1", "sub-0", "/topic/beds")).isEqualTo("/topic/beds");
+        assertThat(subscribe(compact, "s2", "sub-0", "/topic/sos")).isEqualTo("/topic/sos");
+        assertThat(subscribe(compact, "s2", "sub-1", "/topic/hospitals/42/beds"))
+                .isEqualTo("/topic/hospitals/42/beds");
+
+        assertThat(interceptor.hasCompactSubscribers("/topic/beds")).isFalse();
+        assertThat(interceptor.hasCompactSubscribers("/topic/sos")).isFalse();
+    }
+
+    @Test
+    void compactIsDowngradedOnAMultiNodeBrokerThatDoesNotPublishIt() {
+        WireFormatInterceptor optedOut = new WireFormatInterceptor("relay", false);
+        Map<String, Object> session = new HashMap<>();
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.CONNECT);
+        accessor.setSessionId("s1");
+        accessor.setSessionAttributes(session);
+        accessor.setNativeHeader(WireFormatInterceptor.WIRE_FORMAT_HEADER, "compact");
+        optedOut.preSend(MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders()), null);
+
+        // No compact session attribute, so its subscriptions stay on the JSON topics
+        assertThat(session).isEmpty();
+    }
+
+    @Test
+    void directCompactSubscriptionFromAJsonSessionIsCounted() {
+        Map<String, Object> session = connect("s1", null);
+
+        assertThat(subscribe(session, "s1", "sub-0", "/topic/reservations.bin"))
+                .isEqualTo("/topic/reservations.bin");
+
+        assertThat(interceptor.hasCompactSubscribers("/topic/reservations")).isTrue();
+    }
+
+    @Test
+    void unsubscribeAndDisconnectReleaseTheCount() {
+        Map<String, Object> first = connect("s1", "compact");
+        Map<String, Object> second = connect("s2", "compact");
+        subscribe(first, "s1", "sub-0", "/topic/ambulance");
+        subscribe(second, "s2", "sub-0", "/topic/ambulance");
+
+        send(StompCommand.UNSUBSCRIBE, first, "s1", "sub-0", null);
+        assertThat(interceptor.hasCompactSubscribers("/topic/ambulance")).isTrue();
+
+        send(StompCommand.DISCONNECT, second, "s2", null, null);
+        assertThat(interceptor.hasCompactSubscribers("/topic/ambulance")).isFalse();
+
+        // A repeated DISCONNECT must not drive the count negative
+        send(StompCommand.DISCONNECT, second, "s2", null, null);
+        subscribe(connect("s3", "compact"), "s3", "sub-0", "/topic/ambulance");
+        assertThat(interceptor.hasCompactSubscribers("/topic/ambulance")).isTrue();
+    }
+
+    private Map<String, Object> connect(String sessionId, String wireFormat) {
+        Map<String, Object> attributes = new HashMap<>();
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.CONNECT);
+        accessor.setSessionId(sessionId);
+        accessor.setSessionAttributes(attributes);
+        if (wireFormat != null) {
+            accessor.setNativeHeader(WireFormatInterceptor.WIRE_FORMAT_HEADER, wireFormat);
+        }
+        interceptor.preSend(MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders()), null);
+        return attributes;
+    }
+
+    private String subscribe(Map<String, Object> session, String sessionId, String subscriptionId,
+            String destination) {
+        Message<?> message = send(StompCommand.SUBSCRIBE, session, sessionId, subscriptionId, destination);
+        return StompHeaderAccessor.wrap(message).getDestination();
+    }
+
+    private Message<?> send(StompCommand command, Map<String, Object> session, String sessionId,
+            String subscriptionId, String destination) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(command);
+        accessor.setSessionId(sessionId);
+        accessor.setSessionAttributes(session);
+        accessor.setSubscriptionId(subscriptionId);
+        accessor.setDestination(destination);
+        accessor.setLeaveMutable(true);
+        return interceptor.preSend(MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders()), null);
+    }
+}
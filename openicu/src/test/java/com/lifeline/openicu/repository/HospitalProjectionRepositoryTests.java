@@ -0,0 +1,63 @@
+package com.lifeline.openicu.repository;
+
+import com.lifeline.openicu.dto.HospitalListDTO;
+import com.lifeline.openicu.dto.HospitalSummaryDTO;
+import com.lifeline.openicu.entity.Hospital;
+import com.lifeline.openicu.specification.HospitalSpecification;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class HospitalProjectionRepositoryTests {
+
+    @Autowired
+    private HospitalRepository hospitalRepository;
+
+    @Test
+    void projectedPagesHonourSpecificationSortAndPaging() {
+        String district = "District-" + UUID.randomUUID();
+        for (String name : new String[] { "Charlie", "Alpha", "Bravo" }) {
+            hospitalRepository.save(hospital(name, district));
+        }
+
+        Page<HospitalListDTO> page = hospitalRepository.findAllProjected(
+                HospitalSpecification.hasDistrict(district),
+                PageRequest.of(0, 2, Sort.by("name")),
+                HospitalListDTO.class);
+
+        assertThat(page.getTotalElements()).isEqualTo(3);
+        assertThat(page.getContent()).extracting(HospitalListDTO::getName).containsExactly("Alpha", "Bravo");
+        assertThat(page.getContent().get(0).getLatitude()).isEqualTo(12.97);
+    }
+
+    @Test
+    void summaryByIdCarriesSummaryColumns() {
+        Hospital saved = hospitalRepository.save(hospital("Delta", "District-" + UUID.randomUUID()));
+
+        HospitalSummaryDTO summary = hospitalRepository.findProjectedById(saved.getId(), HospitalSummaryDTO.class)
+                .orElseThrow();
+
+        assertThat(summary.getName()).isEqualTo("Delta");
+        assertThat(summary.getTotalNumBeds()).isEqualTo(120);
+        assertThat(hospitalRepository.findProjectedById(-1L, HospitalSummaryDTO.class)).isEmpty();
+    }
+
+    private Hospital hospital(String name, String district) {
+        Hospital hospital = new Hospital();
+        hospital.setName(name);
+        hospital.setDistrict(district);
+        hospital.setState("Karnataka");
+        hospital.setLatitude(12.97);
+        hospital.setLongitude(77.59);
+        hospital.setTotalNumBeds(120);
+        return hospital;
+    }
+}
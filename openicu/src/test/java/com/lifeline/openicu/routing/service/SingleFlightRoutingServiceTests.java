@@ -0,0 +1,121 @@
+package com.lifeline.openicu.routing.service;
+
+import com.lifeline.openicu.routing.dto.RouteResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SingleFlightRoutingServiceTests {
+
+    private static final int CALLERS = 16;
+
+    private final BlockingRoutingService upstream = new BlockingRoutingService();
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final SingleFlightRoutingService routing = new SingleFlightRoutingService(upstream, 4, 5000, registry);
+    private final ExecutorService callers = Executors.newFixedThreadPool(CALLERS);
+
+    @AfterEach
+    void shutdown() {
+        callers.shutdownNow();
+    }
+
+    @Test
+    void concurrentIdenticalLookupsShareOneUpstreamCall() throws Exception {
+        List<Future<RouteResponse>> results = new ArrayList<>();
+        for (int i = 0; i < CALLERS; i++) {
+            // Within the 4-decimal snap grid of each other
+            double jitter = i * 0.000001;
+            results.add(callers.submit(() -> routing.getRoute(28.6139 + jitter, 77.2090, 28.5672, 77.2100)));
+        }
+        awaitWaiters(CALLERS - 1);
+        upstream.release.countDown();
+
+        RouteResponse first = results.get(0).get(5, TimeUnit.SECONDS);
+        for (Future<RouteResponse> result : results) {
+            assertThat(result.get(5, TimeUnit.SECONDS)).isSameAs(first);
+        }
+        assertThat(upstream.calls.get()).isEqualTo(1);
+        assertThat(registry.get("openicu.routing.single_flight.calls").tag("result", "coalesced").counter().count())
+                .isEqualTo(CALLERS - 1);
+        assertThat(routing.getInFlightCount()).isZero();
+    }
+
+    @Test
+    void distinctRoutesAndProfilesAreNotCoalesced() {
+        upstream.release.countDown();
+
+        routing.getRoute(28.6139, 77.2090, 28.5672, 77.2100);
+        routing.getRoute(28.6139, 77.2090, 28.5672, 77.2100, "bike");
+        routing.getRoute(28.6200, 77.2090, 28.5672, 77.2100);
+        // Completed lookups are not cached
+        routing.getRoute(28.6139, 77.2090, 28.5672, 77.2100);
+
+        assertThat(upstream.calls.get()).isEqualTo(4);
+    }
+
+    @Test
+    void leaderFailureIsSharedWithWaitersAndNotRemembered() throws Exception {
+        upstream.failure = new IllegalStateException("upstream down");
+        List<Future<RouteResponse>> results = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            results.add(callers.submit(() -> routing.getRoute(28.6139, 77.2090, 28.5672, 77.2100)));
+        }
+        awaitWaiters(3);
+        upstream.release.countDown();
+
+        for (Future<RouteResponse> result : results) {
+            assertThatThrownBy(() -> result.get(5, TimeUnit.SECONDS)).hasRootCauseMessage("upstream down");
+        }
+        assertThat(upstream.calls.get()).isEqualTo(1);
+
+        upstream.failure = null;
+        assertThat(routing.getRoute(28.6139, 77.2090, 28.5672, 77.2100)).isNotNull();
+        assertThat(upstream.calls.get()).isEqualTo(2);
+    }
+
+    private void awaitWaiters(int waiters) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (registry.get("openicu.routing.single_flight.calls").tag("result", "coalesced").counter().count() < waiters
+                && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+
+    private static class BlockingRoutingService implements RoutingService {
+
+        final CountDownLatch release = new CountDownLatch(1);
+        final AtomicInteger calls = new AtomicInteger();
+        volatile RuntimeException failure;
+
+        @Override
+        public RouteResponse getRoute(double fromLat, double fromLon, double toLat, double toLon) {
+            return getRoute(fromLat, fromLon, toLat, toLon, "car");
+        }
+
+        @Override
+        public RouteResponse getRoute(double fromLat, double fromLon, double toLat, double toLon, String profile) {
+            calls.incrementAndGet();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (failure != null) {
+                throw failure;
+            }
+            return RoutingService.straightLine(fromLat, fromLon, toLat, toLon);
+        }
+    }
+}
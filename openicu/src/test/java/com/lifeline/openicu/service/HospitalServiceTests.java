@@ -0,0 +1,80 @@
+package com.lifeline.openicu.service;
+
+import com.lifeline.openicu.dto.HospitalResponseDTO;
+import com.lifeline.openicu.dto.HospitalSearchCriteria;
+import com.lifeline.openicu.dto.NearbyHospitalRequest;
+import com.lifeline.openicu.dto.NearbyHospitalResponse;
+import com.lifeline.openicu.entity.Hospital;
+import com.lifeline.openicu.repository.HospitalRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class HospitalServiceTests {
+
+    @Autowired
+    private HospitalService hospitalService;
+
+    @Autowired
+    private HospitalRepository hospitalRepository;
+
+    @Test
+    void nearbyFiltersBeforePagingAndReturnsFullRowsNearestFirst() {
+        // Remote spot so rows from other tests are out of range
+        double lat = -45.0;
+        double lon = 170.0;
+        Hospital near = hospitalRepository.save(hospital("Near", lat + 0.01, lon, 50, "Public"));
+        hospitalRepository.save(hospital("Small", lat + 0.02, lon, 5, "Public"));
+        Hospital far = hospitalRepository.save(hospital("Far", lat + 0.05, lon, 80, "Public"));
+        hospitalRepository.save(hospital("Private", lat + 0.03, lon, 90, "Private"));
+
+        NearbyHospitalRequest request = new NearbyHospitalRequest(lat, lon, 20.0, 10, "public", null);
+        Page<NearbyHospitalResponse> page = hospitalService.findNearbyHospitals(request, PageRequest.of(0, 10));
+
+        assertThat(page.getTotalElements()).isEqualTo(2);
+        assertThat(page.getContent()).extracting(NearbyHospitalResponse::getId)
+                .containsExactly(near.getId(), far.getId());
+        assertThat(page.getContent().get(0).getDistanceKm()).isBetween(1.0, 1.2);
+        assertThat(page.getContent().get(0).getAddress()).isEqualTo("Near road");
+
+        Page<NearbyHospitalResponse> second = hospitalService.findNearbyHospitals(request, PageRequest.of(1, 1));
+        assertThat(second.getContent()).extracting(NearbyHospitalResponse::getId).containsExactly(far.getId());
+    }
+
+    @Test
+    void likeWildcardsInSearchCriteriaMatchLiterally() {
+        hospitalRepository.save(hospital("Wildcard 100% Care", -46.0, 171.0, 10, "Public"));
+        hospitalRepository.save(hospital("Wildcard 1000 Care", -46.0, 171.1, 10, "Public"));
+        hospitalRepository.save(hospital("Wildcard A_B Clinic", -46.0, 171.2, 10, "Public"));
+        hospitalRepository.save(hospital("Wildcard AXB Clinic", -46.0, 171.3, 10, "Public"));
+
+        assertThat(namesMatching("wildcard 100%")).containsExactly("Wildcard 100% Care");
+        assertThat(namesMatching("a_b")).containsExactly("Wildcard A_B Clinic");
+    }
+
+    private List<String> namesMatching(String keyword) {
+        HospitalSearchCriteria criteria = new HospitalSearchCriteria();
+        criteria.setKeyword(keyword);
+        return hospitalService.searchHospitals(criteria, PageRequest.of(0, 10)).getContent().stream()
+                .map(HospitalResponseDTO::getName)
+                .toList();
+    }
+
+    private Hospital hospital(String name, double lat, double lon, int beds, String category) {
+        Hospital hospital = new Hospital();
+        hospital.setName(name);
+        hospital.setAddress(name + " road");
+        hospital.setLatitude(lat);
+        hospital.setLongitude(lon);
+        hospital.setTotalNumBeds(beds);
+        hospital.setHospitalCategory(category);
+        return hospital;
+    }
+}
@@ -0,0 +1,56 @@
+package com.lifeline.openicu.service;
+
+import com.lifeline.openicu.bed.entity.BedStatus;
+import com.lifeline.openicu.bed.entity.BedType;
+import com.lifeline.openicu.bed.event.BedChangedEvent;
+import com.lifeline.openicu.dto.HospitalStatsDTO;
+import com.lifeline.openicu.entity.Hospital;
+import com.lifeline.openicu.realtime.hospital.HospitalChangedEvent;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HospitalStatsEngineTests {
+
+    private final HospitalStatsEngine engine = new HospitalStatsEngine(null);
+
+    @Test
+    void hospitalEventsMoveCountsBetweenGroups() {
+        engine.onHospitalChanged(new HospitalChangedEvent(null, hospital("Kerala", "Kochi", "Public")));
+        engine.onHospitalChanged(new HospitalChangedEvent(null, hospital("Kerala", "Thrissur", null)));
+        HospitalStatsDTO before = engine.getStats();
+
+        engine.onHospitalChanged(new HospitalChangedEvent(
+                hospital("Kerala", "Kochi", "Public"), hospital("Goa", "North Goa", "Public")));
+        HospitalStatsDTO after = engine.getStats();
+
+        assertThat(before.getHospitalsByState()).containsEntry("Kerala", 2L);
+        assertThat(after.getTotalHospitals()).isEqualTo(2);
+        assertThat(after.getHospitalsByState()).containsEntry("Kerala", 1L).containsEntry("Goa", 1L);
+        assertThat(after.getHospitalsByDistrict()).doesNotContainKey("Kochi");
+        assertThat(after.getHospitalsByCategory()).containsEntry("Public", 1L).containsEntry("Unknown", 1L);
+    }
+
+    @Test
+    void bedEventsTrackTotalAndAvailableByType() {
+        engine.onBedChanged(new BedChangedEvent(1L, BedType.ICU, null, BedStatus.AVAILABLE));
+        engine.onBedChanged(new BedChangedEvent(1L, BedType.ICU, null, BedStatus.AVAILABLE));
+        engine.onBedChanged(new BedChangedEvent(1L, BedType.ICU, BedStatus.AVAILABLE, BedStatus.OCCUPIED));
+        engine.onBedChanged(new BedChangedEvent(1L, BedType.VENTILATOR, null, BedStatus.AVAILABLE));
+        engine.onBedChanged(new BedChangedEvent(1L, BedType.VENTILATOR, BedStatus.AVAILABLE, null));
+
+        HospitalStatsDTO stats = engine.getStats();
+
+        assertThat(stats.getBedsByType()).containsEntry("ICU", 2L).containsEntry("VENTILATOR", 0L);
+        assertThat(stats.getAvailableBedsByType()).containsEntry("ICU", 1L).containsEntry("VENTILATOR", 0L)
+                .containsEntry("GENERAL", 0L);
+    }
+
+    private Hospital hospital(String state, String district, String category) {
+        Hospital hospital = new Hospital();
+        hospital.setState(state);
+        hospital.setDistrict(district);
+        hospital.setHospitalCategory(category);
+        return hospital;
+    }
+}
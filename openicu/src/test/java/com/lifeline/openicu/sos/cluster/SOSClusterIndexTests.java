@@ -0,0 +1,45 @@
+package com.lifeline.openicu.sos.cluster;
+
+import com.lifeline.openicu.sos.entity.SOSReport;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class SOSClusterIndexTests {
+
+    private final SOSClusterIndex index = new SOSClusterIndex(0.05);
+
+    @Test
+    void reportsInTheSameCellAggregate() {
+        index.add(report(1L, 12.971, 77.591, "MEDICAL"));
+        index.add(report(2L, 12.973, 77.593, "FIRE"));
+        SOSCluster cluster = index.add(report(3L, 12.975, 77.595, "MEDICAL"));
+        index.add(report(4L, 13.500, 77.600, "MEDICAL"));
+
+        assertThat(cluster.getCount()).isEqualTo(3);
+        assertThat(cluster.getLatitude()).isCloseTo(12.973, within(1e-9));
+        assertThat(cluster.getEmergencyTypes()).containsEntry("MEDICAL", 2).containsEntry("FIRE", 1);
+        assertThat(index.clusters(2)).hasSize(1);
+        assertThat(index.clusters(1)).hasSize(2);
+    }
+
+    @Test
+    void removingReportsShrinksAndEmptiesClusters() {
+        index.add(report(1L, 12.971, 77.591, "MEDICAL"));
+        assertThat(index.add(report(1L, 12.971, 77.591, "MEDICAL"))).isNull();
+
+        SOSCluster cluster = index.remove(1L);
+
+        assertThat(cluster.getCount()).isZero();
+        assertThat(cluster.getEmergencyTypes()).isEmpty();
+        assertThat(index.remove(1L)).isNull();
+        assertThat(index.clusters(1)).isEmpty();
+    }
+
+    private SOSReport report(Long id, double latitude, double longitude, String type) {
+        SOSReport report = new SOSReport(latitude, longitude, type, null, 0L, null);
+        report.setId(id);
+        return report;
+    }
+}
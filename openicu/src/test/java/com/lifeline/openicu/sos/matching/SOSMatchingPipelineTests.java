@@ -0,0 +1,73 @@
+package com.lifeline.openicu.sos.matching;
+
+import com.lifeline.openicu.bed.entity.Bed;
+import com.lifeline.openicu.bed.entity.BedStatus;
+import com.lifeline.openicu.bed.entity.BedType;
+import com.lifeline.openicu.bed.repository.BedRepository;
+import com.lifeline.openicu.entity.Hospital;
+import com.lifeline.openicu.repository.HospitalRepository;
+import com.lifeline.openicu.sos.dto.SOSReportDTO;
+import com.lifeline.openicu.sos.dto.SOSSyncResultDTO;
+import com.lifeline.openicu.sos.entity.SOSSuggestion;
+import com.lifeline.openicu.sos.repository.SOSSuggestionRepository;
+import com.lifeline.openicu.sos.service.SOSService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+@SpringBootTest
+class SOSMatchingPipelineTests {
+
+    @Autowired
+    private SOSService sosService;
+
+    @Autowired
+    private HospitalRepository hospitalRepository;
+
+    @Autowired
+    private BedRepository bedRepository;
+
+    @Autowired
+    private SOSSuggestionRepository suggestionRepository;
+
+    @Test
+    void newReportsGetNearestHospitalsWithFreeBedsRanked() {
+        // Somewhere remote so other tests' hospitals don't interfere
+        Hospital near = hospital("Near", -40.00, 150.01);
+        Hospital far = hospital("Far", -40.00, 150.20);
+        Hospital noBeds = hospital("Full", -40.00, 150.005);
+        bedRepository.save(new Bed("N-1", near.getId(), BedType.ICU, BedStatus.AVAILABLE));
+        bedRepository.save(new Bed("N-2", near.getId(), BedType.ICU, BedStatus.AVAILABLE));
+        bedRepository.save(new Bed("F-1", far.getId(), BedType.ICU, BedStatus.AVAILABLE));
+        bedRepository.save(new Bed("X-1", noBeds.getId(), BedType.ICU, BedStatus.OCCUPIED));
+
+        SOSReportDTO dto = new SOSReportDTO();
+        dto.setLatitude(-40.0);
+        dto.setLongitude(150.0);
+        dto.setEmergencyType("MEDICAL");
+        dto.setOfflineId(UUID.randomUUID().toString());
+        SOSSyncResultDTO result = sosService.sync(dto);
+
+        await().atMost(Duration.ofSeconds(10)).untilAsserted(() ->
+                assertThat(suggestionRepository.findBySosReportIdOrderByRankAsc(result.getId())).hasSize(2));
+
+        List<SOSSuggestion> suggestions = suggestionRepository.findBySosReportIdOrderByRankAsc(result.getId());
+        assertThat(suggestions).extracting(SOSSuggestion::getHospitalId).containsExactly(near.getId(), far.getId());
+        assertThat(suggestions).extracting(SOSSuggestion::getAvailableBeds).containsExactly(2, 1);
+    }
+
+    private Hospital hospital(String name, double latitude, double longitude) {
+        Hospital hospital = new Hospital();
+        hospital.setName(name + " " + UUID.randomUUID());
+        hospital.setLatitude(latitude);
+        hospital.setLongitude(longitude);
+        return hospitalRepository.save(hospital);
+    }
+}
@@ -0,0 +1,144 @@
+package com.lifeline.openicu.sos.service;
+
+import com.lifeline.openicu.sos.dto.SOSQueryCriteria;
+import com.lifeline.openicu.sos.dto.SOSReportDTO;
+import com.lifeline.openicu.sos.dto.SOSReportPageDTO;
+import com.lifeline.openicu.sos.dto.SOSSyncResultDTO;
+import com.lifeline.openicu.sos.entity.SOSReport;
+import com.lifeline.openicu.sos.entity.SOSStatus;
+import com.lifeline.openicu.sos.exception.SOSReportNotFoundException;
+import com.lifeline.openicu.sos.exception.SOSStatusConflictException;
+import com.lifeline.openicu.sos.repository.SOSReportRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+class SOSServiceTests {
+
+    @Autowired
+    private SOSService sosService;
+
+    @Autowired
+    private SOSReportRepository sosRepository;
+
+    @Test
+    void batchSyncIsIdempotentPerOfflineId() {
+        String prefix = UUID.randomUUID().toString();
+        sosService.syncBatch(List.of(report(prefix + "-1")));
+
+        List<SOSSyncResultDTO> results = sosService.syncBatch(List.of(
+                report(prefix + "-1"),
+                report(prefix + "-2"),
+                report(prefix + "-2"),
+                report(null),
+                new SOSReportDTO()));
+
+        assertThat(results).extracting(SOSSyncResultDTO::getStatus).containsExactly(
+                SOSSyncResultDTO.ALREADY_SYNCED,
+                SOSSyncResultDTO.SYNCED,
+                SOSSyncResultDTO.ALREADY_SYNCED,
+                SOSSyncResultDTO.SYNCED,
+                SOSSyncResultDTO.REJECTED);
+        assertThat(results.get(1).getId()).isNotNull().isEqualTo(results.get(2).getId());
+        assertThat(results.get(3).getOfflineId()).isNotNull();
+        assertThat(sosRepository.findByOfflineId(prefix + "-2")).isPresent();
+    }
+
+    @Test
+    void singleSyncFallsBackToUniqueConstraintForIdsUnknownToTheIndex() {
+        String offlineId = UUID.randomUUID().toString();
+        // Inserted behind the index's back, as another node would
+        SOSReport other = sosRepository.save(new SOSReport(12.97, 77.59, "MEDICAL", null, 0L, offlineId));
+
+        SOSSyncResultDTO first = sosService.sync(report(offlineId));
+        SOSSyncResultDTO retry = sosService.sync(report(offlineId));
+
+        assertThat(first.getStatus()).isEqualTo(SOSSyncResultDTO.ALREADY_SYNCED);
+        assertThat(first.getId()).isEqualTo(other.getId());
+        assertThat(retry.getStatus()).isEqualTo(SOSSyncResultDTO.ALREADY_SYNCED);
+        assertThat(retry.getId()).isEqualTo(other.getId());
+    }
+
+    @Test
+    void batchThatLosesTheInsertRaceRollsBackAndReportsItsOwnRowsAsSynced() {
+        String prefix = UUID.randomUUID().toString();
+        // Inserted behind the index's back, as a concurrent sync on another node would;
+        // the batch only finds out when its insert hits the unique key after "-1"
+        SOSReport other = sosRepository.save(new SOSReport(12.97, 77.59, "MEDICAL", null, 0L, prefix + "-2"));
+
+        List<SOSSyncResultDTO> results = sosService.syncBatch(List.of(report(prefix + "-1"), report(prefix + "-2")));
+
+        // "-1" was only inserted by this call, so it must be reported (and streamed) as SYNCED
+        assertThat(results).extracting(SOSSyncResultDTO::getStatus)
+                .containsExactly(SOSSyncResultDTO.SYNCED, SOSSyncResultDTO.ALREADY_SYNCED);
+        assertThat(results.get(0).getId()).isEqualTo(sosRepository.findByOfflineId(prefix + "-1").orElseThrow().getId());
+        assertThat(results.get(1).getId()).isEqualTo(other.getId());
+    }
+
+    @Test
+    void keysetPagesWalkAllMatchingReportsNewestFirst() {
+        String type = "FLOOD-" + UUID.randomUUID();
+        List<SOSReportDTO> batch = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            SOSReportDTO dto = report(UUID.randomUUID().toString());
+            dto.setEmergencyType(type);
+            batch.add(dto);
+        }
+        sosService.syncBatch(batch);
+
+        SOSQueryCriteria criteria = new SOSQueryCriteria(SOSStatus.PENDING, type, null, null, 12.0, 13.0, 77.0, 78.0);
+        List<Long> seen = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            SOSReportPageDTO page = sosService.query(criteria, cursor, 3);
+            page.getItems().forEach(report -> seen.add(report.getId()));
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertThat(pages).isEqualTo(3);
+        assertThat(seen).hasSize(7).doesNotHaveDuplicates();
+    }
+
+    @Test
+    void statusTransitionsOnlyFromTheExpectedStatus() {
+        SOSReport saved = sosRepository.save(
+                new SOSReport(12.97, 77.59, "MEDICAL", null, 0L, UUID.randomUUID().toString()));
+
+        sosService.transitionStatus(saved.getId(), SOSStatus.ACKNOWLEDGED);
+
+        // A second dispatcher acknowledging the same report loses the race
+        assertThatThrownBy(() -> sosService.transitionStatus(saved.getId(), SOSStatus.ACKNOWLEDGED))
+                .isInstanceOf(SOSStatusConflictException.class);
+        assertThatThrownBy(() -> sosService.transitionStatus(saved.getId(), SOSStatus.RESOLVED))
+                .isInstanceOf(SOSStatusConflictException.class);
+        assertThatThrownBy(() -> sosService.transitionStatus(-1L, SOSStatus.ACKNOWLEDGED))
+                .isInstanceOf(SOSReportNotFoundException.class);
+
+        sosService.transitionStatus(saved.getId(), SOSStatus.DISPATCHED);
+
+        SOSReport reloaded = sosRepository.findById(saved.getId()).orElseThrow();
+        assertThat(reloaded.getStatus()).isEqualTo(SOSStatus.DISPATCHED);
+        assertThat(reloaded.getVersion()).isEqualTo(saved.getVersion() + 2);
+    }
+
+    private SOSReportDTO report(String offlineId) {
+        SOSReportDTO dto = new SOSReportDTO();
+        dto.setLatitude(12.97);
+        dto.setLongitude(77.59);
+        dto.setEmergencyType("MEDICAL");
+        dto.setMessage("Need help");
+        dto.setClientTimestamp(System.currentTimeMillis());
+        dto.setOfflineId(offlineId);
+        return dto;
+    }
+}
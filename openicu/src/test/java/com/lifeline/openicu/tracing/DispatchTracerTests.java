@@ -0,0 +1,75 @@
+package com.lifeline.openicu.tracing;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DispatchTracerTests {
+
+    private final DispatchTracer tracer = new DispatchTracer(3, 4);
+
+    @Test
+    void spansNestUnderTheTraceOpenOnTheThread() {
+        try (TraceScope trace = tracer.startTrace("dispatch")) {
+            try (TraceScope phase = tracer.span("bed_claim")) {
+                phase.tag("pass", 1);
+                try (TraceScope query = tracer.span("db.available_beds")) {
+                    query.tag("beds", 2);
+                }
+            }
+            try (TraceScope route = tracer.span("route")) {
+                route.tag("fallback", true);
+            }
+        }
+
+        DispatchTrace trace = tracer.recent(1).get(0);
+        assertThat(trace.getSpans()).extracting(TraceSpan::getName)
+                .containsExactly("dispatch", "bed_claim", "db.available_beds", "route");
+        assertThat(trace.getSpans()).extracting(TraceSpan::getDepth).containsExactly(0, 1, 2, 1);
+        assertThat(trace.getSpans().get(2).getTags()).containsEntry("beds", 2);
+        assertThat(trace.getDurationMillis()).isGreaterThanOrEqualTo(trace.getSpans().get(1).getDurationMillis());
+    }
+
+    @Test
+    void spansBeyondTheLimitAreCountedNotKept() {
+        try (TraceScope trace = tracer.startTrace("dispatch")) {
+            for (int i = 0; i < 5; i++) {
+                tracer.span("db.active_reservations").close();
+            }
+        }
+
+        DispatchTrace trace = tracer.recent(1).get(0);
+        assertThat(trace.getSpans()).hasSize(4);
+        assertThat(trace.getDroppedSpans()).isEqualTo(2);
+    }
+
+    @Test
+    void onlyTheMostRecentTracesAreRetainedAndSlowestComesFirst() throws InterruptedException {
+        for (int i = 0; i < 4; i++) {
+            try (TraceScope trace = tracer.startTrace("dispatch-" + i)) {
+                Thread.sleep(i == 2 ? 20 : 1);
+            }
+        }
+
+        List<DispatchTrace> slowest = tracer.slowest(10);
+        assertThat(slowest).hasSize(3);
+        assertThat(slowest.get(0).getName()).isEqualTo("dispatch-2");
+        assertThat(tracer.recent(10)).extracting(DispatchTrace::getName)
+                .containsExactly("dispatch-3", "dispatch-2", "dispatch-1");
+    }
+
+    @Test
+    void timedSpansRecordWithoutAnActiveTrace() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        Timer timer = registry.timer("openicu.dispatch.phase", "phase", "route");
+
+        tracer.span("route", timer).close();
+
+        assertThat(timer.count()).isEqualTo(1);
+        assertThat(tracer.recent(10)).isEmpty();
+    }
+}